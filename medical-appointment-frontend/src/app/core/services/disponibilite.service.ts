@@ -1,6 +1,7 @@
 import { Injectable } from '@angular/core';
 import { HttpClient, HttpParams } from '@angular/common/http';
 import { Observable } from 'rxjs';
+import { toutesLesPages } from './pagination';
 import { Disponibilite, StatutDisponibilite } from '../models/service-hopital-rdv-disponibite/service-hopital-rdv-disponibite.module';
 
 
@@ -13,7 +14,7 @@ export class DisponibiliteService {
   constructor(private http: HttpClient) {}
 
   getAllDisponibilites(): Observable<Disponibilite[]> {
-    return this.http.get<Disponibilite[]>(this.apiUrl);
+    return toutesLesPages<Disponibilite>(this.http, this.apiUrl);
   }
 
   getDisponibiliteById(id: number): Observable<Disponibilite> {
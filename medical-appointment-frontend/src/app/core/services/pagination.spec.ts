@@ -0,0 +1,34 @@
+import { TestBed } from '@angular/core/testing';
+import { HttpClient, provideHttpClient } from '@angular/common/http';
+import { HttpTestingController, provideHttpClientTesting } from '@angular/common/http/testing';
+
+import { toutesLesPages } from './pagination';
+
+describe('toutesLesPages', () => {
+  let http: HttpClient;
+  let httpMock: HttpTestingController;
+
+  beforeEach(() => {
+    TestBed.configureTestingModule({
+      providers: [provideHttpClient(), provideHttpClientTesting()]
+    });
+    http = TestBed.inject(HttpClient);
+    httpMock = TestBed.inject(HttpTestingController);
+  });
+
+  afterEach(() => httpMock.verify());
+
+  it('concatène les pages en suivant le curseur', () => {
+    let resultat: number[] = [];
+    toutesLesPages<number>(http, '/api/liste', 2).subscribe(elements => resultat = elements);
+
+    const premiere = httpMock.expectOne(req => req.url === '/api/liste' && !req.params.has('curseur'));
+    expect(premiere.request.params.get('taille')).toBe('2');
+    premiere.flush({ elements: [1, 2], curseurSuivant: 'c1', taille: 2, suivante: true });
+
+    const seconde = httpMock.expectOne(req => req.url === '/api/liste' && req.params.get('curseur') === 'c1');
+    seconde.flush({ elements: [3], curseurSuivant: null, taille: 1, suivante: false });
+
+    expect(resultat).toEqual([1, 2, 3]);
+  });
+});
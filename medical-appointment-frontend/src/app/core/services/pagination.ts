@@ -0,0 +1,39 @@
+import { HttpClient, HttpParams } from '@angular/common/http';
+import { EMPTY, Observable } from 'rxjs';
+import { expand, reduce } from 'rxjs/operators';
+
+/**
+ * Page d'une liste parcourue par curseur (PageCurseurDto côté API) :
+ * curseurSuivant est renvoyé tel quel pour obtenir la page suivante, null en fin de liste.
+ */
+export interface PageCurseur<T> {
+  elements: T[];
+  curseurSuivant: string | null;
+  taille: number;
+  suivante: boolean;
+}
+
+/** Taille maximale acceptée par l'API */
+export const TAILLE_PAGE_MAX = 200;
+
+/**
+ * Charge une page d'une liste paginée par curseur
+ */
+export function page<T>(http: HttpClient, url: string, curseur?: string | null,
+                        taille: number = TAILLE_PAGE_MAX): Observable<PageCurseur<T>> {
+  let params = new HttpParams().set('taille', taille);
+  if (curseur) {
+    params = params.set('curseur', curseur);
+  }
+  return http.get<PageCurseur<T>>(url, { params });
+}
+
+/**
+ * Parcourt toutes les pages d'une liste paginée par curseur et les concatène en un seul tableau
+ */
+export function toutesLesPages<T>(http: HttpClient, url: string, taille: number = TAILLE_PAGE_MAX): Observable<T[]> {
+  return page<T>(http, url, null, taille).pipe(
+    expand(p => p.suivante && p.curseurSuivant ? page<T>(http, url, p.curseurSuivant, taille) : EMPTY),
+    reduce((elements, p) => elements.concat(p.elements), [] as T[])
+  );
+}
@@ -1,6 +1,7 @@
 import { Injectable } from '@angular/core';
 import { HttpClient, HttpParams } from '@angular/common/http';
 import { Observable } from 'rxjs';
+import { toutesLesPages } from './pagination';
 import { Utilisateur, InscriptionPatient, AuthResponseDto, UtilisateurDetailDto } from '../models/utilisateur/utilisateur.module';
 
 
@@ -103,7 +104,7 @@ export class PatientService {
    * @returns Observable<PatientDto[]>
    */
   getPatients(): Observable<PatientDto[]> {
-    return this.http.get<PatientDto[]>(`${this.apiUrl}/patient/all`);
+    return toutesLesPages<PatientDto>(this.http, `${this.apiUrl}/patient/all`);
   }
 
   /**
@@ -1,6 +1,7 @@
 import { Injectable } from '@angular/core';
 import { HttpClient } from '@angular/common/http';
 import { Observable } from 'rxjs';
+import { PageCurseur, page, toutesLesPages } from './pagination';
 import { RendezVousRequest, RendezVous } from '../models/service-hopital-rdv-disponibite/service-hopital-rdv-disponibite.module';
 
 
@@ -13,7 +14,11 @@ export class RendezVousService {
   constructor(private http: HttpClient) {}
 
   getAllRendezVous(): Observable<RendezVous[]> {
-    return this.http.get<RendezVous[]>(this.apiUrl);
+    return toutesLesPages<RendezVous>(this.http, this.apiUrl);
+  }
+
+  getPageRendezVous(curseur?: string | null, taille?: number): Observable<PageCurseur<RendezVous>> {
+    return page<RendezVous>(this.http, this.apiUrl, curseur, taille);
   }
 
   getRendezVousById(id: number): Observable<RendezVous> {
@@ -37,7 +42,7 @@ getDisponibilitesParMedecinEtDate(idMedecin: number, date: string): Observable<a
   }
 
   getRendezVousByMedecin(idMedecin: number): Observable<RendezVous[]> {
-    return this.http.get<RendezVous[]>(`${this.apiUrl}/medecin/${idMedecin}`);
+    return toutesLesPages<RendezVous>(this.http, `${this.apiUrl}/medecin/${idMedecin}`);
   }
 
   getRendezVousDuJour(): Observable<RendezVous[]> {
@@ -82,13 +87,13 @@ createRendezVous(rdvData: RendezVousRequest): Observable<RendezVous> {
     return this.http.patch<RendezVous>(`${this.apiUrl}/${id}/terminer`, {});
   }
   getRendezVousByService(idService: number): Observable<RendezVous[]> {
-  return this.http.get<RendezVous[]>(`${this.apiUrl}/service/${idService}`);
+  return toutesLesPages<RendezVous>(this.http, `${this.apiUrl}/service/${idService}`);
 }
 getRendezVousByHopital(idHopital: number): Observable<RendezVous[]> {
-  return this.http.get<RendezVous[]>(`${this.apiUrl}/hopital/${idHopital}`);
+  return toutesLesPages<RendezVous>(this.http, `${this.apiUrl}/hopital/${idHopital}`);
 }
 getRendezVousByStatut(statut: string): Observable<RendezVous[]> {
-  return this.http.get<RendezVous[]>(`${this.apiUrl}/statut/${statut}`);
+  return toutesLesPages<RendezVous>(this.http, `${this.apiUrl}/statut/${statut}`);
 }
 getRendezVousByUrgence(niveauUrgence: string): Observable<RendezVous[]> {
   return this.http.get<RendezVous[]>(`${this.apiUrl}/urgence/${niveauUrgence}`);
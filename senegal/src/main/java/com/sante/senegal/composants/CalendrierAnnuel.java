@@ -0,0 +1,111 @@
+package com.sante.senegal.composants;
+
+import com.sante.senegal.entities.JourFerie;
+
+import java.time.DayOfWeek;
+import java.time.LocalDate;
+import java.time.Year;
+import java.util.*;
+
+/**
+ * Calendrier immuable d'une année, un bit par jour (index = jour de l'année - 1) :
+ * week-ends, jours fériés tous périmètres confondus, jours fériés non régionaux et jours fériés de chaque région.
+ * Construit une fois à partir des jours fériés en base, il n'est jamais modifié : on en construit un nouveau.
+ */
+public final class CalendrierAnnuel {
+
+    private final int annee;
+    private final BitSet weekends;
+    private final BitSet feries;
+    private final BitSet feriesNationaux;
+    private final Map<String, BitSet> feriesRegionaux;
+
+    private CalendrierAnnuel(int annee, BitSet weekends, BitSet feries, BitSet feriesNationaux,
+                             Map<String, BitSet> feriesRegionaux) {
+        this.annee = annee;
+        this.weekends = weekends;
+        this.feries = feries;
+        this.feriesNationaux = feriesNationaux;
+        this.feriesRegionaux = feriesRegionaux;
+    }
+
+    /**
+     * Seuls les jours fériés qui affectent les disponibilités sont retenus, comme pour les requêtes qu'il remplace
+     */
+    public static CalendrierAnnuel construire(int annee, Collection<JourFerie> joursFeries) {
+        int jours = Year.of(annee).length();
+        BitSet weekends = new BitSet(jours);
+        LocalDate date = LocalDate.ofYearDay(annee, 1);
+        for (int i = 0; i < jours; i++, date = date.plusDays(1)) {
+            if (date.getDayOfWeek() == DayOfWeek.SATURDAY || date.getDayOfWeek() == DayOfWeek.SUNDAY) {
+                weekends.set(i);
+            }
+        }
+
+        BitSet feries = new BitSet(jours);
+        BitSet feriesNationaux = new BitSet(jours);
+        Map<String, BitSet> feriesRegionaux = new HashMap<>();
+        for (JourFerie jourFerie : joursFeries) {
+            if (!Boolean.TRUE.equals(jourFerie.getAffecteDisponibilites()) || jourFerie.getDate().getYear() != annee) {
+                continue;
+            }
+            int index = jourFerie.getDate().getDayOfYear() - 1;
+            feries.set(index);
+            if (jourFerie.getType() == JourFerie.TypeJourFerie.REGIONAL && jourFerie.getRegion() != null) {
+                feriesRegionaux.computeIfAbsent(cleRegion(jourFerie.getRegion()), r -> new BitSet(jours)).set(index);
+            } else {
+                feriesNationaux.set(index);
+            }
+        }
+        return new CalendrierAnnuel(annee, weekends, feries, feriesNationaux, Map.copyOf(feriesRegionaux));
+    }
+
+    public int getAnnee() {
+        return annee;
+    }
+
+    public boolean estWeekend(LocalDate date) {
+        return weekends.get(index(date));
+    }
+
+    /**
+     * Jour férié, quel que soit son périmètre
+     */
+    public boolean estFerie(LocalDate date) {
+        return feries.get(index(date));
+    }
+
+    /**
+     * Jour férié national, ou régional pour la région donnée
+     */
+    public boolean estFerie(LocalDate date, String region) {
+        int index = index(date);
+        if (feriesNationaux.get(index)) {
+            return true;
+        }
+        BitSet regionaux = region != null ? feriesRegionaux.get(cleRegion(region)) : null;
+        return regionaux != null && regionaux.get(index);
+    }
+
+    /**
+     * Jour ouvré : ni week-end, ni férié pour la région
+     */
+    public boolean estOuvre(LocalDate date, String region) {
+        return !estWeekend(date) && !estFerie(date, region);
+    }
+
+    public int nombreFeries() {
+        return feries.cardinality();
+    }
+
+    private int index(LocalDate date) {
+        if (date.getYear() != annee) {
+            throw new IllegalArgumentException("Date " + date + " hors du calendrier " + annee);
+        }
+        return date.getDayOfYear() - 1;
+    }
+
+    private static String cleRegion(String region) {
+        return region.trim().toLowerCase(Locale.ROOT);
+    }
+}
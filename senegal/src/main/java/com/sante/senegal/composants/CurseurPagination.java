@@ -0,0 +1,112 @@
+package com.sante.senegal.composants;
+
+import com.sante.senegal.dto.PageCurseurDto;
+import jakarta.validation.ValidationException;
+import org.springframework.data.domain.PageRequest;
+import org.springframework.data.domain.Pageable;
+
+import java.nio.charset.StandardCharsets;
+import java.time.LocalDate;
+import java.time.LocalDateTime;
+import java.util.Arrays;
+import java.util.Base64;
+import java.util.List;
+import java.util.function.Function;
+import java.util.function.Supplier;
+import java.util.stream.Collectors;
+
+/**
+ * Pagination par clé (keyset) : le curseur est la clé de tri du dernier élément renvoyé,
+ * encodée en Base64 URL, et la page suivante repart strictement après cette clé.
+ * Une ligne de plus que la taille demandée est lue pour savoir s'il reste une page.
+ */
+public final class CurseurPagination {
+
+    public static final int TAILLE_DEFAUT = 50;
+    public static final int TAILLE_MAX = 200;
+
+    /** Borne basse utilisée pour la première page, antérieure à toute donnée */
+    public static final LocalDateTime DEBUT_DATE_HEURE = LocalDateTime.of(1900, 1, 1, 0, 0);
+    public static final LocalDate DEBUT_DATE = DEBUT_DATE_HEURE.toLocalDate();
+
+    private static final String SEPARATEUR = "|";
+
+    private CurseurPagination() {
+    }
+
+    public static int taille(Integer demandee) {
+        if (demandee == null) {
+            return TAILLE_DEFAUT;
+        }
+        if (demandee < 1) {
+            throw new ValidationException("La taille de page doit être positive");
+        }
+        return Math.min(demandee, TAILLE_MAX);
+    }
+
+    /**
+     * Requête limitée à taille + 1 lignes, le tri étant porté par la requête elle-même
+     */
+    public static Pageable limite(int taille) {
+        return PageRequest.of(0, taille + 1);
+    }
+
+    public static String encoder(Object... valeurs) {
+        String brut = Arrays.stream(valeurs).map(String::valueOf).collect(Collectors.joining(SEPARATEUR));
+        return Base64.getUrlEncoder().withoutPadding().encodeToString(brut.getBytes(StandardCharsets.UTF_8));
+    }
+
+    /**
+     * Décode un curseur ; null pour la première page
+     */
+    public static String[] decoder(String curseur, int nombreValeurs) {
+        if (curseur == null || curseur.isBlank()) {
+            return null;
+        }
+        try {
+            String brut = new String(Base64.getUrlDecoder().decode(curseur), StandardCharsets.UTF_8);
+            String[] valeurs = brut.split("\\" + SEPARATEUR, -1);
+            if (valeurs.length != nombreValeurs) {
+                throw new ValidationException("Curseur de pagination invalide");
+            }
+            return valeurs;
+        } catch (IllegalArgumentException e) {
+            throw new ValidationException("Curseur de pagination invalide");
+        }
+    }
+
+    public static LocalDateTime dateHeure(String[] valeurs, int index) {
+        return valeurs == null ? DEBUT_DATE_HEURE : parser(() -> LocalDateTime.parse(valeurs[index]));
+    }
+
+    public static LocalDate date(String[] valeurs, int index) {
+        return valeurs == null ? DEBUT_DATE : parser(() -> LocalDate.parse(valeurs[index]));
+    }
+
+    public static Long identifiant(String[] valeurs, int index) {
+        return valeurs == null ? 0L : parser(() -> Long.parseLong(valeurs[index]));
+    }
+
+    /**
+     * Construit la page à partir des taille + 1 lignes lues
+     */
+    public static <E, D> PageCurseurDto<D> page(List<E> lignes, int taille,
+                                                Function<E, D> conversion, Function<E, String> curseur) {
+        boolean suivante = lignes.size() > taille;
+        List<E> retenues = suivante ? lignes.subList(0, taille) : lignes;
+        return PageCurseurDto.<D>builder()
+                .elements(retenues.stream().map(conversion).toList())
+                .curseurSuivant(suivante ? curseur.apply(retenues.get(retenues.size() - 1)) : null)
+                .taille(retenues.size())
+                .suivante(suivante)
+                .build();
+    }
+
+    private static <T> T parser(Supplier<T> lecture) {
+        try {
+            return lecture.get();
+        } catch (RuntimeException e) {
+            throw new ValidationException("Curseur de pagination invalide");
+        }
+    }
+}
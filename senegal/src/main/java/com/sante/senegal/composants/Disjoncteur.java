@@ -0,0 +1,67 @@
+package com.sante.senegal.composants;
+
+import java.time.Duration;
+
+/**
+ * Disjoncteur (circuit breaker) : après seuilEchecs échecs consécutifs, le circuit s'ouvre et les appels
+ * sont refusés sans toucher le réseau pendant dureeOuverture ; un seul appel d'essai est ensuite autorisé,
+ * qui referme le circuit s'il réussit ou le rouvre s'il échoue.
+ */
+public final class Disjoncteur {
+
+    public enum Etat {
+        FERME, OUVERT, SEMI_OUVERT
+    }
+
+    private final int seuilEchecs;
+    private final long dureeOuvertureNanos;
+    private Etat etat = Etat.FERME;
+    private int echecsConsecutifs;
+    private long ouvertureNanos;
+    private boolean essaiEnCours;
+
+    public Disjoncteur(int seuilEchecs, Duration dureeOuverture) {
+        if (seuilEchecs < 1) {
+            throw new IllegalArgumentException("Le seuil d'échecs doit être au moins 1");
+        }
+        this.seuilEchecs = seuilEchecs;
+        this.dureeOuvertureNanos = dureeOuverture.toNanos();
+    }
+
+    /**
+     * Indique si un appel peut partir ; l'appelant doit ensuite signaler succes() ou echec()
+     */
+    public synchronized boolean autoriser() {
+        if (etat == Etat.OUVERT && System.nanoTime() - ouvertureNanos >= dureeOuvertureNanos) {
+            etat = Etat.SEMI_OUVERT;
+            essaiEnCours = false;
+        }
+        if (etat == Etat.SEMI_OUVERT) {
+            if (essaiEnCours) {
+                return false;
+            }
+            essaiEnCours = true;
+            return true;
+        }
+        return etat == Etat.FERME;
+    }
+
+    public synchronized void succes() {
+        etat = Etat.FERME;
+        echecsConsecutifs = 0;
+        essaiEnCours = false;
+    }
+
+    public synchronized void echec() {
+        echecsConsecutifs++;
+        if (etat == Etat.SEMI_OUVERT || echecsConsecutifs >= seuilEchecs) {
+            etat = Etat.OUVERT;
+            ouvertureNanos = System.nanoTime();
+            essaiEnCours = false;
+        }
+    }
+
+    public synchronized Etat getEtat() {
+        return etat;
+    }
+}
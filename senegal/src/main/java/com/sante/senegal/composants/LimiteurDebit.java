@@ -0,0 +1,49 @@
+package com.sante.senegal.composants;
+
+import java.time.Duration;
+
+/**
+ * Limiteur de débit à seau de jetons : au plus debitParSeconde acquisitions par seconde en régime établi,
+ * avec des rafales d'une seconde de débit. L'appelant attend (sans verrou) le temps nécessaire.
+ */
+public final class LimiteurDebit {
+
+    private final double debitParSeconde;
+    private final double capacite;
+    private double jetons;
+    private long derniereRecharge = System.nanoTime();
+
+    public LimiteurDebit(double debitParSeconde) {
+        if (debitParSeconde <= 0) {
+            throw new IllegalArgumentException("Le débit doit être strictement positif");
+        }
+        this.debitParSeconde = debitParSeconde;
+        this.capacite = Math.max(1.0, debitParSeconde);
+        this.jetons = capacite;
+    }
+
+    /**
+     * Prend un jeton, en attendant si le seau est vide
+     */
+    public void acquerir() {
+        long attenteNanos;
+        synchronized (this) {
+            long maintenant = System.nanoTime();
+            jetons = Math.min(capacite, jetons + (maintenant - derniereRecharge) * debitParSeconde / 1e9);
+            derniereRecharge = maintenant;
+            jetons -= 1;
+            attenteNanos = jetons >= 0 ? 0 : (long) (-jetons / debitParSeconde * 1e9);
+        }
+        if (attenteNanos > 0) {
+            try {
+                Thread.sleep(Duration.ofNanos(attenteNanos));
+            } catch (InterruptedException e) {
+                Thread.currentThread().interrupt();
+            }
+        }
+    }
+
+    public double getDebitParSeconde() {
+        return debitParSeconde;
+    }
+}
@@ -0,0 +1,62 @@
+package com.sante.senegal.composants;
+
+import com.fasterxml.jackson.core.JsonGenerator;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import com.fasterxml.jackson.databind.ObjectWriter;
+import com.fasterxml.jackson.databind.SerializationFeature;
+import lombok.RequiredArgsConstructor;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.http.MediaType;
+import org.springframework.http.ResponseEntity;
+import org.springframework.stereotype.Component;
+import org.springframework.web.servlet.mvc.method.annotation.StreamingResponseBody;
+
+import java.io.IOException;
+import java.io.UncheckedIOException;
+import java.util.function.Consumer;
+
+/**
+ * Réponses NDJSON (application/x-ndjson) : un objet JSON par ligne, écrit dès qu'il est produit.
+ * Le producteur s'exécute sur le thread de la requête asynchrone, dans sa propre transaction.
+ */
+@Component
+@RequiredArgsConstructor
+@Slf4j
+public class ReponseNdjson {
+
+    private static final int LIGNES_PAR_ENVOI = 200;
+
+    private final ObjectMapper objectMapper;
+
+    public <T> ResponseEntity<StreamingResponseBody> flux(Consumer<Consumer<T>> producteur) {
+        StreamingResponseBody corps = sortie -> {
+            JsonGenerator generateur = objectMapper.getFactory().createGenerator(sortie);
+            generateur.disable(JsonGenerator.Feature.AUTO_CLOSE_TARGET);
+            // Pas d'espace entre deux valeurs racines : chaque ligne commence par son objet
+            generateur.setRootValueSeparator(null);
+            ObjectWriter ecrivain = objectMapper.writer().without(SerializationFeature.FLUSH_AFTER_WRITE_VALUE);
+            long[] lignes = {0};
+            try {
+                producteur.accept(element -> {
+                    try {
+                        ecrivain.writeValue(generateur, element);
+                        generateur.writeRaw('\n');
+                        // Première ligne envoyée immédiatement, puis par paquets
+                        if (++lignes[0] == 1 || lignes[0] % LIGNES_PAR_ENVOI == 0) {
+                            generateur.flush();
+                        }
+                    } catch (IOException e) {
+                        throw new UncheckedIOException(e);
+                    }
+                });
+                generateur.flush();
+            } catch (UncheckedIOException e) {
+                log.warn("Flux NDJSON interrompu après {} lignes: {}", lignes[0], e.getMessage());
+                throw e.getCause();
+            }
+        };
+        return ResponseEntity.ok()
+                .contentType(MediaType.APPLICATION_NDJSON)
+                .body(corps);
+    }
+}
@@ -0,0 +1,203 @@
+package com.sante.senegal.composants;
+
+import com.sante.senegal.dto.MetriquesTransportEmailDto;
+import jakarta.annotation.PreDestroy;
+import jakarta.mail.MessagingException;
+import jakarta.mail.Transport;
+import jakarta.mail.internet.MimeMessage;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.mail.MailPreparationException;
+import org.springframework.mail.MailSendException;
+import org.springframework.mail.javamail.JavaMailSenderImpl;
+import org.springframework.mail.javamail.MimeMessageHelper;
+import org.springframework.stereotype.Component;
+
+import java.util.concurrent.*;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.concurrent.atomic.AtomicLong;
+
+/**
+ * Remise des e-mails au serveur SMTP, réservée aux envoyeurs en arrière-plan
+ * (le code métier passe par EmailService, qui écrit dans la boîte d'envoi).
+ * <p>
+ * Un exécuteur dédié de taille fixe garde une session SMTP authentifiée par thread au plus :
+ * une session sert jusqu'à messages-par-session envois, la poignée de main TLS et l'authentification
+ * ne sont donc plus payées à chaque message. Une session en erreur ou inactive trop longtemps est refermée.
+ * La file de l'exécuteur est bornée : quand elle est pleine, l'appelant attend (contre-pression).
+ */
+@Component
+@Slf4j
+public class TransportEmail {
+
+    private final JavaMailSenderImpl mailSender;
+    private final int capaciteFile;
+    private final int messagesParSession;
+    private final long inactiviteMaxNanos;
+    private final ThreadPoolExecutor executeur;
+    private final BlockingQueue<SessionSmtp> sessionsLibres = new LinkedBlockingQueue<>();
+
+    private final AtomicInteger sessionsOuvertes = new AtomicInteger();
+    private final AtomicLong connexions = new AtomicLong();
+    private final AtomicLong envoyes = new AtomicLong();
+    private final AtomicLong echecs = new AtomicLong();
+    private final AtomicLong cumulLatenceNanos = new AtomicLong();
+    private final AtomicLong latenceMaxNanos = new AtomicLong();
+
+    public TransportEmail(JavaMailSenderImpl mailSender,
+                          @Value("${notification.transport.sessions:4}") int sessions,
+                          @Value("${notification.transport.capacite-file:1000}") int capaciteFile,
+                          @Value("${notification.transport.messages-par-session:200}") int messagesParSession,
+                          @Value("${notification.transport.inactivite-max-secondes:60}") long inactiviteMaxSecondes) {
+        this.mailSender = mailSender;
+        this.capaciteFile = capaciteFile;
+        this.messagesParSession = messagesParSession;
+        this.inactiviteMaxNanos = TimeUnit.SECONDS.toNanos(inactiviteMaxSecondes);
+        AtomicInteger numero = new AtomicInteger();
+        this.executeur = new ThreadPoolExecutor(sessions, sessions, 0L, TimeUnit.MILLISECONDS,
+                new ArrayBlockingQueue<>(capaciteFile),
+                tache -> new Thread(tache, "transport-smtp-" + numero.incrementAndGet()),
+                (tache, executeur) -> {
+                    try {
+                        executeur.getQueue().put(tache);
+                    } catch (InterruptedException e) {
+                        Thread.currentThread().interrupt();
+                        throw new RejectedExecutionException("Envoi interrompu en attente de place dans la file", e);
+                    }
+                });
+    }
+
+    /**
+     * Remet un e-mail et attend le résultat
+     */
+    public void envoyer(String destinataire, String sujet, String corps, boolean html) {
+        try {
+            envoyerAsync(destinataire, sujet, corps, html).join();
+        } catch (CompletionException e) {
+            if (e.getCause() instanceof RuntimeException cause) {
+                throw cause;
+            }
+            throw e;
+        }
+    }
+
+    /**
+     * Place un e-mail dans la file du transport ; le futur se termine une fois le message accepté par le serveur
+     */
+    public CompletableFuture<Void> envoyerAsync(String destinataire, String sujet, String corps, boolean html) {
+        MimeMessage message;
+        try {
+            message = construire(destinataire, sujet, corps, html);
+        } catch (MailPreparationException e) {
+            echecs.incrementAndGet();
+            return CompletableFuture.failedFuture(e);
+        }
+        return CompletableFuture.runAsync(() -> remettre(message), executeur);
+    }
+
+    public MetriquesTransportEmailDto getMetriques() {
+        long total = envoyes.get() + echecs.get();
+        return MetriquesTransportEmailDto.builder()
+                .tailleFile(executeur.getQueue().size())
+                .capaciteFile(capaciteFile)
+                .envoisEnCours(executeur.getActiveCount())
+                .sessionsOuvertes(sessionsOuvertes.get())
+                .sessionsLibres(sessionsLibres.size())
+                .connexions(connexions.get())
+                .envoyes(envoyes.get())
+                .echecs(echecs.get())
+                .latenceMoyenneMs(total == 0 ? 0 : cumulLatenceNanos.get() / 1_000_000.0 / total)
+                .latenceMaxMs(latenceMaxNanos.get() / 1_000_000.0)
+                .build();
+    }
+
+    @PreDestroy
+    public void arreter() throws InterruptedException {
+        executeur.shutdown();
+        if (!executeur.awaitTermination(30, TimeUnit.SECONDS)) {
+            log.warn("Transport SMTP arrêté avec {} e-mails encore en file", executeur.shutdownNow().size());
+        }
+        SessionSmtp session;
+        while ((session = sessionsLibres.poll()) != null) {
+            fermer(session);
+        }
+    }
+
+    private MimeMessage construire(String destinataire, String sujet, String corps, boolean html) {
+        try {
+            MimeMessage message = mailSender.createMimeMessage();
+            MimeMessageHelper helper = new MimeMessageHelper(message, html, "UTF-8");
+            helper.setTo(destinataire);
+            helper.setSubject(sujet);
+            helper.setText(corps, html);
+            message.saveChanges();
+            return message;
+        } catch (MessagingException e) {
+            throw new MailPreparationException("Message invalide pour " + destinataire, e);
+        }
+    }
+
+    private void remettre(MimeMessage message) {
+        long debut = System.nanoTime();
+        SessionSmtp session = null;
+        try {
+            session = obtenirSession();
+            session.transport.sendMessage(message, message.getAllRecipients());
+            session.envoyes++;
+            envoyes.incrementAndGet();
+            rendre(session);
+        } catch (MessagingException e) {
+            echecs.incrementAndGet();
+            // Session dans un état inconnu après une erreur : elle n'est pas réutilisée
+            if (session != null) {
+                fermer(session);
+            }
+            throw new MailSendException("Échec de la remise SMTP: " + e.getMessage(), e);
+        } finally {
+            long latence = System.nanoTime() - debut;
+            cumulLatenceNanos.addAndGet(latence);
+            latenceMaxNanos.accumulateAndGet(latence, Math::max);
+        }
+    }
+
+    private SessionSmtp obtenirSession() throws MessagingException {
+        SessionSmtp session;
+        while ((session = sessionsLibres.poll()) != null) {
+            if (session.envoyes < messagesParSession && System.nanoTime() - session.dernierUsage < inactiviteMaxNanos
+                    && session.transport.isConnected()) {
+                return session;
+            }
+            fermer(session);
+        }
+        String protocole = mailSender.getProtocol() != null ? mailSender.getProtocol() : "smtp";
+        Transport transport = mailSender.getSession().getTransport(protocole);
+        transport.connect(mailSender.getHost(), mailSender.getPort(), mailSender.getUsername(), mailSender.getPassword());
+        sessionsOuvertes.incrementAndGet();
+        connexions.incrementAndGet();
+        return new SessionSmtp(transport);
+    }
+
+    private void rendre(SessionSmtp session) {
+        session.dernierUsage = System.nanoTime();
+        sessionsLibres.offer(session);
+    }
+
+    private void fermer(SessionSmtp session) {
+        sessionsOuvertes.decrementAndGet();
+        try {
+            session.transport.close();
+        } catch (MessagingException e) {
+            log.debug("Fermeture de session SMTP: {}", e.getMessage());
+        }
+    }
+
+    private static final class SessionSmtp {
+        private final Transport transport;
+        private int envoyes;
+        private long dernierUsage = System.nanoTime();
+
+        private SessionSmtp(Transport transport) {
+            this.transport = transport;
+        }
+    }
+}
@@ -16,16 +16,19 @@ public class CalendrierHealthCheck {
         this.calendrierService = calendrierService;
     }
 
+    /**
+     * Vérification en arrière-plan : le démarrage n'attend jamais le réseau
+     */
     @EventListener(ApplicationReadyEvent.class)
     public void checkApiConnectivity() {
         log.info("Vérification de la connectivité avec Date Nager API...");
 
-        boolean isConnected = calendrierService.testerConnectivite();
-
-        if (isConnected) {
-            log.info("✅ Connectivité Date Nager API: OK");
-        } else {
-            log.warn("❌ Connectivité Date Nager API: ÉCHEC - Utilisation des données par défaut");
-        }
+        calendrierService.testerConnectivite().thenAccept(isConnected -> {
+            if (isConnected) {
+                log.info("✅ Connectivité Date Nager API: OK");
+            } else {
+                log.warn("❌ Connectivité Date Nager API: ÉCHEC - Utilisation du cache ou des données par défaut");
+            }
+        });
     }
 }
\ No newline at end of file
@@ -1,37 +1,66 @@
 package com.sante.senegal.config;
 
-import com.sante.senegal.dto.DateNagerCountry;
-import com.sante.senegal.dto.DateNagerCountryInfo;
 import com.sante.senegal.dto.DateNagerHoliday;
+import com.sante.senegal.dto.ImpactCalendrierDto;
 import com.sante.senegal.entities.JourFerie;
 import com.sante.senegal.repositories.JourFerieRepository;
+import com.sante.senegal.services.implementations.CalendrierJoursOuvresService;
+import com.sante.senegal.services.implementations.ImpactCalendrierService;
+import com.sante.senegal.services.implementations.RegistreJoursFeriesService;
 import lombok.extern.slf4j.Slf4j;
 import org.springframework.scheduling.annotation.Scheduled;
 import org.springframework.stereotype.Service;
-import org.springframework.web.client.RestTemplate;
 
 import java.time.LocalDate;
 import java.util.*;
-import java.util.stream.Collectors;
+import java.util.concurrent.CompletableFuture;
 
+/**
+ * Jours fériés du Sénégal : synchronisés depuis Date Nager (client asynchrone, cache disque, disjoncteur),
+ * avec repli sur les jours fériés fixes embarqués si ni l'API ni le cache ne répondent.
+ */
 @Service
 @Slf4j
 public class DateNagerCalendrierService {
 
+    /**
+     * Jours fériés fixes du Sénégal (MM-jj), utilisés quand Date Nager est indisponible
+     */
+    public static final Map<String, String> JOURS_FERIES_FIXES_SENEGAL = Map.of(
+            "01-01", "Jour de l'An",
+            "04-04", "Fête de l'Indépendance",
+            "05-01", "Fête du Travail",
+            "08-15", "Assomption",
+            "11-01", "Toussaint",
+            "12-25", "Noël"
+    );
+
+    private static final String SOURCE_DATE_NAGER = "date-nager";
+    private static final String SOURCE_DEFAUT = "defaut";
+
     private final JourFerieRepository jourFerieRepository;
 
-    private final RestTemplate restTemplate;
+    private final DateNagerClient dateNagerClient;
+
+    private final RegistreJoursFeriesService registreJoursFeries;
+
+    private final ImpactCalendrierService impactCalendrierService;
 
-    private static final String DATE_NAGER_BASE_URL = "https://date.nager.at/api/v3";
-    private static final String COUNTRY_CODE = "SN"; // Sénégal
+    private final CalendrierJoursOuvresService calendrierJoursOuvres;
 
-    public DateNagerCalendrierService(JourFerieRepository jourFerieRepository, RestTemplate restTemplate) {
+    public DateNagerCalendrierService(JourFerieRepository jourFerieRepository, DateNagerClient dateNagerClient,
+                                      RegistreJoursFeriesService registreJoursFeries,
+                                      ImpactCalendrierService impactCalendrierService,
+                                      CalendrierJoursOuvresService calendrierJoursOuvres) {
         this.jourFerieRepository = jourFerieRepository;
-        this.restTemplate = restTemplate;
+        this.dateNagerClient = dateNagerClient;
+        this.registreJoursFeries = registreJoursFeries;
+        this.impactCalendrierService = impactCalendrierService;
+        this.calendrierJoursOuvres = calendrierJoursOuvres;
     }
 
     /**
-     * Synchronise les jours fériés pour une année donnée
+     * Synchronise les jours fériés de l'année en cours et de la suivante
      */
     @Scheduled(cron = "0 0 2 1 1 *") // Tous les 1er janvier à 2h
     public void synchroniserJoursFeries() {
@@ -40,69 +69,74 @@ public class DateNagerCalendrierService {
         synchroniserJoursFeries(anneeActuelle + 1);
     }
 
-    public void synchroniserJoursFeries(int annee) {
-        try {
-            log.info("Synchronisation des jours fériés pour l'année {} avec Date Nager", annee);
-
-            // Nettoyer les anciennes données de cette source pour l'année
-            jourFerieRepository.deleteBySourceApiAndAnnee("date-nager", annee);
-
-            String url = String.format("%s/PublicHolidays/%d/%s",
-                    DATE_NAGER_BASE_URL, annee, COUNTRY_CODE);
-
-            log.debug("Appel API: {}", url);
-
-            DateNagerHoliday[] holidays = restTemplate.getForObject(url, DateNagerHoliday[].class);
+    /**
+     * Synchronise les jours fériés d'une année ; le futur retourne le nombre de jours fériés enregistrés
+     */
+    public CompletableFuture<Integer> synchroniserJoursFeries(int annee) {
+        log.info("Synchronisation des jours fériés pour l'année {} avec Date Nager", annee);
+        return dateNagerClient.joursFeries(annee)
+                .thenApply(reponse -> {
+                    int enregistres;
+                    if (reponse.isPresent() && reponse.get().length > 0) {
+                        enregistres = registreJoursFeries.remplacer(annee, SOURCE_DATE_NAGER, versJoursFeries(reponse.get()));
+                        log.info("Synchronisation terminée: {} jours fériés enregistrés pour l'année {}", enregistres, annee);
+                    } else {
+                        log.warn("Aucun jour férié obtenu de Date Nager pour l'année {}", annee);
+                        enregistres = utiliserDonneesParDefautSenegal(annee);
+                    }
+                    calendrierJoursOuvres.recharger(annee);
+                    propagerJoursFeries(annee);
+                    return enregistres;
+                })
+                .whenComplete((enregistres, e) -> {
+                    if (e != null) {
+                        log.error("Erreur lors de la synchronisation des jours fériés pour l'année {}: {}",
+                                annee, e.getMessage());
+                    }
+                });
+    }
 
-            if (holidays != null && holidays.length > 0) {
-                for (DateNagerHoliday holiday : holidays) {
-                    sauvegarderJourFerie(holiday);
-                }
-                log.info("Synchronisation terminée: {} jours fériés ajoutés pour l'année {}",
-                        holidays.length, annee);
-            } else {
-                log.warn("Aucun jour férié trouvé pour l'année {}", annee);
-                // Utiliser les données par défaut si l'API ne retourne rien
-                utiliserDonneesParDefautSenegal(annee);
+    /**
+     * Applique les jours fériés à venir de l'année aux plannings, rendez-vous et disponibilités
+     */
+    public List<ImpactCalendrierDto> propagerJoursFeries(int annee) {
+        LocalDate aujourdhui = LocalDate.now();
+        List<ImpactCalendrierDto> impacts = new ArrayList<>();
+        for (JourFerie jourFerie : jourFerieRepository.findByAnnee(annee)) {
+            if (!Boolean.TRUE.equals(jourFerie.getAffecteDisponibilites()) || jourFerie.getDate().isBefore(aujourdhui)) {
+                continue;
+            }
+            String region = jourFerie.getType() == JourFerie.TypeJourFerie.REGIONAL ? jourFerie.getRegion() : null;
+            try {
+                impacts.add(impactCalendrierService.appliquerJourFerie(jourFerie.getDate(), region, jourFerie.getNom()));
+            } catch (Exception e) {
+                log.error("Erreur lors de la propagation du jour férié {} ({}): {}",
+                        jourFerie.getNom(), jourFerie.getDate(), e.getMessage());
             }
-
-        } catch (Exception e) {
-            log.error("Erreur lors de la synchronisation des jours fériés pour l'année {}: {}",
-                    annee, e.getMessage());
-            // Fallback vers les données par défaut
-            utiliserDonneesParDefautSenegal(annee);
         }
+        return impacts;
     }
 
-    private void sauvegarderJourFerie(DateNagerHoliday holiday) {
-        try {
-            LocalDate date = LocalDate.parse(holiday.getDate());
-
-            // Vérifier si le jour férié existe déjà pour cette date
-            Optional<JourFerie> existant = jourFerieRepository
-                    .findByDateAndSourceApi(date, "date-nager");
-
-            if (existant.isEmpty()) {
-                JourFerie jourFerie = JourFerie.builder()
+    private List<JourFerie> versJoursFeries(DateNagerHoliday[] holidays) {
+        Map<LocalDate, JourFerie> parDate = new LinkedHashMap<>();
+        for (DateNagerHoliday holiday : holidays) {
+            try {
+                LocalDate date = LocalDate.parse(holiday.getDate());
+                parDate.putIfAbsent(date, JourFerie.builder()
                         .date(date)
                         .nom(holiday.getName())
                         .description(holiday.getLocalName())
                         .type(determinerTypeJourFerie(holiday))
-                        .sourceApi("date-nager")
+                        .sourceApi(SOURCE_DATE_NAGER)
                         .externalId(holiday.getDate()) // Utiliser la date comme ID externe
                         .affecteDisponibilites(true)
                         .estRecurrent(false)
-                        .build();
-
-                jourFerieRepository.save(jourFerie);
-                log.debug("Jour férié sauvegardé: {} - {}", date, holiday.getName());
-            } else {
-                log.debug("Jour férié déjà existant: {} - {}", date, holiday.getName());
+                        .build());
+            } catch (Exception e) {
+                log.error("Jour férié Date Nager ignoré {}: {}", holiday.getName(), e.getMessage());
             }
-        } catch (Exception e) {
-            log.error("Erreur lors de la sauvegarde du jour férié {}: {}",
-                    holiday.getName(), e.getMessage());
         }
+        return new ArrayList<>(parDate.values());
     }
 
     private JourFerie.TypeJourFerie determinerTypeJourFerie(DateNagerHoliday holiday) {
@@ -125,54 +159,29 @@ public class DateNagerCalendrierService {
     }
 
     /**
-     * Données par défaut pour le Sénégal si l'API échoue
+     * Données par défaut pour le Sénégal si l'API et le cache échouent
      */
-    private void utiliserDonneesParDefautSenegal(int annee) {
+    private int utiliserDonneesParDefautSenegal(int annee) {
         log.info("Utilisation des données par défaut pour le Sénégal - année {}", annee);
-
-        // Jours fériés fixes du Sénégal
-        Map<String, String> joursFeriesFixesSenegal = Map.of(
-                "01-01", "Jour de l'An",
-                "04-04", "Fête de l'Indépendance",
-                "05-01", "Fête du Travail",
-                "08-15", "Assomption",
-                "11-01", "Toussaint",
-                "12-25", "Noël"
-        );
-
-        for (Map.Entry<String, String> entry : joursFeriesFixesSenegal.entrySet()) {
-            try {
-                LocalDate date = LocalDate.parse(annee + "-" + entry.getKey());
-
-                Optional<JourFerie> existant = jourFerieRepository
-                        .findByDateAndSourceApi(date, "defaut");
-
-                if (existant.isEmpty()) {
-                    JourFerie jourFerie = JourFerie.builder()
-                            .date(date)
-                            .nom(entry.getValue())
-                            .description("Jour férié national du Sénégal")
-                            .type(JourFerie.TypeJourFerie.NATIONAL)
-                            .sourceApi("defaut")
-                            .affecteDisponibilites(true)
-                            .estRecurrent(true)
-                            .build();
-
-                    jourFerieRepository.save(jourFerie);
-                    log.debug("Jour férié par défaut ajouté: {} - {}", date, entry.getValue());
-                }
-            } catch (Exception e) {
-                log.error("Erreur lors de l'ajout du jour férié par défaut {}: {}",
-                        entry.getValue(), e.getMessage());
-            }
-        }
+        List<JourFerie> joursFeries = JOURS_FERIES_FIXES_SENEGAL.entrySet().stream()
+                .map(entry -> JourFerie.builder()
+                        .date(LocalDate.parse(annee + "-" + entry.getKey()))
+                        .nom(entry.getValue())
+                        .description("Jour férié national du Sénégal")
+                        .type(JourFerie.TypeJourFerie.NATIONAL)
+                        .sourceApi(SOURCE_DEFAUT)
+                        .affecteDisponibilites(true)
+                        .estRecurrent(true)
+                        .build())
+                .toList();
+        return registreJoursFeries.remplacer(annee, SOURCE_DEFAUT, joursFeries);
     }
 
     /**
-     * Vérifie si une date est un jour férié
+     * Vérifie si une date est un jour férié (calendrier en mémoire, sans requête)
      */
     public boolean estJourFerie(LocalDate date) {
-        return jourFerieRepository.existsByDateAndAffecteDisponibilites(date, true);
+        return calendrierJoursOuvres.estFerie(date);
     }
 
     /**
@@ -194,42 +203,26 @@ public class DateNagerCalendrierService {
     /**
      * Synchronisation manuelle (pour les tests ou administration)
      */
-    public void synchroniserManuellement(int annee) {
+    public CompletableFuture<Integer> synchroniserManuellement(int annee) {
         log.info("Synchronisation manuelle demandée pour l'année {}", annee);
-        synchroniserJoursFeries(annee);
+        return synchroniserJoursFeries(annee);
     }
 
     /**
-     * Récupère les pays supportés par Date Nager
+     * Récupère les pays supportés par Date Nager (cache disque, sans attente réseau si déjà connus)
      */
-    public List<String> getPaysSupportes() {
-        try {
-            String url = DATE_NAGER_BASE_URL + "/AvailableCountries";
-            DateNagerCountry[] countries = restTemplate.getForObject(url, DateNagerCountry[].class);
-
-            if (countries != null) {
-                return Arrays.stream(countries)
+    public CompletableFuture<List<String>> getPaysSupportes() {
+        return dateNagerClient.pays().thenApply(reponse -> reponse
+                .map(countries -> Arrays.stream(countries)
                         .map(country -> country.getCountryCode() + " - " + country.getName())
-                        .collect(Collectors.toList());
-            }
-        } catch (Exception e) {
-            log.error("Erreur lors de la récupération des pays supportés: {}", e.getMessage());
-        }
-        return Collections.emptyList();
+                        .toList())
+                .orElse(Collections.emptyList()));
     }
 
     /**
      * Test de connectivité avec l'API
      */
-    public boolean testerConnectivite() {
-        try {
-            String url = DATE_NAGER_BASE_URL + "/CountryInfo/" + COUNTRY_CODE;
-            DateNagerCountryInfo info = restTemplate.getForObject(url, DateNagerCountryInfo.class);
-            log.info("Test de connectivité réussi. Pays: {}", info != null ? info.getOfficialName() : "Unknown");
-            return true;
-        } catch (Exception e) {
-            log.error("Test de connectivité échoué: {}", e.getMessage());
-            return false;
-        }
+    public CompletableFuture<Boolean> testerConnectivite() {
+        return dateNagerClient.tester();
     }
 }
@@ -0,0 +1,192 @@
+package com.sante.senegal.config;
+
+import com.fasterxml.jackson.databind.ObjectMapper;
+import com.sante.senegal.composants.Disjoncteur;
+import com.sante.senegal.dto.DateNagerCountry;
+import com.sante.senegal.dto.DateNagerHoliday;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.stereotype.Component;
+
+import java.io.IOException;
+import java.net.URI;
+import java.net.http.HttpClient;
+import java.net.http.HttpRequest;
+import java.net.http.HttpResponse;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.Paths;
+import java.nio.file.StandardCopyOption;
+import java.time.Duration;
+import java.time.Instant;
+import java.util.Optional;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.CompletionException;
+
+/**
+ * Client asynchrone de l'API Date Nager.
+ * Les réponses sont conservées sur disque : une réponse encore fraîche est servie sans appel réseau,
+ * une réponse périmée sert de repli quand l'API est injoignable. Un disjoncteur coupe les appels
+ * après plusieurs échecs ; sans cache, l'appelant retombe sur les jours fériés par défaut du Sénégal.
+ * Aucun appel ne bloque le thread appelant.
+ */
+@Component
+@Slf4j
+public class DateNagerClient {
+
+    private static final Duration FRAICHEUR_JOURS_FERIES = Duration.ofDays(7);
+    private static final Duration FRAICHEUR_PAYS = Duration.ofDays(30);
+
+    private final ObjectMapper objectMapper;
+    private final HttpClient client;
+    private final Disjoncteur disjoncteur;
+    private final String baseUrl;
+    private final String codePays;
+    private final boolean actif;
+    private final Duration delai;
+    private final Path repertoireCache;
+
+    public DateNagerClient(ObjectMapper objectMapper,
+                           @Value("${calendrier.date-nager.base-url:https://date.nager.at/api/v3}") String baseUrl,
+                           @Value("${calendrier.date-nager.country-code:SN}") String codePays,
+                           @Value("${calendrier.date-nager.enabled:true}") boolean actif,
+                           @Value("${calendrier.date-nager.delai-ms:5000}") long delaiMs,
+                           @Value("${calendrier.date-nager.cache.repertoire:./cache/date-nager}") String repertoireCache,
+                           @Value("${calendrier.date-nager.disjoncteur.seuil-echecs:3}") int seuilEchecs,
+                           @Value("${calendrier.date-nager.disjoncteur.ouverture-secondes:300}") long ouvertureSecondes) {
+        this.objectMapper = objectMapper;
+        this.baseUrl = baseUrl.endsWith("/") ? baseUrl.substring(0, baseUrl.length() - 1) : baseUrl;
+        this.codePays = codePays;
+        this.actif = actif;
+        this.delai = Duration.ofMillis(delaiMs);
+        this.repertoireCache = Paths.get(repertoireCache);
+        this.disjoncteur = new Disjoncteur(seuilEchecs, Duration.ofSeconds(ouvertureSecondes));
+        this.client = HttpClient.newBuilder().connectTimeout(delai).build();
+    }
+
+    public String getBaseUrl() {
+        return baseUrl;
+    }
+
+    public Disjoncteur.Etat getEtatDisjoncteur() {
+        return disjoncteur.getEtat();
+    }
+
+    /**
+     * Jours fériés du pays configuré ; vide si ni l'API ni le cache ne répondent
+     */
+    public CompletableFuture<Optional<DateNagerHoliday[]>> joursFeries(int annee) {
+        return obtenir("PublicHolidays/" + annee + "/" + codePays, DateNagerHoliday[].class, FRAICHEUR_JOURS_FERIES);
+    }
+
+    public CompletableFuture<Optional<DateNagerCountry[]>> pays() {
+        return obtenir("AvailableCountries", DateNagerCountry[].class, FRAICHEUR_PAYS);
+    }
+
+    /**
+     * Appel réel (hors cache) à l'API, soumis au disjoncteur
+     */
+    public CompletableFuture<Boolean> tester() {
+        return appeler("CountryInfo/" + codePays)
+                .thenApply(corps -> true)
+                .exceptionally(e -> {
+                    log.warn("Date Nager injoignable: {}", cause(e).getMessage());
+                    return false;
+                });
+    }
+
+    private <T> CompletableFuture<Optional<T>> obtenir(String chemin, Class<T> type, Duration fraicheur) {
+        Path fichier = repertoireCache.resolve(chemin.replace('/', '_') + ".json");
+        Optional<String> enCache = lireCache(fichier, fraicheur);
+        if (enCache.isPresent()) {
+            return CompletableFuture.completedFuture(convertir(enCache.get(), type));
+        }
+        return appeler(chemin)
+                .thenApply(corps -> {
+                    ecrireCache(fichier, corps);
+                    return convertir(corps, type);
+                })
+                .exceptionally(e -> {
+                    Optional<String> perime = lireCache(fichier, null);
+                    log.warn("Date Nager indisponible pour {} ({}), {}", chemin, cause(e).getMessage(),
+                            perime.isPresent() ? "réponse en cache utilisée" : "aucune réponse en cache");
+                    return perime.flatMap(corps -> convertir(corps, type));
+                });
+    }
+
+    private CompletableFuture<String> appeler(String chemin) {
+        if (!actif) {
+            return CompletableFuture.failedFuture(new IllegalStateException("API Date Nager désactivée"));
+        }
+        if (!disjoncteur.autoriser()) {
+            return CompletableFuture.failedFuture(new IllegalStateException("Circuit Date Nager ouvert"));
+        }
+        HttpRequest requete = HttpRequest.newBuilder(URI.create(baseUrl + "/" + chemin))
+                .timeout(delai)
+                .header("Accept", "application/json")
+                .GET()
+                .build();
+        return client.sendAsync(requete, HttpResponse.BodyHandlers.ofString(StandardCharsets.UTF_8))
+                .handle((reponse, erreur) -> {
+                    if (erreur != null) {
+                        disjoncteur.echec();
+                        throw new CompletionException(cause(erreur));
+                    }
+                    // 204 : pas de données pour ce pays ou cette année
+                    if (reponse.statusCode() == 204) {
+                        disjoncteur.succes();
+                        return "[]";
+                    }
+                    if (reponse.statusCode() != 200) {
+                        disjoncteur.echec();
+                        throw new CompletionException(new IllegalStateException("Date Nager: statut " + reponse.statusCode()));
+                    }
+                    disjoncteur.succes();
+                    return reponse.body();
+                });
+    }
+
+    /**
+     * Contenu du cache, s'il existe et (si fraicheur est renseignée) s'il est assez récent
+     */
+    private Optional<String> lireCache(Path fichier, Duration fraicheur) {
+        try {
+            if (!Files.exists(fichier)) {
+                return Optional.empty();
+            }
+            if (fraicheur != null && Files.getLastModifiedTime(fichier).toInstant().plus(fraicheur).isBefore(Instant.now())) {
+                return Optional.empty();
+            }
+            return Optional.of(Files.readString(fichier, StandardCharsets.UTF_8));
+        } catch (IOException e) {
+            log.warn("Lecture du cache Date Nager {} impossible: {}", fichier, e.getMessage());
+            return Optional.empty();
+        }
+    }
+
+    private void ecrireCache(Path fichier, String corps) {
+        try {
+            Files.createDirectories(fichier.getParent());
+            Path temporaire = Files.createTempFile(fichier.getParent(), fichier.getFileName().toString(), ".tmp");
+            Files.writeString(temporaire, corps, StandardCharsets.UTF_8);
+            // Remplacement atomique : un lecteur ne voit jamais un fichier à moitié écrit
+            Files.move(temporaire, fichier, StandardCopyOption.REPLACE_EXISTING, StandardCopyOption.ATOMIC_MOVE);
+        } catch (IOException e) {
+            log.warn("Écriture du cache Date Nager {} impossible: {}", fichier, e.getMessage());
+        }
+    }
+
+    private <T> Optional<T> convertir(String corps, Class<T> type) {
+        try {
+            return Optional.of(objectMapper.readValue(corps, type));
+        } catch (IOException e) {
+            log.warn("Réponse Date Nager illisible: {}", e.getMessage());
+            return Optional.empty();
+        }
+    }
+
+    private static Throwable cause(Throwable e) {
+        return e instanceof CompletionException && e.getCause() != null ? e.getCause() : e;
+    }
+}
@@ -0,0 +1,95 @@
+package com.sante.senegal.config;
+
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.boot.context.event.ApplicationReadyEvent;
+import org.springframework.context.event.EventListener;
+import org.springframework.core.Ordered;
+import org.springframework.core.annotation.Order;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.scheduling.annotation.Scheduled;
+import org.springframework.stereotype.Service;
+
+import java.time.LocalDate;
+import java.util.List;
+
+/**
+ * Entretien des partitions mensuelles de planning, rendez_vous et disponibilites
+ * (fonctions SQL de la migration V1) : conversion d'une table restée ordinaire,
+ * création anticipée des mois à venir et, si une rétention est configurée, détachement des mois échus.
+ */
+@Service
+@Slf4j
+public class PartitionnementMensuelService {
+
+    private static final List<String> TABLES = List.of("rendez_vous", "planning", "disponibilites");
+
+    private final JdbcTemplate jdbcTemplate;
+
+    @Value("${partitionnement.enabled:true}")
+    private boolean actif;
+
+    @Value("${partitionnement.mois-anticipation:3}")
+    private int moisAnticipation;
+
+    // 0 : aucune partition n'est détachée automatiquement
+    @Value("${partitionnement.retention-mois:0}")
+    private int retentionMois;
+
+    public PartitionnementMensuelService(JdbcTemplate jdbcTemplate) {
+        this.jdbcTemplate = jdbcTemplate;
+    }
+
+    /**
+     * Avant les autres traitements de démarrage, qui lisent ces tables
+     */
+    @EventListener(ApplicationReadyEvent.class)
+    @Order(Ordered.HIGHEST_PRECEDENCE)
+    public void initialiser() {
+        maintenir();
+    }
+
+    @Scheduled(cron = "${partitionnement.cron:0 0 3 * * *}")
+    public void maintenir() {
+        if (!actif) {
+            return;
+        }
+        try {
+            Integer converties = jdbcTemplate.queryForObject("SELECT partitionner_tables_metier()", Integer.class);
+            if (converties != null && converties > 0) {
+                log.info("{} tables converties en tables partitionnées par mois", converties);
+            }
+
+            LocalDate aujourdhui = LocalDate.now();
+            for (String table : TABLES) {
+                Integer crees = jdbcTemplate.queryForObject("SELECT creer_partitions_mensuelles(?, ?, ?)", Integer.class,
+                        table, aujourdhui, aujourdhui.plusMonths(moisAnticipation));
+                if (crees != null && crees > 0) {
+                    log.info("{} partitions mensuelles créées pour {}", crees, table);
+                }
+            }
+
+            if (retentionMois > 0) {
+                detacherPartitionsAnterieures(aujourdhui.withDayOfMonth(1).minusMonths(retentionMois));
+            }
+        } catch (Exception e) {
+            log.error("Erreur lors de l'entretien des partitions mensuelles: {}", e.getMessage());
+        }
+    }
+
+    /**
+     * Détache les partitions entièrement antérieures à la date ; les tables détachées sont conservées
+     * pour archivage et peuvent ensuite être supprimées sans toucher aux tables actives
+     * @return les partitions détachées
+     */
+    public List<String> detacherPartitionsAnterieures(LocalDate avant) {
+        List<String> detachees = TABLES.stream()
+                .flatMap(table -> jdbcTemplate.queryForList(
+                        "SELECT detacher_partitions_anterieures(?, ?)", String.class, table, avant).stream())
+                .toList();
+        if (!detachees.isEmpty()) {
+            log.info("Partitions détachées (antérieures au {}): {}", avant, detachees);
+        }
+        return detachees;
+    }
+}
@@ -1,9 +1,11 @@
 package com.sante.senegal.controllers;
 
+import com.sante.senegal.composants.TransportEmail;
 import com.sante.senegal.dto.*;
 import com.sante.senegal.entities.Medecin;
 import com.sante.senegal.entities.Utilisateur;
 import com.sante.senegal.services.interfaces.AdministrateurService;
+import com.sante.senegal.services.notifications.MoteurNotifications;
 import io.swagger.v3.oas.annotations.Operation;
 import io.swagger.v3.oas.annotations.Parameter;
 import io.swagger.v3.oas.annotations.responses.ApiResponse;
@@ -29,6 +31,8 @@ import java.util.Map;
 public class AdministrateurController {
 
     private final AdministrateurService administrateurService;
+    private final TransportEmail transportEmail;
+    private final MoteurNotifications moteurNotifications;
 
     // ===============================
     // GESTION DES MÉDECINS
@@ -282,6 +286,20 @@ public class AdministrateurController {
         return ResponseEntity.ok(statistiques);
     }
 
+    @GetMapping("/emails/transport")
+    @Operation(summary = "État du transport e-mail", description = "File d'attente, sessions SMTP, latence et échecs d'envoi")
+    @ApiResponse(responseCode = "200", description = "Métriques récupérées avec succès")
+    public ResponseEntity<MetriquesTransportEmailDto> obtenirMetriquesTransportEmail() {
+        return ResponseEntity.ok(transportEmail.getMetriques());
+    }
+
+    @GetMapping("/notifications/canaux")
+    @Operation(summary = "État des canaux de notification", description = "Files urgente et normale, envois, échecs et rejets par canal")
+    @ApiResponse(responseCode = "200", description = "État récupéré avec succès")
+    public ResponseEntity<List<EtatCanalNotificationDto>> obtenirEtatCanauxNotification() {
+        return ResponseEntity.ok(moteurNotifications.getEtat());
+    }
+
     // ===============================
     // GESTION DES ERREURS
     // ===============================
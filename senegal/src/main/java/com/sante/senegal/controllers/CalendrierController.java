@@ -1,8 +1,10 @@
 package com.sante.senegal.controllers;
 
+import com.sante.senegal.dto.ImpactCalendrierDto;
 import com.sante.senegal.entities.JourFerie;
 import com.sante.senegal.repositories.JourFerieRepository;
 import com.sante.senegal.config.DateNagerCalendrierService;
+import com.sante.senegal.config.DateNagerClient;
 import lombok.extern.slf4j.Slf4j;
 import org.springframework.format.annotation.DateTimeFormat;
 import org.springframework.http.*;
@@ -14,6 +16,7 @@ import java.util.HashMap;
 import java.util.List;
 import java.util.Map;
 import java.util.Optional;
+import java.util.concurrent.CompletableFuture;
 import java.util.stream.Collectors;
 
 @RestController
@@ -25,9 +28,13 @@ public class CalendrierController {
 
     private final JourFerieRepository jourFerieRepository;
 
-    public CalendrierController(DateNagerCalendrierService calendrierService, JourFerieRepository jourFerieRepository) {
+    private final DateNagerClient dateNagerClient;
+
+    public CalendrierController(DateNagerCalendrierService calendrierService, JourFerieRepository jourFerieRepository,
+                                DateNagerClient dateNagerClient) {
         this.calendrierService = calendrierService;
         this.jourFerieRepository = jourFerieRepository;
+        this.dateNagerClient = dateNagerClient;
     }
 
     /**
@@ -93,64 +100,78 @@ public class CalendrierController {
     }
 
     /**
-     * Synchronisation manuelle des jours fériés
+     * Réapplique les jours fériés à venir d'une année et retourne le bilan par jour férié
      */
-    @PostMapping("/synchroniser/{annee}")
-    public ResponseEntity<Map<String, String>> synchroniserJoursFeries(@PathVariable int annee) {
+    @PostMapping("/jours-feries/{annee}/propager")
+    public ResponseEntity<List<ImpactCalendrierDto>> propagerJoursFeries(@PathVariable int annee) {
         try {
-            calendrierService.synchroniserManuellement(annee);
-
-            Map<String, String> response = new HashMap<>();
-            response.put("message", "Synchronisation réussie pour l'année " + annee);
-            response.put("timestamp", LocalDateTime.now().toString());
-
-            return ResponseEntity.ok(response);
+            return ResponseEntity.ok(calendrierService.propagerJoursFeries(annee));
         } catch (Exception e) {
-            log.error("Erreur lors de la synchronisation manuelle pour l'année {}: {}",
-                    annee, e.getMessage());
-
-            Map<String, String> errorResponse = new HashMap<>();
-            errorResponse.put("error", "Erreur lors de la synchronisation");
-            errorResponse.put("message", e.getMessage());
-
-            return ResponseEntity.status(HttpStatus.INTERNAL_SERVER_ERROR).body(errorResponse);
+            log.error("Erreur lors de la propagation des jours fériés pour l'année {}: {}", annee, e.getMessage());
+            return ResponseEntity.status(HttpStatus.INTERNAL_SERVER_ERROR).build();
         }
     }
 
+    /**
+     * Synchronisation manuelle des jours fériés
+     * (asynchrone : le thread de la requête est libéré pendant l'appel à Date Nager)
+     */
+    @PostMapping("/synchroniser/{annee}")
+    public CompletableFuture<ResponseEntity<Map<String, String>>> synchroniserJoursFeries(@PathVariable int annee) {
+        return calendrierService.synchroniserManuellement(annee)
+                .thenApply(enregistres -> {
+                    Map<String, String> response = new HashMap<>();
+                    response.put("message", "Synchronisation réussie pour l'année " + annee);
+                    response.put("joursFeries", String.valueOf(enregistres));
+                    response.put("timestamp", LocalDateTime.now().toString());
+                    return ResponseEntity.ok(response);
+                })
+                .exceptionally(e -> {
+                    log.error("Erreur lors de la synchronisation manuelle pour l'année {}: {}",
+                            annee, e.getMessage());
+
+                    Map<String, String> errorResponse = new HashMap<>();
+                    errorResponse.put("error", "Erreur lors de la synchronisation");
+                    errorResponse.put("message", e.getMessage());
+
+                    return ResponseEntity.status(HttpStatus.INTERNAL_SERVER_ERROR).body(errorResponse);
+                });
+    }
+
     /**
      * Test de connectivité avec l'API
      */
     @GetMapping("/test-connectivite")
-    public ResponseEntity<Map<String, Object>> testerConnectivite() {
-        boolean isConnected = calendrierService.testerConnectivite();
-
-        Map<String, Object> response = new HashMap<>();
-        response.put("connected", isConnected);
-        response.put("api", "Date Nager");
-        response.put("url", "https://date.nager.at/api/v3");
-        response.put("timestamp", LocalDateTime.now().toString());
-
-        if (isConnected) {
-            response.put("message", "Connectivité OK");
-        } else {
-            response.put("message", "Connectivité échouée - utilisation des données par défaut");
-        }
+    public CompletableFuture<ResponseEntity<Map<String, Object>>> testerConnectivite() {
+        return calendrierService.testerConnectivite().thenApply(isConnected -> {
+            Map<String, Object> response = new HashMap<>();
+            response.put("connected", isConnected);
+            response.put("api", "Date Nager");
+            response.put("url", dateNagerClient.getBaseUrl());
+            response.put("circuit", dateNagerClient.getEtatDisjoncteur().name());
+            response.put("timestamp", LocalDateTime.now().toString());
+
+            if (isConnected) {
+                response.put("message", "Connectivité OK");
+            } else {
+                response.put("message", "Connectivité échouée - utilisation du cache ou des données par défaut");
+            }
 
-        return ResponseEntity.ok(response);
+            return ResponseEntity.ok(response);
+        });
     }
 
     /**
      * Récupère les pays supportés par Date Nager
      */
     @GetMapping("/pays-supportes")
-    public ResponseEntity<List<String>> getPaysSupportes() {
-        try {
-            List<String> pays = calendrierService.getPaysSupportes();
-            return ResponseEntity.ok(pays);
-        } catch (Exception e) {
-            log.error("Erreur lors de la récupération des pays supportés: {}", e.getMessage());
-            return ResponseEntity.status(HttpStatus.INTERNAL_SERVER_ERROR).build();
-        }
+    public CompletableFuture<ResponseEntity<List<String>>> getPaysSupportes() {
+        return calendrierService.getPaysSupportes()
+                .thenApply(ResponseEntity::ok)
+                .exceptionally(e -> {
+                    log.error("Erreur lors de la récupération des pays supportés: {}", e.getMessage());
+                    return ResponseEntity.status(HttpStatus.INTERNAL_SERVER_ERROR).build();
+                });
     }
 
     /**
@@ -1,5 +1,6 @@
 package com.sante.senegal.controllers;
 
+import com.sante.senegal.composants.ReponseNdjson;
 import com.sante.senegal.dto.*;
 import com.sante.senegal.entities.Disponibilite;
 import com.sante.senegal.services.interfaces.DisponibiliteService;
@@ -8,8 +9,10 @@ import lombok.RequiredArgsConstructor;
 import lombok.extern.slf4j.Slf4j;
 import org.springframework.format.annotation.DateTimeFormat;
 import org.springframework.http.HttpStatus;
+import org.springframework.http.MediaType;
 import org.springframework.http.ResponseEntity;
 import org.springframework.web.bind.annotation.*;
+import org.springframework.web.servlet.mvc.method.annotation.StreamingResponseBody;
 
 import java.time.LocalDate;
 import java.time.LocalDateTime;
@@ -26,14 +29,16 @@ import java.util.Optional;
 public class DisponibiliteController {
 
     private final DisponibiliteService disponibiliteService;
+    private final ReponseNdjson reponseNdjson;
 
     // ===== CRUD de base =====
 
     @GetMapping
-    public ResponseEntity<List<DisponibiliteResponseDto>> getAllDisponibilites() {
-        log.info("Récupération de toutes les disponibilités");
-        List<DisponibiliteResponseDto> disponibilites = disponibiliteService.getAllDisponibilites();
-        return ResponseEntity.ok(disponibilites);
+    public ResponseEntity<PageCurseurDto<DisponibiliteResponseDto>> getAllDisponibilites(
+            @RequestParam(required = false) String curseur,
+            @RequestParam(required = false) Integer taille) {
+        log.info("Récupération des disponibilités (curseur: {}, taille: {})", curseur, taille);
+        return ResponseEntity.ok(disponibiliteService.getPageDisponibilites(curseur, taille));
     }
 
     @GetMapping("/{id}")
@@ -148,6 +153,15 @@ public class DisponibiliteController {
         return ResponseEntity.ok(disponibilites);
     }
 
+    @GetMapping(value = "/periode", produces = MediaType.APPLICATION_NDJSON_VALUE)
+    public ResponseEntity<StreamingResponseBody> streamAvailableDisponibilitesBetweenDates(
+            @RequestParam @DateTimeFormat(iso = DateTimeFormat.ISO.DATE) LocalDate dateDebut,
+            @RequestParam @DateTimeFormat(iso = DateTimeFormat.ISO.DATE) LocalDate dateFin) {
+        log.info("Flux des disponibilités disponibles entre {} et {}", dateDebut, dateFin);
+        return reponseNdjson.<DisponibiliteResponseDto>flux(consommateur -> disponibiliteService.parcourirDisponibilitesBetweenDates(
+                dateDebut, dateFin, null, null, Disponibilite.StatutDisponibilite.DISPONIBLE, consommateur));
+    }
+
     @GetMapping("/service/{idService}/periode")
     public ResponseEntity<List<DisponibiliteResponseDto>> getDisponibilitesByServiceBetweenDates(
             @PathVariable Long idService,
@@ -158,6 +172,16 @@ public class DisponibiliteController {
         return ResponseEntity.ok(disponibilites);
     }
 
+    @GetMapping(value = "/service/{idService}/periode", produces = MediaType.APPLICATION_NDJSON_VALUE)
+    public ResponseEntity<StreamingResponseBody> streamDisponibilitesByServiceBetweenDates(
+            @PathVariable Long idService,
+            @RequestParam @DateTimeFormat(iso = DateTimeFormat.ISO.DATE) LocalDate dateDebut,
+            @RequestParam @DateTimeFormat(iso = DateTimeFormat.ISO.DATE) LocalDate dateFin) {
+        log.info("Flux des disponibilités du service {} entre {} et {}", idService, dateDebut, dateFin);
+        return reponseNdjson.<DisponibiliteResponseDto>flux(consommateur -> disponibiliteService.parcourirDisponibilitesBetweenDates(
+                dateDebut, dateFin, idService, null, null, consommateur));
+    }
+
     @GetMapping("/hopital/{idHopital}/periode")
     public ResponseEntity<List<DisponibiliteResponseDto>> getDisponibilitesByHopitalBetweenDates(
             @PathVariable Long idHopital,
@@ -168,6 +192,16 @@ public class DisponibiliteController {
         return ResponseEntity.ok(disponibilites);
     }
 
+    @GetMapping(value = "/hopital/{idHopital}/periode", produces = MediaType.APPLICATION_NDJSON_VALUE)
+    public ResponseEntity<StreamingResponseBody> streamDisponibilitesByHopitalBetweenDates(
+            @PathVariable Long idHopital,
+            @RequestParam @DateTimeFormat(iso = DateTimeFormat.ISO.DATE) LocalDate dateDebut,
+            @RequestParam @DateTimeFormat(iso = DateTimeFormat.ISO.DATE) LocalDate dateFin) {
+        log.info("Flux des disponibilités de l'hôpital {} entre {} et {}", idHopital, dateDebut, dateFin);
+        return reponseNdjson.<DisponibiliteResponseDto>flux(consommateur -> disponibiliteService.parcourirDisponibilitesBetweenDates(
+                dateDebut, dateFin, null, idHopital, null, consommateur));
+    }
+
     @GetMapping("/medecin/{idMedecin}/date/{date}/statut/{statut}")
     public ResponseEntity<List<DisponibiliteResponseDto>> getByMedecinDateAndStatut(
             @PathVariable Long idMedecin,
@@ -258,8 +292,10 @@ public class DisponibiliteController {
             @RequestParam String motif) {
         log.info("Marquage d'absence pour le médecin {} du {} au {} - motif: {}", idMedecin, dateDebut, dateFin, motif);
         try {
-            disponibiliteService.marquerAbsence(idMedecin, dateDebut, dateFin, motif);
-            return ResponseEntity.ok("Absence marquée avec succès");
+            ImpactCalendrierDto impact = disponibiliteService.marquerAbsence(idMedecin, dateDebut, dateFin, motif);
+            return ResponseEntity.ok("Absence marquée avec succès : " + impact.getDisponibilitesMarquees()
+                    + " disponibilités, " + impact.getCreneauxSupprimes() + " créneaux et "
+                    + impact.getRendezVousAnnules() + " rendez-vous annulés");
         } catch (Exception e) {
             log.error("Erreur lors du marquage d'absence: {}", e.getMessage());
             return ResponseEntity.badRequest().body("Erreur: " + e.getMessage());
@@ -0,0 +1,59 @@
+package com.sante.senegal.controllers;
+
+import com.sante.senegal.dto.ListeAttenteDto;
+import com.sante.senegal.dto.ListeAttenteRequestDto;
+import com.sante.senegal.dto.PlanningDto;
+import com.sante.senegal.services.interfaces.ListeAttenteService;
+import io.swagger.v3.oas.annotations.Operation;
+import io.swagger.v3.oas.annotations.tags.Tag;
+import lombok.RequiredArgsConstructor;
+import org.springframework.http.ResponseEntity;
+import org.springframework.web.bind.annotation.*;
+
+import java.util.List;
+
+@RestController
+@RequestMapping("/liste-attente")
+@RequiredArgsConstructor
+@CrossOrigin(origins = "*")  // à adapter pour la sécurité en prod
+@Tag(name = "Liste d'attente", description = "Inscription aux créneaux libérés par les annulations")
+public class ListeAttenteController {
+
+    private final ListeAttenteService listeAttenteService;
+
+    @PostMapping
+    @Operation(summary = "S'inscrire sur la liste d'attente",
+            description = "Inscrit un patient pour un médecin ou un service sur une période donnée")
+    public ResponseEntity<?> inscrire(@RequestBody ListeAttenteRequestDto request) {
+        try {
+            return ResponseEntity.ok(listeAttenteService.inscrire(request));
+        } catch (IllegalArgumentException e) {
+            return ResponseEntity.badRequest().body(e.getMessage());
+        }
+    }
+
+    @GetMapping("/patient/{idPatient}")
+    @Operation(summary = "Inscriptions d'un patient")
+    public ResponseEntity<List<ListeAttenteDto>> getInscriptionsPatient(@PathVariable Long idPatient) {
+        return ResponseEntity.ok(listeAttenteService.getInscriptionsPatient(idPatient));
+    }
+
+    @DeleteMapping("/{id}")
+    @Operation(summary = "Se retirer de la liste d'attente")
+    public ResponseEntity<Void> annulerInscription(@PathVariable Long id) {
+        listeAttenteService.annulerInscription(id);
+        return ResponseEntity.noContent().build();
+    }
+
+    @PostMapping("/{id}/accepter")
+    @Operation(summary = "Accepter le créneau proposé", description = "Réserve le créneau bloqué pour le patient")
+    public ResponseEntity<PlanningDto> accepterOffre(@PathVariable Long id) {
+        return ResponseEntity.ok(listeAttenteService.accepterOffre(id));
+    }
+
+    @PostMapping("/{id}/refuser")
+    @Operation(summary = "Refuser le créneau proposé", description = "Le créneau est proposé au patient suivant")
+    public ResponseEntity<ListeAttenteDto> refuserOffre(@PathVariable Long id) {
+        return ResponseEntity.ok(listeAttenteService.refuserOffre(id));
+    }
+}
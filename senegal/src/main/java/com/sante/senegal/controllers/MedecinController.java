@@ -4,12 +4,12 @@ import com.sante.senegal.dto.*;
 import com.sante.senegal.entities.Hopital;
 import com.sante.senegal.entities.Medecin;
 import com.sante.senegal.exceptions.InscriptionException;
+import com.sante.senegal.mappers.MedecinMapper;
 import com.sante.senegal.services.interfaces.MedecinService;
 import jakarta.persistence.EntityNotFoundException;
 import jakarta.validation.Valid;
 import lombok.RequiredArgsConstructor;
 import lombok.extern.slf4j.Slf4j;
-import org.modelmapper.ModelMapper;
 import org.springframework.http.HttpStatus;
 import org.springframework.http.ResponseEntity;
 import org.springframework.web.bind.annotation.*;
@@ -26,7 +26,7 @@ import java.util.Map;
 public class MedecinController {
 
     private final MedecinService medecinService;
-    private final ModelMapper modelMapper;
+    private final MedecinMapper medecinMapper;
 
     // ===============================
     // Demande d’inscription médecin
@@ -59,7 +59,7 @@ public class MedecinController {
     public ResponseEntity<MedecinDto> getMedecinById(@PathVariable Long id) {
         try {
             Medecin medecin = medecinService.getMedecinById(id);
-            MedecinDto dto = modelMapper.map(medecin, MedecinDto.class);
+            MedecinDto dto = medecinMapper.toDto(medecin);
 
             dto.setIdsHopitaux(medecin.getHopitaux().stream()
                     .map(Hopital::getIdHopital)
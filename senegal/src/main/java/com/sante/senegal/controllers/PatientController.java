@@ -1,14 +1,15 @@
 package com.sante.senegal.controllers;
 
+import com.sante.senegal.composants.CurseurPagination;
 import com.sante.senegal.dto.*;
 import com.sante.senegal.entities.Patient;
 import com.sante.senegal.exceptions.InscriptionException;
+import com.sante.senegal.mappers.PatientMapper;
 import com.sante.senegal.services.interfaces.PatientService;
 import jakarta.persistence.EntityNotFoundException;
 import jakarta.validation.Valid;
 import lombok.RequiredArgsConstructor;
 import lombok.extern.slf4j.Slf4j;
-import org.modelmapper.ModelMapper;
 import org.springframework.http.HttpStatus;
 import org.springframework.http.ResponseEntity;
 import org.springframework.web.bind.annotation.*;
@@ -25,7 +26,7 @@ import java.util.Map;
 public class PatientController {
 
     private final PatientService patientService;
-    private final ModelMapper modelMapper;
+    private final PatientMapper patientMapper;
 
     // ===============================
     // Inscription d’un patient
@@ -87,19 +88,16 @@ public class PatientController {
     // Récupérer tous les patients
     // ===============================
     @GetMapping("/patient/all")
-    public ResponseEntity<List<PatientDto>> getPatients() {
+    public ResponseEntity<PageCurseurDto<PatientDto>> getPatients(
+            @RequestParam(required = false) String curseur,
+            @RequestParam(required = false) Integer taille) {
         try {
-            List<Patient> patients = patientService.getPatients();  // Cette méthode doit exister dans PatientService
+            int tailleEffective = CurseurPagination.taille(taille);
+            Long apresId = CurseurPagination.identifiant(CurseurPagination.decoder(curseur, 1), 0);
+            List<Patient> patients = patientService.getPatientsApres(apresId, tailleEffective + 1);
 
-            List<PatientDto> dtos = patients.stream().map(patient -> {
-                PatientDto dto = modelMapper.map(patient, PatientDto.class);
-                if (patient.getDossierMedical() != null) {
-                    dto.setIdDossierMedical(patient.getDossierMedical().getIdDossier());
-                }
-                return dto;
-            }).toList();
-
-            return ResponseEntity.ok(dtos);
+            return ResponseEntity.ok(CurseurPagination.page(patients, tailleEffective, patientMapper::toDto,
+                    patient -> CurseurPagination.encoder(patient.getId())));
 
         } catch (EntityNotFoundException e) {
             return ResponseEntity.notFound().build();
@@ -113,11 +111,7 @@ public class PatientController {
     public ResponseEntity<PatientDto> getPatientById(@PathVariable Long id) {
         try {
             Patient patient = patientService.getPatientById(id);
-            PatientDto dto = modelMapper.map(patient, PatientDto.class);
-            dto.setIdDossierMedical(
-                    patient.getDossierMedical() != null ? patient.getDossierMedical().getIdDossier() : null
-            );
-            return ResponseEntity.ok(dto);
+            return ResponseEntity.ok(patientMapper.toDto(patient));
         } catch (EntityNotFoundException e) {
             return ResponseEntity.notFound().build();
         }
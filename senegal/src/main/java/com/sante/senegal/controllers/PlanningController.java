@@ -1,7 +1,20 @@
 package com.sante.senegal.controllers;
 
+import com.sante.senegal.dto.BlocageCreneauDto;
+import com.sante.senegal.dto.CapaciteUrgenceDto;
+import com.sante.senegal.dto.CriteresCreneauDto;
+import com.sante.senegal.dto.GenerationPlanningResultatDto;
+import com.sante.senegal.dto.IndexCreneauxStatsDto;
+import com.sante.senegal.dto.JobGenerationPlanningDto;
 import com.sante.senegal.dto.PlanningDto;
 import com.sante.senegal.dto.PlanningReservationRequestDto;
+import com.sante.senegal.entities.Utilisateur;
+import com.sante.senegal.exceptions.CreneauIndisponibleException;
+import com.sante.senegal.security.CustomUserDetails;
+import com.sante.senegal.services.implementations.AllocationUrgenceService;
+import com.sante.senegal.services.implementations.GenerationPlanningJobService;
+import com.sante.senegal.services.implementations.IdempotenceService;
+import com.sante.senegal.services.implementations.IndexCreneauxService;
 import com.sante.senegal.services.interfaces.PlanningService;
 import io.swagger.v3.oas.annotations.Operation;
 import io.swagger.v3.oas.annotations.Parameter;
@@ -13,6 +26,7 @@ import lombok.extern.slf4j.Slf4j;
 import org.springframework.format.annotation.DateTimeFormat;
 import org.springframework.http.HttpStatus;
 import org.springframework.http.ResponseEntity;
+import org.springframework.security.core.annotation.AuthenticationPrincipal;
 import org.springframework.web.bind.annotation.*;
 
 import jakarta.validation.Valid;
@@ -27,7 +41,13 @@ import java.util.List;
 @Tag(name = "Planning", description = "API de gestion des plannings médicaux")
 public class PlanningController {
 
+    private static final int NOMBRE_MAX_PREMIERS_CRENEAUX = 50;
+
     private final PlanningService planningService;
+    private final IndexCreneauxService indexCreneauxService;
+    private final AllocationUrgenceService allocationUrgenceService;
+    private final GenerationPlanningJobService generationPlanningJobService;
+    private final IdempotenceService idempotenceService;
 
     @PostMapping("/generer")
     @Operation(summary = "Générer les plannings pour un médecin",
@@ -42,8 +62,9 @@ public class PlanningController {
             @Parameter(description = "ID du médecin", required = true) @RequestParam Long idMedecin,
             @Parameter(description = "ID de l'hôpital", required = true) @RequestParam Long idHopital) {
         try {
-            planningService.genererPlanningsPourUnMois(idMedecin, idHopital);
-            return ResponseEntity.ok("Plannings générés avec succès pour le médecin " + idMedecin + " à l'hôpital " + idHopital);
+            GenerationPlanningResultatDto resultat = planningService.genererPlanningsPourUnMois(idMedecin, idHopital);
+            return ResponseEntity.ok("Plannings générés avec succès pour le médecin " + idMedecin + " à l'hôpital " + idHopital
+                    + " : " + resultat.getCreneauxCrees() + " créneaux créés en " + resultat.getDureeMs() + " ms");
         } catch (RuntimeException e) {
             log.error("Erreur lors de la génération des plannings: {}", e.getMessage());
             return ResponseEntity.status(HttpStatus.BAD_REQUEST)
@@ -55,6 +76,43 @@ public class PlanningController {
         }
     }
 
+    @PostMapping("/generer/masse")
+    @Operation(summary = "Générer les plannings en masse",
+            description = "Lance en arrière-plan la génération du mois suivant pour tous les médecins d'un hôpital, d'un service ou de tout le système")
+    @ApiResponses(value = {
+            @ApiResponse(responseCode = "202", description = "Job de génération lancé"),
+            @ApiResponse(responseCode = "400", description = "Paramètres invalides")
+    })
+    public ResponseEntity<?> genererPlanningsEnMasse(
+            @Parameter(description = "Portée : HOPITAL, SERVICE ou TOUS", required = true) @RequestParam GenerationPlanningJobService.Portee portee,
+            @Parameter(description = "ID de l'hôpital ou du service (ignoré pour TOUS)") @RequestParam(required = false) Long id) {
+        try {
+            return ResponseEntity.status(HttpStatus.ACCEPTED).body(generationPlanningJobService.lancer(portee, id));
+        } catch (IllegalArgumentException e) {
+            return ResponseEntity.badRequest().body(e.getMessage());
+        }
+    }
+
+    @GetMapping("/generer/masse")
+    @Operation(summary = "Lister les jobs de génération", description = "Retourne l'avancement des derniers jobs de génération en masse")
+    public ResponseEntity<List<JobGenerationPlanningDto>> getJobsGeneration() {
+        return ResponseEntity.ok(generationPlanningJobService.getJobs());
+    }
+
+    @GetMapping("/generer/masse/{idJob}")
+    @Operation(summary = "Suivre un job de génération",
+            description = "Retourne l'avancement d'un job de génération et les durées par médecin")
+    @ApiResponses(value = {
+            @ApiResponse(responseCode = "200", description = "État du job retourné"),
+            @ApiResponse(responseCode = "404", description = "Job non trouvé")
+    })
+    public ResponseEntity<JobGenerationPlanningDto> getJobGeneration(
+            @Parameter(description = "ID du job", required = true) @PathVariable String idJob) {
+        return generationPlanningJobService.getJob(idJob)
+                .map(ResponseEntity::ok)
+                .orElse(ResponseEntity.notFound().build());
+    }
+
     // MODIFIÉ: Changé LocalDate vers LocalDateTime pour accepter les formats datetime d'Angular
     @GetMapping("/creneaux-disponibles")
     @Operation(summary = "Récupérer les créneaux disponibles",
@@ -202,6 +260,36 @@ public class PlanningController {
         }
     }
 
+    @GetMapping("/premiers-creneaux")
+    @Operation(summary = "Premiers créneaux disponibles",
+            description = "Retourne les N premiers créneaux libres tous médecins confondus, filtrés par service, spécialité, hôpital, région ou ville")
+    @ApiResponses(value = {
+            @ApiResponse(responseCode = "200", description = "Créneaux récupérés avec succès"),
+            @ApiResponse(responseCode = "500", description = "Erreur interne du serveur")
+    })
+    public ResponseEntity<List<PlanningDto>> getPremiersCreneauxDisponibles(
+            @Parameter(description = "ID du service (optionnel)") @RequestParam(required = false) Long idService,
+            @Parameter(description = "ID de l'hôpital (optionnel)") @RequestParam(required = false) Long idHopital,
+            @Parameter(description = "Spécialité du médecin (optionnel)") @RequestParam(required = false) String specialite,
+            @Parameter(description = "Région de l'hôpital (optionnel)") @RequestParam(required = false) String region,
+            @Parameter(description = "Ville de l'hôpital (optionnel)") @RequestParam(required = false) String ville,
+            @Parameter(description = "Nombre de créneaux (max " + NOMBRE_MAX_PREMIERS_CRENEAUX + ")") @RequestParam(defaultValue = "10") int nombre) {
+        try {
+            CriteresCreneauDto criteres = CriteresCreneauDto.builder()
+                    .idService(idService)
+                    .idHopital(idHopital)
+                    .specialite(specialite)
+                    .region(region)
+                    .ville(ville)
+                    .build();
+            int limite = Math.max(1, Math.min(nombre, NOMBRE_MAX_PREMIERS_CRENEAUX));
+            return ResponseEntity.ok(planningService.getPremiersCreneauxDisponibles(criteres, limite));
+        } catch (Exception e) {
+            log.error("Erreur lors de la recherche des premiers créneaux: {}", e.getMessage());
+            return ResponseEntity.status(HttpStatus.INTERNAL_SERVER_ERROR).build();
+        }
+    }
+
     @PostMapping("/reserver")
     @Operation(summary = "Réserver un créneau",
             description = "Réserve un créneau de consultation pour un patient")
@@ -213,11 +301,21 @@ public class PlanningController {
             @ApiResponse(responseCode = "500", description = "Erreur interne du serveur")
     })
     public ResponseEntity<?> reserverCreneau(
+            @Parameter(description = "Clé d'idempotence : un renvoi avec la même clé rejoue la réponse d'origine")
+            @RequestHeader(value = IdempotenceService.ENTETE_CLE, required = false) String cleIdempotence,
             @Parameter(description = "Données de réservation", required = true)
             @Valid @RequestBody PlanningReservationRequestDto request) {
+        return idempotenceService.executer("POST /planning/reserver", cleIdempotence, request,
+                () -> executerReservation(request));
+    }
+
+    private ResponseEntity<?> executerReservation(PlanningReservationRequestDto request) {
         try {
             PlanningDto planningReserve = planningService.reserverCreneau(request);
             return ResponseEntity.ok(planningReserve);
+        } catch (CreneauIndisponibleException e) {
+            log.warn("Réservation refusée sur le planning {}: {}", request.getIdPlanning(), e.getMessage());
+            return ResponseEntity.status(HttpStatus.CONFLICT).body(e.getMessage());
         } catch (RuntimeException e) {
             log.error("Erreur lors de la réservation: {}", e.getMessage());
             if (e.getMessage().contains("déjà réservé")) {
@@ -233,6 +331,58 @@ public class PlanningController {
         }
     }
 
+    @PostMapping("/{idPlanning}/blocage")
+    @Operation(summary = "Bloquer un créneau",
+            description = "Réserve temporairement un créneau à un patient pendant la finalisation de sa réservation")
+    @ApiResponses(value = {
+            @ApiResponse(responseCode = "200", description = "Créneau bloqué"),
+            @ApiResponse(responseCode = "404", description = "Planning ou patient non trouvé"),
+            @ApiResponse(responseCode = "409", description = "Créneau déjà réservé ou bloqué par un autre patient")
+    })
+    public ResponseEntity<?> bloquerCreneau(
+            @Parameter(description = "ID du planning", required = true) @PathVariable Long idPlanning,
+            @Parameter(description = "Durée du blocage en secondes (optionnelle, plafonnée)") @RequestParam(required = false) Long dureeSecondes,
+            @Parameter(hidden = true) @AuthenticationPrincipal CustomUserDetails utilisateur) {
+        // Le patient est celui du jeton : un client ne peut pas bloquer un créneau au nom d'un autre
+        Long idPatient = idPatient(utilisateur);
+        if (idPatient == null) {
+            return ResponseEntity.status(HttpStatus.FORBIDDEN).body("Seul un patient connecté peut bloquer un créneau");
+        }
+        try {
+            BlocageCreneauDto blocage = planningService.bloquerCreneau(idPlanning, idPatient, dureeSecondes);
+            return ResponseEntity.ok(blocage);
+        } catch (CreneauIndisponibleException e) {
+            return ResponseEntity.status(HttpStatus.CONFLICT).body(e.getMessage());
+        } catch (RuntimeException e) {
+            log.error("Erreur lors du blocage du créneau {}: {}", idPlanning, e.getMessage());
+            return ResponseEntity.status(HttpStatus.NOT_FOUND).body(e.getMessage());
+        }
+    }
+
+    @DeleteMapping("/{idPlanning}/blocage")
+    @Operation(summary = "Lever le blocage d'un créneau", description = "Rend le créneau visible aux autres patients")
+    @ApiResponses(value = {
+            @ApiResponse(responseCode = "204", description = "Blocage levé, ou aucun blocage en cours"),
+            @ApiResponse(responseCode = "403", description = "Créneau bloqué pour un autre patient")
+    })
+    public ResponseEntity<?> libererBlocage(
+            @Parameter(description = "ID du planning", required = true) @PathVariable Long idPlanning,
+            @Parameter(hidden = true) @AuthenticationPrincipal CustomUserDetails utilisateur) {
+        Long idPatient = idPatient(utilisateur);
+        if (idPatient == null) {
+            return ResponseEntity.status(HttpStatus.FORBIDDEN).body("Seul un patient connecté peut lever un blocage");
+        }
+        if (!planningService.libererBlocage(idPlanning, idPatient)) {
+            return ResponseEntity.status(HttpStatus.FORBIDDEN).body("Ce blocage appartient à un autre patient");
+        }
+        return ResponseEntity.noContent().build();
+    }
+
+    private static Long idPatient(CustomUserDetails utilisateur) {
+        return utilisateur != null && utilisateur.utilisateur().getType() == Utilisateur.TypeUtilisateur.PATIENT
+                ? utilisateur.utilisateur().getId() : null;
+    }
+
     @PutMapping("/liberer/{idPlanning}")
     @Operation(summary = "Libérer un créneau",
             description = "Libère un créneau réservé (annule le rendez-vous)")
@@ -302,4 +452,30 @@ public class PlanningController {
             return ResponseEntity.status(HttpStatus.INTERNAL_SERVER_ERROR).build();
         }
     }
-}
\ No newline at end of file
+
+    @GetMapping("/service/{idService}/capacite-urgence")
+    @Operation(summary = "Réserve d'urgence d'un service",
+            description = "Retourne la capacité du jour, la part réservée aux urgences encore retenue et les créneaux ouverts aux réservations normales")
+    public ResponseEntity<CapaciteUrgenceDto> getCapaciteUrgence(
+            @PathVariable Long idService,
+            @RequestParam @DateTimeFormat(iso = DateTimeFormat.ISO.DATE) LocalDate date) {
+        return allocationUrgenceService.getCapacite(idService, date)
+                .map(ResponseEntity::ok)
+                .orElseGet(() -> ResponseEntity.noContent().build());
+    }
+
+    @GetMapping("/index/statistiques")
+    @Operation(summary = "Statistiques de l'index des créneaux",
+            description = "Retourne les hits/misses, la taille et l'ancienneté de l'index mémoire des créneaux disponibles")
+    public ResponseEntity<IndexCreneauxStatsDto> getStatistiquesIndex() {
+        return ResponseEntity.ok(indexCreneauxService.getStatistiques());
+    }
+
+    @PostMapping("/index/reconstruire")
+    @Operation(summary = "Reconstruire l'index des créneaux",
+            description = "Recharge l'index mémoire des créneaux depuis la table planning")
+    public ResponseEntity<IndexCreneauxStatsDto> reconstruireIndex() {
+        indexCreneauxService.reconstruire();
+        return ResponseEntity.ok(indexCreneauxService.getStatistiques());
+    }
+}
@@ -1,17 +1,21 @@
 package com.sante.senegal.controllers;
 
 import com.sante.senegal.dto.*;
+import com.sante.senegal.services.implementations.NotificationService;
 import com.sante.senegal.services.interfaces.ProfilService;
 import lombok.RequiredArgsConstructor;
 import org.springframework.http.ResponseEntity;
 import org.springframework.web.bind.annotation.*;
 
+import java.util.List;
+
 @RestController
 @RequestMapping("/profil")
 @RequiredArgsConstructor
 public class ProfilController {
 
     private final ProfilService profilService;
+    private final NotificationService notificationService;
 
     @GetMapping("/{userId}")
     public ResponseEntity<ProfilUtilisateurDto> getProfil(@PathVariable Long userId) {
@@ -32,4 +36,17 @@ public class ProfilController {
         profilService.changerMotDePasse(userId, dto);
         return ResponseEntity.ok().build();
     }
+
+    @GetMapping("/{userId}/notifications")
+    public ResponseEntity<List<NotificationUtilisateurDto>> getNotifications(
+            @PathVariable Long userId,
+            @RequestParam(defaultValue = "50") int limite) {
+        return ResponseEntity.ok(notificationService.getNotifications(userId, Math.min(limite, 200)));
+    }
+
+    @PutMapping("/{userId}/notifications/{idNotification}/lue")
+    public ResponseEntity<Void> marquerNotificationLue(@PathVariable Long userId, @PathVariable Long idNotification) {
+        notificationService.marquerLue(userId, idNotification);
+        return ResponseEntity.noContent().build();
+    }
 }
\ No newline at end of file
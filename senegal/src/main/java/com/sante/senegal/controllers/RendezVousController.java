@@ -1,15 +1,25 @@
 package com.sante.senegal.controllers;
 
+import com.sante.senegal.composants.ReponseNdjson;
+import com.sante.senegal.dto.AgendaCreneauDto;
+import com.sante.senegal.dto.ExecutionRappelsDto;
+import com.sante.senegal.dto.PageCurseurDto;
 import com.sante.senegal.dto.RendezVousDto;
 import com.sante.senegal.dto.RendezVousRequestDto;
 import com.sante.senegal.entities.RendezVous;
+import com.sante.senegal.services.implementations.AgendaMedecinService;
+import com.sante.senegal.services.implementations.IdempotenceService;
+import com.sante.senegal.services.implementations.RappelRendezVousService;
 import com.sante.senegal.services.interfaces.RendezVousService;
 import jakarta.validation.Valid;
 import lombok.RequiredArgsConstructor;
 import org.springframework.format.annotation.DateTimeFormat;
+import org.springframework.http.MediaType;
 import org.springframework.http.ResponseEntity;
 import org.springframework.web.bind.annotation.*;
+import org.springframework.web.servlet.mvc.method.annotation.StreamingResponseBody;
 
+import java.time.LocalDate;
 import java.time.LocalDateTime;
 import java.util.List;
 
@@ -20,10 +30,16 @@ import java.util.List;
 public class RendezVousController {
 
     private final RendezVousService rendezVousService;
+    private final IdempotenceService idempotenceService;
+    private final ReponseNdjson reponseNdjson;
+    private final AgendaMedecinService agendaMedecinService;
+    private final RappelRendezVousService rappelRendezVousService;
 
     @GetMapping
-    public ResponseEntity<List<RendezVousDto>> getAll() {
-        return ResponseEntity.ok(rendezVousService.getAllRendezVous());
+    public ResponseEntity<PageCurseurDto<RendezVousDto>> getAll(
+            @RequestParam(required = false) String curseur,
+            @RequestParam(required = false) Integer taille) {
+        return ResponseEntity.ok(rendezVousService.getPageRendezVous(curseur, taille));
     }
     @GetMapping("/medecins/{idMedecin}/programmes")
     public ResponseEntity<List<RendezVousDto>> getRendezVousProgrammesPourMedecin(@PathVariable Long idMedecin) {
@@ -38,20 +54,22 @@ public class RendezVousController {
     }
 
     @PostMapping
-    public ResponseEntity<RendezVousDto> create(@Valid @RequestBody RendezVousRequestDto dto) {
-        return ResponseEntity
+    public ResponseEntity<RendezVousDto> create(
+            @RequestHeader(value = IdempotenceService.ENTETE_CLE, required = false) String cleIdempotence,
+            @Valid @RequestBody RendezVousRequestDto dto) {
+        return idempotenceService.executer("POST /rendez-vous", cleIdempotence, dto, () -> ResponseEntity
                 .status(201)
-                .body(rendezVousService.createRendezVous(dto));
+                .body(rendezVousService.createRendezVous(dto)));
     }
 
     @PatchMapping("/{id}/date")
     public ResponseEntity<RendezVousDto> updateDate(
+            @RequestHeader(value = IdempotenceService.ENTETE_CLE, required = false) String cleIdempotence,
             @PathVariable Long id,
             @RequestBody RendezVousRequestDto dto) {
-        var updated = rendezVousService.updateDateHeureRendezVous(
-                id, dto.getDateHeure(), dto.getDureePrevue()
-        );
-        return ResponseEntity.ok(updated);
+        return idempotenceService.executer("PATCH /rendez-vous/" + id + "/date", cleIdempotence, dto,
+                () -> ResponseEntity.ok(rendezVousService.updateDateHeureRendezVous(
+                        id, dto.getDateHeure(), dto.getDureePrevue())));
     }
 
     @PutMapping("/{id}")
@@ -79,20 +97,28 @@ public class RendezVousController {
     }
 
     @PatchMapping("/{id}/confirmer")
-    public ResponseEntity<RendezVousDto> confirmer(@PathVariable Long id) {
-        return ResponseEntity.ok(rendezVousService.confirmerRendezVous(id));
+    public ResponseEntity<RendezVousDto> confirmer(
+            @RequestHeader(value = IdempotenceService.ENTETE_CLE, required = false) String cleIdempotence,
+            @PathVariable Long id) {
+        return idempotenceService.executer("PATCH /rendez-vous/" + id + "/confirmer", cleIdempotence, id,
+                () -> ResponseEntity.ok(rendezVousService.confirmerRendezVous(id)));
     }
 
     @PatchMapping("/{id}/annuler")
-    public ResponseEntity<RendezVousDto> annuler(@PathVariable Long id) {
-        return ResponseEntity.ok(rendezVousService.annulerRendezVous(id));
+    public ResponseEntity<RendezVousDto> annuler(
+            @RequestHeader(value = IdempotenceService.ENTETE_CLE, required = false) String cleIdempotence,
+            @PathVariable Long id) {
+        return idempotenceService.executer("PATCH /rendez-vous/" + id + "/annuler", cleIdempotence, id,
+                () -> ResponseEntity.ok(rendezVousService.annulerRendezVous(id)));
     }
 
     @PatchMapping("/{id}/reporter")
     public ResponseEntity<RendezVousDto> reporter(
+            @RequestHeader(value = IdempotenceService.ENTETE_CLE, required = false) String cleIdempotence,
             @PathVariable Long id,
             @RequestBody @DateTimeFormat(iso = DateTimeFormat.ISO.DATE_TIME) LocalDateTime nouvelleDate) {
-        return ResponseEntity.ok(rendezVousService.reporterRendezVous(id, nouvelleDate));
+        return idempotenceService.executer("PATCH /rendez-vous/" + id + "/reporter", cleIdempotence, nouvelleDate,
+                () -> ResponseEntity.ok(rendezVousService.reporterRendezVous(id, nouvelleDate)));
     }
 
     @PatchMapping("/{id}/commencer")
@@ -111,23 +137,35 @@ public class RendezVousController {
     }
 
     @GetMapping("/medecin/{idMedecin}")
-    public ResponseEntity<List<RendezVousDto>> getByMedecin(@PathVariable Long idMedecin) {
-        return ResponseEntity.ok(rendezVousService.getRendezVousByMedecin(idMedecin));
+    public ResponseEntity<PageCurseurDto<RendezVousDto>> getByMedecin(
+            @PathVariable Long idMedecin,
+            @RequestParam(required = false) String curseur,
+            @RequestParam(required = false) Integer taille) {
+        return ResponseEntity.ok(rendezVousService.getPageRendezVousByMedecin(idMedecin, curseur, taille));
     }
 
     @GetMapping("/service/{idService}")
-    public ResponseEntity<List<RendezVousDto>> getByService(@PathVariable Long idService) {
-        return ResponseEntity.ok(rendezVousService.getRendezVousByService(idService));
+    public ResponseEntity<PageCurseurDto<RendezVousDto>> getByService(
+            @PathVariable Long idService,
+            @RequestParam(required = false) String curseur,
+            @RequestParam(required = false) Integer taille) {
+        return ResponseEntity.ok(rendezVousService.getPageRendezVousByService(idService, curseur, taille));
     }
 
     @GetMapping("/hopital/{idHopital}")
-    public ResponseEntity<List<RendezVousDto>> getByHopital(@PathVariable Long idHopital) {
-        return ResponseEntity.ok(rendezVousService.getRendezVousByHopital(idHopital));
+    public ResponseEntity<PageCurseurDto<RendezVousDto>> getByHopital(
+            @PathVariable Long idHopital,
+            @RequestParam(required = false) String curseur,
+            @RequestParam(required = false) Integer taille) {
+        return ResponseEntity.ok(rendezVousService.getPageRendezVousByHopital(idHopital, curseur, taille));
     }
 
     @GetMapping("/statut/{statut}")
-    public ResponseEntity<List<RendezVousDto>> getByStatut(@PathVariable RendezVous.StatutRendezVous statut) {
-        return ResponseEntity.ok(rendezVousService.getRendezVousByStatut(statut));
+    public ResponseEntity<PageCurseurDto<RendezVousDto>> getByStatut(
+            @PathVariable RendezVous.StatutRendezVous statut,
+            @RequestParam(required = false) String curseur,
+            @RequestParam(required = false) Integer taille) {
+        return ResponseEntity.ok(rendezVousService.getPageRendezVousByStatut(statut, curseur, taille));
     }
 
     @GetMapping("/urgence/{niveauUrgence}")
@@ -142,6 +180,23 @@ public class RendezVousController {
         return ResponseEntity.ok(rendezVousService.getRendezVousBetweenDates(dateDebut, dateFin));
     }
 
+    @GetMapping(value = "/periode", produces = MediaType.APPLICATION_NDJSON_VALUE)
+    public ResponseEntity<StreamingResponseBody> streamBetweenDates(
+            @RequestParam @DateTimeFormat(iso = DateTimeFormat.ISO.DATE_TIME) LocalDateTime dateDebut,
+            @RequestParam @DateTimeFormat(iso = DateTimeFormat.ISO.DATE_TIME) LocalDateTime dateFin) {
+        return reponseNdjson.<RendezVousDto>flux(consommateur ->
+                rendezVousService.parcourirRendezVousBetweenDates(dateDebut, dateFin, null, null, consommateur));
+    }
+
+    @GetMapping(value = "/hopital/{idHopital}/periode", produces = MediaType.APPLICATION_NDJSON_VALUE)
+    public ResponseEntity<StreamingResponseBody> streamByHopitalAndPeriode(
+            @PathVariable Long idHopital,
+            @RequestParam @DateTimeFormat(iso = DateTimeFormat.ISO.DATE_TIME) LocalDateTime dateDebut,
+            @RequestParam @DateTimeFormat(iso = DateTimeFormat.ISO.DATE_TIME) LocalDateTime dateFin) {
+        return reponseNdjson.<RendezVousDto>flux(consommateur ->
+                rendezVousService.parcourirRendezVousBetweenDates(dateDebut, dateFin, idHopital, null, consommateur));
+    }
+
     @GetMapping("/medecin/{idMedecin}/periode")
     public ResponseEntity<List<RendezVousDto>> getByMedecinAndPeriode(
             @PathVariable Long idMedecin,
@@ -150,6 +205,15 @@ public class RendezVousController {
         return ResponseEntity.ok(rendezVousService.getRendezVousByMedecinAndDateRange(idMedecin, dateDebut, dateFin));
     }
 
+    @GetMapping(value = "/medecin/{idMedecin}/periode", produces = MediaType.APPLICATION_NDJSON_VALUE)
+    public ResponseEntity<StreamingResponseBody> streamByMedecinAndPeriode(
+            @PathVariable Long idMedecin,
+            @RequestParam @DateTimeFormat(iso = DateTimeFormat.ISO.DATE_TIME) LocalDateTime dateDebut,
+            @RequestParam @DateTimeFormat(iso = DateTimeFormat.ISO.DATE_TIME) LocalDateTime dateFin) {
+        return reponseNdjson.<RendezVousDto>flux(consommateur ->
+                rendezVousService.parcourirRendezVousBetweenDates(dateDebut, dateFin, null, idMedecin, consommateur));
+    }
+
     @GetMapping("/patient/{idPatient}/prochains")
     public ResponseEntity<List<RendezVousDto>> getProchainsByPatient(@PathVariable Long idPatient) {
         return ResponseEntity.ok(rendezVousService.getUpcomingRendezVousByPatient(idPatient));
@@ -169,6 +233,37 @@ public class RendezVousController {
     public ResponseEntity<List<RendezVousDto>> getOverdue() {
         return ResponseEntity.ok(rendezVousService.getOverdueRendezVous());
     }
+    /**
+     * Agenda du jour d'un médecin, lu dans le modèle de lecture agenda_medecin (aujourd'hui par défaut)
+     */
+    @GetMapping("/medecin/{idMedecin}/agenda")
+    public ResponseEntity<List<AgendaCreneauDto>> getAgendaMedecin(
+            @PathVariable Long idMedecin,
+            @RequestParam(required = false) @DateTimeFormat(iso = DateTimeFormat.ISO.DATE) LocalDate date) {
+        return ResponseEntity.ok(agendaMedecinService.getAgenda(idMedecin, date != null ? date : LocalDate.now()));
+    }
+
+    /**
+     * Planifie les rappels à venir puis envoie immédiatement ceux qui sont dus
+     */
+    @PostMapping("/rappels/executer")
+    public ResponseEntity<ExecutionRappelsDto> executerRappels() {
+        rappelRendezVousService.planifier();
+        return ResponseEntity.ok(rappelRendezVousService.executer());
+    }
+
+    @GetMapping("/rappels/executions")
+    public ResponseEntity<List<ExecutionRappelsDto>> getExecutionsRappels() {
+        return ResponseEntity.ok(rappelRendezVousService.getExecutions());
+    }
+
+    @PostMapping("/agenda/reconstruire")
+    public ResponseEntity<Integer> reconstruireAgenda(
+            @RequestParam @DateTimeFormat(iso = DateTimeFormat.ISO.DATE) LocalDate dateDebut,
+            @RequestParam @DateTimeFormat(iso = DateTimeFormat.ISO.DATE) LocalDate dateFin) {
+        return ResponseEntity.ok(agendaMedecinService.reconstruire(dateDebut, dateFin));
+    }
+
     @GetMapping("/medecin/{idMedecin}/prochains")
     public ResponseEntity<List<RendezVousDto>> getProchainsByMedecin(@PathVariable Long idMedecin) {
         return ResponseEntity.ok(rendezVousService.getUpcomingRendezVousByMedecin(idMedecin));
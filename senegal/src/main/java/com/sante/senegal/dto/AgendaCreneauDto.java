@@ -0,0 +1,31 @@
+package com.sante.senegal.dto;
+
+import com.sante.senegal.entities.RendezVous;
+import lombok.AllArgsConstructor;
+import lombok.Builder;
+import lombok.Data;
+import lombok.NoArgsConstructor;
+
+import java.time.LocalDate;
+import java.time.LocalTime;
+
+/**
+ * Ligne de l'agenda journalier d'un médecin
+ */
+@Data
+@NoArgsConstructor
+@AllArgsConstructor
+@Builder
+public class AgendaCreneauDto {
+    private Long idRdv;
+    private Long idMedecin;
+    private LocalDate date;
+    private LocalTime heureDebut;
+    private LocalTime heureFin;
+    private Long idPatient;
+    private String nomPatient;
+    private String motif;
+    private RendezVous.TypeConsultation typeConsultation;
+    private RendezVous.StatutRendezVous statut;
+    private RendezVous.NiveauUrgence niveauUrgence;
+}
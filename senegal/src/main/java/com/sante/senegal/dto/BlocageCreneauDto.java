@@ -0,0 +1,19 @@
+package com.sante.senegal.dto;
+
+import lombok.AllArgsConstructor;
+import lombok.Builder;
+import lombok.Data;
+import lombok.NoArgsConstructor;
+
+import java.time.LocalDateTime;
+
+@Data
+@NoArgsConstructor
+@AllArgsConstructor
+@Builder
+public class BlocageCreneauDto {
+    private Long idPlanning;
+    private Long idPatient;
+    private long dureeSecondes;
+    private LocalDateTime expiration;
+}
@@ -0,0 +1,26 @@
+package com.sante.senegal.dto;
+
+import lombok.AllArgsConstructor;
+import lombok.Builder;
+import lombok.Data;
+import lombok.NoArgsConstructor;
+
+import java.time.LocalDate;
+
+/**
+ * Capacité journalière d'un service et part réservée aux rendez-vous urgents
+ */
+@Data
+@NoArgsConstructor
+@AllArgsConstructor
+@Builder
+public class CapaciteUrgenceDto {
+    private Long idService;
+    private LocalDate date;
+    private int creneaux;
+    private int creneauxLibres;
+    private int reserveUrgence;
+    private int urgencesReservees;
+    private int reserveRestante;
+    private int libresPourNormaux;
+}
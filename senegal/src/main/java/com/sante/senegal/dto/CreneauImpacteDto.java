@@ -0,0 +1,31 @@
+package com.sante.senegal.dto;
+
+import com.sante.senegal.entities.RendezVous;
+import lombok.AllArgsConstructor;
+import lombok.Builder;
+import lombok.Data;
+import lombok.NoArgsConstructor;
+
+import java.time.LocalDate;
+import java.time.LocalTime;
+
+/**
+ * Créneau touché par un changement de calendrier, avec le rendez-vous et le patient éventuels
+ */
+@Data
+@NoArgsConstructor
+@AllArgsConstructor
+@Builder
+public class CreneauImpacteDto {
+    private Long idPlanning;
+    private Long idMedecin;
+    private String nomMedecin;
+    private String nomHopital;
+    private LocalDate date;
+    private LocalTime heureDebut;
+    private Long idRdv;
+    private RendezVous.StatutRendezVous statutRdv;
+    private Long idPatient;
+    private String prenomPatient;
+    private String emailPatient;
+}
@@ -0,0 +1,18 @@
+package com.sante.senegal.dto;
+
+import lombok.AllArgsConstructor;
+import lombok.Builder;
+import lombok.Data;
+import lombok.NoArgsConstructor;
+
+@Data
+@NoArgsConstructor
+@AllArgsConstructor
+@Builder
+public class CriteresCreneauDto {
+    private Long idService;
+    private Long idHopital;
+    private String specialite;
+    private String region;
+    private String ville;
+}
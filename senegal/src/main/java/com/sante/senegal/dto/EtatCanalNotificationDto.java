@@ -0,0 +1,25 @@
+package com.sante.senegal.dto;
+
+import lombok.AllArgsConstructor;
+import lombok.Builder;
+import lombok.Data;
+import lombok.NoArgsConstructor;
+
+/**
+ * État de la file d'un canal de notification depuis le démarrage
+ */
+@Data
+@NoArgsConstructor
+@AllArgsConstructor
+@Builder
+public class EtatCanalNotificationDto {
+    private String canal;
+    private int workers;
+    private int capacite;
+    private int fileUrgente;
+    private int fileNormale;
+    private long envoyees;
+    private long echecs;
+    private long rejetees;
+    private double latenceMoyenneMs;
+}
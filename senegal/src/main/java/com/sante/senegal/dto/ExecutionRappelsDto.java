@@ -0,0 +1,28 @@
+package com.sante.senegal.dto;
+
+import lombok.AllArgsConstructor;
+import lombok.Builder;
+import lombok.Data;
+import lombok.NoArgsConstructor;
+
+import java.time.LocalDateTime;
+
+/**
+ * Bilan d'une exécution de l'envoi des rappels de rendez-vous sur ce nœud
+ */
+@Data
+@NoArgsConstructor
+@AllArgsConstructor
+@Builder
+public class ExecutionRappelsDto {
+    private LocalDateTime dateDebut;
+    private LocalDateTime dateFin;
+    private long lots;
+    private long selectionnes;
+    private long envoyes;
+    private long echecs;
+    private long annules;
+    private long replanifies;
+    private long dureeMs;
+    private double debitParSeconde;
+}
@@ -0,0 +1,23 @@
+package com.sante.senegal.dto;
+
+import lombok.AllArgsConstructor;
+import lombok.Builder;
+import lombok.Data;
+import lombok.NoArgsConstructor;
+
+import java.time.LocalDate;
+
+@Data
+@NoArgsConstructor
+@AllArgsConstructor
+@Builder
+public class GenerationPlanningResultatDto {
+    private Long idMedecin;
+    private Long idHopital;
+    private LocalDate dateDebut;
+    private LocalDate dateFin;
+    private int creneauxCrees;
+    private int creneauxExistants;
+    private long dureeMs;
+    private String erreur; // Renseigné si la génération de ce médecin a échoué
+}
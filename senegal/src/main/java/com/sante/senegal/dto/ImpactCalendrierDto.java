@@ -0,0 +1,24 @@
+package com.sante.senegal.dto;
+
+import lombok.AllArgsConstructor;
+import lombok.Builder;
+import lombok.Data;
+import lombok.NoArgsConstructor;
+
+import java.time.LocalDate;
+
+@Data
+@NoArgsConstructor
+@AllArgsConstructor
+@Builder
+public class ImpactCalendrierDto {
+    private String typeEvenement;
+    private String motif;
+    private LocalDate dateDebut;
+    private LocalDate dateFin;
+    private int creneauxSupprimes;
+    private int rendezVousAnnules;
+    private int disponibilitesMarquees;
+    private int notificationsEnAttente;
+    private long dureeMs;
+}
@@ -0,0 +1,29 @@
+package com.sante.senegal.dto;
+
+import lombok.AllArgsConstructor;
+import lombok.Builder;
+import lombok.Data;
+import lombok.NoArgsConstructor;
+
+import java.time.LocalDate;
+import java.time.LocalDateTime;
+
+@Data
+@NoArgsConstructor
+@AllArgsConstructor
+@Builder
+public class IndexCreneauxStatsDto {
+    private boolean actif;
+    private boolean pret;
+    private long hits;
+    private long misses;
+    private double tauxSucces;
+    private long miseAJoursDepuisReconstruction;
+    private LocalDateTime derniereReconstruction;
+    private long ageSecondes; // Ancienneté de la dernière reconstruction complète
+    private long dureeDerniereReconstructionMs;
+    private long nombreCreneaux;
+    private long nombreCreneauxLibres;
+    private LocalDate fenetreDebut;
+    private LocalDate fenetreFin;
+}
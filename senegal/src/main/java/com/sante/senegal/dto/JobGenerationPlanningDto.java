@@ -0,0 +1,30 @@
+package com.sante.senegal.dto;
+
+import lombok.AllArgsConstructor;
+import lombok.Builder;
+import lombok.Data;
+import lombok.NoArgsConstructor;
+
+import java.time.LocalDateTime;
+import java.util.List;
+
+@Data
+@NoArgsConstructor
+@AllArgsConstructor
+@Builder
+public class JobGenerationPlanningDto {
+    private String idJob;
+    private String portee; // HOPITAL, SERVICE, TOUS
+    private Long idCible;
+    private String statut; // EN_COURS, TERMINE, TERMINE_AVEC_ERREURS
+    private int totalMedecins;
+    private int totalAffectations; // couples médecin/hôpital ; traites, reussis et echecs se comptent par couple
+    private int traites;
+    private int reussis;
+    private int echecs;
+    private long creneauxCrees;
+    private LocalDateTime dateDebut;
+    private LocalDateTime dateFin;
+    private long dureeMs;
+    private List<GenerationPlanningResultatDto> resultats;
+}
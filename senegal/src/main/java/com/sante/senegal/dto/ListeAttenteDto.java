@@ -0,0 +1,36 @@
+package com.sante.senegal.dto;
+
+import com.sante.senegal.entities.ListeAttente;
+import com.sante.senegal.entities.RendezVous;
+import lombok.AllArgsConstructor;
+import lombok.Builder;
+import lombok.Data;
+import lombok.NoArgsConstructor;
+
+import java.time.LocalDate;
+import java.time.LocalDateTime;
+
+@Data
+@NoArgsConstructor
+@AllArgsConstructor
+@Builder
+public class ListeAttenteDto {
+    private Long idListeAttente;
+    private Long idPatient;
+    private String nomPatient;
+    private Long idMedecin;
+    private String nomMedecin;
+    private Long idService;
+    private String nomService;
+    private Long idHopital;
+    private String nomHopital;
+    private LocalDate dateDebut;
+    private LocalDate dateFin;
+    private RendezVous.TypeConsultation typeConsultation;
+    private String motif;
+    private RendezVous.NiveauUrgence niveauUrgence;
+    private ListeAttente.StatutListeAttente statut;
+    private LocalDateTime dateInscription;
+    private Long idPlanningPropose;
+    private LocalDateTime dateExpirationOffre;
+}
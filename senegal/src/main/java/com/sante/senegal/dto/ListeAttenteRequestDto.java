@@ -0,0 +1,25 @@
+package com.sante.senegal.dto;
+
+import com.sante.senegal.entities.RendezVous;
+import lombok.AllArgsConstructor;
+import lombok.Builder;
+import lombok.Data;
+import lombok.NoArgsConstructor;
+
+import java.time.LocalDate;
+
+@Data
+@NoArgsConstructor
+@AllArgsConstructor
+@Builder
+public class ListeAttenteRequestDto {
+    private Long idPatient;
+    private Long idMedecin;
+    private Long idService;
+    private Long idHopital;
+    private LocalDate dateDebut;
+    private LocalDate dateFin;
+    private RendezVous.TypeConsultation typeConsultation;
+    private String motif;
+    private RendezVous.NiveauUrgence niveauUrgence;
+}
@@ -0,0 +1,26 @@
+package com.sante.senegal.dto;
+
+import lombok.AllArgsConstructor;
+import lombok.Builder;
+import lombok.Data;
+import lombok.NoArgsConstructor;
+
+/**
+ * État du transport SMTP mutualisé : file d'attente, sessions et compteurs depuis le démarrage
+ */
+@Data
+@NoArgsConstructor
+@AllArgsConstructor
+@Builder
+public class MetriquesTransportEmailDto {
+    private int tailleFile;
+    private int capaciteFile;
+    private int envoisEnCours;
+    private int sessionsOuvertes;
+    private int sessionsLibres;
+    private long connexions;
+    private long envoyes;
+    private long echecs;
+    private double latenceMoyenneMs;
+    private double latenceMaxMs;
+}
@@ -0,0 +1,21 @@
+package com.sante.senegal.dto;
+
+import lombok.AllArgsConstructor;
+import lombok.Builder;
+import lombok.Data;
+import lombok.NoArgsConstructor;
+
+import java.time.LocalDateTime;
+
+@Data
+@NoArgsConstructor
+@AllArgsConstructor
+@Builder
+public class NotificationUtilisateurDto {
+    private Long idNotification;
+    private String titre;
+    private String message;
+    private boolean urgente;
+    private boolean lue;
+    private LocalDateTime dateCreation;
+}
@@ -0,0 +1,23 @@
+package com.sante.senegal.dto;
+
+import lombok.AllArgsConstructor;
+import lombok.Builder;
+import lombok.Data;
+import lombok.NoArgsConstructor;
+
+import java.util.List;
+
+/**
+ * Page d'une liste parcourue par curseur (keyset) : le client renvoie
+ * {@code curseurSuivant} tel quel pour obtenir la page suivante, null en fin de liste.
+ */
+@Data
+@NoArgsConstructor
+@AllArgsConstructor
+@Builder
+public class PageCurseurDto<T> {
+    private List<T> elements;
+    private String curseurSuivant;
+    private int taille;
+    private boolean suivante;
+}
@@ -21,6 +21,8 @@ public class PlanningDto {
     private Long idHopital;
     private String nomHopital;
     private String adresseHopital; // Ajouté
+    private String villeHopital;
+    private String regionHopital;
 
     private LocalDate date;
     private LocalTime heureDebut;
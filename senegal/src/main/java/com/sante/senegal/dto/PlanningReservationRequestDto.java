@@ -9,4 +9,6 @@ public class PlanningReservationRequestDto {
     private Long idPatient;
     private RendezVous.TypeConsultation typeConsultation;
     private String motif;
+    // NORMALE par défaut ; URGENT et TRES_URGENT peuvent prendre les créneaux de la réserve d'urgence
+    private RendezVous.NiveauUrgence niveauUrgence;
 }
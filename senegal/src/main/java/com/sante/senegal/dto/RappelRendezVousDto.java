@@ -0,0 +1,28 @@
+package com.sante.senegal.dto;
+
+import com.sante.senegal.entities.RendezVous;
+import lombok.AllArgsConstructor;
+import lombok.Builder;
+import lombok.Data;
+import lombok.NoArgsConstructor;
+
+import java.time.LocalDateTime;
+
+/**
+ * Données nécessaires à un rappel de rendez-vous, lues en une requête avec le patient
+ * (constructeur de projection de RendezVousRepository.findRappelsParIds)
+ */
+@Data
+@NoArgsConstructor
+@AllArgsConstructor
+@Builder
+public class RappelRendezVousDto {
+    private Long idRdv;
+    private LocalDateTime dateHeure;
+    private String motif;
+    private RendezVous.StatutRendezVous statut;
+    private Long idPatient;
+    private String prenomPatient;
+    private String nomPatient;
+    private String emailPatient;
+}
@@ -1,9 +1,11 @@
 package com.sante.senegal.dto;
 import com.sante.senegal.entities.RendezVous;
 import lombok.Data;
+import lombok.NoArgsConstructor;
 
 import java.time.LocalDateTime;
 @Data
+@NoArgsConstructor
 public class RendezVousDto {
     private Long idRdv;
     private Long patientId;
@@ -27,4 +29,39 @@ public class RendezVousDto {
     private LocalDateTime dateCreation;
     private LocalDateTime dateModification;
     private String modePriseRdv;
+
+    /**
+     * Constructeur de projection JPQL (RendezVousRepository.SELECT_DTO) : une seule requête avec jointures
+     */
+    public RendezVousDto(Long idRdv,
+                         Long patientId, String patientNomComplet,
+                         Long medecinId, String medecinNomComplet, String medecinSpecialite,
+                         Long serviceId, String serviceNom,
+                         Long hopitalId, String hopitalNom, String adresseHopital, String villeHopital, String regionHopital,
+                         LocalDateTime dateHeure, Integer dureePrevue, RendezVous.TypeConsultation typeConsultation,
+                         String motif, RendezVous.NiveauUrgence niveauUrgence, RendezVous.StatutRendezVous statut,
+                         LocalDateTime dateCreation, LocalDateTime dateModification, RendezVous.ModePriseRdv modePriseRdv) {
+        this.idRdv = idRdv;
+        this.patientId = patientId;
+        this.patientNomComplet = patientNomComplet;
+        this.medecinId = medecinId;
+        this.medecinNomComplet = medecinNomComplet;
+        this.medecinSpecialite = medecinSpecialite;
+        this.serviceId = serviceId;
+        this.serviceNom = serviceNom;
+        this.hopitalId = hopitalId;
+        this.hopitalNom = hopitalNom;
+        this.adresseHopital = adresseHopital;
+        this.villeHopital = villeHopital;
+        this.regionHopital = regionHopital;
+        this.dateHeure = dateHeure;
+        this.dureePrevue = dureePrevue;
+        this.typeConsultation = typeConsultation;
+        this.motif = motif;
+        this.niveauUrgence = niveauUrgence;
+        this.statut = statut;
+        this.dateCreation = dateCreation;
+        this.dateModification = dateModification;
+        this.modePriseRdv = modePriseRdv != null ? modePriseRdv.name() : null;
+    }
 }
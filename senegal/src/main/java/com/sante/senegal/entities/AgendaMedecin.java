@@ -0,0 +1,64 @@
+package com.sante.senegal.entities;
+
+import jakarta.persistence.*;
+import lombok.*;
+
+import java.time.LocalDate;
+import java.time.LocalDateTime;
+import java.time.LocalTime;
+
+/**
+ * Modèle de lecture de l'agenda des médecins : une ligne dénormalisée par rendez-vous,
+ * tenue à jour à chaque réservation et changement de statut (AgendaMedecinService).
+ * L'agenda d'un jour se lit en un seul parcours de l'index (médecin, date, heure).
+ */
+@Entity
+@Table(name = "agenda_medecin", indexes = {
+        @Index(name = "idx_agenda_medecin_jour", columnList = "id_medecin, date, heure_debut")
+})
+@Data
+@NoArgsConstructor
+@AllArgsConstructor
+@Builder
+public class AgendaMedecin {
+
+    // Même identifiant que le rendez-vous projeté
+    @Id
+    @Column(name = "id_rdv")
+    private Long idRdv;
+
+    @Column(name = "id_medecin", nullable = false)
+    private Long idMedecin;
+
+    @Column(nullable = false)
+    private LocalDate date;
+
+    @Column(name = "heure_debut", nullable = false)
+    private LocalTime heureDebut;
+
+    @Column(name = "heure_fin")
+    private LocalTime heureFin;
+
+    @Column(name = "id_patient")
+    private Long idPatient;
+
+    @Column(name = "nom_patient")
+    private String nomPatient;
+
+    @Column(columnDefinition = "TEXT")
+    private String motif;
+
+    @Enumerated(EnumType.STRING)
+    @Column(name = "type_consultation", length = 100)
+    private RendezVous.TypeConsultation typeConsultation;
+
+    @Enumerated(EnumType.STRING)
+    private RendezVous.StatutRendezVous statut;
+
+    @Enumerated(EnumType.STRING)
+    @Column(name = "niveau_urgence")
+    private RendezVous.NiveauUrgence niveauUrgence;
+
+    @Column(name = "date_mise_a_jour")
+    private LocalDateTime dateMiseAJour;
+}
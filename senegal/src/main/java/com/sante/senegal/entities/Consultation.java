@@ -25,7 +25,7 @@ public class Consultation {
     private Long idConsultation;
 
     @OneToOne(fetch = FetchType.LAZY)
-    @JoinColumn(name = "id_rdv", referencedColumnName = "id_rdv")
+    @JoinColumn(name = "id_rdv", referencedColumnName = "id_rdv", foreignKey = @ForeignKey(ConstraintMode.NO_CONSTRAINT))
     private RendezVous rendezVous;
 
     @ManyToOne(fetch = FetchType.LAZY)
@@ -12,11 +12,21 @@ import java.time.LocalTime;
 
 @Entity
 @Table(name = "disponibilites")
+@NamedEntityGraph(name = Disponibilite.GRAPHE_AFFICHAGE,
+        attributeNodes = {
+                @NamedAttributeNode("medecin"),
+                @NamedAttributeNode("service"),
+                @NamedAttributeNode("hopital")
+        })
 @Data
 @NoArgsConstructor
 @AllArgsConstructor
 @Builder
 public class Disponibilite {
+
+    /** Plan de chargement des listings : tout ce que lit DisponibiliteMapper, en une requête */
+    public static final String GRAPHE_AFFICHAGE = "Disponibilite.affichage";
+
     @Id
     @GeneratedValue(strategy = GenerationType.IDENTITY)
     @Column(name = "id_disponibilite")
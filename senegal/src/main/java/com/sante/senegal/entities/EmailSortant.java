@@ -0,0 +1,65 @@
+package com.sante.senegal.entities;
+
+import jakarta.persistence.*;
+import lombok.*;
+import org.hibernate.annotations.CreationTimestamp;
+
+import java.time.LocalDateTime;
+
+/**
+ * Boîte d'envoi des e-mails (outbox) : chaque e-mail est enregistré dans la transaction métier
+ * qui le produit, puis remis au serveur SMTP par EnvoiEmailsService après validation.
+ */
+@Entity
+@Table(name = "email_sortant",
+        indexes = @Index(name = "idx_email_sortant_a_envoyer", columnList = "statut, prochain_essai"))
+@Data
+@NoArgsConstructor
+@AllArgsConstructor
+@Builder
+public class EmailSortant {
+
+    @Id
+    @GeneratedValue(strategy = GenerationType.IDENTITY)
+    @Column(name = "id_email")
+    private Long idEmail;
+
+    @Column(nullable = false)
+    private String destinataire;
+
+    @Column(nullable = false)
+    private String sujet;
+
+    @Column(nullable = false, columnDefinition = "TEXT")
+    private String corps;
+
+    @Column(nullable = false)
+    private boolean html;
+
+    @Enumerated(EnumType.STRING)
+    @Column(nullable = false, length = 20)
+    private StatutEmail statut;
+
+    @Column(nullable = false)
+    private int tentatives;
+
+    @Column(name = "prochain_essai", nullable = false)
+    private LocalDateTime prochainEssai;
+
+    @Column(name = "bail_jusqua")
+    private LocalDateTime bailJusqua;
+
+    @Column(name = "date_envoi")
+    private LocalDateTime dateEnvoi;
+
+    @Column(name = "derniere_erreur", length = 500)
+    private String derniereErreur;
+
+    @CreationTimestamp
+    @Column(name = "date_creation", updatable = false)
+    private LocalDateTime dateCreation;
+
+    public enum StatutEmail {
+        A_ENVOYER, EN_COURS, ENVOYE, ECHEC
+    }
+}
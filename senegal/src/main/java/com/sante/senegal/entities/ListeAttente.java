@@ -0,0 +1,85 @@
+package com.sante.senegal.entities;
+
+import jakarta.persistence.*;
+import lombok.*;
+import org.hibernate.annotations.CreationTimestamp;
+
+import java.time.LocalDate;
+import java.time.LocalDateTime;
+
+@Entity
+@Table(name = "liste_attente", indexes = {
+        @Index(name = "idx_liste_attente_medecin", columnList = "statut, id_medecin, priorite, date_inscription"),
+        @Index(name = "idx_liste_attente_service", columnList = "statut, id_service, priorite, date_inscription")
+})
+@Data
+@NoArgsConstructor
+@AllArgsConstructor
+@Builder
+public class ListeAttente {
+
+    @Id
+    @GeneratedValue(strategy = GenerationType.IDENTITY)
+    @Column(name = "id_liste_attente")
+    private Long idListeAttente;
+
+    @ManyToOne(fetch = FetchType.LAZY)
+    @JoinColumn(name = "id_patient", referencedColumnName = "id", nullable = false)
+    private Patient patient;
+
+    // Médecin souhaité ; à défaut, n'importe quel médecin du service
+    @ManyToOne(fetch = FetchType.LAZY)
+    @JoinColumn(name = "id_medecin", referencedColumnName = "id")
+    private Medecin medecin;
+
+    @ManyToOne(fetch = FetchType.LAZY)
+    @JoinColumn(name = "id_service", referencedColumnName = "id_service")
+    private Service service;
+
+    @ManyToOne(fetch = FetchType.LAZY)
+    @JoinColumn(name = "id_hopital", referencedColumnName = "id_hopital")
+    private Hopital hopital;
+
+    @Column(name = "date_debut", nullable = false)
+    private LocalDate dateDebut;
+
+    @Column(name = "date_fin", nullable = false)
+    private LocalDate dateFin;
+
+    @Enumerated(EnumType.STRING)
+    @Column(name = "type_consultation", length = 100)
+    private RendezVous.TypeConsultation typeConsultation;
+
+    @Column(columnDefinition = "TEXT")
+    private String motif;
+
+    @Enumerated(EnumType.STRING)
+    @Column(name = "niveau_urgence")
+    private RendezVous.NiveauUrgence niveauUrgence;
+
+    // Rang dérivé du niveau d'urgence, trié en premier lors de l'attribution
+    @Column(nullable = false)
+    private int priorite;
+
+    @Enumerated(EnumType.STRING)
+    @Column(nullable = false, length = 20)
+    private StatutListeAttente statut;
+
+    @CreationTimestamp
+    @Column(name = "date_inscription", updatable = false)
+    private LocalDateTime dateInscription;
+
+    @Column(name = "id_planning_propose")
+    private Long idPlanningPropose;
+
+    @Column(name = "date_expiration_offre")
+    private LocalDateTime dateExpirationOffre;
+
+    public enum StatutListeAttente {
+        EN_ATTENTE,
+        PROPOSE,
+        SATISFAIT,
+        EXPIRE,
+        ANNULE
+    }
+}
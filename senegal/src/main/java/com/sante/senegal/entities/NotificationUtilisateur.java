@@ -0,0 +1,44 @@
+package com.sante.senegal.entities;
+
+import jakarta.persistence.*;
+import lombok.*;
+import org.hibernate.annotations.CreationTimestamp;
+
+import java.time.LocalDateTime;
+
+/**
+ * Notification affichée dans l'application (canal IN_APP)
+ */
+@Entity
+@Table(name = "notification_utilisateur",
+        indexes = @Index(name = "idx_notification_utilisateur", columnList = "id_utilisateur, date_creation"))
+@Data
+@NoArgsConstructor
+@AllArgsConstructor
+@Builder
+public class NotificationUtilisateur {
+
+    @Id
+    @GeneratedValue(strategy = GenerationType.IDENTITY)
+    @Column(name = "id_notification")
+    private Long idNotification;
+
+    @Column(name = "id_utilisateur", nullable = false)
+    private Long idUtilisateur;
+
+    @Column(nullable = false)
+    private String titre;
+
+    @Column(nullable = false, columnDefinition = "TEXT")
+    private String message;
+
+    @Column(nullable = false)
+    private boolean urgente;
+
+    @Column(nullable = false)
+    private boolean lue;
+
+    @CreationTimestamp
+    @Column(name = "date_creation", updatable = false)
+    private LocalDateTime dateCreation;
+}
@@ -9,12 +9,24 @@ import java.time.LocalTime;
 
 @Entity
 @Table(name = "planning")
+@NamedEntityGraph(name = Planning.GRAPHE_AFFICHAGE,
+        attributeNodes = {
+                @NamedAttributeNode("medecin"),
+                @NamedAttributeNode("service"),
+                @NamedAttributeNode("hopital")
+        })
 @Data
 @NoArgsConstructor
 @AllArgsConstructor
 @Builder
 public class Planning {
 
+    /**
+     * Plan de chargement des listings : tout ce que lit PlanningMapper, en une requête.
+     * Le rendez-vous n'y figure pas : le mapper n'en lit que l'identifiant, servi par le proxy.
+     */
+    public static final String GRAPHE_AFFICHAGE = "Planning.affichage";
+
     @Id
     @GeneratedValue(strategy = GenerationType.IDENTITY)
     @Column(name = "id_planning")
@@ -44,7 +56,8 @@ public class Planning {
     @Column(name = "reserve", nullable = false)
     private boolean reserve = false;
 
-    @OneToOne
-    @JoinColumn(name = "id_rendez_vous")
+    // Pas de clé étrangère : rendez_vous est partitionnée par mois (cf. migration V1)
+    @OneToOne(fetch = FetchType.LAZY)
+    @JoinColumn(name = "id_rendez_vous", foreignKey = @ForeignKey(ConstraintMode.NO_CONSTRAINT))
     private RendezVous rendezVous;
 }
@@ -0,0 +1,66 @@
+package com.sante.senegal.entities;
+
+import jakarta.persistence.*;
+import lombok.*;
+import org.hibernate.annotations.CreationTimestamp;
+
+import java.time.LocalDateTime;
+
+/**
+ * Registre des rappels de rendez-vous : une ligne par (rendez-vous, type de rappel).
+ * La contrainte d'unicité rend la planification idempotente entre redémarrages et entre nœuds ;
+ * le statut et le bail (bailJusqua) garantissent qu'un rappel n'est pris que par un seul envoyeur.
+ */
+@Entity
+@Table(name = "rappel_rendez_vous",
+        uniqueConstraints = @UniqueConstraint(name = "uk_rappel_rdv_type", columnNames = {"id_rdv", "type_rappel"}),
+        indexes = @Index(name = "idx_rappel_a_envoyer", columnList = "statut, date_prevue"))
+@Data
+@NoArgsConstructor
+@AllArgsConstructor
+@Builder
+public class RappelRendezVous {
+
+    @Id
+    @GeneratedValue(strategy = GenerationType.IDENTITY)
+    @Column(name = "id_rappel")
+    private Long idRappel;
+
+    // Pas de clé étrangère : rendez_vous est partitionnée par mois (cf. migration V1)
+    @Column(name = "id_rdv", nullable = false)
+    private Long idRdv;
+
+    // Décalage configuré avant le rendez-vous (ex. 7j, 1j, 2h)
+    @Column(name = "type_rappel", nullable = false, length = 20)
+    private String typeRappel;
+
+    @Column(name = "decalage_minutes", nullable = false)
+    private long decalageMinutes;
+
+    @Column(name = "date_prevue", nullable = false)
+    private LocalDateTime datePrevue;
+
+    @Enumerated(EnumType.STRING)
+    @Column(nullable = false, length = 20)
+    private StatutRappel statut;
+
+    @Column(nullable = false)
+    private int tentatives;
+
+    @Column(name = "bail_jusqua")
+    private LocalDateTime bailJusqua;
+
+    @Column(name = "date_envoi")
+    private LocalDateTime dateEnvoi;
+
+    @Column(name = "derniere_erreur", length = 500)
+    private String derniereErreur;
+
+    @CreationTimestamp
+    @Column(name = "date_creation", updatable = false)
+    private LocalDateTime dateCreation;
+
+    public enum StatutRappel {
+        A_ENVOYER, EN_COURS, ENVOYE, ECHEC, ANNULE, EXPIRE
+    }
+}
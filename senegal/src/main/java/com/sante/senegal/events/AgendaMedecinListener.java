@@ -0,0 +1,32 @@
+package com.sante.senegal.events;
+
+import com.sante.senegal.dto.CreneauImpacteDto;
+import com.sante.senegal.entities.RendezVous;
+import com.sante.senegal.services.implementations.AgendaMedecinService;
+import lombok.RequiredArgsConstructor;
+import org.springframework.stereotype.Component;
+import org.springframework.transaction.event.TransactionPhase;
+import org.springframework.transaction.event.TransactionalEventListener;
+
+/**
+ * Tient l'agenda des médecins à jour dans la transaction qui modifie le rendez-vous :
+ * l'agenda est validé ou annulé avec elle, il ne peut pas diverger.
+ */
+@Component
+@RequiredArgsConstructor
+public class AgendaMedecinListener {
+
+    private final AgendaMedecinService agendaMedecinService;
+
+    @TransactionalEventListener(phase = TransactionPhase.BEFORE_COMMIT, fallbackExecution = true)
+    public void onRendezVousModifie(RendezVousModifieEvent event) {
+        agendaMedecinService.rafraichir(event.idRdv());
+    }
+
+    @TransactionalEventListener(phase = TransactionPhase.BEFORE_COMMIT, fallbackExecution = true)
+    public void onRendezVousAnnules(RendezVousAnnulesEvent event) {
+        agendaMedecinService.changerStatut(
+                event.rendezVous().stream().map(CreneauImpacteDto::getIdRdv).toList(),
+                RendezVous.StatutRendezVous.ANNULE);
+    }
+}
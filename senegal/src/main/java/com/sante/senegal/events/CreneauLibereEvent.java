@@ -0,0 +1,13 @@
+package com.sante.senegal.events;
+
+/**
+ * Publié lorsqu'un créneau de planning redevient libre (annulation, libération, offre refusée ou expirée).
+ * @param idPlanning le créneau libéré
+ * @param idListeAttenteExclue inscription à ne pas resolliciter pour ce créneau, ou null
+ */
+public record CreneauLibereEvent(Long idPlanning, Long idListeAttenteExclue) {
+
+    public CreneauLibereEvent(Long idPlanning) {
+        this(idPlanning, null);
+    }
+}
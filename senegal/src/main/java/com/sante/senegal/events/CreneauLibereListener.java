@@ -0,0 +1,31 @@
+package com.sante.senegal.events;
+
+import com.sante.senegal.services.interfaces.ListeAttenteService;
+import lombok.RequiredArgsConstructor;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.stereotype.Component;
+import org.springframework.transaction.event.TransactionalEventListener;
+
+/**
+ * Propose chaque créneau libéré à la liste d'attente, une fois la libération validée.
+ * Le traitement part sur un thread virtuel pour ne pas retarder la réponse de l'annulation.
+ */
+@Component
+@RequiredArgsConstructor
+@Slf4j
+public class CreneauLibereListener {
+
+    private final ListeAttenteService listeAttenteService;
+
+    @TransactionalEventListener(fallbackExecution = true)
+    public void onCreneauLibere(CreneauLibereEvent event) {
+        Thread.ofVirtual().name("liste-attente-" + event.idPlanning()).start(() -> {
+            try {
+                listeAttenteService.proposerCreneau(event.idPlanning(), event.idListeAttenteExclue());
+            } catch (Exception e) {
+                log.error("Échec de la proposition du créneau {} à la liste d'attente: {}",
+                        event.idPlanning(), e.getMessage());
+            }
+        });
+    }
+}
@@ -0,0 +1,13 @@
+package com.sante.senegal.events;
+
+import com.sante.senegal.dto.CreneauImpacteDto;
+
+import java.util.List;
+
+/**
+ * Publié après l'annulation en masse de rendez-vous par un changement de calendrier
+ * @param rendezVous créneaux dont le rendez-vous a été annulé, avec le patient à prévenir
+ * @param motif raison communiquée aux patients
+ */
+public record RendezVousAnnulesEvent(List<CreneauImpacteDto> rendezVous, String motif) {
+}
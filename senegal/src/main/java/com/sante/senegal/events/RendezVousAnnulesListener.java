@@ -0,0 +1,47 @@
+package com.sante.senegal.events;
+
+import com.sante.senegal.dto.CreneauImpacteDto;
+import com.sante.senegal.services.interfaces.EmailService;
+import lombok.RequiredArgsConstructor;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.stereotype.Component;
+import org.springframework.transaction.event.TransactionPhase;
+import org.springframework.transaction.event.TransactionalEventListener;
+
+import java.time.format.DateTimeFormatter;
+
+/**
+ * Prévient les patients dont le rendez-vous a été annulé par un changement de calendrier.
+ * Les e-mails sont déposés dans la boîte d'envoi avant la validation : ils partent si et seulement si
+ * les annulations sont validées.
+ */
+@Component
+@RequiredArgsConstructor
+@Slf4j
+public class RendezVousAnnulesListener {
+
+    private static final DateTimeFormatter FORMAT_DATE = DateTimeFormatter.ofPattern("dd/MM/yyyy");
+
+    private final EmailService emailService;
+
+    @TransactionalEventListener(phase = TransactionPhase.BEFORE_COMMIT, fallbackExecution = true)
+    public void onRendezVousAnnules(RendezVousAnnulesEvent event) {
+        int deposes = 0;
+        for (CreneauImpacteDto creneau : event.rendezVous()) {
+            if (creneau.getEmailPatient() == null) {
+                continue;
+            }
+            emailService.envoyerNotificationRendezVous(
+                    creneau.getEmailPatient(),
+                    "Annulation de votre rendez-vous",
+                    "Bonjour " + creneau.getPrenomPatient() + ",\n\n"
+                            + "Votre rendez-vous du " + creneau.getDate().format(FORMAT_DATE)
+                            + " à " + creneau.getHeureDebut() + " avec le Dr " + creneau.getNomMedecin()
+                            + " (" + creneau.getNomHopital() + ") est annulé.\n"
+                            + "Motif : " + event.motif() + ".\n"
+                            + "Nous vous invitons à reprendre rendez-vous sur un autre créneau.");
+            deposes++;
+        }
+        log.info("{} patients prévenus de l'annulation de leur rendez-vous ({})", deposes, event.motif());
+    }
+}
@@ -0,0 +1,8 @@
+package com.sante.senegal.events;
+
+/**
+ * Publié à chaque création, modification, changement de statut ou suppression d'un rendez-vous
+ * @param idRdv le rendez-vous concerné
+ */
+public record RendezVousModifieEvent(Long idRdv) {
+}
@@ -0,0 +1,7 @@
+package com.sante.senegal.exceptions;
+
+public class CleIdempotenceException extends RuntimeException {
+    public CleIdempotenceException(String message) {
+        super(message);
+    }
+}
@@ -0,0 +1,7 @@
+package com.sante.senegal.exceptions;
+
+public class CreneauIndisponibleException extends RuntimeException {
+    public CreneauIndisponibleException(String message) {
+        super(message);
+    }
+}
@@ -27,6 +27,16 @@ public class GlobalExceptionHandler {
         return response(HttpStatus.NOT_FOUND, ex.getMessage());
     }
 
+    @ExceptionHandler(CreneauIndisponibleException.class)
+    public ResponseEntity<Map<String, String>> handleCreneauIndisponible(CreneauIndisponibleException ex) {
+        return response(HttpStatus.CONFLICT, ex.getMessage());
+    }
+
+    @ExceptionHandler(CleIdempotenceException.class)
+    public ResponseEntity<Map<String, String>> handleCleIdempotence(CleIdempotenceException ex) {
+        return response(HttpStatus.CONFLICT, ex.getMessage());
+    }
+
     @ExceptionHandler(BadCredentialsException.class)
     public ResponseEntity<Map<String, String>> handleBadCredentials(BadCredentialsException ex) {
         return response(HttpStatus.UNAUTHORIZED, ex.getMessage());
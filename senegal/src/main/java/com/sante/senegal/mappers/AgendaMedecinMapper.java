@@ -0,0 +1,15 @@
+package com.sante.senegal.mappers;
+
+import com.sante.senegal.dto.AgendaCreneauDto;
+import com.sante.senegal.entities.AgendaMedecin;
+import org.mapstruct.Mapper;
+
+import java.util.List;
+
+@Mapper(config = ConfigurationMappers.class)
+public interface AgendaMedecinMapper {
+
+    AgendaCreneauDto toDto(AgendaMedecin agenda);
+
+    List<AgendaCreneauDto> toDtoList(List<AgendaMedecin> agenda);
+}
@@ -0,0 +1,18 @@
+package com.sante.senegal.mappers;
+
+import org.mapstruct.Builder;
+import org.mapstruct.MapperConfig;
+import org.mapstruct.ReportingPolicy;
+
+/**
+ * Configuration commune des mappers générés à la compilation (MapStruct) :
+ * beans Spring, setters plutôt que builders Lombok pour conserver les valeurs
+ * par défaut des entités, et toute propriété cible non traitée est une erreur de compilation.
+ */
+@MapperConfig(
+        componentModel = "spring",
+        builder = @Builder(disableBuilder = true),
+        unmappedTargetPolicy = ReportingPolicy.ERROR
+)
+public interface ConfigurationMappers {
+}
@@ -0,0 +1,14 @@
+package com.sante.senegal.mappers;
+
+import com.sante.senegal.dto.ConsultationDto;
+import com.sante.senegal.entities.Consultation;
+import org.mapstruct.Mapper;
+import org.mapstruct.Mapping;
+
+@Mapper(config = ConfigurationMappers.class)
+public interface ConsultationMapper {
+
+    @Mapping(target = "idRendezVous", source = "rendezVous.idRdv")
+    @Mapping(target = "idDossier", source = "dossier.idDossier")
+    ConsultationDto toDto(Consultation consultation);
+}
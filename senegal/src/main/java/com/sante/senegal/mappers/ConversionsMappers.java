@@ -0,0 +1,28 @@
+package com.sante.senegal.mappers;
+
+import java.time.LocalDate;
+import java.time.LocalDateTime;
+
+/**
+ * Conversions partagées par les mappers générés
+ */
+public final class ConversionsMappers {
+
+    private ConversionsMappers() {
+    }
+
+    public static <E extends Enum<E>> E enumOuNull(Class<E> type, String valeur) {
+        if (valeur == null) {
+            return null;
+        }
+        try {
+            return Enum.valueOf(type, valeur);
+        } catch (IllegalArgumentException e) {
+            return null;
+        }
+    }
+
+    public static LocalDateTime debutDeJournee(LocalDate date) {
+        return date != null ? date.atStartOfDay() : null;
+    }
+}
@@ -0,0 +1,34 @@
+package com.sante.senegal.mappers;
+
+import com.sante.senegal.dto.CreateExamenRequest;
+import com.sante.senegal.dto.ExamenDto;
+import com.sante.senegal.dto.ExamenResultatsRequest;
+import com.sante.senegal.entities.Examen;
+import org.mapstruct.BeanMapping;
+import org.mapstruct.Mapper;
+import org.mapstruct.Mapping;
+import org.mapstruct.MappingTarget;
+
+@Mapper(config = ConfigurationMappers.class)
+public interface ExamenMapper {
+
+    @Mapping(target = "consultationId", source = "consultation.idConsultation")
+    ExamenDto toDto(Examen examen);
+
+    /**
+     * La consultation, la date et le statut de prescription sont positionnés par le service
+     */
+    @Mapping(target = "idExamen", ignore = true)
+    @Mapping(target = "consultation", ignore = true)
+    @Mapping(target = "datePrescription", ignore = true)
+    @Mapping(target = "dateRealisation", ignore = true)
+    @Mapping(target = "resultats", ignore = true)
+    @Mapping(target = "interpretation", ignore = true)
+    @Mapping(target = "statut", ignore = true)
+    Examen toEntity(CreateExamenRequest request);
+
+    @BeanMapping(ignoreByDefault = true)
+    @Mapping(target = "resultats", source = "resultats")
+    @Mapping(target = "interpretation", source = "interpretation")
+    void saisirResultats(ExamenResultatsRequest request, @MappingTarget Examen examen);
+}
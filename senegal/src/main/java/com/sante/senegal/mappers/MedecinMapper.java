@@ -0,0 +1,54 @@
+package com.sante.senegal.mappers;
+
+import com.sante.senegal.dto.MedecinByHopitalDto;
+import com.sante.senegal.dto.MedecinByServiceDto;
+import com.sante.senegal.dto.MedecinDto;
+import com.sante.senegal.dto.UtilisateurDetailDto;
+import com.sante.senegal.entities.Hopital;
+import com.sante.senegal.entities.Medecin;
+import org.mapstruct.Builder;
+import org.mapstruct.Mapper;
+import org.mapstruct.Mapping;
+
+import java.util.List;
+
+/**
+ * Les DTO médecin n'ont pas de constructeur sans argument : construction par les builders Lombok.
+ * Les listes ne renseignent ni les hôpitaux ni le service (pas de chargement paresseux par ligne),
+ * la fiche détaillée les renseigne.
+ */
+@Mapper(config = ConfigurationMappers.class, builder = @Builder)
+public interface MedecinMapper {
+
+    @Mapping(target = "idsHopitaux", ignore = true)
+    @Mapping(target = "idService", ignore = true)
+    MedecinDto toDto(Medecin medecin);
+
+    @Mapping(target = "idsHopitaux", ignore = true)
+    @Mapping(target = "idService", ignore = true)
+    @Mapping(target = "serviceName", ignore = true)
+    MedecinByServiceDto toDtoParService(Medecin medecin);
+
+    @Mapping(target = "idsHopitaux", ignore = true)
+    @Mapping(target = "idService", ignore = true)
+    @Mapping(target = "hopitalName", ignore = true)
+    MedecinByHopitalDto toDtoParHopital(Medecin medecin);
+
+    @Mapping(target = "idshopitaux", source = "hopitaux")
+    @Mapping(target = "idService", source = "service.idService")
+    @Mapping(target = "profession", ignore = true)
+    @Mapping(target = "groupeSanguin", ignore = true)
+    @Mapping(target = "allergies", ignore = true)
+    @Mapping(target = "contactUrgenceNom", ignore = true)
+    @Mapping(target = "contactUrgenceTelephone", ignore = true)
+    @Mapping(target = "preferencesNotification", ignore = true)
+    @Mapping(target = "poste", ignore = true)
+    @Mapping(target = "idHopital", ignore = true)
+    @Mapping(target = "role", ignore = true)
+    @Mapping(target = "permissions", ignore = true)
+    UtilisateurDetailDto toDetailDto(Medecin medecin);
+
+    default List<Long> idsHopitaux(List<Hopital> hopitaux) {
+        return hopitaux != null ? hopitaux.stream().map(Hopital::getIdHopital).toList() : null;
+    }
+}
@@ -0,0 +1,15 @@
+package com.sante.senegal.mappers;
+
+import com.sante.senegal.dto.NotificationUtilisateurDto;
+import com.sante.senegal.entities.NotificationUtilisateur;
+import org.mapstruct.Mapper;
+
+import java.util.List;
+
+@Mapper(config = ConfigurationMappers.class)
+public interface NotificationUtilisateurMapper {
+
+    NotificationUtilisateurDto toDto(NotificationUtilisateur notification);
+
+    List<NotificationUtilisateurDto> toDtoList(List<NotificationUtilisateur> notifications);
+}
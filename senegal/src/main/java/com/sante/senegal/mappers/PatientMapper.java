@@ -0,0 +1,17 @@
+package com.sante.senegal.mappers;
+
+import com.sante.senegal.dto.PatientDto;
+import com.sante.senegal.entities.Patient;
+import org.mapstruct.Builder;
+import org.mapstruct.Mapper;
+import org.mapstruct.Mapping;
+
+/**
+ * PatientDto n'a pas de constructeur sans argument : construction par le builder Lombok
+ */
+@Mapper(config = ConfigurationMappers.class, builder = @Builder)
+public interface PatientMapper {
+
+    @Mapping(target = "idDossierMedical", source = "dossierMedical.idDossier")
+    PatientDto toDto(Patient patient);
+}
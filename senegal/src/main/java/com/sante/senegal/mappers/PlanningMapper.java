@@ -0,0 +1,30 @@
+package com.sante.senegal.mappers;
+
+import com.sante.senegal.dto.PlanningDto;
+import com.sante.senegal.entities.Medecin;
+import com.sante.senegal.entities.Planning;
+import org.mapstruct.Mapper;
+import org.mapstruct.Mapping;
+import org.mapstruct.Named;
+
+@Mapper(config = ConfigurationMappers.class)
+public interface PlanningMapper {
+
+    @Mapping(target = "idMedecin", source = "medecin.id")
+    @Mapping(target = "nomMedecin", source = "medecin", qualifiedByName = "nomPrenom")
+    @Mapping(target = "specialiteMedecin", source = "medecin.specialite")
+    @Mapping(target = "idService", source = "service.idService")
+    @Mapping(target = "nomService", source = "service.nom")
+    @Mapping(target = "idHopital", source = "hopital.idHopital")
+    @Mapping(target = "nomHopital", source = "hopital.nom")
+    @Mapping(target = "adresseHopital", source = "hopital.adresse")
+    @Mapping(target = "villeHopital", source = "hopital.ville")
+    @Mapping(target = "regionHopital", source = "hopital.region")
+    @Mapping(target = "idRendezVous", source = "rendezVous.idRdv")
+    PlanningDto toDto(Planning planning);
+
+    @Named("nomPrenom")
+    default String nomPrenom(Medecin medecin) {
+        return medecin != null ? medecin.getNom() + " " + medecin.getPrenom() : null;
+    }
+}
@@ -0,0 +1,27 @@
+package com.sante.senegal.mappers;
+
+import com.sante.senegal.dto.MedicamentPrescritDto;
+import com.sante.senegal.dto.PrescriptionDto;
+import com.sante.senegal.entities.MedicamentPrescrit;
+import com.sante.senegal.entities.Prescription;
+import org.mapstruct.Mapper;
+import org.mapstruct.Mapping;
+
+import java.time.LocalDate;
+import java.time.LocalDateTime;
+
+@Mapper(config = ConfigurationMappers.class)
+public interface PrescriptionMapper {
+
+    @Mapping(target = "diagnostic", source = "consultation.diagnostic")
+    @Mapping(target = "medecinId", source = "consultation.rendezVous.medecin.id")
+    @Mapping(target = "patientId", source = "consultation.dossier.patient.id")
+    PrescriptionDto toDto(Prescription prescription);
+
+    @Mapping(target = "statutMedicament", source = "statut")
+    MedicamentPrescritDto toDto(MedicamentPrescrit medicament);
+
+    default LocalDateTime datePrescription(LocalDate date) {
+        return ConversionsMappers.debutDeJournee(date);
+    }
+}
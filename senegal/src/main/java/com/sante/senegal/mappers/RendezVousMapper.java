@@ -1,76 +1,111 @@
-/**
- * Ce package sera utilisé plus tart pour optimiser
- * Pour le moment on charge entité avec fetch = FetchType.EAGER
- *//*
-
 package com.sante.senegal.mappers;
 
-import com.sante.senegal.dto.RendezVousDTO;
+import com.sante.senegal.dto.RendezVousDto;
+import com.sante.senegal.dto.RendezVousRequestDto;
+import com.sante.senegal.entities.Hopital;
 import com.sante.senegal.entities.Medecin;
 import com.sante.senegal.entities.Patient;
 import com.sante.senegal.entities.RendezVous;
+import com.sante.senegal.entities.Service;
+import com.sante.senegal.entities.Utilisateur;
+import org.mapstruct.InheritConfiguration;
 import org.mapstruct.Mapper;
 import org.mapstruct.Mapping;
+import org.mapstruct.MappingTarget;
 import org.mapstruct.Named;
-import org.mapstruct.factory.Mappers;
-
-import java.time.LocalDateTime;
+import org.mapstruct.NullValuePropertyMappingStrategy;
 
-@Mapper(componentModel = "spring")
+@Mapper(config = ConfigurationMappers.class)
 public interface RendezVousMapper {
 
-    RendezVousMapper INSTANCE = Mappers.getMapper(RendezVousMapper.class);
+    @Mapping(target = "patientId", source = "patient.id")
+    @Mapping(target = "patientNomComplet", source = "patient", qualifiedByName = "nomComplet")
+    @Mapping(target = "medecinId", source = "medecin.id")
+    @Mapping(target = "medecinNomComplet", source = "medecin", qualifiedByName = "nomComplet")
+    @Mapping(target = "medecinSpecialite", source = "medecin.specialite")
+    @Mapping(target = "serviceId", source = "service.idService")
+    @Mapping(target = "serviceNom", source = "service.nom")
+    @Mapping(target = "hopitalId", source = "hopital.idHopital")
+    @Mapping(target = "hopitalNom", source = "hopital.nom")
+    @Mapping(target = "adresseHopital", source = "hopital.adresse")
+    @Mapping(target = "villeHopital", source = "hopital.ville")
+    @Mapping(target = "regionHopital", source = "hopital.region")
+    RendezVousDto toDto(RendezVous rendezVous);
+
+    /**
+     * Les relations sont des références par identifiant, résolues par Hibernate à l'enregistrement
+     */
+    @Mapping(target = "idRdv", ignore = true)
+    @Mapping(target = "patient", source = "idPatient")
+    @Mapping(target = "medecin", source = "idMedecin")
+    @Mapping(target = "service", source = "idService")
+    @Mapping(target = "hopital", source = "idHopital")
+    @Mapping(target = "statut", ignore = true)
+    @Mapping(target = "dateCreation", ignore = true)
+    @Mapping(target = "dateModification", ignore = true)
+    @Mapping(target = "modePriseRdv", ignore = true)
+    @Mapping(target = "consultation", ignore = true)
+    RendezVous toEntity(RendezVousRequestDto dto);
 
-    @Mapping(source = "patient.id", target = "patientId")
-    @Mapping(source = "patient", target = "patientNomComplet", qualifiedByName = "patientToNomComplet")
-    @Mapping(source = "medecin.id", target = "medecinId")
-    @Mapping(source = "medecin", target = "medecinNomComplet", qualifiedByName = "medecinToNomComplet")
-    @Mapping(source = "service.id", target = "serviceId")
-    @Mapping(source = "service.nom", target = "serviceNom")
-    @Mapping(source = "hopital.id", target = "hopitalId")
-    @Mapping(source = "hopital.nom", target = "hopitalNom")
-    @Mapping(source = "hopital.adresse", target = "adresseHopital")
-    @Mapping(source = "hopital.ville", target = "villeHopital")
-    @Mapping(source = "hopital.region", target = "regionHopital")
-    RendezVousDTO rendezVousToRendezVousDTO(RendezVous rendezVous);
+    /**
+     * Mise à jour : une relation sans identifiant dans la requête est conservée
+     */
+    @InheritConfiguration(name = "toEntity")
+    @Mapping(target = "patient", source = "idPatient", nullValuePropertyMappingStrategy = NullValuePropertyMappingStrategy.IGNORE)
+    @Mapping(target = "medecin", source = "idMedecin", nullValuePropertyMappingStrategy = NullValuePropertyMappingStrategy.IGNORE)
+    @Mapping(target = "service", source = "idService", nullValuePropertyMappingStrategy = NullValuePropertyMappingStrategy.IGNORE)
+    @Mapping(target = "hopital", source = "idHopital", nullValuePropertyMappingStrategy = NullValuePropertyMappingStrategy.IGNORE)
+    void mettreAJour(RendezVousRequestDto dto, @MappingTarget RendezVous rendezVous);
 
-    @Mapping(target = "patient", ignore = true)
-    @Mapping(target = "medecin", ignore = true)
-    @Mapping(target = "service", ignore = true)
-    @Mapping(target = "hopital", ignore = true)
-    RendezVous rendezVousDTOToRendezVous(RendezVousDTO rendezVousDTO);
+    @Named("nomComplet")
+    default String nomComplet(Utilisateur utilisateur) {
+        return utilisateur != null ? utilisateur.getPrenom() + " " + utilisateur.getNom() : null;
+    }
+
+    default Patient referencePatient(Long id) {
+        if (id == null) {
+            return null;
+        }
+        Patient patient = new Patient();
+        patient.setId(id);
+        return patient;
+    }
 
-    @Named("patientToNomComplet")
-    default String patientToNomComplet(Patient patient) {
-        if (patient == null) {
+    default Medecin referenceMedecin(Long id) {
+        if (id == null) {
             return null;
         }
-        return patient.getPrenom() + " " + patient.getNom();
+        Medecin medecin = new Medecin();
+        medecin.setId(id);
+        return medecin;
     }
 
-    @Named("medecinToNomComplet")
-    default String medecinToNomComplet(Medecin medecin) {
-        if (medecin == null) {
+    default Service referenceService(Long id) {
+        if (id == null) {
             return null;
         }
-        return "Dr. " + medecin.getPrenom() + " " + medecin.getNom();
+        Service service = new Service();
+        service.setIdService(id);
+        return service;
     }
 
-    // Méthode pour mettre à jour une entité existante
-    default void updateRendezVousFromDTO(RendezVousDTO dto, RendezVous entity) {
-        if (dto == null) {
-            return;
+    default Hopital referenceHopital(Long id) {
+        if (id == null) {
+            return null;
         }
+        Hopital hopital = new Hopital();
+        hopital.setIdHopital(id);
+        return hopital;
+    }
+
+    /**
+     * Valeur inconnue ignorée (null), comme le faisait la conversion ModelMapper
+     */
+    default RendezVous.TypeConsultation typeConsultation(String valeur) {
+        return ConversionsMappers.enumOuNull(RendezVous.TypeConsultation.class, valeur);
+    }
 
-        entity.setDateHeure(dto.getDateHeure());
-        entity.setDureePrevue(dto.getDureePrevue());
-        entity.setTypeConsultation(dto.getTypeConsultation());
-        entity.setMotif(dto.getMotif());
-        entity.setNiveauUrgence(dto.getNiveauUrgence());
-        entity.setStatut(dto.getStatut());
-        entity.setNotesPatient(dto.getNotesPatient());
-        entity.setNotesMedecin(dto.getNotesMedecin());
-        entity.setModePriseRdv(dto.getModePriseRdv());
-        entity.setDateModification(LocalDateTime.now());
+    default RendezVous.NiveauUrgence niveauUrgence(String valeur) {
+        return ConversionsMappers.enumOuNull(RendezVous.NiveauUrgence.class, valeur);
     }
-}*/
+}
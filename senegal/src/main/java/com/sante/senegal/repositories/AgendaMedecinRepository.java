@@ -0,0 +1,36 @@
+package com.sante.senegal.repositories;
+
+import com.sante.senegal.entities.AgendaMedecin;
+import com.sante.senegal.entities.RendezVous;
+import org.springframework.data.jpa.repository.JpaRepository;
+import org.springframework.data.jpa.repository.Modifying;
+import org.springframework.data.jpa.repository.Query;
+import org.springframework.data.repository.query.Param;
+import org.springframework.stereotype.Repository;
+
+import java.time.LocalDate;
+import java.time.LocalDateTime;
+import java.util.Collection;
+import java.util.List;
+
+@Repository
+public interface AgendaMedecinRepository extends JpaRepository<AgendaMedecin, Long> {
+
+    /**
+     * Agenda d'un médecin pour un jour : parcours de l'index idx_agenda_medecin_jour
+     */
+    List<AgendaMedecin> findByIdMedecinAndDateOrderByHeureDebutAsc(Long idMedecin, LocalDate date);
+
+    /**
+     * Report en masse d'un statut (annulations par changement de calendrier)
+     */
+    @Modifying(flushAutomatically = true)
+    @Query("UPDATE AgendaMedecin a SET a.statut = :statut, a.dateMiseAJour = :maintenant WHERE a.idRdv IN :idsRdv")
+    int changerStatut(@Param("idsRdv") Collection<Long> idsRdv,
+                      @Param("statut") RendezVous.StatutRendezVous statut,
+                      @Param("maintenant") LocalDateTime maintenant);
+
+    @Modifying
+    @Query("DELETE FROM AgendaMedecin a WHERE a.date BETWEEN :dateDebut AND :dateFin")
+    int deleteByDateBetween(@Param("dateDebut") LocalDate dateDebut, @Param("dateFin") LocalDate dateFin);
+}
@@ -1,8 +1,14 @@
 package com.sante.senegal.repositories;
 
 import com.sante.senegal.entities.Disponibilite;
+import org.springframework.data.domain.Pageable;
+import jakarta.persistence.QueryHint;
+import org.hibernate.jpa.HibernateHints;
+import org.springframework.data.jpa.repository.EntityGraph;
 import org.springframework.data.jpa.repository.JpaRepository;
+import org.springframework.data.jpa.repository.Modifying;
 import org.springframework.data.jpa.repository.Query;
+import org.springframework.data.jpa.repository.QueryHints;
 import org.springframework.data.repository.query.Param;
 import org.springframework.stereotype.Repository;
 
@@ -10,56 +16,104 @@ import java.time.LocalDate;
 import java.time.LocalTime;
 import java.util.List;
 import java.util.Optional;
+import java.util.stream.Stream;
 
 @Repository
 public interface DisponibiliteRepository extends JpaRepository<Disponibilite, Long> {
 
+    /*
+     * Plans de chargement : les listings destinés à l'affichage portent le graphe
+     * Disponibilite.affichage (médecin, service, hôpital chargés dans la même requête) ;
+     * findById, findByMedecinBetweenDates et les vérifications de conflit restent nus
+     * pour les traitements internes qui ne lisent que les colonnes de la disponibilité.
+     */
+
+    @Override
+    @EntityGraph(Disponibilite.GRAPHE_AFFICHAGE)
+    List<Disponibilite> findAll();
+
+    @EntityGraph(Disponibilite.GRAPHE_AFFICHAGE)
+    Optional<Disponibilite> findAffichageByIdDisponibilite(Long idDisponibilite);
+
     // Recherches par entité unique
+    @EntityGraph(Disponibilite.GRAPHE_AFFICHAGE)
     List<Disponibilite> findByMedecinId(Long idMedecin);
+    @EntityGraph(Disponibilite.GRAPHE_AFFICHAGE)
     List<Disponibilite> findByServiceIdService(Long idService);
+    @EntityGraph(Disponibilite.GRAPHE_AFFICHAGE)
     List<Disponibilite> findByHopitalIdHopital(Long idHopital);
+    @EntityGraph(Disponibilite.GRAPHE_AFFICHAGE)
     List<Disponibilite> findByDate(LocalDate date);
+    @EntityGraph(Disponibilite.GRAPHE_AFFICHAGE)
     List<Disponibilite> findByStatut(Disponibilite.StatutDisponibilite statut);
 
     // Recherches combinées
+    @EntityGraph(Disponibilite.GRAPHE_AFFICHAGE)
     List<Disponibilite> findByDateAndStatut(LocalDate date, Disponibilite.StatutDisponibilite statut);
 
     @Query("SELECT d FROM Disponibilite d WHERE d.medecin.id = :idMedecin AND d.date = :date AND d.statut = :statut")
+    @EntityGraph(Disponibilite.GRAPHE_AFFICHAGE)
     List<Disponibilite> findByIdMedecinAndDateAndStatut(@Param("idMedecin") Long idMedecin,
                                                         @Param("date") LocalDate date,
                                                         @Param("statut") Disponibilite.StatutDisponibilite statut);
 
     @Query("SELECT d FROM Disponibilite d WHERE d.medecin.id = :idMedecin AND d.date = :date AND d.statut = :statut")
+    @EntityGraph(Disponibilite.GRAPHE_AFFICHAGE)
     List<Disponibilite> findByMedecinDateAndStatut(@Param("idMedecin") Long idMedecin,
                                                    @Param("date") LocalDate date,
                                                    @Param("statut") Disponibilite.StatutDisponibilite statut);
 
     @Query("SELECT d FROM Disponibilite d WHERE d.service.idService = :idService AND d.date = :date AND d.statut = :statut")
+    @EntityGraph(Disponibilite.GRAPHE_AFFICHAGE)
     List<Disponibilite> findByServiceDateAndStatut(@Param("idService") Long idService,
                                                    @Param("date") LocalDate date,
                                                    @Param("statut") Disponibilite.StatutDisponibilite statut);
 
     // Recherches par période
     @Query("SELECT d FROM Disponibilite d WHERE d.date BETWEEN :dateDebut AND :dateFin AND d.statut = 'DISPONIBLE'")
+    @EntityGraph(Disponibilite.GRAPHE_AFFICHAGE)
     List<Disponibilite> findAvailableDisponibilitesBetweenDates(@Param("dateDebut") LocalDate dateDebut,
                                                                 @Param("dateFin") LocalDate dateFin);
 
+    /**
+     * Parcours en flux d'une période (service, hôpital et statut facultatifs), lu par lots côté JDBC
+     */
+    @Query("SELECT d FROM Disponibilite d "
+            + "JOIN FETCH d.medecin JOIN FETCH d.service JOIN FETCH d.hopital "
+            + "WHERE d.date BETWEEN :dateDebut AND :dateFin "
+            + "AND (:idService IS NULL OR d.service.idService = :idService) "
+            + "AND (:idHopital IS NULL OR d.hopital.idHopital = :idHopital) "
+            + "AND (:statut IS NULL OR d.statut = :statut) "
+            + "ORDER BY d.date, d.heureDebut, d.idDisponibilite")
+    @QueryHints({
+            @QueryHint(name = HibernateHints.HINT_FETCH_SIZE, value = "500"),
+            @QueryHint(name = HibernateHints.HINT_READ_ONLY, value = "true")
+    })
+    Stream<Disponibilite> streamBetweenDates(@Param("dateDebut") LocalDate dateDebut,
+                                             @Param("dateFin") LocalDate dateFin,
+                                             @Param("idService") Long idService,
+                                             @Param("idHopital") Long idHopital,
+                                             @Param("statut") Disponibilite.StatutDisponibilite statut);
+
     @Query("SELECT d FROM Disponibilite d WHERE d.medecin.id = :idMedecin AND d.date BETWEEN :dateDebut AND :dateFin")
     List<Disponibilite> findByMedecinBetweenDates(@Param("idMedecin") Long idMedecin,
                                                   @Param("dateDebut") LocalDate dateDebut,
                                                   @Param("dateFin") LocalDate dateFin);
 
     @Query("SELECT d FROM Disponibilite d WHERE d.service.idService = :idService AND d.date BETWEEN :dateDebut AND :dateFin")
+    @EntityGraph(Disponibilite.GRAPHE_AFFICHAGE)
     List<Disponibilite> findByServiceBetweenDates(@Param("idService") Long idService,
                                                   @Param("dateDebut") LocalDate dateDebut,
                                                   @Param("dateFin") LocalDate dateFin);
 
     @Query("SELECT d FROM Disponibilite d WHERE d.hopital.idHopital = :idHopital AND d.date BETWEEN :dateDebut AND :dateFin")
+    @EntityGraph(Disponibilite.GRAPHE_AFFICHAGE)
     List<Disponibilite> findByHopitalBetweenDates(@Param("idHopital") Long idHopital,
                                                   @Param("dateDebut") LocalDate dateDebut,
                                                   @Param("dateFin") LocalDate dateFin);
 
     @Query("SELECT d FROM Disponibilite d WHERE d.medecin.id = :idMedecin AND d.date BETWEEN :dateDebut AND :dateFin AND d.statut = :statut")
+    @EntityGraph(Disponibilite.GRAPHE_AFFICHAGE)
     List<Disponibilite> findByMedecinBetweenDatesAndStatut(@Param("idMedecin") Long idMedecin,
                                                            @Param("dateDebut") LocalDate dateDebut,
                                                            @Param("dateFin") LocalDate dateFin,
@@ -92,6 +146,7 @@ public interface DisponibiliteRepository extends JpaRepository<Disponibilite, Lo
             "(:dateFin IS NULL OR d.date <= :dateFin) AND " +
             "(:statut IS NULL OR d.statut = :statut) " +
             "ORDER BY d.date, d.heureDebut")
+    @EntityGraph(Disponibilite.GRAPHE_AFFICHAGE)
     List<Disponibilite> findByMultipleCriteria(@Param("idMedecin") Long idMedecin,
                                                @Param("idService") Long idService,
                                                @Param("idHopital") Long idHopital,
@@ -117,9 +172,41 @@ public interface DisponibiliteRepository extends JpaRepository<Disponibilite, Lo
 
     // Recherche des disponibilités futures
     @Query("SELECT d FROM Disponibilite d WHERE d.date > CURRENT_DATE AND d.statut = 'DISPONIBLE' ORDER BY d.date, d.heureDebut")
+    @EntityGraph(Disponibilite.GRAPHE_AFFICHAGE)
     List<Disponibilite> findFutureAvailableDisponibilites();
 
     // Recherche par jour de la semaine
     @Query("SELECT d FROM Disponibilite d WHERE d.jourSemaine = :jourSemaine AND d.statut = 'DISPONIBLE'")
+    @EntityGraph(Disponibilite.GRAPHE_AFFICHAGE)
     List<Disponibilite> findByJourSemaineAndStatutDisponible(@Param("jourSemaine") java.time.DayOfWeek jourSemaine);
-}
\ No newline at end of file
+
+    /**
+     * Marque en une requête les disponibilités du périmètre comme indisponibles
+     */
+    @Modifying(flushAutomatically = true, clearAutomatically = true)
+    @Query("UPDATE Disponibilite d SET d.statut = com.sante.senegal.entities.Disponibilite$StatutDisponibilite.INDISPONIBLE, " +
+            "d.motifIndisponibilite = :motif " +
+            "WHERE d.statut = com.sante.senegal.entities.Disponibilite$StatutDisponibilite.DISPONIBLE " +
+            "AND d.date BETWEEN :dateDebut AND :dateFin " +
+            "AND (:idMedecin IS NULL OR d.medecin.id = :idMedecin) " +
+            "AND (:idService IS NULL OR d.service.idService = :idService) " +
+            "AND (:idHopital IS NULL OR d.hopital.idHopital = :idHopital) " +
+            "AND (:region IS NULL OR d.hopital.idHopital IN " +
+            "(SELECT hr.idHopital FROM Hopital hr WHERE LOWER(hr.region) = LOWER(:region)))")
+    int marquerIndisponibles(@Param("dateDebut") LocalDate dateDebut,
+                             @Param("dateFin") LocalDate dateFin,
+                             @Param("idMedecin") Long idMedecin,
+                             @Param("idService") Long idService,
+                             @Param("idHopital") Long idHopital,
+                             @Param("region") String region,
+                             @Param("motif") String motif);
+
+    // Pagination par clé (date, idDisponibilite)
+    @Query("SELECT d FROM Disponibilite d "
+            + "LEFT JOIN FETCH d.medecin LEFT JOIN FETCH d.service LEFT JOIN FETCH d.hopital "
+            + "WHERE d.date > :apresDate OR (d.date = :apresDate AND d.idDisponibilite > :apresId) "
+            + "ORDER BY d.date, d.idDisponibilite")
+    List<Disponibilite> findPageApres(@Param("apresDate") LocalDate apresDate,
+                                      @Param("apresId") Long apresId,
+                                      Pageable limite);
+}
@@ -0,0 +1,39 @@
+package com.sante.senegal.repositories;
+
+import com.sante.senegal.entities.EmailSortant;
+import jakarta.persistence.LockModeType;
+import jakarta.persistence.QueryHint;
+import org.hibernate.jpa.SpecHints;
+import org.springframework.data.domain.Pageable;
+import org.springframework.data.jpa.repository.JpaRepository;
+import org.springframework.data.jpa.repository.Lock;
+import org.springframework.data.jpa.repository.Modifying;
+import org.springframework.data.jpa.repository.Query;
+import org.springframework.data.jpa.repository.QueryHints;
+import org.springframework.data.repository.query.Param;
+import org.springframework.stereotype.Repository;
+
+import java.time.LocalDateTime;
+import java.util.Collection;
+import java.util.List;
+
+@Repository
+public interface EmailSortantRepository extends JpaRepository<EmailSortant, Long> {
+
+    /**
+     * Lot d'e-mails à remettre, en SELECT ... FOR UPDATE SKIP LOCKED (même principe que RappelRendezVousRepository) :
+     * plusieurs nœuds vident la boîte d'envoi sans se gêner ; un e-mail EN_COURS au bail expiré est repris.
+     */
+    @Lock(LockModeType.PESSIMISTIC_WRITE)
+    @QueryHints(@QueryHint(name = SpecHints.HINT_SPEC_LOCK_TIMEOUT, value = "-2"))
+    @Query("SELECT e FROM EmailSortant e " +
+            "WHERE (e.statut = com.sante.senegal.entities.EmailSortant$StatutEmail.A_ENVOYER AND e.prochainEssai <= :maintenant) " +
+            "OR (e.statut = com.sante.senegal.entities.EmailSortant$StatutEmail.EN_COURS AND e.bailJusqua < :maintenant) " +
+            "ORDER BY e.prochainEssai")
+    List<EmailSortant> findARemettre(@Param("maintenant") LocalDateTime maintenant, Pageable limite);
+
+    @Modifying
+    @Query("DELETE FROM EmailSortant e WHERE e.dateCreation < :avant AND e.statut IN :statuts")
+    int supprimerAnciens(@Param("avant") LocalDateTime avant,
+                         @Param("statuts") Collection<EmailSortant.StatutEmail> statuts);
+}
@@ -35,4 +35,10 @@ public interface HopitalRepository extends JpaRepository<Hopital, Long> {
     List<Hopital> findByServiceNom(@Param("nomService") String nomService);
 
     Optional <Hopital> findByNom(String nom);
+
+    /**
+     * Région et statut de chaque hôpital, pour le calendrier des jours ouvrés : [idHopital, region, statut]
+     */
+    @Query("SELECT h.idHopital, h.region, h.statut FROM Hopital h")
+    List<Object[]> findEtatsCalendrier();
 }
\ No newline at end of file
@@ -0,0 +1,71 @@
+package com.sante.senegal.repositories;
+
+import com.sante.senegal.entities.ListeAttente;
+import org.springframework.data.domain.Pageable;
+import org.springframework.data.jpa.repository.JpaRepository;
+import org.springframework.data.jpa.repository.Modifying;
+import org.springframework.data.jpa.repository.Query;
+import org.springframework.data.repository.query.Param;
+import org.springframework.stereotype.Repository;
+
+import java.time.LocalDate;
+import java.time.LocalDateTime;
+import java.util.List;
+
+@Repository
+public interface ListeAttenteRepository extends JpaRepository<ListeAttente, Long> {
+
+    List<ListeAttente> findByPatientIdOrderByDateInscriptionDesc(Long idPatient);
+
+    /**
+     * Inscriptions en attente compatibles avec un créneau libéré, les plus prioritaires d'abord
+     */
+    @Query("SELECT l FROM ListeAttente l JOIN FETCH l.patient " +
+            "LEFT JOIN l.medecin m LEFT JOIN l.service s LEFT JOIN l.hopital h " +
+            "WHERE l.statut = com.sante.senegal.entities.ListeAttente$StatutListeAttente.EN_ATTENTE " +
+            "AND l.dateDebut <= :date AND l.dateFin >= :date " +
+            "AND l.idListeAttente <> :idExclu " +
+            "AND (m.id = :idMedecin OR (m IS NULL AND s.idService = :idService)) " +
+            "AND (h IS NULL OR h.idHopital = :idHopital) " +
+            "ORDER BY l.priorite DESC, l.dateInscription ASC")
+    List<ListeAttente> findCandidats(@Param("idMedecin") Long idMedecin,
+                                     @Param("idService") Long idService,
+                                     @Param("idHopital") Long idHopital,
+                                     @Param("date") LocalDate date,
+                                     @Param("idExclu") Long idExclu,
+                                     Pageable pageable);
+
+    /**
+     * Attribue l'offre seulement si l'inscription est toujours en attente
+     * @return 1 si l'offre a été attribuée, 0 si un autre créneau l'a déjà prise
+     */
+    @Modifying(flushAutomatically = true, clearAutomatically = true)
+    @Query("UPDATE ListeAttente l SET l.statut = com.sante.senegal.entities.ListeAttente$StatutListeAttente.PROPOSE, " +
+            "l.idPlanningPropose = :idPlanning, l.dateExpirationOffre = :expiration " +
+            "WHERE l.idListeAttente = :id " +
+            "AND l.statut = com.sante.senegal.entities.ListeAttente$StatutListeAttente.EN_ATTENTE")
+    int proposerSiEnAttente(@Param("id") Long id,
+                            @Param("idPlanning") Long idPlanning,
+                            @Param("expiration") LocalDateTime expiration);
+
+    /**
+     * Remet en attente une offre non acceptée
+     */
+    @Modifying(flushAutomatically = true, clearAutomatically = true)
+    @Query("UPDATE ListeAttente l SET l.statut = com.sante.senegal.entities.ListeAttente$StatutListeAttente.EN_ATTENTE, " +
+            "l.idPlanningPropose = null, l.dateExpirationOffre = null " +
+            "WHERE l.idListeAttente = :id " +
+            "AND l.statut = com.sante.senegal.entities.ListeAttente$StatutListeAttente.PROPOSE")
+    int remettreEnAttente(@Param("id") Long id);
+
+    @Query("SELECT l FROM ListeAttente l " +
+            "WHERE l.statut = com.sante.senegal.entities.ListeAttente$StatutListeAttente.PROPOSE " +
+            "AND l.dateExpirationOffre < :maintenant")
+    List<ListeAttente> findOffresExpirees(@Param("maintenant") LocalDateTime maintenant);
+
+    @Modifying
+    @Query("UPDATE ListeAttente l SET l.statut = com.sante.senegal.entities.ListeAttente$StatutListeAttente.EXPIRE " +
+            "WHERE l.statut = com.sante.senegal.entities.ListeAttente$StatutListeAttente.EN_ATTENTE " +
+            "AND l.dateFin < :aujourdhui")
+    int expirerInscriptionsEchues(@Param("aujourdhui") LocalDate aujourdhui);
+}
@@ -32,4 +32,13 @@ public interface MedecinRepository extends JpaRepository<Medecin, Long> {
                                          @Param("hopitalId") Long hopitalId);
    Medecin findById(long id);
    List<Medecin> findByNomContainingIgnoreCaseOrPrenomContainingIgnoreCase(String terme, String terme1);
-}
\ No newline at end of file
+
+   // Couples (médecin, hôpital) à traiter pour une génération de planning en masse
+   @Query("SELECT m.id, h.idHopital FROM Medecin m JOIN m.hopitaux h " +
+           "WHERE (:hopitalId IS NULL OR h.idHopital = :hopitalId) " +
+           "AND (:serviceId IS NULL OR m.service.idService = :serviceId) " +
+           "AND m.statut = :statut")
+   List<Object[]> findCouplesMedecinHopital(@Param("hopitalId") Long hopitalId,
+                                            @Param("serviceId") Long serviceId,
+                                            @Param("statut") Utilisateur.StatutUtilisateur statut);
+}
@@ -0,0 +1,22 @@
+package com.sante.senegal.repositories;
+
+import com.sante.senegal.entities.NotificationUtilisateur;
+import org.springframework.data.domain.Pageable;
+import org.springframework.data.jpa.repository.JpaRepository;
+import org.springframework.data.jpa.repository.Modifying;
+import org.springframework.data.jpa.repository.Query;
+import org.springframework.data.repository.query.Param;
+import org.springframework.stereotype.Repository;
+
+import java.util.List;
+
+@Repository
+public interface NotificationUtilisateurRepository extends JpaRepository<NotificationUtilisateur, Long> {
+
+    List<NotificationUtilisateur> findByIdUtilisateurOrderByDateCreationDesc(Long idUtilisateur, Pageable limite);
+
+    @Modifying
+    @Query("UPDATE NotificationUtilisateur n SET n.lue = true " +
+            "WHERE n.idNotification = :idNotification AND n.idUtilisateur = :idUtilisateur")
+    int marquerLue(@Param("idUtilisateur") Long idUtilisateur, @Param("idNotification") Long idNotification);
+}
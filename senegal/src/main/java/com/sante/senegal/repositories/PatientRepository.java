@@ -1,6 +1,7 @@
 package com.sante.senegal.repositories;
 
 import com.sante.senegal.entities.Patient;
+import org.springframework.data.domain.Pageable;
 import org.springframework.data.jpa.repository.JpaRepository;
 
 import java.util.List;
@@ -13,4 +14,7 @@ public interface PatientRepository extends JpaRepository<Patient, Long> {
     Optional<Patient> findByNumAssurance(String numAssurance);
     List<Patient> findByNomContainingIgnoreCaseOrPrenomContainingIgnoreCase(String nom, String prenom);
 
+    // Pagination par clé sur l'identifiant
+    List<Patient> findByIdGreaterThanOrderByIdAsc(Long apresId, Pageable limite);
+
 }
@@ -0,0 +1,50 @@
+package com.sante.senegal.repositories;
+
+import com.sante.senegal.entities.Planning;
+import lombok.RequiredArgsConstructor;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.stereotype.Repository;
+
+import java.sql.Date;
+import java.sql.Time;
+import java.util.Arrays;
+import java.util.List;
+
+/**
+ * Écritures en masse sur la table planning via des batchs JDBC
+ * (réécrits en INSERT multi-lignes par le driver PostgreSQL avec reWriteBatchedInserts)
+ */
+@Repository
+@RequiredArgsConstructor
+public class PlanningBatchRepository {
+
+    private static final int TAILLE_BATCH = 500;
+
+    private static final String INSERT_PLANNING =
+            "INSERT INTO planning (id_medecin, id_service, id_hopital, date, heure_debut, heure_fin, reserve) " +
+                    "VALUES (?, ?, ?, ?, ?, ?, ?)";
+
+    private final JdbcTemplate jdbcTemplate;
+
+    /**
+     * Insère les créneaux (sans rendez-vous) et retourne le nombre de lignes écrites
+     */
+    public int insererCreneaux(List<Planning> creneaux) {
+        if (creneaux.isEmpty()) {
+            return 0;
+        }
+        int[][] resultats = jdbcTemplate.batchUpdate(INSERT_PLANNING, creneaux, TAILLE_BATCH, (ps, creneau) -> {
+            ps.setLong(1, creneau.getMedecin().getId());
+            ps.setLong(2, creneau.getService().getIdService());
+            ps.setLong(3, creneau.getHopital().getIdHopital());
+            ps.setDate(4, Date.valueOf(creneau.getDate()));
+            ps.setTime(5, Time.valueOf(creneau.getHeureDebut()));
+            ps.setTime(6, Time.valueOf(creneau.getHeureFin()));
+            ps.setBoolean(7, creneau.isReserve());
+        });
+        return Arrays.stream(resultats)
+                .flatMapToInt(Arrays::stream)
+                .map(n -> n < 0 ? 1 : n) // SUCCESS_NO_INFO
+                .sum();
+    }
+}
@@ -1,8 +1,14 @@
 package com.sante.senegal.repositories;
 
+import com.sante.senegal.dto.CreneauImpacteDto;
+import com.sante.senegal.dto.PlanningDto;
 import com.sante.senegal.entities.Medecin;
 import com.sante.senegal.entities.Planning;
+import com.sante.senegal.entities.RendezVous;
+import org.springframework.data.domain.Pageable;
+import org.springframework.data.jpa.repository.EntityGraph;
 import org.springframework.data.jpa.repository.JpaRepository;
+import org.springframework.data.jpa.repository.Modifying;
 import org.springframework.data.jpa.repository.Query;
 import org.springframework.data.repository.query.Param;
 
@@ -13,12 +19,46 @@ import java.util.Optional;
 
 public interface PlanningRepository extends JpaRepository<Planning, Long> {
 
+    /*
+     * Plans de chargement : les listings convertis en PlanningDto portent le graphe
+     * Planning.affichage (médecin, service, hôpital ; le rendez-vous, paresseux, n'est lu que par son identifiant) ;
+     * findById et les requêtes de réservation restent nus, les lectures de masse passent
+     * par les projections PROJECTION_DTO.
+     */
+
+    /**
+     * Sélection d'un PlanningDto complet (médecin, service, hôpital) en une seule requête
+     */
+    String PROJECTION_DTO = "SELECT new com.sante.senegal.dto.PlanningDto(p.idPlanning, m.id, CONCAT(m.nom, ' ', m.prenom), " +
+            "m.specialite, s.idService, s.nom, h.idHopital, h.nom, h.adresse, h.ville, h.region, " +
+            "p.date, p.heureDebut, p.heureFin, p.reserve, r.idRdv) " +
+            "FROM Planning p JOIN p.medecin m JOIN p.service s JOIN p.hopital h LEFT JOIN p.rendezVous r ";
+
+    /**
+     * Périmètre d'un changement de calendrier (jour férié, absence, fermeture) sur les créneaux p,
+     * sans jointure explicite pour rester utilisable dans les requêtes de masse.
+     * Le premier jour commence à :heureDebut (l'heure courante pour aujourd'hui) ; un créneau dont
+     * la consultation est en cours ou terminée n'en fait jamais partie.
+     */
+    String PERIMETRE_IMPACT = "p.date BETWEEN :dateDebut AND :dateFin " +
+            "AND (p.date > :dateDebut OR p.heureDebut >= :heureDebut) " +
+            "AND NOT EXISTS (SELECT rc.idRdv FROM RendezVous rc WHERE rc.idRdv = p.rendezVous.idRdv " +
+            "AND rc.statut IN (com.sante.senegal.entities.RendezVous$StatutRendezVous.EN_COURS, " +
+            "com.sante.senegal.entities.RendezVous$StatutRendezVous.TERMINE)) " +
+            "AND (:idMedecin IS NULL OR p.medecin.id = :idMedecin) " +
+            "AND (:idService IS NULL OR p.service.idService = :idService) " +
+            "AND (:idHopital IS NULL OR p.hopital.idHopital = :idHopital) " +
+            "AND (:region IS NULL OR p.hopital.idHopital IN " +
+            "(SELECT hr.idHopital FROM Hopital hr WHERE LOWER(hr.region) = LOWER(:region))) ";
+
     // Correction : utiliser LocalDate au lieu de LocalDateTime
     boolean existsByMedecinAndDateAndHeureDebut(Medecin medecin, LocalDate date, LocalTime heureDebut);
 
     // Correction : utiliser LocalDate pour les dates
+    @EntityGraph(Planning.GRAPHE_AFFICHAGE)
     List<Planning> findByMedecinIdAndDateBetween(Long medecin_id, LocalDate dateDebut, LocalDate dateFin);
 
+    @EntityGraph(Planning.GRAPHE_AFFICHAGE)
     List<Planning> findByMedecinIdAndDateAndReserve(Long medecin_id, LocalDate date, boolean reserve);
 
     /**
@@ -31,6 +71,7 @@ public interface PlanningRepository extends JpaRepository<Planning, Long> {
             "AND p.date BETWEEN :dateDebut AND :dateFin " +
             "AND p.reserve = false " +
             "ORDER BY p.date ASC, p.heureDebut ASC")
+    @EntityGraph(Planning.GRAPHE_AFFICHAGE)
     List<Planning> findCreneauxDisponibles(@Param("idMedecin") Long idMedecin,
                                            @Param("idService") Long idService,
                                            @Param("idHopital") Long idHopital,
@@ -47,6 +88,7 @@ public interface PlanningRepository extends JpaRepository<Planning, Long> {
             "AND p.date = :date " +
             "AND p.reserve = false " +
             "ORDER BY p.heureDebut ASC")
+    @EntityGraph(Planning.GRAPHE_AFFICHAGE)
     List<Planning> findCreneauxDisponiblesParCriteres(@Param("idMedecin") Long idMedecin,
                                                       @Param("idService") Long idService,
                                                       @Param("idHopital") Long idHopital,
@@ -55,18 +97,21 @@ public interface PlanningRepository extends JpaRepository<Planning, Long> {
     /**
      * Trouve les créneaux disponibles par médecin sur une période
      */
+    @EntityGraph(Planning.GRAPHE_AFFICHAGE)
     List<Planning> findByMedecinIdAndDateBetweenAndReserve(Long medecin_id, LocalDate dateDebut, LocalDate dateFin, boolean reserve);
 
     /**
      * Trouve les créneaux disponibles par service sur une période
      * Correction : utiliser le bon nom de propriété pour l'ID du service
      */
+    @EntityGraph(Planning.GRAPHE_AFFICHAGE)
     List<Planning> findByServiceIdServiceAndDateBetweenAndReserve(Long service_idService, LocalDate dateDebut, LocalDate dateFin, boolean reserve);
 
     /**
      * Trouve les créneaux disponibles par hôpital sur une période
      * Correction : utiliser le bon nom de propriété pour l'ID de l'hôpital
      */
+    @EntityGraph(Planning.GRAPHE_AFFICHAGE)
     List<Planning> findByHopitalIdHopitalAndDateBetweenAndReserve(Long hopital_idHopital, LocalDate dateDebut, LocalDate dateFin, boolean reserve);
 
     /**
@@ -88,4 +133,121 @@ public interface PlanningRepository extends JpaRepository<Planning, Long> {
      * Trouve les plannings par médecin, date et heure avec statut de réservation
      */
     List<Planning> findByMedecinIdAndDateAndHeureDebutAndReserve(Long medecin_id, LocalDate date, LocalTime heureDebut, boolean reserve);
-}
\ No newline at end of file
+
+    /**
+     * Créneaux d'un médecin pour un jour dans l'ordre des heures, lus sans verrou :
+     * AllocationIntervallesService revalide chaque ligne qu'il modifie par une mise à jour conditionnelle.
+     */
+    @Query("SELECT p FROM Planning p WHERE p.medecin.id = :idMedecin AND p.date = :date ORDER BY p.heureDebut")
+    List<Planning> findJourMedecin(@Param("idMedecin") Long idMedecin, @Param("date") LocalDate date);
+
+    /**
+     * Réserve un créneau uniquement s'il est encore libre et que ses bornes n'ont pas bougé (UPDATE conditionnel
+     * atomique). Retourne 0 si un autre patient l'a réservé ou si l'intervalle a été redécoupé entre-temps.
+     */
+    @Modifying(flushAutomatically = true)
+    @Query("UPDATE Planning p SET p.reserve = true, p.rendezVous = :rendezVous, p.heureFin = :nouvelleFin " +
+            "WHERE p.idPlanning = :idPlanning AND p.reserve = false " +
+            "AND p.heureDebut = :heureDebut AND p.heureFin = :heureFin")
+    int reserverSiLibre(@Param("idPlanning") Long idPlanning,
+                        @Param("heureDebut") LocalTime heureDebut,
+                        @Param("heureFin") LocalTime heureFin,
+                        @Param("rendezVous") RendezVous rendezVous,
+                        @Param("nouvelleFin") LocalTime nouvelleFin);
+
+    /**
+     * Avance le début d'un intervalle libre entamé par une réservation voisine, s'il est toujours libre et inchangé
+     */
+    @Modifying(flushAutomatically = true)
+    @Query("UPDATE Planning p SET p.heureDebut = :nouveauDebut " +
+            "WHERE p.idPlanning = :idPlanning AND p.reserve = false " +
+            "AND p.heureDebut = :heureDebut AND p.heureFin = :heureFin")
+    int rognerSiLibre(@Param("idPlanning") Long idPlanning,
+                      @Param("heureDebut") LocalTime heureDebut,
+                      @Param("heureFin") LocalTime heureFin,
+                      @Param("nouveauDebut") LocalTime nouveauDebut);
+
+    /**
+     * Supprime un intervalle libre absorbé par un voisin, s'il est toujours libre et inchangé
+     */
+    @Modifying(flushAutomatically = true)
+    @Query("DELETE FROM Planning p WHERE p.idPlanning = :idPlanning AND p.reserve = false " +
+            "AND p.heureDebut = :heureDebut AND p.heureFin = :heureFin")
+    int supprimerSiLibre(@Param("idPlanning") Long idPlanning,
+                         @Param("heureDebut") LocalTime heureDebut,
+                         @Param("heureFin") LocalTime heureFin);
+
+    /**
+     * Projection de tous les créneaux d'une période, jointures comprises, en une seule requête
+     * (utilisée pour reconstruire l'index mémoire des créneaux)
+     */
+    @Query(PROJECTION_DTO +
+            "WHERE p.date BETWEEN :dateDebut AND :dateFin")
+    List<PlanningDto> findProjectionsEntre(@Param("dateDebut") LocalDate dateDebut,
+                                           @Param("dateFin") LocalDate dateFin);
+
+    /**
+     * Projection des créneaux d'un médecin sur une période (même forme que findProjectionsEntre)
+     */
+    @Query(PROJECTION_DTO +
+            "WHERE m.id = :idMedecin AND p.date BETWEEN :dateDebut AND :dateFin")
+    List<PlanningDto> findProjectionsMedecinEntre(@Param("idMedecin") Long idMedecin,
+                                                  @Param("dateDebut") LocalDate dateDebut,
+                                                  @Param("dateFin") LocalDate dateFin);
+
+    /**
+     * Intervalles (date, heure de début, heure de fin) des créneaux existants d'un médecin sur une période
+     */
+    @Query("SELECT p.date, p.heureDebut, p.heureFin FROM Planning p " +
+            "WHERE p.medecin.id = :idMedecin AND p.date BETWEEN :dateDebut AND :dateFin")
+    List<Object[]> findIntervallesCreneauxMedecin(@Param("idMedecin") Long idMedecin,
+                                                  @Param("dateDebut") LocalDate dateDebut,
+                                                  @Param("dateFin") LocalDate dateFin);
+
+    /**
+     * Premiers créneaux libres à partir d'un instant, tous médecins confondus (repli quand l'index n'est pas prêt)
+     */
+    @Query(PROJECTION_DTO +
+            "WHERE p.reserve = false " +
+            "AND (p.date > :aujourdhui OR (p.date = :aujourdhui AND p.heureDebut >= :maintenant)) " +
+            "AND (:idService IS NULL OR s.idService = :idService) " +
+            "AND (:idHopital IS NULL OR h.idHopital = :idHopital) " +
+            "AND (:specialite IS NULL OR LOWER(m.specialite) = LOWER(:specialite)) " +
+            "AND (:region IS NULL OR LOWER(h.region) = LOWER(:region)) " +
+            "AND (:ville IS NULL OR LOWER(h.ville) = LOWER(:ville)) " +
+            "ORDER BY p.date ASC, p.heureDebut ASC")
+    List<PlanningDto> findPremiersCreneauxLibres(@Param("aujourdhui") LocalDate aujourdhui,
+                                                 @Param("maintenant") LocalTime maintenant,
+                                                 @Param("idService") Long idService,
+                                                 @Param("idHopital") Long idHopital,
+                                                 @Param("specialite") String specialite,
+                                                 @Param("region") String region,
+                                                 @Param("ville") String ville,
+                                                 Pageable pageable);
+
+    /**
+     * Créneaux touchés par un changement de calendrier, avec le patient à prévenir (une seule requête)
+     */
+    @Query("SELECT new com.sante.senegal.dto.CreneauImpacteDto(p.idPlanning, m.id, CONCAT(m.nom, ' ', m.prenom), " +
+            "h.nom, p.date, p.heureDebut, r.idRdv, r.statut, pa.id, pa.prenom, pa.email) " +
+            "FROM Planning p JOIN p.medecin m JOIN p.hopital h " +
+            "LEFT JOIN p.rendezVous r LEFT JOIN r.patient pa " +
+            "WHERE " + PERIMETRE_IMPACT)
+    List<CreneauImpacteDto> findCreneauxImpactes(@Param("dateDebut") LocalDate dateDebut,
+                                                 @Param("heureDebut") LocalTime heureDebut,
+                                                 @Param("dateFin") LocalDate dateFin,
+                                                 @Param("idMedecin") Long idMedecin,
+                                                 @Param("idService") Long idService,
+                                                 @Param("idHopital") Long idHopital,
+                                                 @Param("region") String region);
+
+    @Modifying(flushAutomatically = true, clearAutomatically = true)
+    @Query("DELETE FROM Planning p WHERE " + PERIMETRE_IMPACT)
+    int supprimerCreneauxImpactes(@Param("dateDebut") LocalDate dateDebut,
+                                  @Param("heureDebut") LocalTime heureDebut,
+                                  @Param("dateFin") LocalDate dateFin,
+                                  @Param("idMedecin") Long idMedecin,
+                                  @Param("idService") Long idService,
+                                  @Param("idHopital") Long idHopital,
+                                  @Param("region") String region);
+}
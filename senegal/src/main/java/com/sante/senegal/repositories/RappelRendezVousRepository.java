@@ -0,0 +1,58 @@
+package com.sante.senegal.repositories;
+
+import com.sante.senegal.entities.RappelRendezVous;
+import jakarta.persistence.LockModeType;
+import jakarta.persistence.QueryHint;
+import org.hibernate.jpa.SpecHints;
+import org.springframework.data.domain.Pageable;
+import org.springframework.data.jpa.repository.JpaRepository;
+import org.springframework.data.jpa.repository.Lock;
+import org.springframework.data.jpa.repository.Modifying;
+import org.springframework.data.jpa.repository.Query;
+import org.springframework.data.jpa.repository.QueryHints;
+import org.springframework.data.repository.query.Param;
+import org.springframework.stereotype.Repository;
+
+import java.time.LocalDateTime;
+import java.util.Collection;
+import java.util.List;
+
+@Repository
+public interface RappelRendezVousRepository extends JpaRepository<RappelRendezVous, Long> {
+
+    /**
+     * Inscrit au registre, pour un type de rappel, les rendez-vous éligibles de la fenêtre.
+     * Les couples (rendez-vous, type) déjà inscrits sont ignorés : la planification peut être rejouée sans doublon.
+     */
+    @Modifying
+    @Query(nativeQuery = true, value = "INSERT INTO rappel_rendez_vous " +
+            "(id_rdv, type_rappel, decalage_minutes, date_prevue, statut, tentatives, date_creation) " +
+            "SELECT r.id_rdv, :typeRappel, :decalageMinutes, r.date_heure - make_interval(mins => :decalageMinutes), " +
+            "'A_ENVOYER', 0, :maintenant " +
+            "FROM rendez_vous r " +
+            "WHERE r.date_heure > :maintenant AND r.date_heure <= :limite AND r.statut IN (:statuts) " +
+            "ON CONFLICT (id_rdv, type_rappel) DO NOTHING")
+    int planifier(@Param("typeRappel") String typeRappel,
+                  @Param("decalageMinutes") int decalageMinutes,
+                  @Param("maintenant") LocalDateTime maintenant,
+                  @Param("limite") LocalDateTime limite,
+                  @Param("statuts") Collection<String> statuts);
+
+    /**
+     * Lot de rappels dus, verrouillés en SELECT ... FOR UPDATE SKIP LOCKED (délai de verrou -2) :
+     * les lignes déjà prises par un autre envoyeur sont sautées au lieu d'être attendues.
+     * Un rappel EN_COURS dont le bail a expiré (envoyeur arrêté) est repris.
+     */
+    @Lock(LockModeType.PESSIMISTIC_WRITE)
+    @QueryHints(@QueryHint(name = SpecHints.HINT_SPEC_LOCK_TIMEOUT, value = "-2"))
+    @Query("SELECT r FROM RappelRendezVous r " +
+            "WHERE (r.statut = com.sante.senegal.entities.RappelRendezVous$StatutRappel.A_ENVOYER AND r.datePrevue <= :maintenant) " +
+            "OR (r.statut = com.sante.senegal.entities.RappelRendezVous$StatutRappel.EN_COURS AND r.bailJusqua < :maintenant) " +
+            "ORDER BY r.datePrevue")
+    List<RappelRendezVous> findDusPourEnvoi(@Param("maintenant") LocalDateTime maintenant, Pageable limite);
+
+    @Modifying
+    @Query("DELETE FROM RappelRendezVous r WHERE r.datePrevue < :avant AND r.statut IN :statuts")
+    int supprimerAnciens(@Param("avant") LocalDateTime avant,
+                         @Param("statuts") Collection<RappelRendezVous.StatutRappel> statuts);
+}
@@ -1,13 +1,25 @@
 package com.sante.senegal.repositories;
 
+import com.sante.senegal.dto.RappelRendezVousDto;
+import com.sante.senegal.dto.RendezVousDto;
 import com.sante.senegal.entities.RendezVous;
+import org.springframework.data.domain.Pageable;
+import jakarta.persistence.QueryHint;
+import org.hibernate.jpa.HibernateHints;
 import org.springframework.data.jpa.repository.JpaRepository;
+import org.springframework.data.jpa.repository.Modifying;
 import org.springframework.data.jpa.repository.Query;
+import org.springframework.data.jpa.repository.QueryHints;
 import org.springframework.data.repository.query.Param;
 import org.springframework.stereotype.Repository;
 
+import java.time.LocalDate;
 import java.time.LocalDateTime;
+import java.time.LocalTime;
+import java.util.Collection;
 import java.util.List;
+import java.util.Optional;
+import java.util.stream.Stream;
 
 @Repository
 public interface RendezVousRepository extends JpaRepository<RendezVous, Long> {
@@ -56,5 +68,148 @@ public interface RendezVousRepository extends JpaRepository<RendezVous, Long> {
     @Query("SELECT r FROM RendezVous r WHERE r.medecin.id = :idMedecin AND r.dateHeure > CURRENT_TIMESTAMP AND r.statut IN ('PROGRAMME', 'CONFIRME')")
     List<RendezVous> findUpcomingRendezVousByMedecin(@Param("idMedecin") Long idMedecin);
 
-
-}
\ No newline at end of file
+    /**
+     * Annule en une requête les rendez-vous actifs portés par les créneaux du périmètre
+     */
+    @Modifying(flushAutomatically = true, clearAutomatically = true)
+    @Query("UPDATE RendezVous r SET r.statut = com.sante.senegal.entities.RendezVous$StatutRendezVous.ANNULE, " +
+            "r.dateModification = :maintenant " +
+            "WHERE r.statut IN :statutsActifs AND r.idRdv IN " +
+            "(SELECT p.rendezVous.idRdv FROM Planning p WHERE " + PlanningRepository.PERIMETRE_IMPACT + ")")
+    int annulerRendezVousImpactes(@Param("dateDebut") LocalDate dateDebut,
+                                  @Param("heureDebut") LocalTime heureDebut,
+                                  @Param("dateFin") LocalDate dateFin,
+                                  @Param("idMedecin") Long idMedecin,
+                                  @Param("idService") Long idService,
+                                  @Param("idHopital") Long idHopital,
+                                  @Param("region") String region,
+                                  @Param("statutsActifs") Collection<RendezVous.StatutRendezVous> statutsActifs,
+                                  @Param("maintenant") LocalDateTime maintenant);
+
+    // ===== Lecture en projection RendezVousDto : une requête, jointures explicites, aucune entité chargée =====
+
+    String SELECT_DTO = "SELECT new com.sante.senegal.dto.RendezVousDto(r.idRdv, "
+            + "p.id, CONCAT(p.prenom, ' ', p.nom), "
+            + "m.id, CONCAT(m.prenom, ' ', m.nom), m.specialite, "
+            + "s.idService, s.nom, "
+            + "h.idHopital, h.nom, h.adresse, h.ville, h.region, "
+            + "r.dateHeure, r.dureePrevue, r.typeConsultation, r.motif, r.niveauUrgence, r.statut, "
+            + "r.dateCreation, r.dateModification, r.modePriseRdv) "
+            + "FROM RendezVous r LEFT JOIN r.patient p LEFT JOIN r.medecin m "
+            + "LEFT JOIN r.service s LEFT JOIN r.hopital h ";
+
+    @Query(SELECT_DTO)
+    List<RendezVousDto> findAllDto();
+
+    @Query(SELECT_DTO + "WHERE r.idRdv = :idRdv")
+    Optional<RendezVousDto> findDtoById(@Param("idRdv") Long idRdv);
+
+    @Query(SELECT_DTO + "WHERE p.id = :idPatient")
+    List<RendezVousDto> findDtoByPatient(@Param("idPatient") Long idPatient);
+
+    @Query(SELECT_DTO + "WHERE m.id = :idMedecin")
+    List<RendezVousDto> findDtoByMedecin(@Param("idMedecin") Long idMedecin);
+
+    @Query(SELECT_DTO + "WHERE s.idService = :idService")
+    List<RendezVousDto> findDtoByService(@Param("idService") Long idService);
+
+    @Query(SELECT_DTO + "WHERE h.idHopital = :idHopital")
+    List<RendezVousDto> findDtoByHopital(@Param("idHopital") Long idHopital);
+
+    @Query(SELECT_DTO + "WHERE r.statut = :statut")
+    List<RendezVousDto> findDtoByStatut(@Param("statut") RendezVous.StatutRendezVous statut);
+
+    @Query(SELECT_DTO + "WHERE m.id = :idMedecin AND r.statut = :statut")
+    List<RendezVousDto> findDtoByMedecinAndStatut(@Param("idMedecin") Long idMedecin,
+                                                  @Param("statut") RendezVous.StatutRendezVous statut);
+
+    @Query(SELECT_DTO + "WHERE r.niveauUrgence = :niveauUrgence")
+    List<RendezVousDto> findDtoByNiveauUrgence(@Param("niveauUrgence") RendezVous.NiveauUrgence niveauUrgence);
+
+    @Query(SELECT_DTO + "WHERE r.dateHeure BETWEEN :dateDebut AND :dateFin")
+    List<RendezVousDto> findDtoBetweenDates(@Param("dateDebut") LocalDateTime dateDebut,
+                                            @Param("dateFin") LocalDateTime dateFin);
+
+    @Query(SELECT_DTO + "WHERE m.id = :idMedecin AND r.dateHeure BETWEEN :dateDebut AND :dateFin")
+    List<RendezVousDto> findDtoByMedecinAndDateRange(@Param("idMedecin") Long idMedecin,
+                                                     @Param("dateDebut") LocalDateTime dateDebut,
+                                                     @Param("dateFin") LocalDateTime dateFin);
+
+    @Query(SELECT_DTO + "WHERE p.id = :idPatient AND r.statut IN ('PROGRAMME', 'CONFIRME')")
+    List<RendezVousDto> findUpcomingDtoByPatient(@Param("idPatient") Long idPatient);
+
+    @Query(SELECT_DTO + "WHERE m.id = :idMedecin AND r.dateHeure > CURRENT_TIMESTAMP AND r.statut IN ('PROGRAMME', 'CONFIRME')")
+    List<RendezVousDto> findUpcomingDtoByMedecin(@Param("idMedecin") Long idMedecin);
+
+    @Query(SELECT_DTO + "WHERE r.dateHeure < :maintenant AND r.statut = 'PROGRAMME'")
+    List<RendezVousDto> findOverdueDto(@Param("maintenant") LocalDateTime maintenant);
+
+    /**
+     * Parcours en flux d'une période (hôpital et médecin facultatifs), lu par lots côté JDBC
+     */
+    @Query(SELECT_DTO
+            + "WHERE r.dateHeure BETWEEN :dateDebut AND :dateFin "
+            + "AND (:idHopital IS NULL OR h.idHopital = :idHopital) "
+            + "AND (:idMedecin IS NULL OR m.id = :idMedecin) "
+            + "ORDER BY r.dateHeure, r.idRdv")
+    @QueryHints({
+            @QueryHint(name = HibernateHints.HINT_FETCH_SIZE, value = "500"),
+            @QueryHint(name = HibernateHints.HINT_READ_ONLY, value = "true")
+    })
+    Stream<RendezVousDto> streamDtoBetweenDates(@Param("dateDebut") LocalDateTime dateDebut,
+                                                @Param("dateFin") LocalDateTime dateFin,
+                                                @Param("idHopital") Long idHopital,
+                                                @Param("idMedecin") Long idMedecin);
+
+    // ===== Pagination par clé (dateHeure, idRdv) =====
+
+    String PAGE_RDV = SELECT_DTO
+            + "WHERE (r.dateHeure > :apresDate OR (r.dateHeure = :apresDate AND r.idRdv > :apresId)) ";
+    String TRI_PAGE_RDV = " ORDER BY r.dateHeure, r.idRdv";
+
+    @Query(PAGE_RDV + TRI_PAGE_RDV)
+    List<RendezVousDto> findPageApres(@Param("apresDate") LocalDateTime apresDate,
+                                      @Param("apresId") Long apresId,
+                                      Pageable limite);
+
+    @Query(PAGE_RDV + "AND r.statut = :statut" + TRI_PAGE_RDV)
+    List<RendezVousDto> findPageParStatutApres(@Param("statut") RendezVous.StatutRendezVous statut,
+                                               @Param("apresDate") LocalDateTime apresDate,
+                                               @Param("apresId") Long apresId,
+                                               Pageable limite);
+
+    @Query(PAGE_RDV + "AND h.idHopital = :idHopital" + TRI_PAGE_RDV)
+    List<RendezVousDto> findPageParHopitalApres(@Param("idHopital") Long idHopital,
+                                                @Param("apresDate") LocalDateTime apresDate,
+                                                @Param("apresId") Long apresId,
+                                                Pageable limite);
+
+    @Query(PAGE_RDV + "AND s.idService = :idService" + TRI_PAGE_RDV)
+    List<RendezVousDto> findPageParServiceApres(@Param("idService") Long idService,
+                                                @Param("apresDate") LocalDateTime apresDate,
+                                                @Param("apresId") Long apresId,
+                                                Pageable limite);
+
+    @Query(PAGE_RDV + "AND m.id = :idMedecin" + TRI_PAGE_RDV)
+    List<RendezVousDto> findPageParMedecinApres(@Param("idMedecin") Long idMedecin,
+                                                @Param("apresDate") LocalDateTime apresDate,
+                                                @Param("apresId") Long apresId,
+                                                Pageable limite);
+
+    // Couples (service, date et heure) des rendez-vous urgents actifs, pour l'allocation des parts réservées
+    @Query("SELECT r.service.idService, r.dateHeure FROM RendezVous r " +
+            "WHERE r.dateHeure BETWEEN :dateDebut AND :dateFin " +
+            "AND r.niveauUrgence IN :niveaux AND r.statut IN :statuts AND r.service IS NOT NULL")
+    List<Object[]> findUrgencesParService(@Param("dateDebut") LocalDateTime dateDebut,
+                                          @Param("dateFin") LocalDateTime dateFin,
+                                          @Param("niveaux") Collection<RendezVous.NiveauUrgence> niveaux,
+                                          @Param("statuts") Collection<RendezVous.StatutRendezVous> statuts);
+
+    /**
+     * Données de rappel d'un lot de rendez-vous, patient joint
+     */
+    @Query("SELECT new com.sante.senegal.dto.RappelRendezVousDto(r.idRdv, r.dateHeure, r.motif, r.statut, " +
+            "p.id, p.prenom, p.nom, p.email) " +
+            "FROM RendezVous r JOIN r.patient p WHERE r.idRdv IN :idsRdv")
+    List<RappelRendezVousDto> findRappelsParIds(@Param("idsRdv") Collection<Long> idsRdv);
+}
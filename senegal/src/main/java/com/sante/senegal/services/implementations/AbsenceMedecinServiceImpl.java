@@ -24,6 +24,7 @@ public class AbsenceMedecinServiceImpl implements AbsenceMedecinService {
 
     private final AbsenceMedecinRepository absenceMedecinRepository;
     private final MedecinRepository medecinRepository;
+    private final ImpactCalendrierService impactCalendrierService;
 
     @Override
     public AbsenceMedecin creerAbsence(AbsenceMedecin absence) {
@@ -46,6 +47,9 @@ public class AbsenceMedecinServiceImpl implements AbsenceMedecinService {
 
         log.info("Absence créée avec id={}", saved.getIdAbsence());
 
+        impactCalendrierService.appliquerAbsence(medecin.getId(), saved.getDateDebut(), saved.getDateFin(),
+                saved.getMotif().name());
+
         return saved;
     }
 
@@ -63,7 +67,10 @@ public class AbsenceMedecinServiceImpl implements AbsenceMedecinService {
 
         log.info("Modification de l'absence id={}", id);
 
-        return absenceMedecinRepository.save(absenceExistante);
+        AbsenceMedecin saved = absenceMedecinRepository.save(absenceExistante);
+        impactCalendrierService.appliquerAbsence(saved.getMedecin().getId(), saved.getDateDebut(), saved.getDateFin(),
+                saved.getMotif().name());
+        return saved;
     }
 
     @Override
@@ -0,0 +1,90 @@
+package com.sante.senegal.services.implementations;
+
+import com.sante.senegal.dto.AgendaCreneauDto;
+import com.sante.senegal.dto.RendezVousDto;
+import com.sante.senegal.entities.AgendaMedecin;
+import com.sante.senegal.entities.RendezVous;
+import com.sante.senegal.mappers.AgendaMedecinMapper;
+import com.sante.senegal.repositories.AgendaMedecinRepository;
+import com.sante.senegal.repositories.RendezVousRepository;
+import lombok.RequiredArgsConstructor;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.stereotype.Service;
+import org.springframework.transaction.annotation.Transactional;
+
+import java.time.LocalDate;
+import java.time.LocalDateTime;
+import java.time.LocalTime;
+import java.util.Collection;
+import java.util.List;
+
+/**
+ * Agenda journalier des médecins, servi depuis le modèle de lecture agenda_medecin.
+ * Les lignes sont réécrites à chaque événement RendezVousModifieEvent (AgendaMedecinListener) ;
+ * la reconstruction par période sert à l'initialisation et aux reprises.
+ */
+@Service
+@RequiredArgsConstructor
+@Slf4j
+@Transactional
+public class AgendaMedecinService {
+
+    private final AgendaMedecinRepository agendaMedecinRepository;
+    private final RendezVousRepository rendezVousRepository;
+    private final AgendaMedecinMapper agendaMedecinMapper;
+
+    @Transactional(readOnly = true)
+    public List<AgendaCreneauDto> getAgenda(Long idMedecin, LocalDate date) {
+        return agendaMedecinMapper.toDtoList(
+                agendaMedecinRepository.findByIdMedecinAndDateOrderByHeureDebutAsc(idMedecin, date));
+    }
+
+    /**
+     * Réécrit la ligne d'agenda d'un rendez-vous, ou la supprime si le rendez-vous n'existe plus
+     */
+    public void rafraichir(Long idRdv) {
+        rendezVousRepository.findDtoById(idRdv).ifPresentOrElse(
+                rdv -> agendaMedecinRepository.save(versAgenda(rdv)),
+                () -> agendaMedecinRepository.deleteById(idRdv));
+    }
+
+    public void changerStatut(Collection<Long> idsRdv, RendezVous.StatutRendezVous statut) {
+        if (!idsRdv.isEmpty()) {
+            agendaMedecinRepository.changerStatut(idsRdv, statut, LocalDateTime.now());
+        }
+    }
+
+    /**
+     * Reconstruit l'agenda de tous les médecins sur une période à partir des rendez-vous
+     */
+    public int reconstruire(LocalDate dateDebut, LocalDate dateFin) {
+        long debut = System.currentTimeMillis();
+        agendaMedecinRepository.deleteByDateBetween(dateDebut, dateFin);
+        List<AgendaMedecin> lignes = rendezVousRepository
+                .findDtoBetweenDates(dateDebut.atStartOfDay(), dateFin.atTime(LocalTime.MAX)).stream()
+                .map(this::versAgenda)
+                .toList();
+        agendaMedecinRepository.saveAll(lignes);
+        log.info("Agenda reconstruit du {} au {}: {} rendez-vous en {} ms",
+                dateDebut, dateFin, lignes.size(), System.currentTimeMillis() - debut);
+        return lignes.size();
+    }
+
+    private AgendaMedecin versAgenda(RendezVousDto rdv) {
+        LocalTime heureDebut = rdv.getDateHeure().toLocalTime();
+        return AgendaMedecin.builder()
+                .idRdv(rdv.getIdRdv())
+                .idMedecin(rdv.getMedecinId())
+                .date(rdv.getDateHeure().toLocalDate())
+                .heureDebut(heureDebut)
+                .heureFin(rdv.getDureePrevue() != null ? heureDebut.plusMinutes(rdv.getDureePrevue()) : null)
+                .idPatient(rdv.getPatientId())
+                .nomPatient(rdv.getPatientNomComplet())
+                .motif(rdv.getMotif())
+                .typeConsultation(rdv.getTypeConsultation())
+                .statut(rdv.getStatut())
+                .niveauUrgence(rdv.getNiveauUrgence())
+                .dateMiseAJour(LocalDateTime.now())
+                .build();
+    }
+}
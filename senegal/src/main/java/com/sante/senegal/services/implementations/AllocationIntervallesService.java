@@ -0,0 +1,278 @@
+package com.sante.senegal.services.implementations;
+
+import com.sante.senegal.dto.CreneauImpacteDto;
+import com.sante.senegal.entities.Planning;
+import com.sante.senegal.entities.RendezVous;
+import com.sante.senegal.exceptions.CreneauIndisponibleException;
+import com.sante.senegal.repositories.PlanningRepository;
+import jakarta.persistence.EntityManager;
+import lombok.RequiredArgsConstructor;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.stereotype.Service;
+import org.springframework.transaction.annotation.Transactional;
+
+import java.time.Duration;
+import java.time.LocalTime;
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.List;
+import java.util.Map;
+import java.util.Objects;
+
+/**
+ * Moteur d'allocation par intervalles : la journée d'un médecin est une suite d'intervalles
+ * (les lignes de planning), libres ou réservés. Une réservation prend exactement la durée de sa
+ * consultation, quitte à consommer les intervalles libres contigus suivants ; un reste trop court pour
+ * une consultation est rattaché à la réservation, un reste plus long reste libre. Les intervalles libres
+ * voisins gardent leurs bornes : un créneau déjà affiché ou bloqué par un autre client
+ * (BlocageCreneauService) ne change pas d'horaire sous lui.
+ * <p>
+ * Aucun verrou n'est pris sur la journée : la journée est lue sans verrou, puis chaque ligne touchée est
+ * prise par une mise à jour conditionnelle (libre, bornes inchangées), dans l'ordre des heures. Une ligne
+ * prise ou redécoupée entre-temps fait échouer la réservation (CreneauIndisponibleException) et la
+ * transaction annule les lignes déjà prises ; seuls les verrous de ligne des UPDATE sont tenus jusqu'au commit.
+ * Une libération redécoupe l'intervalle libéré sur la grille de DUREE_CRENEAU_MINUTES, en y rattachant
+ * les restes voisins trop courts pour une consultation.
+ */
+@Service
+@RequiredArgsConstructor
+@Slf4j
+@Transactional
+public class AllocationIntervallesService {
+
+    public static final int DUREE_CRENEAU_MINUTES = 30;
+    public static final Map<RendezVous.TypeConsultation, Integer> DUREES_CONSULTATION = Map.of(
+            RendezVous.TypeConsultation.CONSULTATION_GENERALE, 30,
+            RendezVous.TypeConsultation.CONSULTATION_SPECIALISTE, 45,
+            RendezVous.TypeConsultation.CONSULTATION_URGENCE, 20,
+            RendezVous.TypeConsultation.CONSULTATION_SUIVI, 25,
+            RendezVous.TypeConsultation.CONSULTATION_PREMIERE, 30
+    );
+    // En dessous, un reste de découpage est rattaché à l'intervalle précédent
+    private static final int DUREE_MINIMALE_MINUTES = Collections.min(DUREES_CONSULTATION.values());
+
+    private final PlanningRepository planningRepository;
+    private final IndexCreneauxService indexCreneaux;
+    private final BlocageCreneauService blocageCreneaux;
+    private final EntityManager entityManager;
+
+    public static int dureeConsultation(RendezVous.TypeConsultation type) {
+        return type != null ? DUREES_CONSULTATION.getOrDefault(type, DUREE_CRENEAU_MINUTES) : DUREE_CRENEAU_MINUTES;
+    }
+
+    /**
+     * Réserve pour le rendez-vous l'intervalle [début du créneau, début + durée)
+     * @return le créneau réservé, qui couvre la consultation (et le reste trop court qui la suit)
+     */
+    public Planning allouer(Planning reference, RendezVous rendezVous, int dureeMinutes) {
+        LocalTime heureChoisie = reference.getHeureDebut();
+        List<Planning> jour = lireJour(reference);
+        int position = position(jour, reference);
+        if (position < 0) {
+            throw new CreneauIndisponibleException("Le créneau n'existe plus");
+        }
+        Planning creneau = jour.get(position);
+        if (creneau.isReserve()) {
+            throw new CreneauIndisponibleException("Le créneau est déjà réservé");
+        }
+        if (!creneau.getHeureDebut().equals(heureChoisie)) {
+            throw new CreneauIndisponibleException("Les horaires du créneau ont changé, veuillez en choisir un autre");
+        }
+
+        LocalTime fin = creneau.getHeureDebut().plusMinutes(dureeMinutes);
+        if (!fin.isAfter(creneau.getHeureDebut())) {
+            throw new CreneauIndisponibleException("La consultation dépasse la fin de la journée");
+        }
+
+        // Intervalles libres contigus nécessaires pour couvrir la durée
+        int dernier = position;
+        while (jour.get(dernier).getHeureFin().isBefore(fin)) {
+            if (dernier + 1 >= jour.size() || !estContiguLibre(jour.get(dernier), jour.get(dernier + 1))) {
+                throw new CreneauIndisponibleException("Le créneau ne laisse pas les " + dureeMinutes
+                        + " minutes nécessaires à cette consultation");
+            }
+            dernier++;
+        }
+        // Un reste trop court pour accueillir une consultation est rattaché à la réservation
+        LocalTime finLibre = jour.get(dernier).getHeureFin();
+        if (finLibre.isAfter(fin) && Duration.between(fin, finLibre).toMinutes() < DUREE_MINIMALE_MINUTES) {
+            fin = finLibre;
+        }
+
+        List<CreneauImpacteDto> consommes = cles(jour.subList(position + 1, dernier + 1));
+        if (planningRepository.reserverSiLibre(creneau.getIdPlanning(), creneau.getHeureDebut(),
+                creneau.getHeureFin(), rendezVous, fin) == 0) {
+            throw new CreneauIndisponibleException("Le créneau est déjà réservé");
+        }
+        Planning reste = null;
+        for (int i = position + 1; i <= dernier; i++) {
+            Planning ligne = jour.get(i);
+            boolean absorbee = !ligne.getHeureFin().isAfter(fin);
+            int modifiees = absorbee
+                    ? planningRepository.supprimerSiLibre(ligne.getIdPlanning(), ligne.getHeureDebut(), ligne.getHeureFin())
+                    : planningRepository.rognerSiLibre(ligne.getIdPlanning(), ligne.getHeureDebut(), ligne.getHeureFin(), fin);
+            if (modifiees == 0) {
+                throw new CreneauIndisponibleException("Le créneau ne laisse plus les " + dureeMinutes
+                        + " minutes nécessaires à cette consultation");
+            }
+            if (absorbee) {
+                entityManager.detach(ligne);
+            } else {
+                entityManager.refresh(ligne);
+                reste = ligne;
+            }
+        }
+        entityManager.refresh(creneau);
+
+        indexCreneaux.marquerReserve(creneau.getMedecin().getId(), creneau.getDate(), creneau.getHeureDebut());
+        indexCreneaux.retirer(consommes);
+        if (reste != null) {
+            indexCreneaux.rafraichir(reste);
+        }
+        log.debug("Intervalle {} {}-{} alloué au médecin {}, {} intervalles consommés",
+                creneau.getDate(), creneau.getHeureDebut(), fin, creneau.getMedecin().getId(), consommes.size());
+        return creneau;
+    }
+
+    /**
+     * Libère un créneau réservé, rattache les restes libres trop courts qui le touchent et le redécoupe
+     * @return le créneau libéré (son identifiant est conservé, ses heures peuvent changer)
+     */
+    public Planning liberer(Planning reference) {
+        List<Planning> jour = lireJour(reference);
+        int position = position(jour, reference);
+        if (position < 0) {
+            return reference;
+        }
+        Planning creneau = jour.get(position);
+        List<CreneauImpacteDto> anciens = new ArrayList<>(cles(List.of(creneau)));
+        creneau.setRendezVous(null);
+        creneau.setReserve(false);
+
+        // Un reste pris ou modifié entre-temps arrête l'extension de ce côté
+        LocalTime debutSegment = creneau.getHeureDebut();
+        for (int i = position - 1; i >= 0 && estResteLibre(jour.get(i + 1), jour.get(i)); i--) {
+            if (!absorber(jour.get(i), anciens)) {
+                break;
+            }
+            debutSegment = jour.get(i).getHeureDebut();
+        }
+        LocalTime finSegment = creneau.getHeureFin();
+        for (int i = position + 1; i < jour.size() && estResteLibre(jour.get(i - 1), jour.get(i)); i++) {
+            if (!absorber(jour.get(i), anciens)) {
+                break;
+            }
+            finSegment = jour.get(i).getHeureFin();
+        }
+
+        List<Planning> modifies = redecouper(creneau, debutSegment, finSegment);
+        indexCreneaux.retirer(anciens);
+        modifies.forEach(indexCreneaux::rafraichir);
+        return creneau;
+    }
+
+    /**
+     * Journée du médecin, sans verrou. Le créneau traité a pu être lu plus tôt dans la transaction,
+     * et le contexte de persistance rendrait alors son état d'avant : il est relu.
+     */
+    private List<Planning> lireJour(Planning reference) {
+        List<Planning> jour = planningRepository.findJourMedecin(reference.getMedecin().getId(), reference.getDate());
+        int position = position(jour, reference);
+        if (position >= 0) {
+            entityManager.refresh(jour.get(position));
+        }
+        return jour;
+    }
+
+    private static int position(List<Planning> jour, Planning reference) {
+        for (int i = 0; i < jour.size(); i++) {
+            if (jour.get(i).getIdPlanning().equals(reference.getIdPlanning())) {
+                return i;
+            }
+        }
+        return -1;
+    }
+
+    /**
+     * Un voisin prolonge l'intervalle s'il le touche, est libre, non bloqué et dans le même service et hôpital
+     */
+    private boolean estContiguLibre(Planning courant, Planning voisin) {
+        boolean touche = voisin.getHeureDebut().equals(courant.getHeureFin())
+                || voisin.getHeureFin().equals(courant.getHeureDebut());
+        return touche
+                && !voisin.isReserve()
+                && !blocageCreneaux.estBloque(voisin.getIdPlanning())
+                && Objects.equals(voisin.getService().getIdService(), courant.getService().getIdService())
+                && Objects.equals(voisin.getHopital().getIdHopital(), courant.getHopital().getIdHopital());
+    }
+
+    /**
+     * Un reste libre est un voisin contigu libre trop court pour accueillir seul une consultation
+     */
+    private boolean estResteLibre(Planning courant, Planning voisin) {
+        return estContiguLibre(courant, voisin)
+                && Duration.between(voisin.getHeureDebut(), voisin.getHeureFin()).toMinutes() < DUREE_MINIMALE_MINUTES;
+    }
+
+    /**
+     * Supprime un reste libre rattaché au créneau libéré, s'il est toujours libre et inchangé
+     */
+    private boolean absorber(Planning reste, List<CreneauImpacteDto> anciens) {
+        if (planningRepository.supprimerSiLibre(reste.getIdPlanning(), reste.getHeureDebut(), reste.getHeureFin()) == 0) {
+            return false;
+        }
+        anciens.addAll(cles(List.of(reste)));
+        entityManager.detach(reste);
+        return true;
+    }
+
+    /**
+     * Répartit [debut, fin) en intervalles libres : le premier sur le créneau, les suivants sur de nouvelles lignes
+     * @return les lignes conservées ou créées
+     */
+    private List<Planning> redecouper(Planning creneau, LocalTime debut, LocalTime fin) {
+        List<LocalTime[]> intervalles = decouper(debut, fin);
+        List<Planning> resultat = new ArrayList<>();
+        for (int i = 0; i < intervalles.size(); i++) {
+            Planning ligne = i == 0 ? creneau : Planning.builder()
+                    .medecin(creneau.getMedecin())
+                    .service(creneau.getService())
+                    .hopital(creneau.getHopital())
+                    .date(creneau.getDate())
+                    .build();
+            ligne.setHeureDebut(intervalles.get(i)[0]);
+            ligne.setHeureFin(intervalles.get(i)[1]);
+            ligne.setReserve(false);
+            ligne.setRendezVous(null);
+            resultat.add(i == 0 ? ligne : planningRepository.save(ligne));
+        }
+        return resultat;
+    }
+
+    /**
+     * Découpe [debut, fin) en intervalles de DUREE_CRENEAU_MINUTES ; un reste trop court prolonge le dernier
+     */
+    static List<LocalTime[]> decouper(LocalTime debut, LocalTime fin) {
+        List<LocalTime[]> intervalles = new ArrayList<>();
+        LocalTime courant = debut;
+        while (courant.isBefore(fin)) {
+            long restant = Duration.between(courant, fin).toMinutes();
+            LocalTime suivant = restant - DUREE_CRENEAU_MINUTES >= DUREE_MINIMALE_MINUTES
+                    ? courant.plusMinutes(DUREE_CRENEAU_MINUTES) : fin;
+            intervalles.add(new LocalTime[]{courant, suivant});
+            courant = suivant;
+        }
+        return intervalles;
+    }
+
+    private static List<CreneauImpacteDto> cles(List<Planning> lignes) {
+        return lignes.stream()
+                .map(p -> CreneauImpacteDto.builder()
+                        .idPlanning(p.getIdPlanning())
+                        .idMedecin(p.getMedecin().getId())
+                        .date(p.getDate())
+                        .heureDebut(p.getHeureDebut())
+                        .build())
+                .toList();
+    }
+}
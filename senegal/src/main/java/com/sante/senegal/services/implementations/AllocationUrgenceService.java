@@ -0,0 +1,245 @@
+package com.sante.senegal.services.implementations;
+
+import com.sante.senegal.dto.CapaciteUrgenceDto;
+import com.sante.senegal.entities.RendezVous;
+import com.sante.senegal.exceptions.CreneauIndisponibleException;
+import com.sante.senegal.repositories.RendezVousRepository;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.boot.context.event.ApplicationReadyEvent;
+import org.springframework.context.event.EventListener;
+import org.springframework.scheduling.annotation.Scheduled;
+import org.springframework.stereotype.Service;
+import org.springframework.transaction.support.TransactionSynchronization;
+import org.springframework.transaction.support.TransactionSynchronizationManager;
+
+import java.time.Duration;
+import java.time.LocalDate;
+import java.time.LocalDateTime;
+import java.time.LocalTime;
+import java.util.EnumSet;
+import java.util.Map;
+import java.util.Optional;
+import java.util.Set;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.atomic.AtomicInteger;
+
+/**
+ * Part de la capacité journalière de chaque service réservée aux rendez-vous URGENT et TRES_URGENT.
+ * La réserve d'un créneau décroît linéairement pendant les dernières heures qui le précèdent
+ * (planning.urgence.liberation-heures) puis revient aux réservations normales.
+ * La décision se prend en mémoire, sur la capacité lue dans l'index des créneaux et sur le compte
+ * des urgences déjà placées, tenu à jour à chaque réservation, annulation ou report et recalculé
+ * depuis la base au démarrage puis périodiquement.
+ * Les réservations normales acceptées mais pas encore validées sont comptées par service et par jour :
+ * la vérification et la prise de place se font en une seule opération atomique, deux réservations
+ * concurrentes ne peuvent donc pas prendre la même dernière place hors réserve.
+ * Si l'index ne couvre pas la date, la réservation est acceptée.
+ */
+@Service
+@Slf4j
+public class AllocationUrgenceService {
+
+    private static final Set<RendezVous.NiveauUrgence> NIVEAUX_URGENTS =
+            EnumSet.of(RendezVous.NiveauUrgence.URGENT, RendezVous.NiveauUrgence.TRES_URGENT);
+    private static final Set<RendezVous.StatutRendezVous> STATUTS_ACTIFS = EnumSet.of(
+            RendezVous.StatutRendezVous.PROGRAMME, RendezVous.StatutRendezVous.CONFIRME,
+            RendezVous.StatutRendezVous.EN_COURS, RendezVous.StatutRendezVous.REPORTE);
+
+    private final IndexCreneauxService indexCreneaux;
+    private final RendezVousRepository rendezVousRepository;
+
+    @Value("${planning.urgence.enabled:true}")
+    private boolean actif;
+
+    @Value("${planning.urgence.part:0.2}")
+    private double part;
+
+    @Value("${planning.urgence.liberation-heures:48}")
+    private long liberationHeures;
+
+    @Value("${planning.index.horizon-jours:90}")
+    private int horizonJours;
+
+    private volatile Map<CleServiceJour, AtomicInteger> urgencesReservees = new ConcurrentHashMap<>();
+    // Réservations normales acceptées dont la transaction n'est pas encore terminée
+    private final Map<CleServiceJour, AtomicInteger> reservationsEnCours = new ConcurrentHashMap<>();
+
+    public AllocationUrgenceService(IndexCreneauxService indexCreneaux, RendezVousRepository rendezVousRepository) {
+        this.indexCreneaux = indexCreneaux;
+        this.rendezVousRepository = rendezVousRepository;
+    }
+
+    @EventListener(ApplicationReadyEvent.class)
+    public void initialiser() {
+        recompter();
+    }
+
+    /**
+     * Recompte les urgences actives par service et par jour (annulations, écritures hors de ce nœud)
+     */
+    @Scheduled(cron = "${planning.index.rafraichissement-cron:0 */15 * * * *}")
+    public synchronized void recompter() {
+        if (!actif) {
+            return;
+        }
+        try {
+            LocalDate debut = LocalDate.now();
+            Map<CleServiceJour, AtomicInteger> comptes = new ConcurrentHashMap<>();
+            for (Object[] ligne : rendezVousRepository.findUrgencesParService(debut.atStartOfDay(),
+                    debut.plusDays(horizonJours).atTime(LocalTime.MAX), NIVEAUX_URGENTS, STATUTS_ACTIFS)) {
+                LocalDateTime dateHeure = (LocalDateTime) ligne[1];
+                comptes.computeIfAbsent(new CleServiceJour((Long) ligne[0], dateHeure.toLocalDate()),
+                        cle -> new AtomicInteger()).incrementAndGet();
+            }
+            urgencesReservees = comptes;
+            reservationsEnCours.entrySet().removeIf(e -> e.getKey().date().isBefore(debut) && e.getValue().get() == 0);
+            log.info("Urgences réservées recomptées: {} couples service/jour", comptes.size());
+        } catch (Exception e) {
+            log.error("Erreur lors du recomptage des urgences réservées: {}", e.getMessage());
+        }
+    }
+
+    public static boolean estUrgent(RendezVous.NiveauUrgence niveau) {
+        return niveau != null && NIVEAUX_URGENTS.contains(niveau);
+    }
+
+    /**
+     * Indique, sans prendre de place, si une réservation de ce niveau peut encore prendre ce créneau
+     */
+    public boolean estAccessible(Long idService, LocalDate date, LocalTime heureDebut, RendezVous.NiveauUrgence niveau) {
+        if (!actif || idService == null || estUrgent(niveau)) {
+            return true;
+        }
+        return calculer(idService, date, heureDebut)
+                .map(capacite -> capacite.getLibresPourNormaux() > 0)
+                .orElse(true);
+    }
+
+    /**
+     * Refuse une réservation normale qui entamerait la réserve d'urgence du service ce jour-là.
+     * Une réservation acceptée garde sa place jusqu'à la fin de la transaction.
+     */
+    public void verifierAccessible(Long idService, LocalDate date, LocalTime heureDebut, RendezVous.NiveauUrgence niveau) {
+        if (!actif || idService == null || estUrgent(niveau)) {
+            return;
+        }
+        Optional<CapaciteUrgenceDto> capacite = calculer(idService, date, heureDebut);
+        if (capacite.isEmpty()) {
+            return;
+        }
+        int libresPourNormaux = capacite.get().getLibresPourNormaux();
+        if (!TransactionSynchronizationManager.isSynchronizationActive()) {
+            if (libresPourNormaux <= 0) {
+                throw reserveAtteinte();
+            }
+            return;
+        }
+        AtomicInteger enCours = reservationsEnCours.computeIfAbsent(new CleServiceJour(idService, date),
+                cle -> new AtomicInteger());
+        int places;
+        do {
+            places = enCours.get();
+            if (libresPourNormaux - places <= 0) {
+                throw reserveAtteinte();
+            }
+        } while (!enCours.compareAndSet(places, places + 1));
+        // Après le commit, l'index des créneaux compte déjà la place prise
+        TransactionSynchronizationManager.registerSynchronization(new TransactionSynchronization() {
+            @Override
+            public void afterCompletion(int status) {
+                enCours.decrementAndGet();
+            }
+        });
+    }
+
+    /**
+     * Compte une urgence placée, une fois la transaction validée
+     */
+    public void enregistrer(Long idService, LocalDate date, RendezVous.NiveauUrgence niveau) {
+        if (!actif || idService == null || !estUrgent(niveau)) {
+            return;
+        }
+        apresCommit(() -> urgencesReservees
+                .computeIfAbsent(new CleServiceJour(idService, date), cle -> new AtomicInteger())
+                .incrementAndGet());
+    }
+
+    /**
+     * Rend à la réserve une urgence annulée, supprimée ou reportée, une fois la transaction validée
+     */
+    public void liberer(RendezVous rendezVous) {
+        if (!actif || rendezVous.getService() == null || rendezVous.getDateHeure() == null
+                || !estUrgent(rendezVous.getNiveauUrgence())) {
+            return;
+        }
+        CleServiceJour cle = new CleServiceJour(rendezVous.getService().getIdService(),
+                rendezVous.getDateHeure().toLocalDate());
+        apresCommit(() -> {
+            AtomicInteger compte = urgencesReservees.get(cle);
+            if (compte != null) {
+                compte.updateAndGet(n -> Math.max(0, n - 1));
+            }
+        });
+    }
+
+    private static void apresCommit(Runnable action) {
+        if (TransactionSynchronizationManager.isSynchronizationActive()) {
+            TransactionSynchronizationManager.registerSynchronization(new TransactionSynchronization() {
+                @Override
+                public void afterCommit() {
+                    action.run();
+                }
+            });
+        } else {
+            action.run();
+        }
+    }
+
+    private static CreneauIndisponibleException reserveAtteinte() {
+        return new CreneauIndisponibleException(
+                "Les derniers créneaux de ce service sont réservés aux urgences pour cette date");
+    }
+
+    /**
+     * État de la réserve d'un service pour une date, évalué maintenant (ou vide si l'index ne couvre pas la date)
+     */
+    public Optional<CapaciteUrgenceDto> getCapacite(Long idService, LocalDate date) {
+        LocalTime heure = date.equals(LocalDate.now()) ? LocalTime.now() : LocalTime.MIN;
+        return calculer(idService, date, heure);
+    }
+
+    private Optional<CapaciteUrgenceDto> calculer(Long idService, LocalDate date, LocalTime heureDebut) {
+        return indexCreneaux.capaciteService(idService, date).map(capacite -> {
+            int reserveInitiale = (int) Math.round(capacite.creneaux() * part);
+            int reserveCourante = (int) Math.ceil(reserveInitiale * fractionRetenue(date.atTime(heureDebut)));
+            AtomicInteger compte = urgencesReservees.get(new CleServiceJour(idService, date));
+            int urgences = compte != null ? compte.get() : 0;
+            int reserveRestante = Math.max(0, reserveCourante - urgences);
+            return CapaciteUrgenceDto.builder()
+                    .idService(idService)
+                    .date(date)
+                    .creneaux(capacite.creneaux())
+                    .creneauxLibres(capacite.libres())
+                    .reserveUrgence(reserveCourante)
+                    .urgencesReservees(urgences)
+                    .reserveRestante(reserveRestante)
+                    .libresPourNormaux(Math.max(0, capacite.libres() - reserveRestante))
+                    .build();
+        });
+    }
+
+    /**
+     * Part de la réserve encore retenue pour un créneau : 1 au-delà de la fenêtre de libération, 0 à l'heure du créneau
+     */
+    private double fractionRetenue(LocalDateTime debutCreneau) {
+        if (liberationHeures <= 0) {
+            return 0;
+        }
+        double minutes = Duration.between(LocalDateTime.now(), debutCreneau).toMinutes();
+        return Math.min(1.0, Math.max(0.0, minutes / (liberationHeures * 60.0)));
+    }
+
+    private record CleServiceJour(Long idService, LocalDate date) {
+    }
+}
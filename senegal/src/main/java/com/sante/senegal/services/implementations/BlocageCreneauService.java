@@ -0,0 +1,85 @@
+package com.sante.senegal.services.implementations;
+
+import com.sante.senegal.exceptions.CreneauIndisponibleException;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.scheduling.annotation.Scheduled;
+import org.springframework.stereotype.Service;
+
+import java.time.Duration;
+import java.time.Instant;
+import java.util.Map;
+import java.util.Objects;
+import java.util.concurrent.ConcurrentHashMap;
+
+/**
+ * Blocages temporaires de créneaux en mémoire : pendant sa durée, seul le patient
+ * bénéficiaire peut réserver le créneau. Un blocage expiré est ignoré puis purgé.
+ */
+@Service
+@Slf4j
+public class BlocageCreneauService {
+
+    private final Map<Long, Blocage> blocages = new ConcurrentHashMap<>();
+
+    /**
+     * Bloque le créneau pour un patient
+     * @return false si le créneau est déjà bloqué pour un autre patient
+     */
+    public boolean bloquer(Long idPlanning, Long idPatient, Duration duree) {
+        Instant expiration = Instant.now().plus(duree);
+        Blocage resultat = blocages.compute(idPlanning, (id, existant) ->
+                existant == null || existant.estExpire() || existant.idPatient().equals(idPatient)
+                        ? new Blocage(idPatient, expiration)
+                        : existant);
+        return resultat.idPatient().equals(idPatient);
+    }
+
+    public void liberer(Long idPlanning) {
+        blocages.remove(idPlanning);
+    }
+
+    /**
+     * Lève le blocage seulement s'il appartient encore à ce patient
+     * @return false si le créneau est bloqué pour un autre patient
+     */
+    public boolean liberer(Long idPlanning, Long idPatient) {
+        Blocage restant = blocages.computeIfPresent(idPlanning, (id, existant) ->
+                existant.idPatient().equals(idPatient) || existant.estExpire() ? null : existant);
+        return restant == null;
+    }
+
+    public int nombreBlocages() {
+        return blocages.size();
+    }
+
+    public boolean estBloque(Long idPlanning) {
+        Blocage blocage = blocages.get(idPlanning);
+        return blocage != null && !blocage.estExpire();
+    }
+
+    /**
+     * Refuse la réservation si le créneau est bloqué pour un autre patient
+     */
+    public void verifierAccessible(Long idPlanning, Long idPatient) {
+        Blocage blocage = blocages.get(idPlanning);
+        if (blocage != null && !blocage.estExpire() && !Objects.equals(blocage.idPatient(), idPatient)) {
+            throw new CreneauIndisponibleException("Le créneau est temporairement réservé pour un autre patient");
+        }
+    }
+
+    @Scheduled(fixedDelay = 60_000)
+    public void purgerBlocagesExpires() {
+        int avant = blocages.size();
+        blocages.values().removeIf(Blocage::estExpire);
+        int purges = avant - blocages.size();
+        if (purges > 0) {
+            log.debug("{} blocages de créneaux expirés purgés", purges);
+        }
+    }
+
+    private record Blocage(Long idPatient, Instant expiration) {
+        private boolean estExpire() {
+            return Instant.now().isAfter(expiration);
+        }
+    }
+}
@@ -0,0 +1,86 @@
+package com.sante.senegal.services.implementations;
+
+import com.sante.senegal.entities.EmailSortant;
+import com.sante.senegal.repositories.EmailSortantRepository;
+import lombok.RequiredArgsConstructor;
+import org.springframework.data.domain.PageRequest;
+import org.springframework.stereotype.Service;
+import org.springframework.transaction.annotation.Transactional;
+
+import java.time.Duration;
+import java.time.LocalDateTime;
+import java.util.Collection;
+import java.util.EnumSet;
+import java.util.List;
+import java.util.Map;
+
+/**
+ * Accès transactionnel à la boîte d'envoi des e-mails.
+ * deposer rejoint la transaction de l'appelant : l'e-mail n'existe que si l'écriture métier est validée.
+ * Les autres opérations, utilisées par EnvoiEmailsService, sont courtes et ne contactent jamais le serveur SMTP.
+ */
+@Service
+@RequiredArgsConstructor
+@Transactional
+public class BoiteEnvoiEmailsService {
+
+    private static final Collection<EmailSortant.StatutEmail> STATUTS_TERMINES =
+            EnumSet.of(EmailSortant.StatutEmail.ENVOYE, EmailSortant.StatutEmail.ECHEC);
+    private static final int LONGUEUR_ERREUR = 500;
+
+    private final EmailSortantRepository emailSortantRepository;
+
+    /**
+     * Issue d'une remise ; prochainEssai n'est renseigné que pour une nouvelle tentative
+     */
+    public record Issue(EmailSortant.StatutEmail statut, LocalDateTime prochainEssai, String erreur) {
+    }
+
+    public void deposer(String destinataire, String sujet, String corps, boolean html) {
+        emailSortantRepository.save(EmailSortant.builder()
+                .destinataire(destinataire)
+                .sujet(sujet)
+                .corps(corps)
+                .html(html)
+                .statut(EmailSortant.StatutEmail.A_ENVOYER)
+                .prochainEssai(LocalDateTime.now())
+                .build());
+    }
+
+    /**
+     * Prend un lot d'e-mails à remettre : ils passent EN_COURS sous bail avant la validation
+     */
+    public List<EmailSortant> reserverLot(int taille, Duration bail) {
+        LocalDateTime maintenant = LocalDateTime.now();
+        List<EmailSortant> lot = emailSortantRepository.findARemettre(maintenant, PageRequest.of(0, taille));
+        for (EmailSortant email : lot) {
+            email.setStatut(EmailSortant.StatutEmail.EN_COURS);
+            email.setBailJusqua(maintenant.plus(bail));
+            email.setTentatives(email.getTentatives() + 1);
+        }
+        return lot;
+    }
+
+    public void enregistrer(Map<Long, Issue> issues) {
+        LocalDateTime maintenant = LocalDateTime.now();
+        for (EmailSortant email : emailSortantRepository.findAllById(issues.keySet())) {
+            Issue issue = issues.get(email.getIdEmail());
+            email.setStatut(issue.statut());
+            email.setBailJusqua(null);
+            if (issue.prochainEssai() != null) {
+                email.setProchainEssai(issue.prochainEssai());
+            }
+            if (issue.statut() == EmailSortant.StatutEmail.ENVOYE) {
+                email.setDateEnvoi(maintenant);
+            }
+            if (issue.erreur() != null) {
+                email.setDerniereErreur(issue.erreur().length() > LONGUEUR_ERREUR
+                        ? issue.erreur().substring(0, LONGUEUR_ERREUR) : issue.erreur());
+            }
+        }
+    }
+
+    public int purger(LocalDateTime avant) {
+        return emailSortantRepository.supprimerAnciens(avant, STATUTS_TERMINES);
+    }
+}
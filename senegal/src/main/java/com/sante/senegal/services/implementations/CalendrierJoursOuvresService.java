@@ -0,0 +1,135 @@
+package com.sante.senegal.services.implementations;
+
+import com.sante.senegal.composants.CalendrierAnnuel;
+import com.sante.senegal.entities.Hopital;
+import com.sante.senegal.repositories.HopitalRepository;
+import com.sante.senegal.repositories.JourFerieRepository;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.scheduling.annotation.Scheduled;
+import org.springframework.stereotype.Service;
+import org.springframework.transaction.support.TransactionSynchronization;
+import org.springframework.transaction.support.TransactionSynchronizationManager;
+
+import java.time.LocalDate;
+import java.util.HashMap;
+import java.util.Map;
+import java.util.concurrent.atomic.AtomicReference;
+
+/**
+ * Calendrier des jours ouvrés en mémoire : un CalendrierAnnuel immuable par année, chargé au premier accès,
+ * et l'état (région, fermeture) de chaque hôpital. Les lectures ne touchent jamais la base ;
+ * une modification remplace d'un bloc l'instantané concerné, les lecteurs voient l'ancien ou le nouveau.
+ * Un rafraîchissement périodique aligne les nœuds sur les changements faits par les autres.
+ */
+@Service
+@Slf4j
+public class CalendrierJoursOuvresService {
+
+    private final JourFerieRepository jourFerieRepository;
+    private final HopitalRepository hopitalRepository;
+
+    private final AtomicReference<Map<Integer, CalendrierAnnuel>> calendriers = new AtomicReference<>(Map.of());
+    private final AtomicReference<Map<Long, EtatHopital>> hopitaux = new AtomicReference<>();
+
+    private record EtatHopital(String region, boolean ferme) {
+    }
+
+    public CalendrierJoursOuvresService(JourFerieRepository jourFerieRepository, HopitalRepository hopitalRepository) {
+        this.jourFerieRepository = jourFerieRepository;
+        this.hopitalRepository = hopitalRepository;
+    }
+
+    public CalendrierAnnuel calendrier(int annee) {
+        CalendrierAnnuel calendrier = calendriers.get().get(annee);
+        return calendrier != null ? calendrier : charger(annee);
+    }
+
+    /**
+     * Jour férié quel que soit son périmètre (remplace existsByDateAndAffecteDisponibilites)
+     */
+    public boolean estFerie(LocalDate date) {
+        return calendrier(date.getYear()).estFerie(date);
+    }
+
+    /**
+     * Jour ouvré pour un hôpital : hôpital non fermé, ni week-end, ni jour férié national ou de sa région
+     */
+    public boolean estOuvre(LocalDate date, Long idHopital) {
+        EtatHopital hopital = etatsHopitaux().get(idHopital);
+        if (hopital != null && hopital.ferme()) {
+            return false;
+        }
+        return calendrier(date.getYear()).estOuvre(date, hopital != null ? hopital.region() : null);
+    }
+
+    /**
+     * Reconstruit le calendrier d'une année après la validation des jours fériés modifiés
+     */
+    public void recharger(int annee) {
+        apresCommit(() -> remplacer(CalendrierAnnuel.construire(annee, jourFerieRepository.findByAnnee(annee))));
+    }
+
+    /**
+     * Recharge l'état des hôpitaux (création, changement de région ou de statut) après validation
+     */
+    public void rechargerHopitaux() {
+        apresCommit(() -> hopitaux.set(chargerHopitaux()));
+    }
+
+    @Scheduled(fixedDelayString = "${planning.calendrier.rafraichissement-ms:600000}",
+            initialDelayString = "${planning.calendrier.rafraichissement-ms:600000}")
+    public void rafraichir() {
+        for (Integer annee : calendriers.get().keySet()) {
+            remplacer(CalendrierAnnuel.construire(annee, jourFerieRepository.findByAnnee(annee)));
+        }
+        hopitaux.set(chargerHopitaux());
+    }
+
+    private synchronized CalendrierAnnuel charger(int annee) {
+        CalendrierAnnuel calendrier = calendriers.get().get(annee);
+        if (calendrier == null) {
+            calendrier = CalendrierAnnuel.construire(annee, jourFerieRepository.findByAnnee(annee));
+            remplacer(calendrier);
+            log.info("Calendrier {} chargé en mémoire: {} jours fériés", annee, calendrier.nombreFeries());
+        }
+        return calendrier;
+    }
+
+    private void remplacer(CalendrierAnnuel calendrier) {
+        calendriers.updateAndGet(actuels -> {
+            Map<Integer, CalendrierAnnuel> copie = new HashMap<>(actuels);
+            copie.put(calendrier.getAnnee(), calendrier);
+            return Map.copyOf(copie);
+        });
+    }
+
+    private Map<Long, EtatHopital> etatsHopitaux() {
+        Map<Long, EtatHopital> etats = hopitaux.get();
+        if (etats == null) {
+            etats = chargerHopitaux();
+            hopitaux.compareAndSet(null, etats);
+        }
+        return etats;
+    }
+
+    private Map<Long, EtatHopital> chargerHopitaux() {
+        Map<Long, EtatHopital> etats = new HashMap<>();
+        for (Object[] ligne : hopitalRepository.findEtatsCalendrier()) {
+            etats.put((Long) ligne[0], new EtatHopital((String) ligne[1], ligne[2] != Hopital.StatutHopital.ACTIF));
+        }
+        return Map.copyOf(etats);
+    }
+
+    private void apresCommit(Runnable action) {
+        if (TransactionSynchronizationManager.isSynchronizationActive()) {
+            TransactionSynchronizationManager.registerSynchronization(new TransactionSynchronization() {
+                @Override
+                public void afterCommit() {
+                    action.run();
+                }
+            });
+        } else {
+            action.run();
+        }
+    }
+}
@@ -2,12 +2,14 @@ package com.sante.senegal.services.implementations;
 
 import com.sante.senegal.dto.ConsultationDto;
 import com.sante.senegal.entities.*;
+import com.sante.senegal.events.RendezVousModifieEvent;
+import com.sante.senegal.mappers.ConsultationMapper;
 import com.sante.senegal.repositories.ConsultationRepository;
 import com.sante.senegal.repositories.RendezVousRepository;
 import com.sante.senegal.services.interfaces.ConsultationService;
 import jakarta.persistence.EntityNotFoundException;
 import lombok.RequiredArgsConstructor;
-import org.modelmapper.ModelMapper;
+import org.springframework.context.ApplicationEventPublisher;
 import org.springframework.stereotype.Service;
 import org.springframework.transaction.annotation.Transactional;
 
@@ -23,7 +25,9 @@ public class ConsultationServiceImpl implements ConsultationService {
 
     private final ConsultationRepository consultationRepository;
     private final RendezVousRepository rendezVousRepository;
-    private final ModelMapper modelMapper;
+    private final ConsultationMapper consultationMapper;
+    private final NotificationService notificationService;
+    private final ApplicationEventPublisher eventPublisher;
 
     @Override
     public ConsultationDto creerConsultation(Long rendezVousId, String symptomes,
@@ -46,11 +50,9 @@ public class ConsultationServiceImpl implements ConsultationService {
 
         consultation.setStatut(Consultation.StatutConsultation.TERMINEE);
         consultation.setDureeReelle(dureeReelle);
+        terminerRendezVous(consultation);
 
-        if (consultation.getRendezVous() != null) {
-            consultation.getRendezVous().setStatut(RendezVous.StatutRendezVous.TERMINE);
-        }
-
+        notificationService.notifierConsultationTerminee(consultation);
         return convertToDto(consultationRepository.save(consultation));
     }
 
@@ -60,6 +62,9 @@ public class ConsultationServiceImpl implements ConsultationService {
                 .orElseThrow(() -> new EntityNotFoundException("Consultation non trouvée"));
 
         updateConsultationFromDto(consultation, dto);
+        if (consultation.getStatut() == Consultation.StatutConsultation.TERMINEE) {
+            terminerRendezVous(consultation);
+        }
         return convertToDto(consultationRepository.save(consultation));
     }
 
@@ -126,6 +131,19 @@ public class ConsultationServiceImpl implements ConsultationService {
                 .build();
     }
 
+    /**
+     * Passe le rendez-vous de la consultation à TERMINE et prévient l'agenda du médecin
+     */
+    private void terminerRendezVous(Consultation consultation) {
+        RendezVous rdv = consultation.getRendezVous();
+        if (rdv == null || rdv.getStatut() == RendezVous.StatutRendezVous.TERMINE) {
+            return;
+        }
+        rdv.setStatut(RendezVous.StatutRendezVous.TERMINE);
+        rdv.setDateModification(LocalDateTime.now());
+        eventPublisher.publishEvent(new RendezVousModifieEvent(rdv.getIdRdv()));
+    }
+
     private void updateConsultationFromDto(Consultation consultation, ConsultationDto dto) {
         if (dto.getSymptomes() != null) {
             consultation.setSymptomes(dto.getSymptomes());
@@ -151,16 +169,6 @@ public class ConsultationServiceImpl implements ConsultationService {
     }
 
     private ConsultationDto convertToDto(Consultation consultation) {
-        ConsultationDto dto = modelMapper.map(consultation, ConsultationDto.class);
-
-        // Gestion manuelle des relations
-        if (consultation.getRendezVous() != null) {
-            dto.setIdRendezVous(consultation.getRendezVous().getIdRdv());
-        }
-        if (consultation.getDossier() != null) {
-            dto.setIdDossier(consultation.getDossier().getIdDossier());
-        }
-
-        return dto;
+        return consultationMapper.toDto(consultation);
     }
 }
\ No newline at end of file
@@ -4,8 +4,10 @@ import com.sante.senegal.dto.*;
 import com.sante.senegal.entities.*;
 import com.sante.senegal.repositories.*;
 import com.sante.senegal.mappers.DisponibiliteMapper;
+import com.sante.senegal.composants.CurseurPagination;
 import com.sante.senegal.config.DateNagerCalendrierService;
 import com.sante.senegal.services.interfaces.DisponibiliteService;
+import jakarta.persistence.EntityManager;
 import lombok.RequiredArgsConstructor;
 import lombok.extern.slf4j.Slf4j;
 import org.springframework.scheduling.annotation.Scheduled;
@@ -13,6 +15,8 @@ import org.springframework.stereotype.Service;
 import org.springframework.transaction.annotation.Transactional;
 import java.time.*;
 import java.util.*;
+import java.util.function.Consumer;
+import java.util.stream.Stream;
 import java.util.stream.Collectors;
 
 @Service
@@ -26,7 +30,10 @@ public class DisponibiliteServiceImpl implements DisponibiliteService {
     private final ServiceRepository serviceRepository;
     private final HopitalRepository hopitalRepository;
     private final DateNagerCalendrierService calendrierService;
+    private final CalendrierJoursOuvresService calendrierJoursOuvres;
     private final DisponibiliteMapper disponibiliteMapper;
+    private final ImpactCalendrierService impactCalendrierService;
+    private final EntityManager entityManager;
 
     @Override
     public List<DisponibiliteResponseDto> getAllDisponibilites() {
@@ -34,9 +41,22 @@ public class DisponibiliteServiceImpl implements DisponibiliteService {
         return disponibiliteMapper.toResponseDtoList(disponibilites);
     }
 
+    @Override
+    @Transactional(readOnly = true)
+    public PageCurseurDto<DisponibiliteResponseDto> getPageDisponibilites(String curseur, Integer taille) {
+        int tailleEffective = CurseurPagination.taille(taille);
+        String[] cle = CurseurPagination.decoder(curseur, 2);
+        List<Disponibilite> lignes = disponibiliteRepository.findPageApres(
+                CurseurPagination.date(cle, 0),
+                CurseurPagination.identifiant(cle, 1),
+                CurseurPagination.limite(tailleEffective));
+        return CurseurPagination.page(lignes, tailleEffective, disponibiliteMapper::toResponseDto,
+                d -> CurseurPagination.encoder(d.getDate(), d.getIdDisponibilite()));
+    }
+
     @Override
     public Optional<DisponibiliteResponseDto> getDisponibiliteById(Long id) {
-        return disponibiliteRepository.findById(id)
+        return disponibiliteRepository.findAffichageByIdDisponibilite(id)
                 .map(disponibiliteMapper::toResponseDto);
     }
 
@@ -76,6 +96,20 @@ public class DisponibiliteServiceImpl implements DisponibiliteService {
         return disponibiliteMapper.toResponseDtoList(disponibilites);
     }
 
+    @Override
+    @Transactional(readOnly = true)
+    public void parcourirDisponibilitesBetweenDates(LocalDate dateDebut, LocalDate dateFin, Long idService, Long idHopital,
+                                                    Disponibilite.StatutDisponibilite statut,
+                                                    Consumer<DisponibiliteResponseDto> consommateur) {
+        try (Stream<Disponibilite> disponibilites = disponibiliteRepository.streamBetweenDates(
+                dateDebut, dateFin, idService, idHopital, statut)) {
+            disponibilites.forEach(disponibilite -> {
+                consommateur.accept(disponibiliteMapper.toResponseDto(disponibilite));
+                entityManager.detach(disponibilite);
+            });
+        }
+    }
+
     public boolean isConflictingDisponibilite(Long idMedecin, LocalDate date, LocalTime heureDebut, LocalTime heureFin) {
         List<Disponibilite> conflicts = disponibiliteRepository.findConflictingDisponibilites(idMedecin, date, heureDebut, heureFin);
         return !conflicts.isEmpty();
@@ -89,7 +123,7 @@ public class DisponibiliteServiceImpl implements DisponibiliteService {
         LocalTime heure = dateHeure.toLocalTime();
 
         // Vérifier si c'est un jour férié
-        if (calendrierService.estJourFerie(date)) {
+        if (calendrierJoursOuvres.estFerie(date)) {
             log.debug("Date {} est un jour férié", date);
             return false;
         }
@@ -121,29 +155,16 @@ public class DisponibiliteServiceImpl implements DisponibiliteService {
         Hopital hopital = hopitalRepository.findById(hopitalId)
                 .orElseThrow(() -> new RuntimeException("Hôpital non trouvé avec l'ID: " + hopitalId));
 
-        List<JourFerie> joursFeries = calendrierService.getJoursFeries(dateDebut, dateFin);
-        Set<LocalDate> datesJoursFeries = joursFeries.stream()
-                .map(JourFerie::getDate)
-                .collect(Collectors.toSet());
-
         LocalDate date = dateDebut;
         while (!date.isAfter(dateFin)) {
-            // Ignorer les jours fériés
-            if (!datesJoursFeries.contains(date)) {
-                // Ignorer les weekends (optionnel selon les besoins)
-                if (!estWeekend(date)) {
-                    creerDisponibilitesJour(medecin, service, hopital, date, creneaux);
-                }
+            // Ignorer les weekends, les jours fériés de l'hôpital et les hôpitaux fermés
+            if (calendrierJoursOuvres.estOuvre(date, hopitalId)) {
+                creerDisponibilitesJour(medecin, service, hopital, date, creneaux);
             }
             date = date.plusDays(1);
         }
     }
 
-    private boolean estWeekend(LocalDate date) {
-        DayOfWeek dayOfWeek = date.getDayOfWeek();
-        return dayOfWeek == DayOfWeek.SATURDAY || dayOfWeek == DayOfWeek.SUNDAY;
-    }
-
     private void creerDisponibilitesJour(Medecin medecin, com.sante.senegal.entities.Service service,
                                          Hopital hopital, LocalDate date, List<CreneauHoraire> creneaux) {
         for (CreneauHoraire creneau : creneaux) {
@@ -168,7 +189,7 @@ public class DisponibiliteServiceImpl implements DisponibiliteService {
      */
     public List<CreneauLibre> getCreneauxLibres(Long medecinId, LocalDate date) {
         // Vérifier si c'est un jour férié
-        if (calendrierService.estJourFerie(date)) {
+        if (calendrierJoursOuvres.estFerie(date)) {
             return Collections.emptyList();
         }
 
@@ -309,7 +330,7 @@ public class DisponibiliteServiceImpl implements DisponibiliteService {
     }
 
     @Transactional
-    public void marquerAbsence(Long medecinId, LocalDate dateDebut, LocalDate dateFin, String motif) {
+    public ImpactCalendrierDto marquerAbsence(Long medecinId, LocalDate dateDebut, LocalDate dateFin, String motif) {
         // Validation des paramètres
         if (medecinId == null) {
             throw new IllegalArgumentException("L'ID du médecin ne peut pas être null");
@@ -324,31 +345,12 @@ public class DisponibiliteServiceImpl implements DisponibiliteService {
             throw new IllegalArgumentException("Le motif ne peut pas être vide");
         }
 
-        // Récupération et mise à jour en une seule opération
-        List<Disponibilite> disponibilites = disponibiliteRepository
-                .findByMedecinBetweenDatesAndStatut(
-                        medecinId,
-                        dateDebut,
-                        dateFin,
-                        Disponibilite.StatutDisponibilite.DISPONIBLE
-                );
-
-        if (disponibilites.isEmpty()) {
-            log.warn("Aucune disponibilité trouvée pour le médecin {} entre {} et {}",
-                    medecinId, dateDebut, dateFin);
-            return;
-        }
-
-        disponibilites.forEach(dispo -> {
-            dispo.setStatut(Disponibilite.StatutDisponibilite.INDISPONIBLE);
-            dispo.setMotifIndisponibilite(motif);
-        });
-
-        // Sauvegarde en batch
-        disponibiliteRepository.saveAll(disponibilites);
+        // Disponibilités, créneaux et rendez-vous de la période mis à jour en masse
+        ImpactCalendrierDto impact = impactCalendrierService.appliquerAbsence(medecinId, dateDebut, dateFin, motif);
 
         log.info("{} disponibilités marquées comme indisponibles pour le médecin {} ({} à {}), motif: {}",
-                disponibilites.size(), medecinId, dateDebut, dateFin, motif);
+                impact.getDisponibilitesMarquees(), medecinId, dateDebut, dateFin, motif);
+        return impact;
     }
 
     public boolean estMedecinDisponible(Long idMedecin, LocalDate date, LocalTime heureDebut, LocalTime heureFin) {
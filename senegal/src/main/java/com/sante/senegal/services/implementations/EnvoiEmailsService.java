@@ -0,0 +1,111 @@
+package com.sante.senegal.services.implementations;
+
+import com.sante.senegal.composants.TransportEmail;
+import com.sante.senegal.entities.EmailSortant;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.scheduling.annotation.Scheduled;
+import org.springframework.stereotype.Service;
+
+import java.time.Duration;
+import java.time.LocalDateTime;
+import java.util.HashMap;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.CompletionException;
+
+/**
+ * Vide la boîte d'envoi des e-mails en arrière-plan : lots pris en SKIP LOCKED, remise hors transaction,
+ * nouvelles tentatives avec attente exponentielle, puis ECHEC au-delà de tentatives-max.
+ * Les requêtes HTTP ne dépendent ainsi plus du temps de réponse ni des pannes du fournisseur SMTP.
+ */
+@Service
+@Slf4j
+public class EnvoiEmailsService {
+
+    private final BoiteEnvoiEmailsService boiteEnvoi;
+    private final TransportEmail transportEmail;
+
+    @Value("${notification.outbox.taille-lot:100}")
+    private int tailleLot;
+
+    @Value("${notification.outbox.bail-minutes:5}")
+    private long bailMinutes;
+
+    @Value("${notification.outbox.tentatives-max:6}")
+    private int tentativesMax;
+
+    @Value("${notification.outbox.attente-initiale-secondes:30}")
+    private long attenteInitialeSecondes;
+
+    @Value("${notification.outbox.attente-max-minutes:60}")
+    private long attenteMaxMinutes;
+
+    @Value("${notification.outbox.retention-jours:30}")
+    private long retentionJours;
+
+    public EnvoiEmailsService(BoiteEnvoiEmailsService boiteEnvoi, TransportEmail transportEmail) {
+        this.boiteEnvoi = boiteEnvoi;
+        this.transportEmail = transportEmail;
+    }
+
+    @Scheduled(fixedDelayString = "${notification.outbox.delai-ms:2000}")
+    public void vider() {
+        int envoyes = 0;
+        int echecs = 0;
+        List<EmailSortant> lot;
+        do {
+            lot = boiteEnvoi.reserverLot(tailleLot, Duration.ofMinutes(bailMinutes));
+            // Tout le lot part dans la file du transport, réparti sur ses sessions SMTP
+            Map<Long, CompletableFuture<Void>> remises = new LinkedHashMap<>();
+            for (EmailSortant email : lot) {
+                remises.put(email.getIdEmail(), transportEmail.envoyerAsync(
+                        email.getDestinataire(), email.getSujet(), email.getCorps(), email.isHtml()));
+            }
+            Map<Long, BoiteEnvoiEmailsService.Issue> issues = new HashMap<>();
+            for (EmailSortant email : lot) {
+                try {
+                    remises.get(email.getIdEmail()).join();
+                    issues.put(email.getIdEmail(), new BoiteEnvoiEmailsService.Issue(EmailSortant.StatutEmail.ENVOYE, null, null));
+                    envoyes++;
+                } catch (Exception e) {
+                    Throwable cause = e instanceof CompletionException && e.getCause() != null ? e.getCause() : e;
+                    issues.put(email.getIdEmail(), echec(email, cause));
+                    echecs++;
+                    log.warn("Échec de remise de l'e-mail {} à {} (tentative {}): {}",
+                            email.getIdEmail(), email.getDestinataire(), email.getTentatives(), cause.getMessage());
+                }
+            }
+            if (!issues.isEmpty()) {
+                boiteEnvoi.enregistrer(issues);
+            }
+        } while (lot.size() == tailleLot);
+
+        if (envoyes > 0 || echecs > 0) {
+            log.info("Boîte d'envoi: {} e-mails remis, {} échecs", envoyes, echecs);
+        }
+    }
+
+    @Scheduled(cron = "0 30 3 * * *")
+    public void purger() {
+        int purges = boiteEnvoi.purger(LocalDateTime.now().minusDays(retentionJours));
+        if (purges > 0) {
+            log.info("Boîte d'envoi: {} e-mails anciens purgés", purges);
+        }
+    }
+
+    private BoiteEnvoiEmailsService.Issue echec(EmailSortant email, Throwable e) {
+        if (email.getTentatives() >= tentativesMax) {
+            log.error("E-mail {} à {} abandonné après {} tentatives", email.getIdEmail(), email.getDestinataire(),
+                    email.getTentatives());
+            return new BoiteEnvoiEmailsService.Issue(EmailSortant.StatutEmail.ECHEC, null, e.getMessage());
+        }
+        // Attente doublée à chaque tentative, plafonnée
+        long attente = Math.min(attenteInitialeSecondes << Math.min(email.getTentatives() - 1, 20),
+                attenteMaxMinutes * 60);
+        return new BoiteEnvoiEmailsService.Issue(EmailSortant.StatutEmail.A_ENVOYER,
+                LocalDateTime.now().plusSeconds(attente), e.getMessage());
+    }
+}
@@ -3,12 +3,12 @@ package com.sante.senegal.services.implementations;
 import com.sante.senegal.dto.*;
 import com.sante.senegal.entities.Consultation;
 import com.sante.senegal.entities.Examen;
+import com.sante.senegal.mappers.ExamenMapper;
 import com.sante.senegal.repositories.ConsultationRepository;
 import com.sante.senegal.repositories.ExamenRepository;
 import com.sante.senegal.services.interfaces.ExamenService;
 import jakarta.persistence.EntityNotFoundException;
 import lombok.RequiredArgsConstructor;
-import org.modelmapper.ModelMapper;
 import org.springframework.stereotype.Service;
 import org.springframework.transaction.annotation.Transactional;
 
@@ -24,19 +24,25 @@ public class ExamenServiceImpl implements ExamenService {
 
     private final ExamenRepository examenRepository;
     private final ConsultationRepository consultationRepository;
-    private final ModelMapper modelMapper;
+    private final ExamenMapper examenMapper;
+    private final NotificationService notificationService;
 
     @Override
     public ExamenDto prescrireExamen(CreateExamenRequest createExamenDto) {
         Consultation consultation = consultationRepository.findById(createExamenDto.getConsultationId())
                 .orElseThrow(() -> new EntityNotFoundException("Consultation non trouvée"));
 
-        Examen examen = modelMapper.map(createExamenDto, Examen.class);
+        Examen examen = examenMapper.toEntity(createExamenDto);
         examen.setConsultation(consultation);
         examen.setDatePrescription(LocalDate.now());
         examen.setStatut(Examen.StatutExamen.PRESCRIT);
 
-        return modelMapper.map(examenRepository.save(examen), ExamenDto.class);
+        if (examen.getUrgence() != null && examen.getUrgence() != Examen.NiveauUrgence.NORMALE) {
+            notificationService.notifierExamenUrgent(examen);
+        } else {
+            notificationService.notifierExamenPrescrit(examen);
+        }
+        return examenMapper.toDto(examenRepository.save(examen));
     }
 
     @Override
@@ -47,7 +53,7 @@ public class ExamenServiceImpl implements ExamenService {
         examen.setDateRealisation(dateRealisation);
         examen.setStatut(Examen.StatutExamen.PROGRAMME);
 
-        return modelMapper.map(examenRepository.save(examen), ExamenDto.class);
+        return examenMapper.toDto(examenRepository.save(examen));
     }
 
     @Override
@@ -55,16 +61,16 @@ public class ExamenServiceImpl implements ExamenService {
         Examen examen = examenRepository.findById(examenId)
                 .orElseThrow(() -> new EntityNotFoundException("Examen non trouvé"));
 
-        modelMapper.map(resultatExamenDto, examen);
+        examenMapper.saisirResultats(resultatExamenDto, examen);
         examen.setStatut(Examen.StatutExamen.REALISE);
 
-        return modelMapper.map(examenRepository.save(examen), ExamenDto.class);
+        return examenMapper.toDto(examenRepository.save(examen));
     }
 
     @Override
     public List<ExamenDto> getExamensPatient(Long patientId) {
         return examenRepository.findByConsultationDossierPatientIdOrderByDatePrescriptionDesc(patientId).stream()
-                .map(examen -> modelMapper.map(examen, ExamenDto.class))
+                .map(examenMapper::toDto)
                 .collect(Collectors.toList());
     }
 
@@ -74,7 +80,7 @@ public class ExamenServiceImpl implements ExamenService {
                         Examen.StatutExamen.PRESCRIT,
                         Examen.StatutExamen.PROGRAMME
                 )).stream()
-                .map(examen -> modelMapper.map(examen, ExamenDto.class))
+                .map(examenMapper::toDto)
                 .collect(Collectors.toList());
     }
 
@@ -84,13 +90,13 @@ public class ExamenServiceImpl implements ExamenService {
                         Arrays.asList(Examen.NiveauUrgence.URGENT, Examen.NiveauUrgence.TRES_URGENT),
                         Examen.StatutExamen.REALISE
                 ).stream()
-                .map(examen -> modelMapper.map(examen, ExamenDto.class))
+                .map(examenMapper::toDto)
                 .collect(Collectors.toList());
     }
 
     @Override
     public ExamenDto getExamenById(Long id) {
-        return modelMapper.map(examenRepository.findById(id)
-                .orElseThrow(() -> new EntityNotFoundException("Examen non trouvé")), ExamenDto.class);
+        return examenMapper.toDto(examenRepository.findById(id)
+                .orElseThrow(() -> new EntityNotFoundException("Examen non trouvé")));
     }
 }
\ No newline at end of file
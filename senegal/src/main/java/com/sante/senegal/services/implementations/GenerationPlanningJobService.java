@@ -0,0 +1,200 @@
+package com.sante.senegal.services.implementations;
+
+import com.sante.senegal.dto.GenerationPlanningResultatDto;
+import com.sante.senegal.dto.JobGenerationPlanningDto;
+import com.sante.senegal.entities.Utilisateur;
+import com.sante.senegal.repositories.MedecinRepository;
+import com.sante.senegal.services.interfaces.PlanningService;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.stereotype.Service;
+
+import java.time.LocalDateTime;
+import java.util.*;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ConcurrentLinkedQueue;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Semaphore;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.concurrent.atomic.AtomicLong;
+
+/**
+ * Génération des plannings en masse (hôpital, service ou tous) :
+ * un thread virtuel par médecin, qui enchaîne ses hôpitaux l'un après l'autre (une transaction
+ * par couple médecin/hôpital), parallélisme borné par un sémaphore dimensionné sur le pool
+ * de connexions, échecs isolés par couple.
+ */
+@Service
+@Slf4j
+public class GenerationPlanningJobService {
+
+    private static final int JOBS_CONSERVES = 50;
+
+    public enum Portee {
+        HOPITAL, SERVICE, TOUS
+    }
+
+    private final PlanningService planningService;
+    private final MedecinRepository medecinRepository;
+
+    @Value("${planning.generation.parallelisme:8}")
+    private int parallelisme;
+
+    private final Map<String, JobGeneration> jobs = new ConcurrentHashMap<>();
+
+    public GenerationPlanningJobService(PlanningService planningService, MedecinRepository medecinRepository) {
+        this.planningService = planningService;
+        this.medecinRepository = medecinRepository;
+    }
+
+    /**
+     * Lance un job de génération en arrière-plan et retourne son état initial
+     */
+    public JobGenerationPlanningDto lancer(Portee portee, Long idCible) {
+        if (portee != Portee.TOUS && idCible == null) {
+            throw new IllegalArgumentException("Un identifiant est requis pour la portée " + portee);
+        }
+
+        // Les hôpitaux d'un même médecin sont traités en série : deux générations concurrentes
+        // pour un médecin ne verraient pas les créneaux non validés de l'autre et se chevaucheraient
+        Map<Long, List<Long>> hopitauxParMedecin = new LinkedHashMap<>();
+        int couples = 0;
+        for (Object[] c : medecinRepository.findCouplesMedecinHopital(
+                portee == Portee.HOPITAL ? idCible : null,
+                portee == Portee.SERVICE ? idCible : null,
+                Utilisateur.StatutUtilisateur.ACTIF)) {
+            hopitauxParMedecin.computeIfAbsent((Long) c[0], id -> new ArrayList<>()).add((Long) c[1]);
+            couples++;
+        }
+
+        JobGeneration job = new JobGeneration(UUID.randomUUID().toString(), portee, idCible,
+                hopitauxParMedecin.size(), couples);
+        nettoyerAnciensJobs();
+        jobs.put(job.idJob, job);
+
+        Thread.ofVirtual().name("generation-planning-" + job.idJob).start(() -> executer(job, hopitauxParMedecin));
+
+        log.info("Job de génération {} lancé ({} {}): {} médecins, {} affectations, parallélisme {}",
+                job.idJob, portee, idCible, hopitauxParMedecin.size(), couples, parallelisme);
+        return job.versDto(false);
+    }
+
+    public Optional<JobGenerationPlanningDto> getJob(String idJob) {
+        return Optional.ofNullable(jobs.get(idJob)).map(job -> job.versDto(true));
+    }
+
+    public List<JobGenerationPlanningDto> getJobs() {
+        return jobs.values().stream()
+                .sorted(Comparator.comparing((JobGeneration j) -> j.dateDebut).reversed())
+                .map(job -> job.versDto(false))
+                .toList();
+    }
+
+    private void executer(JobGeneration job, Map<Long, List<Long>> hopitauxParMedecin) {
+        Semaphore permis = new Semaphore(Math.max(1, parallelisme));
+        try (ExecutorService executor = Executors.newVirtualThreadPerTaskExecutor()) {
+            hopitauxParMedecin.forEach((idMedecin, hopitaux) -> executor.submit(() -> {
+                permis.acquireUninterruptibly();
+                try {
+                    for (Long idHopital : hopitaux) {
+                        genererPourMedecin(job, idMedecin, idHopital);
+                    }
+                } finally {
+                    permis.release();
+                }
+            }));
+        }
+        job.terminer();
+        log.info("Job de génération {} terminé: {} réussis, {} échecs, {} créneaux créés en {} ms",
+                job.idJob, job.reussis.get(), job.echecs.get(), job.creneauxCrees.get(), job.dureeMs());
+    }
+
+    private void genererPourMedecin(JobGeneration job, long idMedecin, long idHopital) {
+        long debut = System.currentTimeMillis();
+        try {
+            // Chaque appel passe par le proxy transactionnel : une transaction par couple médecin/hôpital
+            GenerationPlanningResultatDto resultat = planningService.genererPlanningsPourUnMois(idMedecin, idHopital);
+            job.creneauxCrees.addAndGet(resultat.getCreneauxCrees());
+            job.reussis.incrementAndGet();
+            job.resultats.add(resultat);
+        } catch (Exception e) {
+            log.error("Échec de la génération pour le médecin {} à l'hôpital {}: {}", idMedecin, idHopital, e.getMessage());
+            job.echecs.incrementAndGet();
+            job.resultats.add(GenerationPlanningResultatDto.builder()
+                    .idMedecin(idMedecin)
+                    .idHopital(idHopital)
+                    .dureeMs(System.currentTimeMillis() - debut)
+                    .erreur(e.getMessage())
+                    .build());
+        } finally {
+            job.traites.incrementAndGet();
+        }
+    }
+
+    private void nettoyerAnciensJobs() {
+        if (jobs.size() < JOBS_CONSERVES) {
+            return;
+        }
+        jobs.values().stream()
+                .filter(job -> job.dateFin != null)
+                .sorted(Comparator.comparing((JobGeneration j) -> j.dateFin))
+                .limit(jobs.size() - JOBS_CONSERVES + 1L)
+                .forEach(job -> jobs.remove(job.idJob));
+    }
+
+    private static final class JobGeneration {
+        private final String idJob;
+        private final Portee portee;
+        private final Long idCible;
+        private final int totalMedecins;
+        private final int totalAffectations;
+        private final LocalDateTime dateDebut = LocalDateTime.now();
+        private final long debutMs = System.currentTimeMillis();
+        private final AtomicInteger traites = new AtomicInteger();
+        private final AtomicInteger reussis = new AtomicInteger();
+        private final AtomicInteger echecs = new AtomicInteger();
+        private final AtomicLong creneauxCrees = new AtomicLong();
+        private final Queue<GenerationPlanningResultatDto> resultats = new ConcurrentLinkedQueue<>();
+        private volatile LocalDateTime dateFin;
+        private volatile long finMs;
+
+        private JobGeneration(String idJob, Portee portee, Long idCible, int totalMedecins, int totalAffectations) {
+            this.idJob = idJob;
+            this.portee = portee;
+            this.idCible = idCible;
+            this.totalMedecins = totalMedecins;
+            this.totalAffectations = totalAffectations;
+        }
+
+        private void terminer() {
+            finMs = System.currentTimeMillis();
+            dateFin = LocalDateTime.now();
+        }
+
+        private long dureeMs() {
+            return (dateFin != null ? finMs : System.currentTimeMillis()) - debutMs;
+        }
+
+        private JobGenerationPlanningDto versDto(boolean avecResultats) {
+            String statut = dateFin == null ? "EN_COURS"
+                    : echecs.get() > 0 ? "TERMINE_AVEC_ERREURS" : "TERMINE";
+            return JobGenerationPlanningDto.builder()
+                    .idJob(idJob)
+                    .portee(portee.name())
+                    .idCible(idCible)
+                    .statut(statut)
+                    .totalMedecins(totalMedecins)
+                    .totalAffectations(totalAffectations)
+                    .traites(traites.get())
+                    .reussis(reussis.get())
+                    .echecs(echecs.get())
+                    .creneauxCrees(creneauxCrees.get())
+                    .dateDebut(dateDebut)
+                    .dateFin(dateFin)
+                    .dureeMs(dureeMs())
+                    .resultats(avecResultats ? new ArrayList<>(resultats) : null)
+                    .build();
+        }
+    }
+}
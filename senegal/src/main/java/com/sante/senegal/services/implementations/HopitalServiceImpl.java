@@ -22,6 +22,8 @@ import static java.util.stream.Collectors.toList;
 public class HopitalServiceImpl implements HopitalService {
 
     private final HopitalRepository hopitalRepository;
+    private final ImpactCalendrierService impactCalendrierService;
+    private final CalendrierJoursOuvresService calendrierJoursOuvres;
 
     @Override
     public List<HopitalDto> getAllHopitaux() {
@@ -68,7 +70,9 @@ public class HopitalServiceImpl implements HopitalService {
     public HopitalDto createHopital(HopitalRequestDto dto) {
         Hopital hopital = fromDto(dto);
         log.info("Création de l’hôpital: {}", dto.getNom());
-        return toDto(hopitalRepository.save(hopital));
+        HopitalDto cree = toDto(hopitalRepository.save(hopital));
+        calendrierJoursOuvres.rechargerHopitaux();
+        return cree;
     }
 
     @Override
@@ -88,7 +92,9 @@ public class HopitalServiceImpl implements HopitalService {
         hopital.setTypeEtablissement(dto.getTypeEtablissement());
         hopital.setCapaciteLits(dto.getCapaciteLits());
 
-        return toDto(hopitalRepository.save(hopital));
+        HopitalDto modifie = toDto(hopitalRepository.save(hopital));
+        calendrierJoursOuvres.rechargerHopitaux();
+        return modifie;
     }
 
     @Override
@@ -105,7 +111,13 @@ public class HopitalServiceImpl implements HopitalService {
         Hopital hopital = hopitalRepository.findById(id)
                 .orElseThrow(() -> new RuntimeException("Hôpital non trouvé avec l'ID: " + id));
         hopital.setStatut(nouveauStatut);
-        return toDto(hopitalRepository.save(hopital));
+        HopitalDto dto = toDto(hopitalRepository.save(hopital));
+        calendrierJoursOuvres.rechargerHopitaux();
+        if (nouveauStatut != Hopital.StatutHopital.ACTIF) {
+            impactCalendrierService.appliquerFermetureHopital(id,
+                    "Hôpital " + hopital.getNom() + " " + nouveauStatut.name().toLowerCase());
+        }
+        return dto;
     }
 
     // ==== MAPPERS ====
@@ -0,0 +1,171 @@
+package com.sante.senegal.services.implementations;
+
+import com.fasterxml.jackson.core.JsonProcessingException;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import com.sante.senegal.exceptions.CleIdempotenceException;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.http.HttpHeaders;
+import org.springframework.http.ResponseEntity;
+import org.springframework.scheduling.annotation.Scheduled;
+import org.springframework.security.core.Authentication;
+import org.springframework.security.core.context.SecurityContextHolder;
+import org.springframework.stereotype.Service;
+
+import java.security.MessageDigest;
+import java.security.NoSuchAlgorithmException;
+import java.time.Duration;
+import java.time.Instant;
+import java.util.HexFormat;
+import java.util.Map;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ExecutionException;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.TimeoutException;
+import java.util.function.Supplier;
+
+/**
+ * Rejoue la réponse d'origine lorsqu'un client renvoie une requête avec le même en-tête
+ * Idempotency-Key. Une clé est propre à l'utilisateur authentifié et à l'opération ;
+ * le corps de la requête est comparé via l'empreinte SHA-256 de sa forme JSON.
+ * Les réponses sont gardées en mémoire pendant une durée limitée ;
+ * une requête en échec (exception ou erreur 5xx) n'est pas mémorisée et peut être retentée.
+ */
+@Service
+@Slf4j
+public class IdempotenceService {
+
+    public static final String ENTETE_CLE = "Idempotency-Key";
+    public static final String ENTETE_REJOUE = "Idempotent-Replayed";
+
+    private static final long ATTENTE_MAX_SECONDES = 30;
+
+    @Value("${idempotence.duree-retention-minutes:1440}")
+    private long dureeRetentionMinutes;
+
+    @Value("${idempotence.nombre-max-cles:10000}")
+    private int nombreMaxCles;
+
+    private final Map<String, Entree> entrees = new ConcurrentHashMap<>();
+
+    private final ObjectMapper objectMapper;
+
+    public IdempotenceService(ObjectMapper objectMapper) {
+        this.objectMapper = objectMapper;
+    }
+
+    /**
+     * Exécute l'action une seule fois par utilisateur, clé et opération
+     * @param operation portée de la clé (ex. "POST /rendez-vous")
+     * @param cle valeur de l'en-tête Idempotency-Key, ou null pour exécuter sans protection
+     * @param requete corps de la requête, comparé lors d'un rejeu
+     */
+    public <T> ResponseEntity<T> executer(String operation, String cle, Object requete, Supplier<ResponseEntity<T>> action) {
+        if (cle == null || cle.isBlank()) {
+            return action.get();
+        }
+
+        String identifiant = principal() + ":" + operation + ":" + cle;
+        String empreinte = empreinte(requete);
+        Entree nouvelle = new Entree(empreinte);
+        Entree existante = entrees.putIfAbsent(identifiant, nouvelle);
+
+        if (existante != null) {
+            if (!existante.estExpiree()) {
+                return rejouer(identifiant, existante, empreinte);
+            }
+            if (!entrees.replace(identifiant, existante, nouvelle)) {
+                // Une autre requête vient de reprendre la clé expirée
+                return executer(operation, cle, requete, action);
+            }
+        }
+
+        try {
+            ResponseEntity<T> reponse = action.get();
+            if (reponse.getStatusCode().is5xxServerError()) {
+                entrees.remove(identifiant, nouvelle);
+            } else {
+                nouvelle.expiration = Instant.now().plus(Duration.ofMinutes(dureeRetentionMinutes));
+            }
+            nouvelle.reponse.complete(reponse);
+            return reponse;
+        } catch (RuntimeException e) {
+            entrees.remove(identifiant, nouvelle);
+            nouvelle.reponse.completeExceptionally(e);
+            throw e;
+        }
+    }
+
+    @SuppressWarnings("unchecked")
+    private <T> ResponseEntity<T> rejouer(String identifiant, Entree entree, String empreinte) {
+        if (!entree.empreinte.equals(empreinte)) {
+            throw new CleIdempotenceException("Cette clé d'idempotence a déjà été utilisée pour une autre requête");
+        }
+        try {
+            ResponseEntity<T> origine = (ResponseEntity<T>) entree.reponse.get(ATTENTE_MAX_SECONDES, TimeUnit.SECONDS);
+            log.debug("Réponse rejouée pour la clé d'idempotence {}", identifiant);
+            HttpHeaders entetes = new HttpHeaders();
+            entetes.putAll(origine.getHeaders());
+            entetes.set(ENTETE_REJOUE, "true");
+            return new ResponseEntity<>(origine.getBody(), entetes, origine.getStatusCode());
+        } catch (ExecutionException e) {
+            // La requête d'origine a échoué : le rejeu obtient la même erreur
+            if (e.getCause() instanceof RuntimeException cause) {
+                throw cause;
+            }
+            throw new IllegalStateException(e.getCause());
+        } catch (TimeoutException e) {
+            throw new CleIdempotenceException("Une requête avec cette clé d'idempotence est toujours en cours");
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+            throw new CleIdempotenceException("Une requête avec cette clé d'idempotence est toujours en cours");
+        }
+    }
+
+    private static String principal() {
+        Authentication authentication = SecurityContextHolder.getContext().getAuthentication();
+        return authentication != null && authentication.isAuthenticated() ? authentication.getName() : "anonyme";
+    }
+
+    private String empreinte(Object requete) {
+        try {
+            byte[] json = objectMapper.writeValueAsBytes(requete);
+            return HexFormat.of().formatHex(MessageDigest.getInstance("SHA-256").digest(json));
+        } catch (JsonProcessingException e) {
+            throw new IllegalArgumentException("Corps de requête non sérialisable pour l'idempotence", e);
+        } catch (NoSuchAlgorithmException e) {
+            throw new IllegalStateException(e);
+        }
+    }
+
+    @Scheduled(fixedDelay = 60_000)
+    public void purgerClesExpirees() {
+        entrees.values().removeIf(Entree::estExpiree);
+        if (entrees.size() > nombreMaxCles) {
+            // Garde-fou mémoire : on sacrifie les clés terminées les plus anciennes
+            entrees.entrySet().stream()
+                    .filter(e -> e.getValue().expiration != null)
+                    .sorted(Map.Entry.comparingByValue((a, b) -> a.expiration.compareTo(b.expiration)))
+                    .limit(entrees.size() - (long) nombreMaxCles)
+                    .map(Map.Entry::getKey)
+                    .toList()
+                    .forEach(entrees::remove);
+        }
+    }
+
+    private static final class Entree {
+        private final String empreinte;
+        private final CompletableFuture<ResponseEntity<?>> reponse = new CompletableFuture<>();
+        // Renseignée une fois la réponse connue ; une entrée en cours n'expire pas
+        private volatile Instant expiration;
+
+        private Entree(String empreinte) {
+            this.empreinte = empreinte;
+        }
+
+        private boolean estExpiree() {
+            return expiration != null && Instant.now().isAfter(expiration);
+        }
+    }
+}
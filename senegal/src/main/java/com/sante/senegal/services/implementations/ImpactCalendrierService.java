@@ -0,0 +1,138 @@
+package com.sante.senegal.services.implementations;
+
+import com.sante.senegal.dto.CreneauImpacteDto;
+import com.sante.senegal.dto.ImpactCalendrierDto;
+import com.sante.senegal.entities.RendezVous;
+import com.sante.senegal.events.RendezVousAnnulesEvent;
+import com.sante.senegal.repositories.DisponibiliteRepository;
+import com.sante.senegal.repositories.PlanningRepository;
+import com.sante.senegal.repositories.RendezVousRepository;
+import lombok.RequiredArgsConstructor;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.context.ApplicationEventPublisher;
+import org.springframework.stereotype.Service;
+import org.springframework.transaction.annotation.Transactional;
+
+import java.time.LocalDate;
+import java.time.LocalDateTime;
+import java.time.LocalTime;
+import java.util.EnumSet;
+import java.util.List;
+import java.util.Set;
+
+/**
+ * Propage un changement de calendrier (jour férié, absence, fermeture de service ou d'hôpital)
+ * sur les créneaux, rendez-vous et disponibilités concernés : une lecture du périmètre puis
+ * une requête de masse par table, quel que soit le nombre de lignes touchées.
+ * Les créneaux déjà commencés et ceux dont la consultation est en cours ou terminée sont laissés intacts.
+ */
+@Service
+@RequiredArgsConstructor
+@Slf4j
+@Transactional
+public class ImpactCalendrierService {
+
+    // Une fermeture s'applique à tout ce qui est déjà planifié
+    private static final int HORIZON_FERMETURE_ANNEES = 5;
+
+    private static final Set<RendezVous.StatutRendezVous> STATUTS_ACTIFS = EnumSet.of(
+            RendezVous.StatutRendezVous.PROGRAMME,
+            RendezVous.StatutRendezVous.CONFIRME,
+            RendezVous.StatutRendezVous.REPORTE);
+
+    private final PlanningRepository planningRepository;
+    private final RendezVousRepository rendezVousRepository;
+    private final DisponibiliteRepository disponibiliteRepository;
+    private final IndexCreneauxService indexCreneaux;
+    private final ApplicationEventPublisher eventPublisher;
+
+    /**
+     * Jour férié national, ou régional si une région est indiquée
+     */
+    public ImpactCalendrierDto appliquerJourFerie(LocalDate date, String region, String nom) {
+        return appliquer(new Perimetre("JOUR_FERIE", "Jour férié : " + nom,
+                date, date, null, null, null, region));
+    }
+
+    public ImpactCalendrierDto appliquerAbsence(Long idMedecin, LocalDate dateDebut, LocalDate dateFin, String motif) {
+        return appliquer(new Perimetre("ABSENCE_MEDECIN", "Absence du médecin : " + motif,
+                dateDebut, dateFin, idMedecin, null, null, null));
+    }
+
+    public ImpactCalendrierDto appliquerFermetureService(Long idService, String motif) {
+        LocalDate aujourdhui = LocalDate.now();
+        return appliquer(new Perimetre("FERMETURE_SERVICE", motif,
+                aujourdhui, aujourdhui.plusYears(HORIZON_FERMETURE_ANNEES), null, idService, null, null));
+    }
+
+    public ImpactCalendrierDto appliquerFermetureHopital(Long idHopital, String motif) {
+        LocalDate aujourdhui = LocalDate.now();
+        return appliquer(new Perimetre("FERMETURE_HOPITAL", motif,
+                aujourdhui, aujourdhui.plusYears(HORIZON_FERMETURE_ANNEES), null, null, idHopital, null));
+    }
+
+    private ImpactCalendrierDto appliquer(Perimetre perimetre) {
+        long debut = System.currentTimeMillis();
+
+        // Le passé n'est jamais réécrit : aujourd'hui, seuls les créneaux à venir sont touchés
+        LocalDateTime maintenant = LocalDateTime.now();
+        LocalDate dateDebut = perimetre.dateDebut().isAfter(maintenant.toLocalDate())
+                ? perimetre.dateDebut() : maintenant.toLocalDate();
+        LocalTime heureDebut = dateDebut.equals(maintenant.toLocalDate()) ? maintenant.toLocalTime() : LocalTime.MIN;
+        LocalDate dateFin = perimetre.dateFin();
+        if (dateDebut.isAfter(dateFin)) {
+            return resume(perimetre, dateDebut, dateFin, List.of(), 0, 0, 0, debut);
+        }
+
+        // 1. Lecture du périmètre, avant suppression : clés d'index et patients à prévenir
+        List<CreneauImpacteDto> creneaux = planningRepository.findCreneauxImpactes(dateDebut, heureDebut, dateFin,
+                perimetre.idMedecin(), perimetre.idService(), perimetre.idHopital(), perimetre.region());
+        List<CreneauImpacteDto> rendezVousActifs = creneaux.stream()
+                .filter(c -> c.getIdRdv() != null && STATUTS_ACTIFS.contains(c.getStatutRdv()))
+                .toList();
+
+        // 2. Mises à jour de masse
+        int rendezVousAnnules = rendezVousActifs.isEmpty() ? 0 : rendezVousRepository.annulerRendezVousImpactes(
+                dateDebut, heureDebut, dateFin, perimetre.idMedecin(), perimetre.idService(), perimetre.idHopital(),
+                perimetre.region(), STATUTS_ACTIFS, maintenant);
+        int creneauxSupprimes = creneaux.isEmpty() ? 0 : planningRepository.supprimerCreneauxImpactes(
+                dateDebut, heureDebut, dateFin, perimetre.idMedecin(), perimetre.idService(), perimetre.idHopital(),
+                perimetre.region());
+        int disponibilitesMarquees = disponibiliteRepository.marquerIndisponibles(
+                dateDebut, dateFin, perimetre.idMedecin(), perimetre.idService(), perimetre.idHopital(),
+                perimetre.region(), perimetre.motif());
+
+        // 3. Index et notifications, appliqués après validation
+        indexCreneaux.retirer(creneaux);
+        if (!rendezVousActifs.isEmpty()) {
+            eventPublisher.publishEvent(new RendezVousAnnulesEvent(rendezVousActifs, perimetre.motif()));
+        }
+
+        ImpactCalendrierDto resume = resume(perimetre, dateDebut, dateFin, rendezVousActifs,
+                creneauxSupprimes, rendezVousAnnules, disponibilitesMarquees, debut);
+        log.info("Impact {} ({} → {}): {} créneaux supprimés, {} rendez-vous annulés, {} disponibilités marquées en {} ms",
+                perimetre.type(), dateDebut, dateFin, creneauxSupprimes, rendezVousAnnules,
+                disponibilitesMarquees, resume.getDureeMs());
+        return resume;
+    }
+
+    private ImpactCalendrierDto resume(Perimetre perimetre, LocalDate dateDebut, LocalDate dateFin,
+                                       List<CreneauImpacteDto> rendezVousActifs, int creneauxSupprimes,
+                                       int rendezVousAnnules, int disponibilitesMarquees, long debut) {
+        return ImpactCalendrierDto.builder()
+                .typeEvenement(perimetre.type())
+                .motif(perimetre.motif())
+                .dateDebut(dateDebut)
+                .dateFin(dateFin)
+                .creneauxSupprimes(creneauxSupprimes)
+                .rendezVousAnnules(rendezVousAnnules)
+                .disponibilitesMarquees(disponibilitesMarquees)
+                .notificationsEnAttente((int) rendezVousActifs.stream().filter(c -> c.getEmailPatient() != null).count())
+                .dureeMs(System.currentTimeMillis() - debut)
+                .build();
+    }
+
+    private record Perimetre(String type, String motif, LocalDate dateDebut, LocalDate dateFin,
+                             Long idMedecin, Long idService, Long idHopital, String region) {
+    }
+}
@@ -0,0 +1,671 @@
+package com.sante.senegal.services.implementations;
+
+import com.sante.senegal.dto.CreneauImpacteDto;
+import com.sante.senegal.dto.CriteresCreneauDto;
+import com.sante.senegal.dto.IndexCreneauxStatsDto;
+import com.sante.senegal.dto.PlanningDto;
+import com.sante.senegal.entities.Planning;
+import com.sante.senegal.repositories.PlanningRepository;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.boot.context.event.ApplicationReadyEvent;
+import org.springframework.context.event.EventListener;
+import org.springframework.data.domain.PageRequest;
+import org.springframework.scheduling.annotation.Scheduled;
+import org.springframework.stereotype.Service;
+import org.springframework.transaction.support.TransactionSynchronization;
+import org.springframework.transaction.support.TransactionSynchronizationManager;
+
+import java.time.Duration;
+import java.time.Instant;
+import java.time.LocalDate;
+import java.time.LocalDateTime;
+import java.time.LocalTime;
+import java.time.ZoneId;
+import java.util.*;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ConcurrentLinkedQueue;
+import java.util.concurrent.ConcurrentSkipListSet;
+import java.util.concurrent.atomic.AtomicLong;
+import java.util.function.Consumer;
+
+/**
+ * Index mémoire des créneaux de planning : un bitset par médecin et par jour,
+ * un bit par unité de 5 minutes (bit à 1 = créneau libre), complété pour chaque médecin
+ * par l'ensemble trié de ses prochains créneaux libres.
+ * Reconstruit depuis la table planning au démarrage puis chaque nuit, les prochains jours
+ * étant relus plus souvent, et tenu à jour après commit par les réservations, libérations et générations.
+ */
+@Service
+@Slf4j
+public class IndexCreneauxService {
+
+    private static final int UNITE_MINUTES = 5;
+    private static final int UNITES_PAR_JOUR = 24 * 60 / UNITE_MINUTES;
+
+    private final PlanningRepository planningRepository;
+
+    @Value("${planning.index.enabled:true}")
+    private boolean actif;
+
+    @Value("${planning.index.horizon-jours:90}")
+    private int horizonJours;
+
+    @Value("${planning.index.rafraichissement-jours:7}")
+    private int rafraichissementJours;
+
+    private volatile EtatIndex etat = new EtatIndex();
+    private volatile LocalDate fenetreDebut;
+    private volatile LocalDate fenetreFin;
+    private volatile boolean pret = false;
+
+    // Mises à jour arrivées pendant une reconstruction, rejouées après la bascule
+    private final Queue<Consumer<EtatIndex>> journal = new ConcurrentLinkedQueue<>();
+    private volatile boolean reconstructionEnCours = false;
+
+    private final AtomicLong hits = new AtomicLong();
+    private final AtomicLong misses = new AtomicLong();
+    private final AtomicLong miseAJours = new AtomicLong();
+    private volatile Instant derniereReconstruction;
+    private volatile long dureeDerniereReconstructionMs;
+
+    public IndexCreneauxService(PlanningRepository planningRepository) {
+        this.planningRepository = planningRepository;
+    }
+
+    @EventListener(ApplicationReadyEvent.class)
+    public void initialiser() {
+        reconstruire();
+    }
+
+    /**
+     * Reconstruction complète depuis la base (limite la dérive en cas d'écritures hors de ce nœud)
+     */
+    @Scheduled(cron = "${planning.index.reconstruction-cron:0 0 3 * * *}")
+    public synchronized void reconstruire() {
+        if (!actif) {
+            return;
+        }
+        long debut = System.currentTimeMillis();
+        reconstructionEnCours = true;
+        try {
+            LocalDate nouveauDebut = LocalDate.now();
+            LocalDate nouvelleFin = nouveauDebut.plusDays(horizonJours);
+
+            EtatIndex nouvelEtat = new EtatIndex();
+            for (PlanningDto creneau : planningRepository.findProjectionsEntre(nouveauDebut, nouvelleFin)) {
+                appliquer(nouvelEtat, creneau);
+            }
+
+            etat = nouvelEtat;
+            fenetreDebut = nouveauDebut;
+            fenetreFin = nouvelleFin;
+            rejouerJournal();
+            reconstructionEnCours = false;
+            rejouerJournal();
+
+            pret = true;
+            miseAJours.set(0);
+            derniereReconstruction = Instant.now();
+            dureeDerniereReconstructionMs = System.currentTimeMillis() - debut;
+            log.info("Index des créneaux reconstruit: {} jours du {} au {} en {} ms",
+                    nouvelEtat.jours.size(), nouveauDebut, nouvelleFin, dureeDerniereReconstructionMs);
+        } catch (Exception e) {
+            log.error("Erreur lors de la reconstruction de l'index des créneaux: {}", e.getMessage());
+        } finally {
+            reconstructionEnCours = false;
+        }
+    }
+
+    /**
+     * Relit depuis la base les prochains jours seulement, où se concentrent les écritures hors de ce nœud,
+     * et les substitue jour par jour dans l'état courant ; reconstruit tout si la fenêtre a changé de jour
+     */
+    @Scheduled(cron = "${planning.index.rafraichissement-cron:0 */15 * * * *}")
+    public synchronized void rafraichirProchainsJours() {
+        if (!actif || !pret) {
+            return;
+        }
+        LocalDate debut = LocalDate.now();
+        if (!debut.equals(fenetreDebut)) {
+            reconstruire();
+            return;
+        }
+        long depart = System.currentTimeMillis();
+        reconstructionEnCours = true;
+        try {
+            LocalDate fin = debut.plusDays(rafraichissementJours);
+            if (fin.isAfter(fenetreFin)) {
+                fin = fenetreFin;
+            }
+            EtatIndex relu = new EtatIndex();
+            for (PlanningDto creneau : planningRepository.findProjectionsEntre(debut, fin)) {
+                appliquer(relu, creneau);
+            }
+
+            EtatIndex courant = etat;
+            relu.contextesParMedecin.forEach((idMedecin, contextes) ->
+                    courant.contextesParMedecin.computeIfAbsent(idMedecin, id -> ConcurrentHashMap.newKeySet())
+                            .addAll(contextes));
+            for (LocalDate date = debut; !date.isAfter(fin); date = date.plusDays(1)) {
+                substituer(courant, date, relu.jours.getOrDefault(date, new ConcurrentHashMap<>()));
+                if (relu.joursNonIndexables.contains(date)) {
+                    courant.joursNonIndexables.add(date);
+                } else {
+                    courant.joursNonIndexables.remove(date);
+                }
+            }
+            rejouerJournal();
+            reconstructionEnCours = false;
+            rejouerJournal();
+            log.debug("Index des créneaux rafraîchi du {} au {} en {} ms",
+                    debut, fin, System.currentTimeMillis() - depart);
+        } catch (Exception e) {
+            log.error("Erreur lors du rafraîchissement de l'index des créneaux: {}", e.getMessage());
+        } finally {
+            reconstructionEnCours = false;
+        }
+    }
+
+    /**
+     * Remplace les créneaux d'un jour : les nouveaux créneaux libres sont publiés avant la bascule et
+     * les anciens retirés après, le bitset du jour restant la référence pour les lecteurs
+     */
+    private static void substituer(EtatIndex index, LocalDate date, Map<Long, JourMedecin> nouveaux) {
+        nouveaux.forEach((idMedecin, jour) -> libres(index, idMedecin).addAll(jour.heuresLibres()));
+        Map<Long, JourMedecin> anciens = nouveaux.isEmpty()
+                ? index.jours.remove(date)
+                : index.jours.put(date, nouveaux);
+        if (anciens == null) {
+            return;
+        }
+        anciens.forEach((idMedecin, ancien) -> {
+            JourMedecin nouveau = nouveaux.get(idMedecin);
+            NavigableSet<LocalDateTime> libres = libres(index, idMedecin);
+            for (LocalDateTime heure : ancien.heuresLibres()) {
+                if (nouveau == null || !nouveau.estLibre(heure.toLocalTime())) {
+                    libres.remove(heure);
+                }
+            }
+        });
+    }
+
+    /**
+     * Créneaux libres selon les critères, ou vide si l'index ne couvre pas la demande
+     */
+    public Optional<List<PlanningDto>> rechercher(Long idMedecin, Long idService, Long idHopital,
+                                                  LocalDate dateDebut, LocalDate dateFin) {
+        if (!couvre(dateDebut, dateFin)) {
+            misses.incrementAndGet();
+            return Optional.empty();
+        }
+        CriteresCreneauDto criteres = CriteresCreneauDto.builder().idService(idService).idHopital(idHopital).build();
+        EtatIndex snapshot = etat;
+        List<PlanningDto> resultat = new ArrayList<>();
+        for (LocalDate date = dateDebut; !date.isAfter(dateFin); date = date.plusDays(1)) {
+            Map<Long, JourMedecin> medecins = snapshot.jours.get(date);
+            if (medecins == null) {
+                continue;
+            }
+            Collection<JourMedecin> candidats = idMedecin != null
+                    ? Optional.ofNullable(medecins.get(idMedecin)).map(List::of).orElse(List.of())
+                    : medecins.values();
+            for (JourMedecin jour : candidats) {
+                jour.collecterLibres(criteres, resultat);
+            }
+        }
+        resultat.sort(Comparator.comparing(PlanningDto::getDate)
+                .thenComparing(PlanningDto::getHeureDebut)
+                .thenComparing(PlanningDto::getIdMedecin));
+        hits.incrementAndGet();
+        return Optional.of(resultat);
+    }
+
+    /**
+     * Les N premiers créneaux libres à partir de maintenant, tous médecins confondus :
+     * seuls les médecins dont un service correspond aux critères sont retenus, puis leurs
+     * ensembles triés sont fusionnés via une file de priorité, sans parcourir les jours ni
+     * les créneaux déjà réservés. Les jours hors grille de la fenêtre sont lus en base.
+     */
+    public Optional<List<PlanningDto>> premiersCreneaux(CriteresCreneauDto criteres, int nombre) {
+        if (!actif || !pret) {
+            misses.incrementAndGet();
+            return Optional.empty();
+        }
+        EtatIndex snapshot = etat;
+        LocalDateTime maintenant = LocalDateTime.now();
+
+        PriorityQueue<Curseur> file = new PriorityQueue<>(Comparator.comparing(Curseur::courant));
+        snapshot.contextesParMedecin.forEach((idMedecin, contextes) -> {
+            if (contextes.stream().noneMatch(contexte -> contexte.correspond(criteres))) {
+                return;
+            }
+            NavigableSet<LocalDateTime> libres = snapshot.libresParMedecin.get(idMedecin);
+            Curseur curseur = new Curseur(idMedecin,
+                    libres != null ? libres.tailSet(maintenant, true).iterator() : Collections.emptyIterator());
+            if (curseur.avancer()) {
+                file.add(curseur);
+            }
+        });
+
+        List<PlanningDto> resultat = new ArrayList<>(nombre);
+        while (!file.isEmpty() && resultat.size() < nombre) {
+            Curseur curseur = file.poll();
+            LocalDateTime debut = curseur.courant();
+            Map<Long, JourMedecin> medecins = snapshot.jours.get(debut.toLocalDate());
+            JourMedecin jour = medecins != null ? medecins.get(curseur.idMedecin) : null;
+            PlanningDto creneau = jour != null ? jour.creneauLibre(debut.toLocalTime(), criteres) : null;
+            if (creneau != null) {
+                resultat.add(creneau);
+            }
+            if (curseur.avancer()) {
+                file.add(curseur);
+            }
+        }
+        completerJoursNonIndexables(snapshot, criteres, nombre, maintenant, resultat);
+        hits.incrementAndGet();
+        return Optional.of(resultat);
+    }
+
+    /**
+     * Remplace, pour chaque jour hors grille compris entre maintenant et le dernier créneau retenu,
+     * les créneaux de l'index (partiels) par ceux de la base, puis retrie et tronque
+     */
+    private void completerJoursNonIndexables(EtatIndex snapshot, CriteresCreneauDto criteres, int nombre,
+                                             LocalDateTime maintenant, List<PlanningDto> resultat) {
+        if (snapshot.joursNonIndexables.isEmpty()) {
+            return;
+        }
+        LocalDate aujourdhui = maintenant.toLocalDate();
+        LocalDate borne = resultat.size() >= nombre ? resultat.get(resultat.size() - 1).getDate() : fenetreFin;
+        List<LocalDate> jours = snapshot.joursNonIndexables.stream()
+                .filter(jour -> !jour.isBefore(aujourdhui) && !jour.isAfter(borne))
+                .sorted()
+                .toList();
+        if (jours.isEmpty()) {
+            return;
+        }
+        for (LocalDate jour : jours) {
+            resultat.removeIf(creneau -> jour.equals(creneau.getDate()));
+            LocalTime heureMin = jour.equals(aujourdhui) ? maintenant.toLocalTime() : LocalTime.MIN;
+            planningRepository.findPremiersCreneauxLibres(jour, heureMin,
+                            criteres.getIdService(), criteres.getIdHopital(), criteres.getSpecialite(),
+                            criteres.getRegion(), criteres.getVille(), PageRequest.of(0, nombre)).stream()
+                    .filter(creneau -> jour.equals(creneau.getDate()))
+                    .forEach(resultat::add);
+        }
+        resultat.sort(Comparator.comparing(PlanningDto::getDate)
+                .thenComparing(PlanningDto::getHeureDebut)
+                .thenComparing(PlanningDto::getIdMedecin));
+        if (resultat.size() > nombre) {
+            resultat.subList(nombre, resultat.size()).clear();
+        }
+    }
+
+    /**
+     * Nombre de créneaux libres d'un médecin pour une date, ou vide si non couvert
+     */
+    public Optional<Long> compter(Long idMedecin, LocalDate date) {
+        if (!couvre(date, date)) {
+            misses.incrementAndGet();
+            return Optional.empty();
+        }
+        Map<Long, JourMedecin> medecins = etat.jours.get(date);
+        JourMedecin jour = medecins != null ? medecins.get(idMedecin) : null;
+        hits.incrementAndGet();
+        return Optional.of(jour != null ? (long) jour.nombreLibres() : 0L);
+    }
+
+    /**
+     * Créneaux et créneaux libres d'un service pour une date, tous médecins confondus, ou vide si non couvert
+     */
+    public Optional<CapaciteJour> capaciteService(Long idService, LocalDate date) {
+        if (!couvre(date, date)) {
+            misses.incrementAndGet();
+            return Optional.empty();
+        }
+        Map<Long, JourMedecin> medecins = etat.jours.get(date);
+        int[] cumul = new int[2];
+        if (medecins != null) {
+            for (JourMedecin jour : medecins.values()) {
+                jour.compterService(idService, cumul);
+            }
+        }
+        hits.incrementAndGet();
+        return Optional.of(new CapaciteJour(cumul[0], cumul[1]));
+    }
+
+    /**
+     * Reflète l'état d'un créneau (création, libération...) une fois la transaction validée
+     */
+    public void rafraichir(Planning planning) {
+        if (actif) {
+            rafraichir(versDto(planning));
+        }
+    }
+
+    public void rafraichir(PlanningDto creneau) {
+        if (!actif) {
+            return;
+        }
+        apresCommit(index -> appliquer(index, creneau));
+    }
+
+    /**
+     * Marque un créneau comme réservé une fois la transaction validée
+     */
+    public void marquerReserve(Long idMedecin, LocalDate date, LocalTime heureDebut) {
+        if (!actif) {
+            return;
+        }
+        apresCommit(index -> {
+            Map<Long, JourMedecin> medecins = index.jours.get(date);
+            JourMedecin jour = medecins != null ? medecins.get(idMedecin) : null;
+            if (jour != null) {
+                jour.reserver(heureDebut, libres(index, idMedecin));
+            }
+        });
+    }
+
+    /**
+     * Retire de l'index, une fois la transaction validée, des créneaux supprimés en masse
+     */
+    public void retirer(List<CreneauImpacteDto> creneaux) {
+        if (!actif || creneaux.isEmpty()) {
+            return;
+        }
+        apresCommit(index -> {
+            for (CreneauImpacteDto creneau : creneaux) {
+                Map<Long, JourMedecin> medecins = index.jours.get(creneau.getDate());
+                JourMedecin jour = medecins != null ? medecins.get(creneau.getIdMedecin()) : null;
+                if (jour != null) {
+                    jour.retirer(creneau.getHeureDebut(), libres(index, creneau.getIdMedecin()));
+                }
+            }
+        });
+    }
+
+    public IndexCreneauxStatsDto getStatistiques() {
+        long nombreCreneaux = 0;
+        long nombreLibres = 0;
+        for (Map<Long, JourMedecin> medecins : etat.jours.values()) {
+            for (JourMedecin jour : medecins.values()) {
+                nombreCreneaux += jour.nombreCreneaux();
+                nombreLibres += jour.nombreLibres();
+            }
+        }
+        long h = hits.get();
+        long m = misses.get();
+        Instant reconstruction = derniereReconstruction;
+        return IndexCreneauxStatsDto.builder()
+                .actif(actif)
+                .pret(pret)
+                .hits(h)
+                .misses(m)
+                .tauxSucces(h + m == 0 ? 0.0 : (double) h / (h + m))
+                .miseAJoursDepuisReconstruction(miseAJours.get())
+                .derniereReconstruction(reconstruction != null
+                        ? LocalDateTime.ofInstant(reconstruction, ZoneId.systemDefault()) : null)
+                .ageSecondes(reconstruction != null ? Duration.between(reconstruction, Instant.now()).toSeconds() : -1)
+                .dureeDerniereReconstructionMs(dureeDerniereReconstructionMs)
+                .nombreCreneaux(nombreCreneaux)
+                .nombreCreneauxLibres(nombreLibres)
+                .fenetreDebut(fenetreDebut)
+                .fenetreFin(fenetreFin)
+                .build();
+    }
+
+    private boolean couvre(LocalDate dateDebut, LocalDate dateFin) {
+        if (!actif || !pret || dateDebut.isBefore(fenetreDebut) || dateFin.isAfter(fenetreFin)) {
+            return false;
+        }
+        Set<LocalDate> nonIndexables = etat.joursNonIndexables;
+        if (nonIndexables.isEmpty()) {
+            return true;
+        }
+        for (LocalDate date = dateDebut; !date.isAfter(dateFin); date = date.plusDays(1)) {
+            if (nonIndexables.contains(date)) {
+                return false;
+            }
+        }
+        return true;
+    }
+
+    private void apresCommit(Consumer<EtatIndex> miseAJour) {
+        Runnable action = () -> {
+            if (reconstructionEnCours) {
+                journal.add(miseAJour);
+            }
+            miseAJour.accept(etat);
+            miseAJours.incrementAndGet();
+        };
+        if (TransactionSynchronizationManager.isSynchronizationActive()) {
+            TransactionSynchronizationManager.registerSynchronization(new TransactionSynchronization() {
+                @Override
+                public void afterCommit() {
+                    action.run();
+                }
+            });
+        } else {
+            action.run();
+        }
+    }
+
+    private void rejouerJournal() {
+        Consumer<EtatIndex> miseAJour;
+        while ((miseAJour = journal.poll()) != null) {
+            miseAJour.accept(etat);
+        }
+    }
+
+    private void appliquer(EtatIndex index, PlanningDto creneau) {
+        if (creneau.getHeureDebut().toSecondOfDay() % (UNITE_MINUTES * 60) != 0) {
+            // Créneau hors grille : cette date sera servie par la base
+            index.joursNonIndexables.add(creneau.getDate());
+            return;
+        }
+        ContexteCreneau contexte = index.contextes.computeIfAbsent(new ContexteCreneau(
+                creneau.getIdMedecin(), creneau.getNomMedecin(), creneau.getSpecialiteMedecin(),
+                creneau.getIdService(), creneau.getNomService(),
+                creneau.getIdHopital(), creneau.getNomHopital(), creneau.getAdresseHopital(),
+                creneau.getVilleHopital(), creneau.getRegionHopital()), c -> c);
+        index.contextesParMedecin.computeIfAbsent(creneau.getIdMedecin(), id -> ConcurrentHashMap.newKeySet())
+                .add(contexte);
+        index.jours.computeIfAbsent(creneau.getDate(), d -> new ConcurrentHashMap<>())
+                .computeIfAbsent(creneau.getIdMedecin(), id -> new JourMedecin(creneau.getDate()))
+                .enregistrer(creneau, contexte, libres(index, creneau.getIdMedecin()));
+    }
+
+    private static NavigableSet<LocalDateTime> libres(EtatIndex index, Long idMedecin) {
+        return index.libresParMedecin.computeIfAbsent(idMedecin, id -> new ConcurrentSkipListSet<>());
+    }
+
+    private static PlanningDto versDto(Planning planning) {
+        return PlanningDto.builder()
+                .idPlanning(planning.getIdPlanning())
+                .idMedecin(planning.getMedecin().getId())
+                .nomMedecin(planning.getMedecin().getNom() + " " + planning.getMedecin().getPrenom())
+                .specialiteMedecin(planning.getMedecin().getSpecialite())
+                .idService(planning.getService().getIdService())
+                .nomService(planning.getService().getNom())
+                .idHopital(planning.getHopital().getIdHopital())
+                .nomHopital(planning.getHopital().getNom())
+                .adresseHopital(planning.getHopital().getAdresse())
+                .villeHopital(planning.getHopital().getVille())
+                .regionHopital(planning.getHopital().getRegion())
+                .date(planning.getDate())
+                .heureDebut(planning.getHeureDebut())
+                .heureFin(planning.getHeureFin())
+                .reserve(planning.isReserve())
+                .build();
+    }
+
+    private static int unite(LocalTime heure) {
+        return heure.toSecondOfDay() / (UNITE_MINUTES * 60);
+    }
+
+    private static LocalTime heure(int unite) {
+        return LocalTime.ofSecondOfDay((long) unite * UNITE_MINUTES * 60);
+    }
+
+    public record CapaciteJour(int creneaux, int libres) {
+    }
+
+    /**
+     * État complet de l'index, remplacé en bloc à chaque reconstruction avec ses contextes partagés
+     */
+    private static final class EtatIndex {
+        private final Map<ContexteCreneau, ContexteCreneau> contextes = new ConcurrentHashMap<>();
+        private final Map<LocalDate, Map<Long, JourMedecin>> jours = new ConcurrentHashMap<>();
+        private final Map<Long, NavigableSet<LocalDateTime>> libresParMedecin = new ConcurrentHashMap<>();
+        private final Map<Long, Set<ContexteCreneau>> contextesParMedecin = new ConcurrentHashMap<>();
+        private final Set<LocalDate> joursNonIndexables = ConcurrentHashMap.newKeySet();
+    }
+
+    /**
+     * Informations communes à tous les créneaux d'un médecin dans un service, partagées entre les jours
+     */
+    private record ContexteCreneau(Long idMedecin, String nomMedecin, String specialiteMedecin,
+                                   Long idService, String nomService,
+                                   Long idHopital, String nomHopital, String adresseHopital,
+                                   String villeHopital, String regionHopital) {
+
+        boolean correspond(CriteresCreneauDto criteres) {
+            return (criteres.getIdService() == null || criteres.getIdService().equals(idService))
+                    && (criteres.getIdHopital() == null || criteres.getIdHopital().equals(idHopital))
+                    && (criteres.getSpecialite() == null || criteres.getSpecialite().equalsIgnoreCase(specialiteMedecin))
+                    && (criteres.getRegion() == null || criteres.getRegion().equalsIgnoreCase(regionHopital))
+                    && (criteres.getVille() == null || criteres.getVille().equalsIgnoreCase(villeHopital));
+        }
+    }
+
+    private record Creneau(long idPlanning, LocalTime heureFin, ContexteCreneau contexte) {
+    }
+
+    private static final class Curseur {
+        private final Long idMedecin;
+        private final Iterator<LocalDateTime> suivants;
+        private LocalDateTime courant;
+
+        private Curseur(Long idMedecin, Iterator<LocalDateTime> suivants) {
+            this.idMedecin = idMedecin;
+            this.suivants = suivants;
+        }
+
+        private boolean avancer() {
+            courant = suivants.hasNext() ? suivants.next() : null;
+            return courant != null;
+        }
+
+        private LocalDateTime courant() {
+            return courant;
+        }
+    }
+
+    private static final class JourMedecin {
+        private final LocalDate date;
+        private final BitSet libres = new BitSet(UNITES_PAR_JOUR);
+        private final Map<Integer, Creneau> creneaux = new HashMap<>();
+
+        private JourMedecin(LocalDate date) {
+            this.date = date;
+        }
+
+        synchronized void enregistrer(PlanningDto creneau, ContexteCreneau contexte,
+                                      NavigableSet<LocalDateTime> libresMedecin) {
+            int unite = unite(creneau.getHeureDebut());
+            creneaux.put(unite, new Creneau(creneau.getIdPlanning(), creneau.getHeureFin(), contexte));
+            libres.set(unite, !creneau.isReserve());
+            if (creneau.isReserve()) {
+                libresMedecin.remove(date.atTime(creneau.getHeureDebut()));
+            } else {
+                libresMedecin.add(date.atTime(creneau.getHeureDebut()));
+            }
+        }
+
+        synchronized void reserver(LocalTime heureDebut, NavigableSet<LocalDateTime> libresMedecin) {
+            libres.clear(unite(heureDebut));
+            libresMedecin.remove(date.atTime(heureDebut));
+        }
+
+        synchronized void retirer(LocalTime heureDebut, NavigableSet<LocalDateTime> libresMedecin) {
+            if (heureDebut.toSecondOfDay() % (UNITE_MINUTES * 60) != 0) {
+                return;
+            }
+            int unite = unite(heureDebut);
+            creneaux.remove(unite);
+            libres.clear(unite);
+            libresMedecin.remove(date.atTime(heureDebut));
+        }
+
+        synchronized boolean estLibre(LocalTime heureDebut) {
+            return libres.get(unite(heureDebut));
+        }
+
+        synchronized List<LocalDateTime> heuresLibres() {
+            List<LocalDateTime> heures = new ArrayList<>(libres.cardinality());
+            for (int unite = libres.nextSetBit(0); unite >= 0; unite = libres.nextSetBit(unite + 1)) {
+                heures.add(date.atTime(heure(unite)));
+            }
+            return heures;
+        }
+
+        synchronized int nombreLibres() {
+            return libres.cardinality();
+        }
+
+        synchronized int nombreCreneaux() {
+            return creneaux.size();
+        }
+
+        synchronized void compterService(Long idService, int[] cumul) {
+            creneaux.forEach((unite, creneau) -> {
+                if (idService.equals(creneau.contexte().idService())) {
+                    cumul[0]++;
+                    if (libres.get(unite)) {
+                        cumul[1]++;
+                    }
+                }
+            });
+        }
+
+        synchronized PlanningDto creneauLibre(LocalTime heureDebut, CriteresCreneauDto criteres) {
+            int unite = unite(heureDebut);
+            Creneau creneau = creneaux.get(unite);
+            if (!libres.get(unite) || creneau == null || !creneau.contexte().correspond(criteres)) {
+                return null;
+            }
+            return versDto(unite, creneau);
+        }
+
+        synchronized void collecterLibres(CriteresCreneauDto criteres, List<PlanningDto> resultat) {
+            for (int unite = libres.nextSetBit(0); unite >= 0; unite = libres.nextSetBit(unite + 1)) {
+                Creneau creneau = creneaux.get(unite);
+                if (creneau.contexte().correspond(criteres)) {
+                    resultat.add(versDto(unite, creneau));
+                }
+            }
+        }
+
+        private PlanningDto versDto(int unite, Creneau creneau) {
+            ContexteCreneau contexte = creneau.contexte();
+            return PlanningDto.builder()
+                    .idPlanning(creneau.idPlanning())
+                    .idMedecin(contexte.idMedecin())
+                    .nomMedecin(contexte.nomMedecin())
+                    .specialiteMedecin(contexte.specialiteMedecin())
+                    .idService(contexte.idService())
+                    .nomService(contexte.nomService())
+                    .idHopital(contexte.idHopital())
+                    .nomHopital(contexte.nomHopital())
+                    .adresseHopital(contexte.adresseHopital())
+                    .villeHopital(contexte.villeHopital())
+                    .regionHopital(contexte.regionHopital())
+                    .date(date)
+                    .heureDebut(heure(unite))
+                    .heureFin(creneau.heureFin())
+                    .reserve(false)
+                    .build();
+        }
+    }
+}
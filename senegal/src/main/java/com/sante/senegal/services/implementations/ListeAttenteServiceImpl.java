@@ -0,0 +1,295 @@
+package com.sante.senegal.services.implementations;
+
+import com.sante.senegal.dto.ListeAttenteDto;
+import com.sante.senegal.dto.ListeAttenteRequestDto;
+import com.sante.senegal.dto.PlanningDto;
+import com.sante.senegal.dto.PlanningReservationRequestDto;
+import com.sante.senegal.entities.*;
+import com.sante.senegal.events.CreneauLibereEvent;
+import com.sante.senegal.repositories.*;
+import com.sante.senegal.services.interfaces.EmailService;
+import com.sante.senegal.services.interfaces.ListeAttenteService;
+import com.sante.senegal.services.interfaces.PlanningService;
+import lombok.RequiredArgsConstructor;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.context.ApplicationEventPublisher;
+import org.springframework.data.domain.PageRequest;
+import org.springframework.scheduling.annotation.Scheduled;
+import org.springframework.stereotype.Service;
+import org.springframework.transaction.annotation.Transactional;
+
+import java.time.Duration;
+import java.time.LocalDate;
+import java.time.LocalDateTime;
+import java.time.format.DateTimeFormatter;
+import java.util.List;
+import java.util.Map;
+import java.util.stream.Collectors;
+
+@Service
+@RequiredArgsConstructor
+@Slf4j
+@Transactional
+public class ListeAttenteServiceImpl implements ListeAttenteService {
+
+    // Quelques candidats suffisent : on passe au suivant si un autre créneau vient de prendre le premier
+    private static final int CANDIDATS_PAR_OFFRE = 5;
+    private static final DateTimeFormatter FORMAT_CRENEAU = DateTimeFormatter.ofPattern("dd/MM/yyyy 'à' HH:mm");
+    // Rang stocké avec l'inscription : indépendant de l'ordre de déclaration de NiveauUrgence
+    static final Map<RendezVous.NiveauUrgence, Integer> PRIORITES = Map.of(
+            RendezVous.NiveauUrgence.NORMALE, 0,
+            RendezVous.NiveauUrgence.URGENT, 1,
+            RendezVous.NiveauUrgence.TRES_URGENT, 2
+    );
+
+    private final ListeAttenteRepository listeAttenteRepository;
+    private final PlanningRepository planningRepository;
+    private final PatientRepository patientRepository;
+    private final MedecinRepository medecinRepository;
+    private final ServiceRepository serviceRepository;
+    private final HopitalRepository hopitalRepository;
+    private final PlanningService planningService;
+    private final BlocageCreneauService blocageCreneaux;
+    private final AllocationUrgenceService allocationUrgence;
+    private final EmailService emailService;
+    private final ApplicationEventPublisher eventPublisher;
+
+    @Value("${planning.liste-attente.duree-offre-minutes:15}")
+    private long dureeOffreMinutes;
+
+    @Override
+    public ListeAttenteDto inscrire(ListeAttenteRequestDto request) {
+        if (request.getIdPatient() == null) {
+            throw new IllegalArgumentException("Le patient est obligatoire");
+        }
+        if (request.getIdMedecin() == null && request.getIdService() == null) {
+            throw new IllegalArgumentException("Un médecin ou un service doit être indiqué");
+        }
+        if (request.getDateDebut() == null || request.getDateFin() == null
+                || request.getDateDebut().isAfter(request.getDateFin())) {
+            throw new IllegalArgumentException("La période souhaitée est invalide");
+        }
+        if (request.getDateFin().isBefore(LocalDate.now())) {
+            throw new IllegalArgumentException("La période souhaitée est déjà passée");
+        }
+
+        Patient patient = patientRepository.findById(request.getIdPatient())
+                .orElseThrow(() -> new RuntimeException("Patient non trouvé"));
+        Medecin medecin = request.getIdMedecin() == null ? null : medecinRepository.findById(request.getIdMedecin())
+                .orElseThrow(() -> new RuntimeException("Médecin non trouvé"));
+        com.sante.senegal.entities.Service service = request.getIdService() == null ? null : serviceRepository.findById(request.getIdService())
+                .orElseThrow(() -> new RuntimeException("Service non trouvé"));
+        Hopital hopital = request.getIdHopital() == null ? null : hopitalRepository.findById(request.getIdHopital())
+                .orElseThrow(() -> new RuntimeException("Hôpital non trouvé"));
+
+        RendezVous.NiveauUrgence urgence = request.getNiveauUrgence() != null
+                ? request.getNiveauUrgence() : RendezVous.NiveauUrgence.NORMALE;
+
+        ListeAttente inscription = ListeAttente.builder()
+                .patient(patient)
+                .medecin(medecin)
+                .service(service)
+                .hopital(hopital)
+                .dateDebut(request.getDateDebut())
+                .dateFin(request.getDateFin())
+                .typeConsultation(request.getTypeConsultation())
+                .motif(request.getMotif())
+                .niveauUrgence(urgence)
+                .priorite(PRIORITES.get(urgence))
+                .statut(ListeAttente.StatutListeAttente.EN_ATTENTE)
+                .build();
+
+        ListeAttente saved = listeAttenteRepository.save(inscription);
+        log.info("Patient {} inscrit sur la liste d'attente (id={}, urgence={})",
+                patient.getId(), saved.getIdListeAttente(), urgence);
+        return convertToDto(saved);
+    }
+
+    @Override
+    @Transactional(readOnly = true)
+    public List<ListeAttenteDto> getInscriptionsPatient(Long idPatient) {
+        return listeAttenteRepository.findByPatientIdOrderByDateInscriptionDesc(idPatient).stream()
+                .map(this::convertToDto)
+                .collect(Collectors.toList());
+    }
+
+    @Override
+    public void annulerInscription(Long idListeAttente) {
+        ListeAttente inscription = listeAttenteRepository.findById(idListeAttente)
+                .orElseThrow(() -> new RuntimeException("Inscription non trouvée"));
+
+        if (inscription.getStatut() == ListeAttente.StatutListeAttente.PROPOSE) {
+            rendreCreneau(inscription);
+        }
+        inscription.setStatut(ListeAttente.StatutListeAttente.ANNULE);
+        inscription.setIdPlanningPropose(null);
+        inscription.setDateExpirationOffre(null);
+        listeAttenteRepository.save(inscription);
+        log.info("Inscription {} retirée de la liste d'attente", idListeAttente);
+    }
+
+    @Override
+    public PlanningDto accepterOffre(Long idListeAttente) {
+        ListeAttente inscription = listeAttenteRepository.findById(idListeAttente)
+                .orElseThrow(() -> new RuntimeException("Inscription non trouvée"));
+
+        if (inscription.getStatut() != ListeAttente.StatutListeAttente.PROPOSE) {
+            throw new IllegalStateException("Aucune offre en cours pour cette inscription");
+        }
+        if (inscription.getDateExpirationOffre().isBefore(LocalDateTime.now())) {
+            throw new IllegalStateException("L'offre a expiré");
+        }
+
+        PlanningReservationRequestDto reservation = new PlanningReservationRequestDto();
+        reservation.setIdPlanning(inscription.getIdPlanningPropose());
+        reservation.setIdPatient(inscription.getPatient().getId());
+        reservation.setTypeConsultation(inscription.getTypeConsultation());
+        reservation.setMotif(inscription.getMotif());
+        reservation.setNiveauUrgence(inscription.getNiveauUrgence());
+
+        // Le blocage posé lors de l'offre réserve le créneau à ce patient
+        PlanningDto planning = planningService.reserverCreneau(reservation);
+
+        inscription.setStatut(ListeAttente.StatutListeAttente.SATISFAIT);
+        inscription.setDateExpirationOffre(null);
+        listeAttenteRepository.save(inscription);
+
+        log.info("Offre acceptée: inscription {}, planning {}", idListeAttente, planning.getIdPlanning());
+        return planning;
+    }
+
+    @Override
+    public ListeAttenteDto refuserOffre(Long idListeAttente) {
+        ListeAttente inscription = listeAttenteRepository.findById(idListeAttente)
+                .orElseThrow(() -> new RuntimeException("Inscription non trouvée"));
+
+        if (inscription.getStatut() != ListeAttente.StatutListeAttente.PROPOSE) {
+            throw new IllegalStateException("Aucune offre en cours pour cette inscription");
+        }
+        rendreCreneau(inscription);
+        listeAttenteRepository.remettreEnAttente(idListeAttente);
+
+        log.info("Offre refusée: inscription {} remise en attente", idListeAttente);
+        return listeAttenteRepository.findById(idListeAttente)
+                .map(this::convertToDto)
+                .orElseThrow(() -> new RuntimeException("Inscription non trouvée"));
+    }
+
+    @Override
+    public void proposerCreneau(Long idPlanning, Long idListeAttenteExclue) {
+        Planning planning = planningRepository.findById(idPlanning).orElse(null);
+        if (planning == null || planning.isReserve() || blocageCreneaux.estBloque(idPlanning)) {
+            return;
+        }
+        LocalDateTime debutCreneau = planning.getDate().atTime(planning.getHeureDebut());
+        if (debutCreneau.isBefore(LocalDateTime.now())) {
+            return;
+        }
+
+        Medecin medecin = planning.getMedecin();
+        String nomMedecin = medecin.getNom() + " " + medecin.getPrenom();
+        List<ListeAttente> candidats = listeAttenteRepository.findCandidats(
+                medecin.getId(),
+                planning.getService().getIdService(),
+                planning.getHopital().getIdHopital(),
+                planning.getDate(),
+                idListeAttenteExclue != null ? idListeAttenteExclue : -1L,
+                PageRequest.of(0, CANDIDATS_PAR_OFFRE));
+
+        LocalDateTime expiration = LocalDateTime.now().plusMinutes(dureeOffreMinutes);
+        for (ListeAttente candidat : candidats) {
+            Patient patient = candidat.getPatient();
+            if (!allocationUrgence.estAccessible(planning.getService().getIdService(), planning.getDate(),
+                    planning.getHeureDebut(), candidat.getNiveauUrgence())) {
+                // Créneau de la réserve d'urgence : seul un candidat urgent peut se le voir proposer
+                continue;
+            }
+            if (!blocageCreneaux.bloquer(idPlanning, patient.getId(), Duration.ofMinutes(dureeOffreMinutes))) {
+                // Un autre traitement vient de bloquer ce créneau
+                return;
+            }
+            if (listeAttenteRepository.proposerSiEnAttente(candidat.getIdListeAttente(), idPlanning, expiration) == 1) {
+                log.info("Créneau {} proposé à l'inscription {} jusqu'à {}",
+                        idPlanning, candidat.getIdListeAttente(), expiration);
+                notifierOffre(patient, nomMedecin, debutCreneau, expiration);
+                return;
+            }
+            // Inscription déjà servie par un autre créneau : candidat suivant
+            blocageCreneaux.liberer(idPlanning, patient.getId());
+        }
+    }
+
+    /**
+     * Remet en attente les offres non acceptées à temps et repropose leurs créneaux au suivant
+     */
+    @Scheduled(fixedDelayString = "${planning.liste-attente.balayage-ms:60000}")
+    public void traiterOffresExpirees() {
+        for (ListeAttente offre : listeAttenteRepository.findOffresExpirees(LocalDateTime.now())) {
+            Long idListeAttente = offre.getIdListeAttente();
+            Long idPlanning = offre.getIdPlanningPropose();
+            Long idPatient = offre.getPatient().getId();
+            if (listeAttenteRepository.remettreEnAttente(idListeAttente) == 1) {
+                blocageCreneaux.liberer(idPlanning, idPatient);
+                eventPublisher.publishEvent(new CreneauLibereEvent(idPlanning, idListeAttente));
+                log.info("Offre expirée: inscription {}, planning {} reproposé", idListeAttente, idPlanning);
+            }
+        }
+
+        int expirees = listeAttenteRepository.expirerInscriptionsEchues(LocalDate.now());
+        if (expirees > 0) {
+            log.info("{} inscriptions de liste d'attente expirées", expirees);
+        }
+    }
+
+    private void rendreCreneau(ListeAttente inscription) {
+        Long idPlanning = inscription.getIdPlanningPropose();
+        blocageCreneaux.liberer(idPlanning, inscription.getPatient().getId());
+        eventPublisher.publishEvent(new CreneauLibereEvent(idPlanning, inscription.getIdListeAttente()));
+    }
+
+    private void notifierOffre(Patient patient, String nomMedecin, LocalDateTime debutCreneau, LocalDateTime expiration) {
+        if (patient.getEmail() == null) {
+            return;
+        }
+        try {
+            emailService.envoyerNotificationRendezVous(
+                    patient.getEmail(),
+                    "Un créneau s'est libéré",
+                    "Bonjour " + patient.getPrenom() + ",\n\n"
+                            + "Un créneau avec le Dr " + nomMedecin + " s'est libéré le "
+                            + debutCreneau.format(FORMAT_CRENEAU) + ".\n"
+                            + "Il vous est réservé jusqu'au " + expiration.format(FORMAT_CRENEAU)
+                            + ". Connectez-vous pour l'accepter ou le refuser.");
+        } catch (Exception e) {
+            log.error("Erreur lors de l'envoi de l'offre de créneau à {}: {}", patient.getEmail(), e.getMessage());
+        }
+    }
+
+    private ListeAttenteDto convertToDto(ListeAttente inscription) {
+        Patient patient = inscription.getPatient();
+        Medecin medecin = inscription.getMedecin();
+        com.sante.senegal.entities.Service service = inscription.getService();
+        Hopital hopital = inscription.getHopital();
+        return ListeAttenteDto.builder()
+                .idListeAttente(inscription.getIdListeAttente())
+                .idPatient(patient.getId())
+                .nomPatient(patient.getNom() + " " + patient.getPrenom())
+                .idMedecin(medecin != null ? medecin.getId() : null)
+                .nomMedecin(medecin != null ? medecin.getNom() + " " + medecin.getPrenom() : null)
+                .idService(service != null ? service.getIdService() : null)
+                .nomService(service != null ? service.getNom() : null)
+                .idHopital(hopital != null ? hopital.getIdHopital() : null)
+                .nomHopital(hopital != null ? hopital.getNom() : null)
+                .dateDebut(inscription.getDateDebut())
+                .dateFin(inscription.getDateFin())
+                .typeConsultation(inscription.getTypeConsultation())
+                .motif(inscription.getMotif())
+                .niveauUrgence(inscription.getNiveauUrgence())
+                .statut(inscription.getStatut())
+                .dateInscription(inscription.getDateInscription())
+                .idPlanningPropose(inscription.getIdPlanningPropose())
+                .dateExpirationOffre(inscription.getDateExpirationOffre())
+                .build();
+    }
+}
@@ -7,6 +7,7 @@ import com.sante.senegal.entities.Medecin;
 import com.sante.senegal.entities.Utilisateur;
 import com.sante.senegal.exceptions.FileStorageException;
 import com.sante.senegal.exceptions.InscriptionException;
+import com.sante.senegal.mappers.MedecinMapper;
 import com.sante.senegal.repositories.HopitalRepository;
 import com.sante.senegal.repositories.MedecinRepository;
 import com.sante.senegal.repositories.ServiceRepository;
@@ -18,7 +19,6 @@ import com.sante.senegal.services.interfaces.MedecinService;
 import jakarta.persistence.EntityNotFoundException;
 import lombok.RequiredArgsConstructor;
 import lombok.extern.slf4j.Slf4j;
-import org.modelmapper.ModelMapper;
 import org.springframework.security.crypto.password.PasswordEncoder;
 import org.springframework.stereotype.Service;
 import org.springframework.transaction.annotation.Transactional;
@@ -42,7 +42,7 @@ public class MedecinServiceImpl implements MedecinService {
     private final ServiceRepository serviceRepository;
     private final PasswordEncoder passwordEncoder;
     private final EmailService emailService;
-    private final ModelMapper modelMapper;
+    private final MedecinMapper medecinMapper;
     private final JwtService jwtService;
     private final FileStorageService fileStorageService;
 
@@ -186,14 +186,14 @@ public class MedecinServiceImpl implements MedecinService {
 
         medecinRepository.save(medecin);
 
-        return modelMapper.map(medecin, UtilisateurDetailDto.class);
+        return medecinMapper.toDetailDto(medecin);
     }
     @Override
     public UtilisateurDetailDto consulterProfil(Long idMedecin) {
         Medecin medecin = medecinRepository.findById(idMedecin)
                 .orElseThrow(() -> new EntityNotFoundException("Médecin introuvable"));
 
-        return modelMapper.map(medecin, UtilisateurDetailDto.class);
+        return medecinMapper.toDetailDto(medecin);
     }
 
 
@@ -231,7 +231,7 @@ public class MedecinServiceImpl implements MedecinService {
 
         return medecinRepository.findByServiceId(serviceId).stream()
                 .map(medecin -> {
-                    MedecinByServiceDto dto = modelMapper.map(medecin, MedecinByServiceDto.class);
+                    MedecinByServiceDto dto = medecinMapper.toDtoParService(medecin);
                     dto.setServiceName(service.getNom());
                     return dto;
                 })
@@ -245,7 +245,7 @@ public class MedecinServiceImpl implements MedecinService {
 
         return medecinRepository.findByHopitalId(hopitalId).stream()
                 .map(medecin -> {
-                    MedecinByHopitalDto dto = modelMapper.map(medecin, MedecinByHopitalDto.class);
+                    MedecinByHopitalDto dto = medecinMapper.toDtoParHopital(medecin);
                     dto.setHopitalName(hopital.getNom());
                     return dto;
                 })
@@ -255,7 +255,7 @@ public class MedecinServiceImpl implements MedecinService {
     @Override
     public List<MedecinDto> getMedecinsByServiceAndHopital(Long serviceId, Long hopitalId) {
         return medecinRepository.findByServiceAndHopital(serviceId, hopitalId).stream()
-                .map(medecin -> modelMapper.map(medecin, MedecinDto.class))
+                .map(medecinMapper::toDto)
                 .collect(Collectors.toList());
     }
 }
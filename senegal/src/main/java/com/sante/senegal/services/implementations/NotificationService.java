@@ -1,47 +1,113 @@
 package com.sante.senegal.services.implementations;
 
-import com.sante.senegal.entities.Consultation;
-import com.sante.senegal.entities.Examen;
-import com.sante.senegal.entities.Prescription;
-import com.sante.senegal.entities.RendezVous;
-import org.slf4j.Logger;
-import org.slf4j.LoggerFactory;
+import com.sante.senegal.dto.NotificationUtilisateurDto;
+import com.sante.senegal.entities.*;
+import com.sante.senegal.mappers.NotificationUtilisateurMapper;
+import com.sante.senegal.repositories.NotificationUtilisateurRepository;
+import com.sante.senegal.services.notifications.MoteurNotifications;
+import com.sante.senegal.services.notifications.Notification;
+import jakarta.persistence.EntityNotFoundException;
+import lombok.RequiredArgsConstructor;
+import org.springframework.data.domain.PageRequest;
 import org.springframework.stereotype.Service;
+import org.springframework.transaction.annotation.Transactional;
 
+import java.time.format.DateTimeFormatter;
+import java.util.EnumSet;
+import java.util.List;
 
-
+/**
+ * Notifications métier adressées aux patients : le message est construit dans la transaction appelante
+ * (associations chargées à la demande), la remise est confiée à MoteurNotifications après validation.
+ */
 @Service
+@RequiredArgsConstructor
 public class NotificationService {
 
-    private final Logger logger =  LoggerFactory.getLogger(NotificationService.class);
+    private static final DateTimeFormatter FORMAT_DATE = DateTimeFormatter.ofPattern("dd/MM/yyyy");
+    private static final DateTimeFormatter FORMAT_DATE_HEURE = DateTimeFormatter.ofPattern("dd/MM/yyyy 'à' HH:mm");
+
+    private final MoteurNotifications moteur;
+    private final NotificationUtilisateurRepository notificationRepository;
+    private final NotificationUtilisateurMapper notificationMapper;
 
     public void notifierRendezVousConfirme(RendezVous rendezVous) {
-        // Logique de notification par email/SMS
-        logger.info("Notification : Rendez-vous confirmé pour le patient avec le Dr "
-        );
+        publier(rendezVous.getPatient(), "Rendez-vous confirmé",
+                "Votre rendez-vous du " + rendezVous.getDateHeure().format(FORMAT_DATE_HEURE)
+                        + nomMedecin(rendezVous) + " est confirmé.",
+                Notification.Priorite.NORMALE,
+                EnumSet.of(Notification.Canal.EMAIL, Notification.Canal.SMS, Notification.Canal.IN_APP));
     }
 
     public void notifierConsultationTerminee(Consultation consultation) {
-        logger.info("Notification : Consultation terminée pour le patient "
-        );
+        publier(patient(consultation), "Consultation terminée",
+                "Votre consultation" + nomMedecin(consultation.getRendezVous())
+                        + " est terminée. Le compte rendu est disponible dans votre dossier.",
+                Notification.Priorite.NORMALE, EnumSet.of(Notification.Canal.IN_APP));
     }
 
     public void notifierPrescriptionEmise(Prescription prescription) {
-        logger.info("Notification : Prescription émise pour le patient "
-        );
+        publier(patient(prescription.getConsultation()), "Nouvelle prescription",
+                "Une prescription vous a été délivrée le " + prescription.getDatePrescription().format(FORMAT_DATE)
+                        + (prescription.getDureeTraitement() != null
+                        ? " pour un traitement de " + prescription.getDureeTraitement() + " jours." : "."),
+                Notification.Priorite.NORMALE, EnumSet.of(Notification.Canal.EMAIL, Notification.Canal.IN_APP));
     }
 
     public void notifierExamenPrescrit(Examen examen) {
-        logger.info("Notification : Examen prescrit pour le patient "
-        );
+        publier(patient(examen.getConsultation()), "Examen prescrit",
+                "L'examen « " + examen.getNomExamen() + " » vous a été prescrit.",
+                Notification.Priorite.NORMALE, EnumSet.of(Notification.Canal.IN_APP));
     }
 
+    /**
+     * Voie prioritaire sur tous les canaux : passe devant les notifications ordinaires en file
+     */
     public void notifierExamenUrgent(Examen examen) {
-        logger.warn ("URGENT : Examen urgent prescrit  pour le patient "
-        );
+        publier(patient(examen.getConsultation()), "Examen urgent",
+                "URGENT : l'examen « " + examen.getNomExamen() + " » vous a été prescrit en urgence ("
+                        + examen.getUrgence() + "). Merci de contacter l'hôpital au plus vite pour le réaliser.",
+                Notification.Priorite.URGENTE,
+                EnumSet.of(Notification.Canal.SMS, Notification.Canal.EMAIL, Notification.Canal.IN_APP));
+    }
+
+    /**
+     * Dernières notifications IN_APP de l'utilisateur, des plus récentes aux plus anciennes
+     */
+    @Transactional(readOnly = true)
+    public List<NotificationUtilisateurDto> getNotifications(Long idUtilisateur, int limite) {
+        return notificationMapper.toDtoList(notificationRepository
+                .findByIdUtilisateurOrderByDateCreationDesc(idUtilisateur, PageRequest.of(0, limite)));
+    }
+
+    @Transactional
+    public void marquerLue(Long idUtilisateur, Long idNotification) {
+        if (notificationRepository.marquerLue(idUtilisateur, idNotification) == 0) {
+            throw new EntityNotFoundException("Notification non trouvée");
+        }
     }
-    public void notifierRappelRendezVous(RendezVous rendezVous) {
-        logger.info("Notification : Rappel de rendez-vous pour le patient "
-        );
+
+    private void publier(Utilisateur destinataire, String sujet, String texte, Notification.Priorite priorite,
+                         EnumSet<Notification.Canal> canaux) {
+        if (destinataire == null) {
+            return;
+        }
+        moteur.publier(new Notification(destinataire.getId(), destinataire.getEmail(), destinataire.getTelephone(),
+                sujet, "Bonjour " + destinataire.getPrenom() + ",\n\n" + texte + "\n\nSanté Sénégal", priorite, canaux));
+    }
+
+    private Patient patient(Consultation consultation) {
+        if (consultation == null) {
+            return null;
+        }
+        if (consultation.getRendezVous() != null) {
+            return consultation.getRendezVous().getPatient();
+        }
+        return consultation.getDossier() != null ? consultation.getDossier().getPatient() : null;
+    }
+
+    private String nomMedecin(RendezVous rendezVous) {
+        return rendezVous != null && rendezVous.getMedecin() != null
+                ? " avec le Dr " + rendezVous.getMedecin().getNom() : "";
     }
-}
\ No newline at end of file
+}
@@ -9,6 +9,7 @@ import com.sante.senegal.services.interfaces.*;
 import jakarta.persistence.EntityNotFoundException;
 import lombok.RequiredArgsConstructor;
 import lombok.extern.slf4j.Slf4j;
+import org.springframework.data.domain.PageRequest;
 import org.springframework.security.crypto.password.PasswordEncoder;
 import org.springframework.stereotype.Service;
 import org.springframework.transaction.annotation.Transactional;
@@ -164,6 +165,12 @@ public class PatientServiceImpl implements PatientService {
         return patientRepository.findAll();
     }
 
+    @Override
+    @Transactional(readOnly = true)
+    public List<Patient> getPatientsApres(Long apresId, int nombre) {
+        return patientRepository.findByIdGreaterThanOrderByIdAsc(apresId, PageRequest.of(0, nombre));
+    }
+
 }
 
 
@@ -1,14 +1,22 @@
 package com.sante.senegal.services.implementations;
 
+import com.sante.senegal.dto.BlocageCreneauDto;
+import com.sante.senegal.dto.CriteresCreneauDto;
+import com.sante.senegal.dto.GenerationPlanningResultatDto;
 import com.sante.senegal.dto.PlanningDto;
 import com.sante.senegal.dto.PlanningReservationRequestDto;
 import com.sante.senegal.entities.*;
+import com.sante.senegal.mappers.PlanningMapper;
 import com.sante.senegal.repositories.*;
-import com.sante.senegal.config.DateNagerCalendrierService;
+import com.sante.senegal.events.CreneauLibereEvent;
+import com.sante.senegal.events.RendezVousModifieEvent;
+import com.sante.senegal.exceptions.CreneauIndisponibleException;
 import com.sante.senegal.services.interfaces.PlanningService;
 import lombok.RequiredArgsConstructor;
 import lombok.extern.slf4j.Slf4j;
-import org.modelmapper.ModelMapper;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.context.ApplicationEventPublisher;
+import org.springframework.data.domain.PageRequest;
 import org.springframework.stereotype.Service;
 import org.springframework.transaction.annotation.Transactional;
 
@@ -24,25 +32,32 @@ public class PlanningServiceImpl implements PlanningService {
 
     private final DisponibiliteRepository disponibiliteRepository;
     private final PlanningRepository planningRepository;
-    private final DateNagerCalendrierService calendrierService;
+    private final CalendrierJoursOuvresService calendrierJoursOuvres;
     private final HopitalRepository hopitalRepository;
     private final AbsenceMedecinRepository absenceMedecinRepository;
     private final MedecinRepository medecinRepository;
     private final PatientRepository patientRepository;
     private final RendezVousRepository rendezVousRepository;
-    private final ModelMapper modelMapper;
+    private final PlanningMapper planningMapper;
+    private final IndexCreneauxService indexCreneaux;
+    private final PlanningBatchRepository planningBatchRepository;
+    private final BlocageCreneauService blocageCreneaux;
+    private final AllocationUrgenceService allocationUrgence;
+    private final AllocationIntervallesService allocationIntervalles;
+    private final ApplicationEventPublisher eventPublisher;
 
-    private static final int DUREE_CRENEAU_MINUTES = 30;
-    private static final Map<RendezVous.TypeConsultation, Integer> DUREES_CONSULTATION = Map.of(
-            RendezVous.TypeConsultation.CONSULTATION_GENERALE, 30,
-            RendezVous.TypeConsultation.CONSULTATION_SPECIALISTE, 45,
-            RendezVous.TypeConsultation.CONSULTATION_URGENCE, 20,
-            RendezVous.TypeConsultation.CONSULTATION_SUIVI, 25,
-            RendezVous.TypeConsultation.CONSULTATION_PREMIERE, 30
-    );
+    @Value("${planning.blocage.duree-defaut-secondes:90}")
+    private long dureeBlocageDefautSecondes;
+
+    @Value("${planning.blocage.duree-max-secondes:300}")
+    private long dureeBlocageMaxSecondes;
+
+    private static final int DUREE_CRENEAU_MINUTES = AllocationIntervallesService.DUREE_CRENEAU_MINUTES;
 
     @Override
-    public void genererPlanningsPourUnMois(Long idMedecin, Long idHopital) {
+    public GenerationPlanningResultatDto genererPlanningsPourUnMois(Long idMedecin, Long idHopital) {
+        long debut = System.currentTimeMillis();
+
         Medecin medecin = medecinRepository.findById(idMedecin)
                 .orElseThrow(() -> new RuntimeException("Medecin non trouvé"));
 
@@ -52,16 +67,26 @@ public class PlanningServiceImpl implements PlanningService {
         LocalDate today = LocalDate.now();
         LocalDate endDate = today.plusMonths(1);
 
-        List<Disponibilite> disponibilites = disponibiliteRepository.findByMedecinId(idMedecin);
+        // Tout est chargé en amont : disponibilités, absences et créneaux existants ; jours ouvrés lus en mémoire
+        List<Disponibilite> disponibilites = disponibiliteRepository.findByMedecinBetweenDates(idMedecin, today, endDate);
         Map<LocalDate, List<Disponibilite>> dispoParJour = disponibilites.stream()
                 .collect(Collectors.groupingBy(Disponibilite::getDate));
 
-        Set<LocalDate> joursFeries = calendrierService
-                .getJoursFeries(today, endDate)
-                .stream().map(JourFerie::getDate).collect(Collectors.toSet());
+        List<AbsenceMedecin> absences = absenceMedecinRepository
+                .findByMedecinAndDateFinAfterAndDateDebutBefore(medecin, today.minusDays(1), endDate.plusDays(1));
 
+        // Les intervalles existants ont pu être redécoupés par les réservations : tout chevauchement est écarté
+        List<Object[]> intervalles = planningRepository.findIntervallesCreneauxMedecin(idMedecin, today, endDate);
+        Map<LocalDate, List<LocalTime[]>> existants = new HashMap<>();
+        for (Object[] intervalle : intervalles) {
+            existants.computeIfAbsent((LocalDate) intervalle[0], d -> new ArrayList<>())
+                    .add(new LocalTime[]{(LocalTime) intervalle[1], (LocalTime) intervalle[2]});
+        }
+        int nombreExistants = intervalles.size();
+
+        List<Planning> aCreer = new ArrayList<>();
         for (LocalDate date = today; !date.isAfter(endDate); date = date.plusDays(1)) {
-            if (joursFeries.contains(date) || estWeekend(date) || estMedecinAbsent(medecin, date)) {
+            if (!calendrierJoursOuvres.estOuvre(date, idHopital) || estMedecinAbsent(absences, date)) {
                 continue;
             }
 
@@ -74,12 +99,10 @@ public class PlanningServiceImpl implements PlanningService {
                 while (!heureDebut.plusMinutes(DUREE_CRENEAU_MINUTES).isAfter(heureFin)) {
                     LocalTime finCreneau = heureDebut.plusMinutes(DUREE_CRENEAU_MINUTES);
 
-                    boolean existe = planningRepository.existsByMedecinAndDateAndHeureDebut(
-                            medecin, date, heureDebut
-                    );
-
-                    if (!existe) {
-                        Planning planning = Planning.builder()
+                    List<LocalTime[]> occupes = existants.computeIfAbsent(date, d -> new ArrayList<>());
+                    if (!chevauche(occupes, heureDebut, finCreneau)) {
+                        occupes.add(new LocalTime[]{heureDebut, finCreneau});
+                        aCreer.add(Planning.builder()
                                 .medecin(dispo.getMedecin())
                                 .service(dispo.getService())
                                 .hopital(hopital)
@@ -87,10 +110,7 @@ public class PlanningServiceImpl implements PlanningService {
                                 .heureDebut(heureDebut)
                                 .heureFin(finCreneau)
                                 .reserve(false)
-                                .build();
-
-                        planningRepository.save(planning);
-                        log.debug("Créneau ajouté le {} de {} à {}", date, heureDebut, finCreneau);
+                                .build());
                     }
 
                     heureDebut = finCreneau;
@@ -98,7 +118,25 @@ public class PlanningServiceImpl implements PlanningService {
             }
         }
 
-        log.info("Créneaux générés pour le médecin {} à l'hôpital {} jusqu'au {}", idMedecin, idHopital, endDate);
+        int crees = planningBatchRepository.insererCreneaux(aCreer);
+        if (crees > 0) {
+            planningRepository.findProjectionsMedecinEntre(idMedecin, today, endDate)
+                    .forEach(indexCreneaux::rafraichir);
+        }
+
+        long duree = System.currentTimeMillis() - debut;
+        log.info("Créneaux générés pour le médecin {} à l'hôpital {} jusqu'au {}: {} créés, {} existants, {} ms",
+                idMedecin, idHopital, endDate, crees, nombreExistants, duree);
+
+        return GenerationPlanningResultatDto.builder()
+                .idMedecin(idMedecin)
+                .idHopital(idHopital)
+                .dateDebut(today)
+                .dateFin(endDate)
+                .creneauxCrees(crees)
+                .creneauxExistants(nombreExistants)
+                .dureeMs(duree)
+                .build();
     }
 
     @Override
@@ -113,18 +151,30 @@ public class PlanningServiceImpl implements PlanningService {
 
     @Override
     public List<PlanningDto> getCreneauxDisponiblesDto(Long idMedecin, Long idService, Long idHopital, LocalDate dateDebut, LocalDate dateFin) {
+        Optional<List<PlanningDto>> depuisIndex = indexCreneaux.rechercher(idMedecin, idService, idHopital, dateDebut, dateFin);
+        if (depuisIndex.isPresent()) {
+            return sansCreneauxBloques(depuisIndex.get());
+        }
+
         List<Planning> plannings = planningRepository.findCreneauxDisponibles(idMedecin, idService, idHopital, dateDebut, dateFin);
 
         return plannings.stream()
+                .filter(planning -> !blocageCreneaux.estBloque(planning.getIdPlanning()))
                 .map(this::convertToDto)
                 .collect(Collectors.toList());
     }
 
     @Override
     public List<PlanningDto> getCreneauxDisponiblesParCriteres(Long idMedecin, Long idService, Long idHopital, LocalDate date) {
+        Optional<List<PlanningDto>> depuisIndex = indexCreneaux.rechercher(idMedecin, idService, idHopital, date, date);
+        if (depuisIndex.isPresent()) {
+            return sansCreneauxBloques(depuisIndex.get());
+        }
+
         List<Planning> plannings = planningRepository.findCreneauxDisponiblesParCriteres(idMedecin, idService, idHopital, date);
 
         return plannings.stream()
+                .filter(planning -> !blocageCreneaux.estBloque(planning.getIdPlanning()))
                 .map(this::convertToDto)
                 .collect(Collectors.toList());
     }
@@ -132,21 +182,25 @@ public class PlanningServiceImpl implements PlanningService {
     @Override
     @Transactional
     public PlanningDto reserverCreneau(PlanningReservationRequestDto request) {
-        // Vérifier que le planning existe et est disponible
+        // Lecture sans verrou : un créneau déjà pris est refusé immédiatement
         Planning planning = planningRepository.findById(request.getIdPlanning())
                 .orElseThrow(() -> new RuntimeException("Planning non trouvé"));
 
         if (planning.isReserve()) {
-            throw new RuntimeException("Le créneau est déjà réservé");
+            throw new CreneauIndisponibleException("Le créneau est déjà réservé");
         }
+        blocageCreneaux.verifierAccessible(planning.getIdPlanning(), request.getIdPatient());
+        RendezVous.NiveauUrgence niveauUrgence = request.getNiveauUrgence() != null
+                ? request.getNiveauUrgence() : RendezVous.NiveauUrgence.NORMALE;
+        allocationUrgence.verifierAccessible(planning.getService().getIdService(), planning.getDate(),
+                planning.getHeureDebut(), niveauUrgence);
 
         // Récupérer le patient
         Patient patient = patientRepository.findById(request.getIdPatient())
                 .orElseThrow(() -> new RuntimeException("Patient non trouvé"));
 
         // Calculer la durée selon le type de consultation
-        int duree = DUREES_CONSULTATION.getOrDefault(request.getTypeConsultation(), DUREE_CRENEAU_MINUTES);
-        LocalTime nouvelleHeureFin = planning.getHeureDebut().plusMinutes(duree);
+        int duree = AllocationIntervallesService.dureeConsultation(request.getTypeConsultation());
 
         // Créer le rendez-vous
         RendezVous rendezVous = RendezVous.builder()
@@ -159,7 +213,7 @@ public class PlanningServiceImpl implements PlanningService {
                 .typeConsultation(request.getTypeConsultation())
                 .motif(request.getMotif())
                 .statut(RendezVous.StatutRendezVous.PROGRAMME)
-                .niveauUrgence(RendezVous.NiveauUrgence.NORMALE)
+                .niveauUrgence(niveauUrgence)
                 .dateCreation(LocalDateTime.now())
                 .modePriseRdv(RendezVous.ModePriseRdv.EN_LIGNE)
                 .build();
@@ -167,12 +221,18 @@ public class PlanningServiceImpl implements PlanningService {
         // Sauvegarder le rendez-vous
         RendezVous savedRendezVous = rendezVousRepository.save(rendezVous);
 
-        // Mettre à jour le planning
-        planning.setRendezVous(savedRendezVous);
-        planning.setHeureFin(nouvelleHeureFin);
-        planning.setReserve(true);
-
-        Planning savedPlanning = planningRepository.save(planning);
+        // Prendre l'intervalle en dernier : les verrous de la journée ne sont tenus que jusqu'au commit.
+        // Si un autre patient l'a pris entre-temps, l'exception annule aussi le rendez-vous.
+        Planning savedPlanning;
+        try {
+            savedPlanning = allocationIntervalles.allouer(planning, savedRendezVous, duree);
+        } catch (CreneauIndisponibleException e) {
+            log.warn("Conflit de réservation sur le planning {}: {}", planning.getIdPlanning(), e.getMessage());
+            throw e;
+        }
+        blocageCreneaux.liberer(savedPlanning.getIdPlanning(), patient.getId());
+        allocationUrgence.enregistrer(savedPlanning.getService().getIdService(), savedPlanning.getDate(), niveauUrgence);
+        eventPublisher.publishEvent(new RendezVousModifieEvent(savedRendezVous.getIdRdv()));
 
         log.info("Créneau réservé avec succès: Planning ID {}, RDV ID {}, durée {} minutes",
                 savedPlanning.getIdPlanning(), savedRendezVous.getIdRdv(), duree);
@@ -192,14 +252,13 @@ public class PlanningServiceImpl implements PlanningService {
             rdv.setStatut(RendezVous.StatutRendezVous.ANNULE);
             rdv.setDateModification(LocalDateTime.now());
             rendezVousRepository.save(rdv);
+            allocationUrgence.liberer(rdv);
+            eventPublisher.publishEvent(new RendezVousModifieEvent(rdv.getIdRdv()));
         }
 
-        // Libérer le créneau
-        planning.setRendezVous(null);
-        planning.setReserve(false);
-        planning.setHeureFin(planning.getHeureDebut().plusMinutes(DUREE_CRENEAU_MINUTES));
-
-        Planning savedPlanning = planningRepository.save(planning);
+        // Libérer l'intervalle, refusionné avec ses voisins libres
+        Planning savedPlanning = allocationIntervalles.liberer(planning);
+        eventPublisher.publishEvent(new CreneauLibereEvent(idPlanning));
 
         log.info("Créneau libéré: Planning ID {}", idPlanning);
         return convertToDto(savedPlanning);
@@ -207,27 +266,45 @@ public class PlanningServiceImpl implements PlanningService {
 
     @Override
     public List<PlanningDto> getCreneauxDisponiblesParMedecin(Long idMedecin, LocalDate dateDebut, LocalDate dateFin) {
+        Optional<List<PlanningDto>> depuisIndex = indexCreneaux.rechercher(idMedecin, null, null, dateDebut, dateFin);
+        if (depuisIndex.isPresent()) {
+            return sansCreneauxBloques(depuisIndex.get());
+        }
+
         List<Planning> plannings = planningRepository.findByMedecinIdAndDateBetweenAndReserve(idMedecin, dateDebut, dateFin, false);
 
         return plannings.stream()
+                .filter(planning -> !blocageCreneaux.estBloque(planning.getIdPlanning()))
                 .map(this::convertToDto)
                 .collect(Collectors.toList());
     }
 
     @Override
     public List<PlanningDto> getCreneauxDisponiblesParService(Long idService, LocalDate dateDebut, LocalDate dateFin) {
+        Optional<List<PlanningDto>> depuisIndex = indexCreneaux.rechercher(null, idService, null, dateDebut, dateFin);
+        if (depuisIndex.isPresent()) {
+            return sansCreneauxBloques(depuisIndex.get());
+        }
+
         List<Planning> plannings = planningRepository.findByServiceIdServiceAndDateBetweenAndReserve(idService, dateDebut, dateFin, false);
 
         return plannings.stream()
+                .filter(planning -> !blocageCreneaux.estBloque(planning.getIdPlanning()))
                 .map(this::convertToDto)
                 .collect(Collectors.toList());
     }
 
     @Override
     public List<PlanningDto> getCreneauxDisponiblesParHopital(Long idHopital, LocalDate dateDebut, LocalDate dateFin) {
+        Optional<List<PlanningDto>> depuisIndex = indexCreneaux.rechercher(null, null, idHopital, dateDebut, dateFin);
+        if (depuisIndex.isPresent()) {
+            return sansCreneauxBloques(depuisIndex.get());
+        }
+
         List<Planning> plannings = planningRepository.findByHopitalIdHopitalAndDateBetweenAndReserve(idHopital, dateDebut, dateFin, false);
 
         return plannings.stream()
+                .filter(planning -> !blocageCreneaux.estBloque(planning.getIdPlanning()))
                 .map(this::convertToDto)
                 .collect(Collectors.toList());
     }
@@ -235,53 +312,93 @@ public class PlanningServiceImpl implements PlanningService {
     @Override
     public boolean isCreneauDisponible(Long idPlanning) {
         return planningRepository.findById(idPlanning)
-                .map(planning -> !planning.isReserve())
+                .map(planning -> !planning.isReserve() && !blocageCreneaux.estBloque(idPlanning))
                 .orElse(false);
     }
 
     @Override
-    public long countCreneauxDisponibles(Long idMedecin, LocalDate date) {
-        return planningRepository.countByMedecinIdAndDateAndReserve(idMedecin, date, false);
+    @Transactional(readOnly = true)
+    public BlocageCreneauDto bloquerCreneau(Long idPlanning, Long idPatient, Long dureeSecondes) {
+        Planning planning = planningRepository.findById(idPlanning)
+                .orElseThrow(() -> new RuntimeException("Planning non trouvé"));
+        if (planning.isReserve()) {
+            throw new CreneauIndisponibleException("Le créneau est déjà réservé");
+        }
+        if (!patientRepository.existsById(idPatient)) {
+            throw new RuntimeException("Patient non trouvé");
+        }
+
+        long duree = dureeSecondes == null || dureeSecondes <= 0
+                ? dureeBlocageDefautSecondes
+                : Math.min(dureeSecondes, dureeBlocageMaxSecondes);
+        if (!blocageCreneaux.bloquer(idPlanning, idPatient, Duration.ofSeconds(duree))) {
+            throw new CreneauIndisponibleException("Le créneau est temporairement réservé pour un autre patient");
+        }
+
+        log.debug("Créneau {} bloqué {} s pour le patient {}", idPlanning, duree, idPatient);
+        return BlocageCreneauDto.builder()
+                .idPlanning(idPlanning)
+                .idPatient(idPatient)
+                .dureeSecondes(duree)
+                .expiration(LocalDateTime.now().plusSeconds(duree))
+                .build();
     }
 
-    private PlanningDto convertToDto(Planning planning) {
-        PlanningDto dto = modelMapper.map(planning, PlanningDto.class);
+    @Override
+    public boolean libererBlocage(Long idPlanning, Long idPatient) {
+        return blocageCreneaux.liberer(idPlanning, idPatient);
+    }
 
-        // Enrichir avec les informations du médecin
-        if (planning.getMedecin() != null) {
-            dto.setIdMedecin(planning.getMedecin().getId());
-            dto.setNomMedecin(planning.getMedecin().getNom() + " " + planning.getMedecin().getPrenom());
-            dto.setSpecialiteMedecin(planning.getMedecin().getSpecialite());
-        }
+    @Override
+    public long countCreneauxDisponibles(Long idMedecin, LocalDate date) {
+        return indexCreneaux.compter(idMedecin, date)
+                .orElseGet(() -> planningRepository.countByMedecinIdAndDateAndReserve(idMedecin, date, false));
+    }
 
-        // Enrichir avec les informations du service
-        if (planning.getService() != null) {
-            dto.setIdService(planning.getService().getIdService());
-            dto.setNomService(planning.getService().getNom());
-        }
+    @Override
+    public List<PlanningDto> getPremiersCreneauxDisponibles(CriteresCreneauDto criteres, int nombre) {
+        // Marge pour compenser les créneaux bloqués écartés ensuite
+        int demandes = nombre + Math.min(blocageCreneaux.nombreBlocages(), nombre);
+        List<PlanningDto> creneaux = indexCreneaux.premiersCreneaux(criteres, demandes)
+                .orElseGet(() -> {
+                    LocalDateTime maintenant = LocalDateTime.now();
+                    return planningRepository.findPremiersCreneauxLibres(
+                            maintenant.toLocalDate(), maintenant.toLocalTime(),
+                            criteres.getIdService(), criteres.getIdHopital(), criteres.getSpecialite(),
+                            criteres.getRegion(), criteres.getVille(), PageRequest.of(0, demandes));
+                });
+        return sansCreneauxBloques(creneaux).stream()
+                .limit(nombre)
+                .collect(Collectors.toList());
+    }
 
-        // Enrichir avec les informations de l'hôpital
-        if (planning.getHopital() != null) {
-            dto.setIdHopital(planning.getHopital().getIdHopital());
-            dto.setNomHopital(planning.getHopital().getNom());
-            dto.setAdresseHopital(planning.getHopital().getAdresse());
+    /**
+     * Écarte les créneaux bloqués par un patient en cours de réservation
+     */
+    private List<PlanningDto> sansCreneauxBloques(List<PlanningDto> creneaux) {
+        if (blocageCreneaux.nombreBlocages() == 0) {
+            return creneaux;
         }
+        return creneaux.stream()
+                .filter(creneau -> !blocageCreneaux.estBloque(creneau.getIdPlanning()))
+                .collect(Collectors.toList());
+    }
 
-        // Ajouter l'ID du rendez-vous si réservé
-        if (planning.getRendezVous() != null) {
-            dto.setIdRendezVous(planning.getRendezVous().getIdRdv());
+    private static boolean chevauche(List<LocalTime[]> occupes, LocalTime debut, LocalTime fin) {
+        for (LocalTime[] occupe : occupes) {
+            if (debut.isBefore(occupe[1]) && occupe[0].isBefore(fin)) {
+                return true;
+            }
         }
-
-        return dto;
+        return false;
     }
 
-    private boolean estMedecinAbsent(Medecin medecin, LocalDate date) {
-        return absenceMedecinRepository.existsByMedecinAndDateDebutLessThanEqualAndDateFinGreaterThanEqual(
-                medecin, date, date
-        );
+    private PlanningDto convertToDto(Planning planning) {
+        return planningMapper.toDto(planning);
     }
 
-    private boolean estWeekend(LocalDate date) {
-        return date.getDayOfWeek() == DayOfWeek.SATURDAY || date.getDayOfWeek() == DayOfWeek.SUNDAY;
+    private boolean estMedecinAbsent(List<AbsenceMedecin> absences, LocalDate date) {
+        return absences.stream()
+                .anyMatch(a -> !date.isBefore(a.getDateDebut()) && !date.isAfter(a.getDateFin()));
     }
 }
\ No newline at end of file
@@ -5,13 +5,13 @@ import com.sante.senegal.dto.PrescriptionDto;
 import com.sante.senegal.entities.Consultation;
 import com.sante.senegal.entities.MedicamentPrescrit;
 import com.sante.senegal.entities.Prescription;
+import com.sante.senegal.mappers.PrescriptionMapper;
 import com.sante.senegal.repositories.ConsultationRepository;
 import com.sante.senegal.repositories.MedicamentPrescritRepository;
 import com.sante.senegal.repositories.PrescriptionRepository;
 import com.sante.senegal.services.interfaces.PrescriptionService;
 import jakarta.persistence.EntityNotFoundException;
 import lombok.RequiredArgsConstructor;
-import org.modelmapper.ModelMapper;
 import org.springframework.stereotype.Service;
 import org.springframework.transaction.annotation.Transactional;
 
@@ -27,7 +27,8 @@ public class PrescriptionServiceImpl implements PrescriptionService {
     private final PrescriptionRepository prescriptionRepository;
     private final MedicamentPrescritRepository medicamentPrescritRepository;
     private final ConsultationRepository consultationRepository;
-    private final ModelMapper modelMapper;
+    private final PrescriptionMapper prescriptionMapper;
+    private final NotificationService notificationService;
 
     @Override
     public PrescriptionDto creerPrescription(Long consultationId, Integer dureeTraitement, String instructionsGenerales) {
@@ -42,7 +43,8 @@ public class PrescriptionServiceImpl implements PrescriptionService {
                 .statut(Prescription.StatutPrescription.ACTIVE)
                 .build();
 
-        return modelMapper.map(prescriptionRepository.save(prescription), PrescriptionDto.class);
+        notificationService.notifierPrescriptionEmise(prescription);
+        return prescriptionMapper.toDto(prescriptionRepository.save(prescription));
     }
 
     @Override
@@ -63,7 +65,7 @@ public class PrescriptionServiceImpl implements PrescriptionService {
                 .statut(MedicamentPrescrit.StatutMedicament.PRESCRIT)
                 .build();
 
-        return modelMapper.map(medicamentPrescritRepository.save(medicament), MedicamentPrescritDto.class);
+        return prescriptionMapper.toDto(medicamentPrescritRepository.save(medicament));
     }
 
     @Override
@@ -72,7 +74,7 @@ public class PrescriptionServiceImpl implements PrescriptionService {
                 .orElseThrow(() -> new EntityNotFoundException("Médicament non trouvé"));
 
         medicament.setStatut(MedicamentPrescrit.StatutMedicament.valueOf(statut.name()));
-        return modelMapper.map(medicamentPrescritRepository.save(medicament), MedicamentPrescritDto.class);
+        return prescriptionMapper.toDto(medicamentPrescritRepository.save(medicament));
     }
 
     @Override
@@ -88,14 +90,14 @@ public class PrescriptionServiceImpl implements PrescriptionService {
             }
         });
 
-        return modelMapper.map(prescriptionRepository.save(prescription), PrescriptionDto.class);
+        return prescriptionMapper.toDto(prescriptionRepository.save(prescription));
     }
 
     @Override
     public List<PrescriptionDto> getPrescriptionsActives(Long patientId) {
         return prescriptionRepository.findByConsultationDossierPatientIdAndStatut(
                         patientId, Prescription.StatutPrescription.ACTIVE).stream()
-                .map(p -> modelMapper.map(p, PrescriptionDto.class))
+                .map(prescriptionMapper::toDto)
                 .collect(Collectors.toList());
     }
 
@@ -103,6 +105,6 @@ public class PrescriptionServiceImpl implements PrescriptionService {
     public PrescriptionDto getPrescriptionById(Long id) {
         Prescription prescription = prescriptionRepository.findById(id)
                 .orElseThrow(() -> new EntityNotFoundException("Prescription non trouvée"));
-        return modelMapper.map(prescription, PrescriptionDto.class);
+        return prescriptionMapper.toDto(prescription);
     }
 }
\ No newline at end of file
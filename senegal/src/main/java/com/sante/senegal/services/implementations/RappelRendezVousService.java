@@ -0,0 +1,323 @@
+package com.sante.senegal.services.implementations;
+
+import com.sante.senegal.composants.LimiteurDebit;
+import com.sante.senegal.composants.TransportEmail;
+import com.sante.senegal.dto.ExecutionRappelsDto;
+import com.sante.senegal.dto.RappelRendezVousDto;
+import com.sante.senegal.entities.RappelRendezVous;
+import com.sante.senegal.repositories.RendezVousRepository;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.scheduling.annotation.Scheduled;
+import org.springframework.stereotype.Service;
+
+import java.time.Duration;
+import java.time.LocalDate;
+import java.time.LocalDateTime;
+import java.time.format.DateTimeFormatter;
+import java.time.temporal.ChronoUnit;
+import java.util.*;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ConcurrentLinkedDeque;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Semaphore;
+import java.util.concurrent.atomic.AtomicBoolean;
+import java.util.concurrent.atomic.AtomicLong;
+import java.util.function.Function;
+import java.util.stream.Collectors;
+
+/**
+ * Rappels de rendez-vous, adossés au registre rappel_rendez_vous :
+ * la planification inscrit un rappel par (rendez-vous, décalage configuré), sans doublon ;
+ * l'envoi prend les rappels dus par lots en SKIP LOCKED, si bien que plusieurs nœuds se partagent
+ * le travail et qu'un rappel envoyé ne l'est plus jamais, même après redémarrage.
+ * Les envois partent sur threads virtuels, en nombre borné et avec un débit limité par domaine destinataire.
+ * Le registre tient lieu de boîte d'envoi : les rappels sont remis directement par TransportEmail.
+ */
+@Service
+@Slf4j
+public class RappelRendezVousService {
+
+    private static final int EXECUTIONS_CONSERVEES = 30;
+    private static final String SUJET = "Rappel de votre rendez-vous médical";
+    private static final DateTimeFormatter FORMAT_DATE = DateTimeFormatter.ofPattern("dd/MM/yyyy");
+    private static final DateTimeFormatter FORMAT_HEURE = DateTimeFormatter.ofPattern("HH:mm");
+
+    private final RegistreRappelsService registre;
+    private final RendezVousRepository rendezVousRepository;
+    private final TransportEmail transportEmail;
+
+    // Décalages avant le rendez-vous, en jours (j), heures (h) ou minutes (m) ; chacun est un type de rappel
+    @Value("${notification.rappels.decalages:7j,1j}")
+    private String decalages;
+
+    // Les rendez-vous sont inscrits au registre dès qu'ils entrent dans la fenêtre décalage + marge
+    @Value("${notification.rappels.marge-planification-heures:24}")
+    private long margePlanificationHeures;
+
+    @Value("${notification.rappels.taille-lot:500}")
+    private int tailleLot;
+
+    @Value("${notification.rappels.bail-minutes:10}")
+    private long bailMinutes;
+
+    @Value("${notification.rappels.tentatives-max:3}")
+    private int tentativesMax;
+
+    @Value("${notification.rappels.retention-jours:90}")
+    private long retentionJours;
+
+    @Value("${notification.rappels.parallelisme:32}")
+    private int parallelisme;
+
+    @Value("${notification.rappels.debit-defaut:20}")
+    private double debitDefaut;
+
+    // Format : domaine=envois par seconde, séparés par des virgules (ex. gmail.com=50,yahoo.fr=10)
+    @Value("${notification.rappels.debits-par-domaine:}")
+    private String debitsParDomaine;
+
+    private final Map<String, LimiteurDebit> limiteurs = new ConcurrentHashMap<>();
+    private final Deque<ExecutionRappelsDto> executions = new ConcurrentLinkedDeque<>();
+    private final AtomicBoolean enCours = new AtomicBoolean();
+
+    public RappelRendezVousService(RegistreRappelsService registre, RendezVousRepository rendezVousRepository,
+                                   TransportEmail transportEmail) {
+        this.registre = registre;
+        this.rendezVousRepository = rendezVousRepository;
+        this.transportEmail = transportEmail;
+    }
+
+    /**
+     * Inscrit au registre les rappels des rendez-vous entrés dans la fenêtre et purge les rappels anciens
+     */
+    @Scheduled(cron = "${notification.rappels.planification-cron:0 */15 * * * *}")
+    public int planifier() {
+        LocalDateTime maintenant = LocalDateTime.now();
+        int planifies = 0;
+        for (Map.Entry<String, Integer> decalage : decalagesConfigures().entrySet()) {
+            LocalDateTime limite = maintenant.plusMinutes(decalage.getValue()).plusHours(margePlanificationHeures);
+            planifies += registre.planifier(decalage.getKey(), decalage.getValue(), maintenant, limite);
+        }
+        int purges = registre.purger(maintenant.minusDays(retentionJours));
+        if (planifies > 0 || purges > 0) {
+            log.info("Registre des rappels: {} rappels planifiés, {} purgés", planifies, purges);
+        }
+        return planifies;
+    }
+
+    @Scheduled(fixedDelayString = "${notification.rappels.delai-ms:60000}")
+    public void envoyerRappelsDus() {
+        try {
+            executer();
+        } catch (IllegalStateException e) {
+            log.debug("Envoi des rappels ignoré: {}", e.getMessage());
+        }
+    }
+
+    /**
+     * Envoie, lot par lot, tous les rappels dus de ce nœud
+     */
+    public ExecutionRappelsDto executer() {
+        if (!enCours.compareAndSet(false, true)) {
+            throw new IllegalStateException("Un envoi de rappels est déjà en cours sur ce nœud");
+        }
+        try {
+            ExecutionRappelsDto execution = envoyer();
+            if (execution.getSelectionnes() > 0) {
+                executions.addFirst(execution);
+                while (executions.size() > EXECUTIONS_CONSERVEES) {
+                    executions.pollLast();
+                }
+            }
+            return execution;
+        } finally {
+            enCours.set(false);
+        }
+    }
+
+    public List<ExecutionRappelsDto> getExecutions() {
+        return new ArrayList<>(executions);
+    }
+
+    private ExecutionRappelsDto envoyer() {
+        LocalDateTime dateDebut = LocalDateTime.now();
+        long debut = System.currentTimeMillis();
+        Compteurs compteurs = new Compteurs();
+        Semaphore permis = new Semaphore(Math.max(1, parallelisme));
+
+        List<RappelRendezVous> lot;
+        do {
+            lot = registre.reserverLot(tailleLot, Duration.ofMinutes(bailMinutes));
+            if (!lot.isEmpty()) {
+                compteurs.lots.incrementAndGet();
+                compteurs.selectionnes.addAndGet(lot.size());
+                registre.enregistrer(traiterLot(lot, permis, compteurs));
+            }
+        } while (lot.size() == tailleLot);
+
+        long duree = System.currentTimeMillis() - debut;
+        ExecutionRappelsDto execution = ExecutionRappelsDto.builder()
+                .dateDebut(dateDebut)
+                .dateFin(LocalDateTime.now())
+                .lots(compteurs.lots.get())
+                .selectionnes(compteurs.selectionnes.get())
+                .envoyes(compteurs.envoyes.get())
+                .echecs(compteurs.echecs.get())
+                .annules(compteurs.annules.get())
+                .replanifies(compteurs.replanifies.get())
+                .dureeMs(duree)
+                .debitParSeconde(duree == 0 ? compteurs.envoyes.get() : compteurs.envoyes.get() * 1000.0 / duree)
+                .build();
+        if (execution.getSelectionnes() > 0) {
+            log.info("Rappels: {} pris en {} lots, {} envoyés, {} échecs, {} annulés, {} replanifiés en {} ms ({} envois/s)",
+                    execution.getSelectionnes(), execution.getLots(), execution.getEnvoyes(), execution.getEchecs(),
+                    execution.getAnnules(), execution.getReplanifies(), duree,
+                    String.format("%.1f", execution.getDebitParSeconde()));
+        }
+        return execution;
+    }
+
+    /**
+     * Construit les messages du lot en parallèle, les envoie et retourne l'issue de chaque rappel
+     */
+    private Map<Long, RegistreRappelsService.Issue> traiterLot(List<RappelRendezVous> lot, Semaphore permis,
+                                                                Compteurs compteurs) {
+        LocalDateTime maintenant = LocalDateTime.now();
+        Map<Long, RappelRendezVousDto> rendezVous = rendezVousRepository
+                .findRappelsParIds(lot.stream().map(RappelRendezVous::getIdRdv).collect(Collectors.toSet())).stream()
+                .collect(Collectors.toMap(RappelRendezVousDto::getIdRdv, Function.identity()));
+        Map<Long, RegistreRappelsService.Issue> issues = new ConcurrentHashMap<>();
+
+        List<Message> messages = lot.parallelStream()
+                .map(rappel -> preparer(rappel, rendezVous.get(rappel.getIdRdv()), maintenant, issues, compteurs))
+                .filter(Objects::nonNull)
+                .toList();
+
+        try (ExecutorService executor = Executors.newVirtualThreadPerTaskExecutor()) {
+            for (Message message : messages) {
+                permis.acquireUninterruptibly();
+                executor.submit(() -> {
+                    try {
+                        limiteur(message.domaine()).acquerir();
+                        transportEmail.envoyer(message.email(), SUJET, message.texte(), false);
+                        issues.put(message.rappel().getIdRappel(),
+                                new RegistreRappelsService.Issue(RappelRendezVous.StatutRappel.ENVOYE, null, null));
+                        compteurs.envoyes.incrementAndGet();
+                    } catch (Exception e) {
+                        issues.put(message.rappel().getIdRappel(), echec(message.rappel(), e));
+                        compteurs.echecs.incrementAndGet();
+                        log.warn("Échec du rappel {} du rendez-vous {} à {}: {}", message.rappel().getTypeRappel(),
+                                message.rappel().getIdRdv(), message.email(), e.getMessage());
+                    } finally {
+                        permis.release();
+                    }
+                });
+            }
+        }
+        return issues;
+    }
+
+    /**
+     * Message à envoyer, ou null si le rappel n'a plus lieu d'être (issue déjà renseignée)
+     */
+    private Message preparer(RappelRendezVous rappel, RappelRendezVousDto rdv, LocalDateTime maintenant,
+                             Map<Long, RegistreRappelsService.Issue> issues, Compteurs compteurs) {
+        if (rdv == null || !RegistreRappelsService.STATUTS_ELIGIBLES.contains(rdv.getStatut())
+                || rdv.getEmailPatient() == null) {
+            issues.put(rappel.getIdRappel(), new RegistreRappelsService.Issue(RappelRendezVous.StatutRappel.ANNULE, null, null));
+            compteurs.annules.incrementAndGet();
+            return null;
+        }
+        if (!rdv.getDateHeure().isAfter(maintenant)) {
+            issues.put(rappel.getIdRappel(), new RegistreRappelsService.Issue(RappelRendezVous.StatutRappel.EXPIRE, null, null));
+            compteurs.annules.incrementAndGet();
+            return null;
+        }
+        // Rendez-vous reporté depuis la planification : le rappel est décalé d'autant
+        LocalDateTime datePrevue = rdv.getDateHeure().minusMinutes(rappel.getDecalageMinutes());
+        if (datePrevue.isAfter(maintenant.plusMinutes(1))) {
+            issues.put(rappel.getIdRappel(),
+                    new RegistreRappelsService.Issue(RappelRendezVous.StatutRappel.A_ENVOYER, datePrevue, null));
+            compteurs.replanifies.incrementAndGet();
+            return null;
+        }
+
+        long joursAvant = ChronoUnit.DAYS.between(LocalDate.now(), rdv.getDateHeure().toLocalDate());
+        String texte = String.format("""
+                Bonjour %s %s,
+                
+                Ceci est un rappel : vous avez un rendez-vous %s.
+                📅 Date : %s à %s
+                🔎 Motif : %s
+                
+                Merci de confirmer votre présence.
+                
+                Santé Sénégal""",
+                rdv.getPrenomPatient(), rdv.getNomPatient(),
+                joursAvant <= 0 ? "aujourd'hui" : "dans " + joursAvant + " jour(s)",
+                rdv.getDateHeure().format(FORMAT_DATE), rdv.getDateHeure().format(FORMAT_HEURE), rdv.getMotif());
+        String email = rdv.getEmailPatient();
+        String domaine = email.substring(email.lastIndexOf('@') + 1).toLowerCase(Locale.ROOT);
+        return new Message(rappel, email, domaine, texte);
+    }
+
+    private RegistreRappelsService.Issue echec(RappelRendezVous rappel, Exception e) {
+        if (rappel.getTentatives() >= tentativesMax) {
+            return new RegistreRappelsService.Issue(RappelRendezVous.StatutRappel.ECHEC, null, e.getMessage());
+        }
+        // Nouvelle tentative différée, de plus en plus tard
+        return new RegistreRappelsService.Issue(RappelRendezVous.StatutRappel.A_ENVOYER,
+                LocalDateTime.now().plusMinutes(5L * rappel.getTentatives()), e.getMessage());
+    }
+
+    private LimiteurDebit limiteur(String domaine) {
+        return limiteurs.computeIfAbsent(domaine, d -> new LimiteurDebit(debitsConfigures().getOrDefault(d, debitDefaut)));
+    }
+
+    private Map<String, Double> debitsConfigures() {
+        Map<String, Double> debits = new HashMap<>();
+        for (String entree : debitsParDomaine.split(",")) {
+            String[] cleValeur = entree.split("=");
+            if (cleValeur.length == 2) {
+                debits.put(cleValeur[0].trim().toLowerCase(Locale.ROOT), Double.parseDouble(cleValeur[1].trim()));
+            }
+        }
+        return debits;
+    }
+
+    /**
+     * Décalages configurés, en minutes, indexés par type de rappel
+     */
+    private Map<String, Integer> decalagesConfigures() {
+        Map<String, Integer> resultat = new LinkedHashMap<>();
+        for (String entree : decalages.split(",")) {
+            String type = entree.trim().toLowerCase(Locale.ROOT);
+            if (type.isEmpty()) {
+                continue;
+            }
+            int valeur = Integer.parseInt(type.substring(0, type.length() - 1));
+            int minutes = switch (type.charAt(type.length() - 1)) {
+                case 'j' -> valeur * 24 * 60;
+                case 'h' -> valeur * 60;
+                case 'm' -> valeur;
+                default -> throw new IllegalStateException("Décalage de rappel invalide: " + entree);
+            };
+            resultat.put(type, minutes);
+        }
+        return resultat;
+    }
+
+    private record Message(RappelRendezVous rappel, String email, String domaine, String texte) {
+    }
+
+    private static final class Compteurs {
+        private final AtomicLong lots = new AtomicLong();
+        private final AtomicLong selectionnes = new AtomicLong();
+        private final AtomicLong envoyes = new AtomicLong();
+        private final AtomicLong echecs = new AtomicLong();
+        private final AtomicLong annules = new AtomicLong();
+        private final AtomicLong replanifies = new AtomicLong();
+    }
+}
@@ -0,0 +1,27 @@
+package com.sante.senegal.services.implementations;
+
+import com.sante.senegal.entities.JourFerie;
+import com.sante.senegal.repositories.JourFerieRepository;
+import lombok.RequiredArgsConstructor;
+import org.springframework.stereotype.Service;
+import org.springframework.transaction.annotation.Transactional;
+
+import java.util.List;
+
+/**
+ * Écriture transactionnelle des jours fériés d'une source : l'ancien jeu est remplacé d'un bloc,
+ * une synchronisation interrompue ne laisse jamais une année à moitié vidée.
+ */
+@Service
+@RequiredArgsConstructor
+@Transactional
+public class RegistreJoursFeriesService {
+
+    private final JourFerieRepository jourFerieRepository;
+
+    public int remplacer(int annee, String sourceApi, List<JourFerie> joursFeries) {
+        jourFerieRepository.deleteBySourceApiAndAnnee(sourceApi, annee);
+        jourFerieRepository.saveAll(joursFeries);
+        return joursFeries.size();
+    }
+}
@@ -0,0 +1,88 @@
+package com.sante.senegal.services.implementations;
+
+import com.sante.senegal.entities.RappelRendezVous;
+import com.sante.senegal.entities.RendezVous;
+import com.sante.senegal.repositories.RappelRendezVousRepository;
+import lombok.RequiredArgsConstructor;
+import org.springframework.data.domain.PageRequest;
+import org.springframework.stereotype.Service;
+import org.springframework.transaction.annotation.Transactional;
+
+import java.time.Duration;
+import java.time.LocalDateTime;
+import java.util.Collection;
+import java.util.EnumSet;
+import java.util.List;
+import java.util.Map;
+
+/**
+ * Accès transactionnel au registre des rappels : chaque opération est courte et validée
+ * indépendamment, aucun envoi n'a lieu pendant une transaction.
+ */
+@Service
+@RequiredArgsConstructor
+@Transactional
+public class RegistreRappelsService {
+
+    public static final Collection<RendezVous.StatutRendezVous> STATUTS_ELIGIBLES =
+            EnumSet.of(RendezVous.StatutRendezVous.PROGRAMME, RendezVous.StatutRendezVous.CONFIRME);
+    private static final Collection<RappelRendezVous.StatutRappel> STATUTS_TERMINES = EnumSet.of(
+            RappelRendezVous.StatutRappel.ENVOYE, RappelRendezVous.StatutRappel.ECHEC,
+            RappelRendezVous.StatutRappel.ANNULE, RappelRendezVous.StatutRappel.EXPIRE);
+    private static final int LONGUEUR_ERREUR = 500;
+
+    private final RappelRendezVousRepository rappelRepository;
+
+    /**
+     * Issue d'un rappel pris en charge ; datePrevue n'est renseignée que pour une nouvelle tentative
+     */
+    public record Issue(RappelRendezVous.StatutRappel statut, LocalDateTime datePrevue, String erreur) {
+    }
+
+    public int planifier(String typeRappel, int decalageMinutes, LocalDateTime maintenant, LocalDateTime limite) {
+        return rappelRepository.planifier(typeRappel, decalageMinutes, maintenant, limite,
+                STATUTS_ELIGIBLES.stream().map(Enum::name).toList());
+    }
+
+    /**
+     * Prend un lot de rappels dus : ils passent EN_COURS sous bail avant la validation,
+     * les autres envoyeurs ne les verront plus avant l'expiration du bail
+     */
+    public List<RappelRendezVous> reserverLot(int taille, Duration bail) {
+        LocalDateTime maintenant = LocalDateTime.now();
+        List<RappelRendezVous> lot = rappelRepository.findDusPourEnvoi(maintenant, PageRequest.of(0, taille));
+        for (RappelRendezVous rappel : lot) {
+            rappel.setStatut(RappelRendezVous.StatutRappel.EN_COURS);
+            rappel.setBailJusqua(maintenant.plus(bail));
+            rappel.setTentatives(rappel.getTentatives() + 1);
+        }
+        return lot;
+    }
+
+    public void enregistrer(Map<Long, Issue> issues) {
+        LocalDateTime maintenant = LocalDateTime.now();
+        for (RappelRendezVous rappel : rappelRepository.findAllById(issues.keySet())) {
+            Issue issue = issues.get(rappel.getIdRappel());
+            rappel.setStatut(issue.statut());
+            rappel.setBailJusqua(null);
+            if (issue.datePrevue() != null) {
+                rappel.setDatePrevue(issue.datePrevue());
+                // Simple report du rendez-vous : la prise du lot ne compte pas comme une tentative
+                if (issue.erreur() == null) {
+                    rappel.setTentatives(rappel.getTentatives() - 1);
+                }
+            }
+            if (issue.statut() == RappelRendezVous.StatutRappel.ENVOYE) {
+                rappel.setDateEnvoi(maintenant);
+            }
+            if (issue.erreur() != null) {
+                rappel.setDerniereErreur(issue.erreur().length() > LONGUEUR_ERREUR
+                        ? issue.erreur().substring(0, LONGUEUR_ERREUR) : issue.erreur());
+            }
+        }
+    }
+
+    public int purger(LocalDateTime avant) {
+        return rappelRepository.supprimerAnciens(avant, STATUTS_TERMINES);
+    }
+}
@@ -1,28 +1,33 @@
 package com.sante.senegal.services.implementations;
 
+import com.sante.senegal.composants.CurseurPagination;
+import com.sante.senegal.dto.PageCurseurDto;
 import com.sante.senegal.dto.RendezVousDto;
 import com.sante.senegal.dto.RendezVousRequestDto;
 import com.sante.senegal.entities.Planning;
 import com.sante.senegal.entities.RendezVous;
-import com.sante.senegal.entities.Utilisateur;
+import com.sante.senegal.events.CreneauLibereEvent;
+import com.sante.senegal.events.RendezVousModifieEvent;
+import com.sante.senegal.mappers.RendezVousMapper;
 import com.sante.senegal.repositories.PlanningRepository;
 import com.sante.senegal.repositories.RendezVousRepository;
 
 import com.sante.senegal.services.interfaces.DisponibiliteService;
-import com.sante.senegal.services.interfaces.EmailService;
 import com.sante.senegal.services.interfaces.RendezVousService;
 import jakarta.persistence.EntityNotFoundException;
 import lombok.RequiredArgsConstructor;
 import lombok.extern.slf4j.Slf4j;
-import org.modelmapper.ModelMapper;
-import org.springframework.scheduling.annotation.Scheduled;
+import org.springframework.context.ApplicationEventPublisher;
+import org.springframework.data.domain.Pageable;
 import org.springframework.stereotype.Service;
 import org.springframework.transaction.annotation.Transactional;
 
 import java.time.LocalDateTime;
 import java.util.List;
 import java.util.Optional;
-import java.util.stream.Collectors;
+import java.util.function.Consumer;
+import java.util.function.Function;
+import java.util.stream.Stream;
 
 @Service
 @RequiredArgsConstructor
@@ -33,67 +38,110 @@ public class RendezVousServiceImpl implements RendezVousService {
     private final RendezVousRepository rendezVousRepository;
 
     private final PlanningRepository planningRepository;
-    private final EmailService emailService;
     private final DisponibiliteService disponibiliteService;
-    private final ModelMapper modelMapper;
+    private final RendezVousMapper rendezVousMapper;
+    private final BlocageCreneauService blocageCreneaux;
+    private final AllocationUrgenceService allocationUrgence;
+    private final AllocationIntervallesService allocationIntervalles;
+    private final ApplicationEventPublisher eventPublisher;
+    private final NotificationService notificationService;
 
     @Override
     public List<RendezVousDto> getAllRendezVous() {
-        return rendezVousRepository.findAll().stream()
-                .map(rdv -> modelMapper.map(rdv, RendezVousDto.class))
-                .collect(Collectors.toList());
+        return rendezVousRepository.findAllDto();
     }
 
     @Override
     public RendezVousDto getRendezVousById(Long id) {
-        return modelMapper.map(rendezVousRepository.findById(id)
-                .orElseThrow(() -> new EntityNotFoundException("RDV non trouvé avec l'ID: " + id)), RendezVousDto.class);
+        return rendezVousRepository.findDtoById(id)
+                .orElseThrow(() -> new EntityNotFoundException("RDV non trouvé avec l'ID: " + id));
     }
 
     @Override
     public List<RendezVousDto> getRendezVousByPatient(Long idPatient) {
-        return rendezVousRepository.findByPatientId(idPatient).stream()
-                .map(rdv -> modelMapper.map(rdv, RendezVousDto.class))
-                .collect(Collectors.toList());
+        return rendezVousRepository.findDtoByPatient(idPatient);
     }
 
     @Override
     public List<RendezVousDto> getRendezVousByMedecin(Long idMedecin) {
-        return rendezVousRepository.findByMedecinId(idMedecin).stream()
-                .map(rdv -> modelMapper.map(rdv, RendezVousDto.class))
-                .collect(Collectors.toList());
+        return rendezVousRepository.findDtoByMedecin(idMedecin);
     }
 
     @Override
     public List<RendezVousDto> getRendezVousByService(Long idService) {
-        return rendezVousRepository.findByServiceIdService(idService).stream()
-                .map(rdv -> modelMapper.map(rdv, RendezVousDto.class))
-                .collect(Collectors.toList());
+        return rendezVousRepository.findDtoByService(idService);
     }
 
     @Override
     public List<RendezVousDto> getRendezVousByHopital(Long idHopital) {
-        return rendezVousRepository.findByHopitalIdHopital(idHopital).stream()
-                .map(rdv -> modelMapper.map(rdv, RendezVousDto.class))
-                .collect(Collectors.toList());
+        return rendezVousRepository.findDtoByHopital(idHopital);
+    }
+
+    @Override
+    @Transactional(readOnly = true)
+    public PageCurseurDto<RendezVousDto> getPageRendezVous(String curseur, Integer taille) {
+        return pageRendezVous(curseur, taille,
+                limite -> rendezVousRepository.findPageApres(limite.apresDate(), limite.apresId(), limite.pageable()));
+    }
+
+    @Override
+    @Transactional(readOnly = true)
+    public PageCurseurDto<RendezVousDto> getPageRendezVousByStatut(RendezVous.StatutRendezVous statut, String curseur, Integer taille) {
+        return pageRendezVous(curseur, taille, limite -> rendezVousRepository.findPageParStatutApres(
+                statut, limite.apresDate(), limite.apresId(), limite.pageable()));
+    }
+
+    @Override
+    @Transactional(readOnly = true)
+    public PageCurseurDto<RendezVousDto> getPageRendezVousByHopital(Long idHopital, String curseur, Integer taille) {
+        return pageRendezVous(curseur, taille, limite -> rendezVousRepository.findPageParHopitalApres(
+                idHopital, limite.apresDate(), limite.apresId(), limite.pageable()));
+    }
+
+    @Override
+    @Transactional(readOnly = true)
+    public PageCurseurDto<RendezVousDto> getPageRendezVousByService(Long idService, String curseur, Integer taille) {
+        return pageRendezVous(curseur, taille, limite -> rendezVousRepository.findPageParServiceApres(
+                idService, limite.apresDate(), limite.apresId(), limite.pageable()));
+    }
+
+    @Override
+    @Transactional(readOnly = true)
+    public PageCurseurDto<RendezVousDto> getPageRendezVousByMedecin(Long idMedecin, String curseur, Integer taille) {
+        return pageRendezVous(curseur, taille, limite -> rendezVousRepository.findPageParMedecinApres(
+                idMedecin, limite.apresDate(), limite.apresId(), limite.pageable()));
+    }
+
+    /**
+     * Page triée sur (dateHeure, idRdv) : le curseur porte la clé du dernier rendez-vous renvoyé
+     */
+    private PageCurseurDto<RendezVousDto> pageRendezVous(String curseur, Integer taille,
+                                                          Function<LimitePage, List<RendezVousDto>> requete) {
+        int tailleEffective = CurseurPagination.taille(taille);
+        String[] cle = CurseurPagination.decoder(curseur, 2);
+        List<RendezVousDto> lignes = requete.apply(new LimitePage(
+                CurseurPagination.dateHeure(cle, 0),
+                CurseurPagination.identifiant(cle, 1),
+                CurseurPagination.limite(tailleEffective)));
+        return CurseurPagination.page(lignes, tailleEffective, Function.identity(),
+                rdv -> CurseurPagination.encoder(rdv.getDateHeure(), rdv.getIdRdv()));
+    }
+
+    private record LimitePage(LocalDateTime apresDate, Long apresId, Pageable pageable) {
     }
 
     @Override
     public List<RendezVousDto> getRendezVousByStatut(RendezVous.StatutRendezVous statut) {
-        return rendezVousRepository.findByStatut(statut).stream()
-                .map(rdv -> modelMapper.map(rdv, RendezVousDto.class))
-                .collect(Collectors.toList());
+        return rendezVousRepository.findDtoByStatut(statut);
     }
 
     @Override
     public List<RendezVousDto> getRendezVousByNiveauUrgence(RendezVous.NiveauUrgence niveauUrgence) {
-        return rendezVousRepository.findByNiveauUrgence(niveauUrgence).stream()
-                .map(rdv -> modelMapper.map(rdv, RendezVousDto.class))
-                .collect(Collectors.toList());
+        return rendezVousRepository.findDtoByNiveauUrgence(niveauUrgence);
     }
     @Override
     public RendezVousDto createRendezVous(RendezVousRequestDto dto) {
-        RendezVous rdv = modelMapper.map(dto, RendezVous.class);
+        RendezVous rdv = rendezVousMapper.toEntity(dto);
 
         // Trouver un créneau disponible dans le planning
         Optional<Planning> creneauDisponible = planningRepository
@@ -108,14 +156,20 @@ public class RendezVousServiceImpl implements RendezVousService {
 
         if (creneauDisponible.isPresent()) {
             Planning creneau = creneauDisponible.get();
+            blocageCreneaux.verifierAccessible(creneau.getIdPlanning(), dto.getIdPatient());
+            allocationUrgence.verifierAccessible(idService(creneau), creneau.getDate(), creneau.getHeureDebut(),
+                    rdv.getNiveauUrgence());
+            if (rdv.getDureePrevue() == null) {
+                rdv.setDureePrevue(AllocationIntervallesService.dureeConsultation(rdv.getTypeConsultation()));
+            }
             // Sauvegarder d'abord le rendez-vous
             RendezVous savedRdv = rendezVousRepository.save(rdv);
-            // Associer le rendez-vous au créneau et réserver
-            creneau.setRendezVous(savedRdv);
-            creneau.setReserve(true);
-            planningRepository.save(creneau);
+            // Associer le rendez-vous à l'intervalle, pour sa durée exacte, seulement s'il est encore libre
+            allocationIntervalles.allouer(creneau, savedRdv, savedRdv.getDureePrevue());
+            allocationUrgence.enregistrer(idService(creneau), creneau.getDate(), rdv.getNiveauUrgence());
+            eventPublisher.publishEvent(new RendezVousModifieEvent(savedRdv.getIdRdv()));
 
-            return modelMapper.map(savedRdv, RendezVousDto.class);
+            return rendezVousMapper.toDto(savedRdv);
         }
         throw new IllegalStateException("Aucun créneau disponible trouvé pour ce médecin à cette heure.");
     }
@@ -126,13 +180,11 @@ public class RendezVousServiceImpl implements RendezVousService {
                 .orElseThrow(() -> new EntityNotFoundException("RDV non trouvé"));
 
         // Libérer le créneau associé
-        planningRepository.findByRendezVousIdRdv(id).ifPresent(creneau -> {
-            creneau.setRendezVous(null);
-            creneau.setReserve(false);
-            planningRepository.save(creneau);
-        });
+        libererCreneauDuRendezVous(id);
+        allocationUrgence.liberer(rdv);
 
         rendezVousRepository.deleteById(id);
+        eventPublisher.publishEvent(new RendezVousModifieEvent(id));
     }
 
     @Override
@@ -141,11 +193,8 @@ public class RendezVousServiceImpl implements RendezVousService {
                 .orElseThrow(() -> new EntityNotFoundException("RDV non trouvé"));
 
         // Libérer le créneau associé
-        planningRepository.findByRendezVousIdRdv(id).ifPresent(creneau -> {
-            creneau.setRendezVous(null);
-            creneau.setReserve(false);
-            planningRepository.save(creneau);
-        });
+        libererCreneauDuRendezVous(id);
+        allocationUrgence.liberer(rdv);
 
         return changeStatutRendezVous(id, RendezVous.StatutRendezVous.ANNULE);
     }
@@ -155,12 +204,9 @@ public class RendezVousServiceImpl implements RendezVousService {
         RendezVous rdv = rendezVousRepository.findById(id)
                 .orElseThrow(() -> new EntityNotFoundException("RDV non trouvé"));
 
-        // Libérer l'ancien créneau
-        planningRepository.findByRendezVousIdRdv(id).ifPresent(creneau -> {
-            creneau.setRendezVous(null);
-            creneau.setReserve(false);
-            planningRepository.save(creneau);
-        });
+        // Libérer l'ancien créneau, et sa place dans la réserve d'urgence de l'ancienne date
+        libererCreneauDuRendezVous(id);
+        allocationUrgence.liberer(rdv);
 
         // Trouver un nouveau créneau disponible
         Optional<Planning> nouveauCreneau = planningRepository
@@ -175,16 +221,20 @@ public class RendezVousServiceImpl implements RendezVousService {
 
         if (nouveauCreneau.isPresent()) {
             Planning creneau = nouveauCreneau.get();
-            creneau.setRendezVous(rdv);
-            creneau.setReserve(true);
-            planningRepository.save(creneau);
+            blocageCreneaux.verifierAccessible(creneau.getIdPlanning(), rdv.getPatient().getId());
+            allocationUrgence.verifierAccessible(idService(creneau), creneau.getDate(), creneau.getHeureDebut(),
+                    rdv.getNiveauUrgence());
+            int duree = rdv.getDureePrevue() != null
+                    ? rdv.getDureePrevue() : AllocationIntervallesService.dureeConsultation(rdv.getTypeConsultation());
+            allocationIntervalles.allouer(creneau, rdv, duree);
+            allocationUrgence.enregistrer(idService(creneau), creneau.getDate(), rdv.getNiveauUrgence());
         } else {
             throw new IllegalStateException("Aucun créneau disponible trouvé pour la nouvelle date");
         }
 
         rdv.setDateHeure(nouvelleDate);
         rdv.setStatut(RendezVous.StatutRendezVous.REPORTE);
-        return modelMapper.map(rendezVousRepository.save(rdv), RendezVousDto.class);
+        return enregistrer(rdv);
     }
 
     @Override
@@ -195,15 +245,31 @@ public class RendezVousServiceImpl implements RendezVousService {
             throw new IllegalStateException("Le RDV n'est pas en cours.");
 
         // Libérer le créneau associé
-        planningRepository.findByRendezVousIdRdv(id).ifPresent(creneau -> {
-            creneau.setRendezVous(null);
-            creneau.setReserve(false);
-            planningRepository.save(creneau);
-        });
+        libererCreneauDuRendezVous(id);
 
         return changeStatutRendezVous(id, RendezVous.StatutRendezVous.TERMINE);
     }
 
+    /**
+     * Sauvegarde le rendez-vous et signale la modification (agenda des médecins)
+     */
+    private RendezVousDto enregistrer(RendezVous rdv) {
+        RendezVous saved = rendezVousRepository.save(rdv);
+        eventPublisher.publishEvent(new RendezVousModifieEvent(saved.getIdRdv()));
+        return rendezVousMapper.toDto(saved);
+    }
+
+    private static Long idService(Planning creneau) {
+        return creneau.getService() != null ? creneau.getService().getIdService() : null;
+    }
+
+    private void libererCreneauDuRendezVous(Long idRdv) {
+        planningRepository.findByRendezVousIdRdv(idRdv).ifPresent(creneau -> {
+            allocationIntervalles.liberer(creneau);
+            eventPublisher.publishEvent(new CreneauLibereEvent(creneau.getIdPlanning()));
+        });
+    }
+
     private boolean isMedecinAvailable(Long idMedecin, LocalDateTime dateHeure) {
         return planningRepository.existsByMedecinIdAndDateAndHeureDebutAndReserve(
                 idMedecin,
@@ -215,23 +281,27 @@ public class RendezVousServiceImpl implements RendezVousService {
 
     @Override
     public List<RendezVousDto> getRendezVousBetweenDates(LocalDateTime dateDebut, LocalDateTime dateFin) {
-        return rendezVousRepository.findRendezVousBetweenDates(dateDebut, dateFin).stream()
-                .map(rdv -> modelMapper.map(rdv, RendezVousDto.class))
-                .collect(Collectors.toList());
+        return rendezVousRepository.findDtoBetweenDates(dateDebut, dateFin);
+    }
+
+    @Override
+    @Transactional(readOnly = true)
+    public void parcourirRendezVousBetweenDates(LocalDateTime dateDebut, LocalDateTime dateFin, Long idHopital, Long idMedecin,
+                                                Consumer<RendezVousDto> consommateur) {
+        // Projection : aucune entité n'entre dans le contexte de persistance, la mémoire reste constante
+        try (Stream<RendezVousDto> rdvs = rendezVousRepository.streamDtoBetweenDates(dateDebut, dateFin, idHopital, idMedecin)) {
+            rdvs.forEach(consommateur);
+        }
     }
 
     @Override
     public List<RendezVousDto> getUpcomingRendezVousByPatient(Long idPatient) {
-        return rendezVousRepository.findUpcomingRendezVousByPatient(idPatient).stream()
-                .map(rdv -> modelMapper.map(rdv, RendezVousDto.class))
-                .collect(Collectors.toList());
+        return rendezVousRepository.findUpcomingDtoByPatient(idPatient);
     }
 
     @Override
     public List<RendezVousDto> getOverdueRendezVous() {
-        return rendezVousRepository.findOverdueRendezVous(LocalDateTime.now()).stream()
-                .map(rdv -> modelMapper.map(rdv, RendezVousDto.class))
-                .collect(Collectors.toList());
+        return rendezVousRepository.findOverdueDto(LocalDateTime.now());
     }
 
     @Override
@@ -260,7 +330,7 @@ public class RendezVousServiceImpl implements RendezVousService {
 
         rdv.setDateHeure(nouvelleDate);
         rdv.setDureePrevue(nouvelleDuree);
-        return modelMapper.map(rendezVousRepository.save(rdv), RendezVousDto.class);
+        return enregistrer(rdv);
     }
 
     @Override
@@ -268,8 +338,8 @@ public class RendezVousServiceImpl implements RendezVousService {
         RendezVous rdv = rendezVousRepository.findById(id)
                 .orElseThrow(() -> new EntityNotFoundException("RDV non trouvé"));
 
-        modelMapper.map(dto, rdv);
-        return modelMapper.map(rendezVousRepository.save(rdv), RendezVousDto.class);
+        rendezVousMapper.mettreAJour(dto, rdv);
+        return enregistrer(rdv);
     }
 
     @Override
@@ -277,14 +347,11 @@ public class RendezVousServiceImpl implements RendezVousService {
         RendezVous rdv = rendezVousRepository.findById(id)
                 .orElseThrow(() -> new EntityNotFoundException("RDV non trouvé"));
         rdv.setStatut(statut);
-        return modelMapper.map(rendezVousRepository.save(rdv), RendezVousDto.class);
+        return enregistrer(rdv);
     }
     @Override
     public List<RendezVousDto> getRendezVousProgrammesPourMedecin(Long idMedecin) {
-        List<RendezVous> rdvs = rendezVousRepository.findByMedecinIdAndStatut(idMedecin, RendezVous.StatutRendezVous.PROGRAMME);
-        return rdvs.stream()
-                .map(rdv -> modelMapper.map(rdv, RendezVousDto.class))
-                .collect(Collectors.toList());
+        return rendezVousRepository.findDtoByMedecinAndStatut(idMedecin, RendezVous.StatutRendezVous.PROGRAMME);
     }
 
 
@@ -298,7 +365,8 @@ public class RendezVousServiceImpl implements RendezVousService {
         }
 
         rdv.setStatut(RendezVous.StatutRendezVous.CONFIRME);
-        return modelMapper.map(rendezVousRepository.save(rdv), RendezVousDto.class);
+        notificationService.notifierRendezVousConfirme(rdv);
+        return enregistrer(rdv);
     }
 
     @Override
@@ -308,69 +376,24 @@ public class RendezVousServiceImpl implements RendezVousService {
 
     @Override
     public List<RendezVousDto> getRendezVousUrgents() {
-        return rendezVousRepository.findByNiveauUrgence(RendezVous.NiveauUrgence.TRES_URGENT).stream()
-                .map(rdv -> modelMapper.map(rdv, RendezVousDto.class))
-                .collect(Collectors.toList());
+        return rendezVousRepository.findDtoByNiveauUrgence(RendezVous.NiveauUrgence.TRES_URGENT);
     }
 
     @Override
     public List<RendezVousDto> getRendezVousDuJour(LocalDateTime date) {
         LocalDateTime debut = date.toLocalDate().atStartOfDay();
         LocalDateTime fin = debut.plusDays(1).minusSeconds(1);
-        return rendezVousRepository.findRendezVousBetweenDates(debut, fin).stream()
-                .map(rdv -> modelMapper.map(rdv, RendezVousDto.class))
-                .collect(Collectors.toList());
-    }
-
-    @Override
-    @Scheduled(cron = "0 0 8 * * *")
-    public void envoyerRappelsRendezVous() {
-        LocalDateTime maintenant = LocalDateTime.now();
-        envoyerRappelsPourJour(maintenant.plusDays(1), 1);
-        envoyerRappelsPourJour(maintenant.plusDays(7), 7);
-    }
-
-    private void envoyerRappelsPourJour(LocalDateTime jour, int joursAvant) {
-        LocalDateTime debut = jour.withHour(0).withMinute(0).withSecond(0);
-        LocalDateTime fin = jour.withHour(23).withMinute(59).withSecond(59);
-
-        rendezVousRepository.findRendezVousBetweenDates(debut, fin).forEach(rdv -> {
-            if (rdv.getStatut() != RendezVous.StatutRendezVous.PROGRAMME &&
-                    rdv.getStatut() != RendezVous.StatutRendezVous.CONFIRME) return;
-
-            Utilisateur patient = rdv.getPatient();
-            String date = rdv.getDateHeure().toLocalDate().toString();
-            String heure = rdv.getDateHeure().toLocalTime().toString();
-            String sujet = "Rappel de votre rendez-vous médical";
-            String message = String.format("""
-                Bonjour %s %s,
-                
-                Ceci est un rappel : vous avez un rendez-vous dans %d jour(s).
-                📅 Date : %s à %s
-                🔎 Motif : %s
-                
-                Merci de confirmer votre présence.
-                
-                Santé Sénégal""",
-                    patient.getPrenom(), patient.getNom(), joursAvant, date, heure, rdv.getMotif());
-
-            emailService.envoyerNotificationRendezVous(patient.getEmail(), sujet, message);
-            log.info("Rappel envoyé à {} pour RDV {}", patient.getEmail(), rdv.getIdRdv());
-        });
+        return rendezVousRepository.findDtoBetweenDates(debut, fin);
     }
 
     @Override
     public List<RendezVousDto> getRendezVousByMedecinAndDateRange(Long idMedecin, LocalDateTime dateDebut, LocalDateTime dateFin) {
-        return rendezVousRepository.findByMedecinAndDateRange(idMedecin, dateDebut, dateFin).stream()
-                .map(rdv -> modelMapper.map(rdv, RendezVousDto.class))
-                .collect(Collectors.toList());
+        return rendezVousRepository.findDtoByMedecinAndDateRange(idMedecin, dateDebut, dateFin);
 
     }
     @Override
     public List<RendezVousDto> getUpcomingRendezVousByMedecin(Long idMedecin) {
-        return rendezVousRepository.findUpcomingRendezVousByMedecin(idMedecin).stream()
-                .map(rdv -> modelMapper.map(rdv, RendezVousDto.class))
-                .collect(Collectors.toList());
+        return rendezVousRepository.findUpcomingDtoByMedecin(idMedecin);
     }
 
 
@@ -23,6 +23,7 @@ import java.util.stream.Collectors;
 public class ServiceHospitalierServiceImpl implements ServiceHospitalierService {
 
     private final ServiceRepository serviceRepository;
+    private final ImpactCalendrierService impactCalendrierService;
     private final ModelMapper modelMapper;
 
     @Override
@@ -106,6 +107,11 @@ public class ServiceHospitalierServiceImpl implements ServiceHospitalierService
                 .orElseThrow(() -> new EntityNotFoundException("Service non trouvé avec l'ID: " + id));
         service.setStatut(nouveauStatut);
         log.info("Changement de statut du service {} vers {}", service.getNom(), nouveauStatut);
-        return modelMapper.map(serviceRepository.save(service), ServiceDto.class);
+        ServiceDto dto = modelMapper.map(serviceRepository.save(service), ServiceDto.class);
+        if (nouveauStatut != StatutService.ACTIF) {
+            impactCalendrierService.appliquerFermetureService(id,
+                    "Service " + service.getNom() + " " + nouveauStatut.name().toLowerCase());
+        }
+        return dto;
     }
 }
@@ -8,11 +8,13 @@ import java.time.LocalTime;
 import java.util.List;
 import java.util.Map;
 import java.util.Optional;
+import java.util.function.Consumer;
 
 public interface DisponibiliteService {
 
     // Méthodes CRUD de base
     List<DisponibiliteResponseDto> getAllDisponibilites();
+    PageCurseurDto<DisponibiliteResponseDto> getPageDisponibilites(String curseur, Integer taille);
     Optional<DisponibiliteResponseDto> getDisponibiliteById(Long id);
     DisponibiliteResponseDto createDisponibilite(DisponibiliteRequestDto requestDto);
     DisponibiliteResponseDto updateDisponibilite(Long id, DisponibiliteRequestDto requestDto);
@@ -31,6 +33,9 @@ public interface DisponibiliteService {
     List<DisponibiliteResponseDto> getByMedecinDateAndStatut(Long idMedecin, LocalDate date,
                                                              Disponibilite.StatutDisponibilite statut);
     List<DisponibiliteResponseDto> getAvailableDisponibilitesBetweenDates(LocalDate dateDebut, LocalDate dateFin);
+    void parcourirDisponibilitesBetweenDates(LocalDate dateDebut, LocalDate dateFin, Long idService, Long idHopital,
+                                             Disponibilite.StatutDisponibilite statut,
+                                             Consumer<DisponibiliteResponseDto> consommateur);
     List<DisponibiliteResponseDto> getDisponibilitesByServiceBetweenDates(Long idService, LocalDate dateDebut,
                                                                           LocalDate dateFin);
     List<DisponibiliteResponseDto> getDisponibilitesByHopitalBetweenDates(Long idHopital, LocalDate dateDebut,
@@ -48,7 +53,11 @@ public interface DisponibiliteService {
 
     // Méthodes de gestion du statut
     DisponibiliteResponseDto changeStatutDisponibilite(Long id, Disponibilite.StatutDisponibilite nouveauStatut);
-    void marquerAbsence(Long medecinId, LocalDate dateDebut, LocalDate dateFin, String motif);
+    /**
+     * Marque le médecin absent : disponibilités, créneaux et rendez-vous de la période sont traités en masse
+     * @return le bilan de l'impact
+     */
+    ImpactCalendrierDto marquerAbsence(Long medecinId, LocalDate dateDebut, LocalDate dateFin, String motif);
 
     // Méthodes de génération et planification
     void genererDisponibilites(Long medecinId, Long serviceId, Long hopitalId,
@@ -0,0 +1,47 @@
+package com.sante.senegal.services.interfaces;
+
+import com.sante.senegal.dto.ListeAttenteDto;
+import com.sante.senegal.dto.ListeAttenteRequestDto;
+import com.sante.senegal.dto.PlanningDto;
+
+import java.util.List;
+
+/**
+ * Interface pour la gestion de la liste d'attente des créneaux
+ */
+public interface ListeAttenteService {
+
+    /**
+     * Inscrit un patient sur la liste d'attente d'un médecin ou d'un service
+     * @throws RuntimeException si le patient, le médecin ou le service n'est pas trouvé
+     * @throws IllegalArgumentException si la demande est incomplète
+     */
+    ListeAttenteDto inscrire(ListeAttenteRequestDto request);
+
+    /**
+     * Récupère les inscriptions d'un patient, les plus récentes d'abord
+     */
+    List<ListeAttenteDto> getInscriptionsPatient(Long idPatient);
+
+    /**
+     * Retire une inscription de la liste d'attente et libère l'offre éventuelle
+     */
+    void annulerInscription(Long idListeAttente);
+
+    /**
+     * Accepte le créneau proposé : le rendez-vous est réservé au nom du patient
+     * @throws IllegalStateException si aucune offre n'est en cours ou si elle a expiré
+     */
+    PlanningDto accepterOffre(Long idListeAttente);
+
+    /**
+     * Refuse le créneau proposé : l'inscription reste en attente et le créneau passe au suivant
+     */
+    ListeAttenteDto refuserOffre(Long idListeAttente);
+
+    /**
+     * Propose un créneau libéré à l'inscription la mieux classée et le bloque pour elle
+     * @param idListeAttenteExclue inscription à ignorer (offre refusée ou expirée), ou null
+     */
+    void proposerCreneau(Long idPlanning, Long idListeAttenteExclue);
+}
@@ -41,6 +41,11 @@ public interface PatientService {
     Patient getPatientById(Long id);
     List<Patient> getPatients();
 
+    /**
+     * Patients d'identifiant strictement supérieur à apresId, par identifiant croissant
+     */
+    List<Patient> getPatientsApres(Long apresId, int nombre);
+
     /**
      * Vérification de l'existence d'un email
      */
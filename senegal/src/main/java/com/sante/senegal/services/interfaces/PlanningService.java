@@ -1,5 +1,8 @@
 package com.sante.senegal.services.interfaces;
 
+import com.sante.senegal.dto.BlocageCreneauDto;
+import com.sante.senegal.dto.CriteresCreneauDto;
+import com.sante.senegal.dto.GenerationPlanningResultatDto;
 import com.sante.senegal.dto.PlanningDto;
 import com.sante.senegal.dto.PlanningReservationRequestDto;
 import com.sante.senegal.entities.Planning;
@@ -12,8 +15,9 @@ public interface PlanningService {
 
     /**
      * Génère les plannings pour un médecin dans un hôpital pour le mois suivant
+     * (insertion en batch des seuls créneaux manquants)
      */
-    void genererPlanningsPourUnMois(Long idMedecin, Long idHopital);
+    GenerationPlanningResultatDto genererPlanningsPourUnMois(Long idMedecin, Long idHopital);
 
     /**
      * Récupère les plannings d'un médecin sur une période donnée
@@ -66,9 +70,27 @@ public interface PlanningService {
      */
     boolean isCreneauDisponible(Long idPlanning);
 
+    /**
+     * Bloque temporairement un créneau pour un patient le temps de finaliser sa réservation,
+     * sans créer de rendez-vous. Un nouvel appel du même patient prolonge le blocage.
+     * @param dureeSecondes durée souhaitée, plafonnée ; null pour la durée par défaut
+     */
+    BlocageCreneauDto bloquerCreneau(Long idPlanning, Long idPatient, Long dureeSecondes);
+
+    /**
+     * Lève le blocage d'un créneau s'il appartient à ce patient
+     * @return false si le créneau est bloqué pour un autre patient
+     */
+    boolean libererBlocage(Long idPlanning, Long idPatient);
+
     /**
      * Compte le nombre de créneaux disponibles pour un médecin à une date donnée
      * Correction : utiliser LocalDate pour la cohérence
      */
     long countCreneauxDisponibles(Long idMedecin, LocalDate date);
+
+    /**
+     * Récupère les N premiers créneaux libres tous médecins confondus selon les critères
+     */
+    List<PlanningDto> getPremiersCreneauxDisponibles(CriteresCreneauDto criteres, int nombre);
 }
\ No newline at end of file
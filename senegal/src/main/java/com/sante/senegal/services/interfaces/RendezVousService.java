@@ -1,11 +1,13 @@
 package com.sante.senegal.services.interfaces;
 
+import com.sante.senegal.dto.PageCurseurDto;
 import com.sante.senegal.dto.RendezVousDto;
 import com.sante.senegal.dto.RendezVousRequestDto;
 import com.sante.senegal.entities.RendezVous;
 import java.time.LocalDate;
 import java.time.LocalDateTime;
 import java.util.List;
+import java.util.function.Consumer;
 
 public interface RendezVousService {
     List<RendezVousDto> getAllRendezVous();
@@ -15,10 +17,21 @@ public interface RendezVousService {
     List<RendezVousDto> getRendezVousByService(Long idService);
     List<RendezVousDto> getRendezVousByHopital(Long idHopital);
     List<RendezVousDto> getRendezVousByStatut(RendezVous.StatutRendezVous statut);
+    PageCurseurDto<RendezVousDto> getPageRendezVous(String curseur, Integer taille);
+    PageCurseurDto<RendezVousDto> getPageRendezVousByStatut(RendezVous.StatutRendezVous statut, String curseur, Integer taille);
+    PageCurseurDto<RendezVousDto> getPageRendezVousByHopital(Long idHopital, String curseur, Integer taille);
+    PageCurseurDto<RendezVousDto> getPageRendezVousByService(Long idService, String curseur, Integer taille);
+    PageCurseurDto<RendezVousDto> getPageRendezVousByMedecin(Long idMedecin, String curseur, Integer taille);
     List<RendezVousDto> getRendezVousByNiveauUrgence(RendezVous.NiveauUrgence niveauUrgence);
     List<RendezVousDto> getRendezVousBetweenDates(LocalDateTime debut, LocalDateTime fin);
     List<RendezVousDto> getUpcomingRendezVousByPatient(Long idPatient);
 
+    /**
+     * Transmet les rendez-vous de la période un par un, sans matérialiser la liste
+     */
+    void parcourirRendezVousBetweenDates(LocalDateTime dateDebut, LocalDateTime dateFin, Long idHopital, Long idMedecin,
+                                         Consumer<RendezVousDto> consommateur);
+
      List<RendezVousDto> getRendezVousProgrammesPourMedecin(Long idMedecin);
 
 
@@ -36,7 +49,6 @@ public interface RendezVousService {
     RendezVousDto terminerConsultation(Long id);
     List<RendezVousDto> getRendezVousUrgents();
     List<RendezVousDto> getRendezVousDuJour(LocalDateTime date);
-    void envoyerRappelsRendezVous(); // Programmé
     List<RendezVousDto> getRendezVousByMedecinAndDateRange(Long idMedecin,LocalDateTime dateDebut,LocalDateTime dateFin);
     List<RendezVousDto> getUpcomingRendezVousByMedecin(Long idMedecin);
 
@@ -0,0 +1,36 @@
+package com.sante.senegal.services.notifications;
+
+import com.sante.senegal.services.interfaces.EmailService;
+import lombok.RequiredArgsConstructor;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.stereotype.Component;
+
+/**
+ * Dépose l'e-mail dans la boîte d'envoi : la remise SMTP est assurée par EnvoiEmailsService
+ */
+@Component
+@RequiredArgsConstructor
+public class CanalEmail implements CanalNotification {
+
+    private final EmailService emailService;
+
+    @Value("${notification.email.enabled:true}")
+    private boolean actif;
+
+    @Override
+    public Notification.Canal type() {
+        return Notification.Canal.EMAIL;
+    }
+
+    @Override
+    public boolean actif() {
+        return actif;
+    }
+
+    @Override
+    public void envoyer(Notification notification) {
+        if (notification.email() != null) {
+            emailService.envoyerNotificationRendezVous(notification.email(), notification.sujet(), notification.message());
+        }
+    }
+}
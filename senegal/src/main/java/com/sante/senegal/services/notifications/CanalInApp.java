@@ -0,0 +1,30 @@
+package com.sante.senegal.services.notifications;
+
+import com.sante.senegal.entities.NotificationUtilisateur;
+import com.sante.senegal.repositories.NotificationUtilisateurRepository;
+import lombok.RequiredArgsConstructor;
+import org.springframework.stereotype.Component;
+
+@Component
+@RequiredArgsConstructor
+public class CanalInApp implements CanalNotification {
+
+    private final NotificationUtilisateurRepository notificationRepository;
+
+    @Override
+    public Notification.Canal type() {
+        return Notification.Canal.IN_APP;
+    }
+
+    @Override
+    public void envoyer(Notification notification) {
+        if (notification.idUtilisateur() != null) {
+            notificationRepository.save(NotificationUtilisateur.builder()
+                    .idUtilisateur(notification.idUtilisateur())
+                    .titre(notification.sujet())
+                    .message(notification.message())
+                    .urgente(notification.priorite() == Notification.Priorite.URGENTE)
+                    .build());
+        }
+    }
+}
@@ -0,0 +1,21 @@
+package com.sante.senegal.services.notifications;
+
+/**
+ * Canal de remise des notifications ; chaque canal a sa propre file et ses propres workers dans MoteurNotifications
+ */
+public interface CanalNotification {
+
+    Notification.Canal type();
+
+    /**
+     * Un canal désactivé par configuration n'a ni file ni workers
+     */
+    default boolean actif() {
+        return true;
+    }
+
+    /**
+     * Remise bloquante, appelée sur un worker du canal
+     */
+    void envoyer(Notification notification);
+}
@@ -0,0 +1,32 @@
+package com.sante.senegal.services.notifications;
+
+import lombok.RequiredArgsConstructor;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.stereotype.Component;
+
+@Component
+@RequiredArgsConstructor
+public class CanalSms implements CanalNotification {
+
+    private final FournisseurSms fournisseurSms;
+
+    @Value("${notification.sms.enabled:true}")
+    private boolean actif;
+
+    @Override
+    public Notification.Canal type() {
+        return Notification.Canal.SMS;
+    }
+
+    @Override
+    public boolean actif() {
+        return actif;
+    }
+
+    @Override
+    public void envoyer(Notification notification) {
+        if (notification.telephone() != null && !notification.telephone().isBlank()) {
+            fournisseurSms.envoyer(notification.telephone(), notification.message());
+        }
+    }
+}
@@ -0,0 +1,9 @@
+package com.sante.senegal.services.notifications;
+
+/**
+ * Passerelle SMS, choisie par notification.sms.provider
+ */
+public interface FournisseurSms {
+
+    void envoyer(String telephone, String texte);
+}
@@ -0,0 +1,36 @@
+package com.sante.senegal.services.notifications;
+
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.boot.autoconfigure.condition.ConditionalOnProperty;
+import org.springframework.stereotype.Component;
+
+import java.util.ArrayList;
+import java.util.Deque;
+import java.util.List;
+import java.util.concurrent.ConcurrentLinkedDeque;
+
+/**
+ * Fournisseur local (développement, tests) : les SMS sont journalisés et les derniers conservés en mémoire
+ */
+@Component
+@ConditionalOnProperty(name = "notification.sms.provider", havingValue = "journal", matchIfMissing = true)
+@Slf4j
+public class FournisseurSmsJournal implements FournisseurSms {
+
+    private static final int SMS_CONSERVES = 100;
+
+    private final Deque<String> derniers = new ConcurrentLinkedDeque<>();
+
+    @Override
+    public void envoyer(String telephone, String texte) {
+        log.info("SMS à {}: {}", telephone, texte);
+        derniers.addFirst(telephone + ": " + texte);
+        while (derniers.size() > SMS_CONSERVES) {
+            derniers.pollLast();
+        }
+    }
+
+    public List<String> getDerniers() {
+        return new ArrayList<>(derniers);
+    }
+}
@@ -0,0 +1,63 @@
+package com.sante.senegal.services.notifications;
+
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.boot.autoconfigure.condition.ConditionalOnProperty;
+import org.springframework.stereotype.Component;
+
+import java.io.IOException;
+import java.net.URI;
+import java.net.URLEncoder;
+import java.net.http.HttpClient;
+import java.net.http.HttpRequest;
+import java.net.http.HttpResponse;
+import java.nio.charset.StandardCharsets;
+import java.time.Duration;
+import java.util.Base64;
+
+/**
+ * Envoi par l'API REST Twilio (Messages.json), avec des délais courts : une passerelle lente
+ * n'occupe que les workers du canal SMS
+ */
+@Component
+@ConditionalOnProperty(name = "notification.sms.provider", havingValue = "twilio")
+public class FournisseurSmsTwilio implements FournisseurSms {
+
+    private static final Duration DELAI = Duration.ofSeconds(10);
+
+    private final HttpClient client = HttpClient.newBuilder().connectTimeout(DELAI).build();
+
+    @Value("${notification.sms.account-sid}")
+    private String accountSid;
+
+    @Value("${notification.sms.api-key}")
+    private String jeton;
+
+    @Value("${notification.sms.expediteur}")
+    private String expediteur;
+
+    @Override
+    public void envoyer(String telephone, String texte) {
+        String formulaire = "To=" + URLEncoder.encode(telephone, StandardCharsets.UTF_8)
+                + "&From=" + URLEncoder.encode(expediteur, StandardCharsets.UTF_8)
+                + "&Body=" + URLEncoder.encode(texte, StandardCharsets.UTF_8);
+        HttpRequest requete = HttpRequest.newBuilder()
+                .uri(URI.create("https://api.twilio.com/2010-04-01/Accounts/" + accountSid + "/Messages.json"))
+                .timeout(DELAI)
+                .header("Authorization", "Basic " + Base64.getEncoder()
+                        .encodeToString((accountSid + ":" + jeton).getBytes(StandardCharsets.UTF_8)))
+                .header("Content-Type", "application/x-www-form-urlencoded")
+                .POST(HttpRequest.BodyPublishers.ofString(formulaire))
+                .build();
+        try {
+            HttpResponse<String> reponse = client.send(requete, HttpResponse.BodyHandlers.ofString());
+            if (reponse.statusCode() / 100 != 2) {
+                throw new IllegalStateException("Passerelle SMS: statut " + reponse.statusCode() + " - " + reponse.body());
+            }
+        } catch (IOException e) {
+            throw new IllegalStateException("Passerelle SMS injoignable: " + e.getMessage(), e);
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+            throw new IllegalStateException("Envoi SMS interrompu", e);
+        }
+    }
+}
@@ -0,0 +1,165 @@
+package com.sante.senegal.services.notifications;
+
+import com.sante.senegal.dto.EtatCanalNotificationDto;
+import jakarta.annotation.PreDestroy;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.core.env.Environment;
+import org.springframework.stereotype.Service;
+import org.springframework.transaction.support.TransactionSynchronization;
+import org.springframework.transaction.support.TransactionSynchronizationManager;
+
+import java.util.*;
+import java.util.concurrent.ArrayBlockingQueue;
+import java.util.concurrent.BlockingQueue;
+import java.util.concurrent.Semaphore;
+import java.util.concurrent.atomic.AtomicLong;
+
+/**
+ * Moteur de notifications multi-canal.
+ * Chaque canal a sa file bornée et ses workers : un canal lent (passerelle SMS) ne ralentit que lui-même.
+ * Chaque file a deux voies, urgente et normale ; les workers vident toujours la voie urgente en premier.
+ * Les notifications partent après la validation de la transaction appelante ; si une file est pleine,
+ * la notification est rejetée et comptée, l'appelant n'attend jamais.
+ */
+@Service
+@Slf4j
+public class MoteurNotifications {
+
+    private final Map<Notification.Canal, FileCanal> files = new EnumMap<>(Notification.Canal.class);
+
+    public MoteurNotifications(List<CanalNotification> canaux, Environment environment) {
+        for (CanalNotification canal : canaux) {
+            if (!canal.actif()) {
+                log.info("Canal de notification {} désactivé", canal.type());
+                continue;
+            }
+            String prefixe = "notification.canaux." + canal.type().name().toLowerCase(Locale.ROOT).replace('_', '-');
+            int workers = environment.getProperty(prefixe + ".workers", Integer.class, 2);
+            int capacite = environment.getProperty(prefixe + ".capacite", Integer.class, 1000);
+            files.put(canal.type(), new FileCanal(canal, workers, capacite));
+        }
+    }
+
+    public void publier(Notification notification) {
+        if (TransactionSynchronizationManager.isSynchronizationActive()) {
+            TransactionSynchronizationManager.registerSynchronization(new TransactionSynchronization() {
+                @Override
+                public void afterCommit() {
+                    soumettre(notification);
+                }
+            });
+        } else {
+            soumettre(notification);
+        }
+    }
+
+    public List<EtatCanalNotificationDto> getEtat() {
+        return files.values().stream().map(FileCanal::etat).toList();
+    }
+
+    @PreDestroy
+    public void arreter() {
+        files.values().forEach(FileCanal::arreter);
+    }
+
+    private void soumettre(Notification notification) {
+        for (Notification.Canal canal : notification.canaux()) {
+            FileCanal file = files.get(canal);
+            if (file != null) {
+                file.offrir(notification);
+            }
+        }
+    }
+
+    private static final class FileCanal {
+        private final CanalNotification canal;
+        private final int capacite;
+        private final BlockingQueue<Notification> urgentes;
+        private final BlockingQueue<Notification> normales;
+        // Un permis par notification en file, toutes voies confondues
+        private final Semaphore enAttente = new Semaphore(0);
+        private final List<Thread> workers = new ArrayList<>();
+        private final AtomicLong envoyees = new AtomicLong();
+        private final AtomicLong echecs = new AtomicLong();
+        private final AtomicLong rejetees = new AtomicLong();
+        private final AtomicLong cumulLatenceNanos = new AtomicLong();
+        private volatile boolean actif = true;
+
+        private FileCanal(CanalNotification canal, int nombreWorkers, int capacite) {
+            this.canal = canal;
+            this.capacite = capacite;
+            this.urgentes = new ArrayBlockingQueue<>(capacite);
+            this.normales = new ArrayBlockingQueue<>(capacite);
+            String nom = "notification-" + canal.type().name().toLowerCase(Locale.ROOT) + "-";
+            for (int i = 1; i <= Math.max(1, nombreWorkers); i++) {
+                Thread worker = new Thread(this::traiter, nom + i);
+                worker.setDaemon(true);
+                worker.start();
+                workers.add(worker);
+            }
+        }
+
+        private void offrir(Notification notification) {
+            BlockingQueue<Notification> voie = notification.priorite() == Notification.Priorite.URGENTE ? urgentes : normales;
+            if (voie.offer(notification)) {
+                enAttente.release();
+            } else {
+                rejetees.incrementAndGet();
+                log.warn("File {} pleine ({}), notification « {} » rejetée", canal.type(), notification.priorite(),
+                        notification.sujet());
+            }
+        }
+
+        private void traiter() {
+            while (actif) {
+                try {
+                    enAttente.acquire();
+                } catch (InterruptedException e) {
+                    return;
+                }
+                Notification notification = urgentes.poll();
+                if (notification == null) {
+                    notification = normales.poll();
+                }
+                if (notification == null) {
+                    continue;
+                }
+                long debut = System.nanoTime();
+                try {
+                    canal.envoyer(notification);
+                    envoyees.incrementAndGet();
+                } catch (Exception e) {
+                    echecs.incrementAndGet();
+                    log.warn("Échec de la notification {} « {} » pour l'utilisateur {}: {}", canal.type(),
+                            notification.sujet(), notification.idUtilisateur(), e.getMessage());
+                } finally {
+                    cumulLatenceNanos.addAndGet(System.nanoTime() - debut);
+                }
+            }
+        }
+
+        private void arreter() {
+            actif = false;
+            workers.forEach(Thread::interrupt);
+            int perdues = urgentes.size() + normales.size();
+            if (perdues > 0) {
+                log.warn("Canal {} arrêté avec {} notifications en file", canal.type(), perdues);
+            }
+        }
+
+        private EtatCanalNotificationDto etat() {
+            long total = envoyees.get() + echecs.get();
+            return EtatCanalNotificationDto.builder()
+                    .canal(canal.type().name())
+                    .workers(workers.size())
+                    .capacite(capacite)
+                    .fileUrgente(urgentes.size())
+                    .fileNormale(normales.size())
+                    .envoyees(envoyees.get())
+                    .echecs(echecs.get())
+                    .rejetees(rejetees.get())
+                    .latenceMoyenneMs(total == 0 ? 0 : cumulLatenceNanos.get() / 1_000_000.0 / total)
+                    .build();
+        }
+    }
+}
@@ -0,0 +1,18 @@
+package com.sante.senegal.services.notifications;
+
+import java.util.Set;
+
+/**
+ * Notification à remettre à un utilisateur sur un ou plusieurs canaux
+ */
+public record Notification(Long idUtilisateur, String email, String telephone, String sujet, String message,
+                           Priorite priorite, Set<Canal> canaux) {
+
+    public enum Priorite {
+        URGENTE, NORMALE
+    }
+
+    public enum Canal {
+        EMAIL, SMS, IN_APP
+    }
+}
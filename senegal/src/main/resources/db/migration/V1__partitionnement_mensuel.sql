@@ -0,0 +1,164 @@
+-- Partitionnement mensuel (RANGE) des tables planning, rendez_vous et disponibilites.
+--
+-- Base existante : chaque table est convertie ici (renommage, table partitionnée, copie, suppression).
+-- Base neuve : les tables n'existent pas encore (créées ensuite par Hibernate) ; la conversion est
+-- alors faite au démarrage par PartitionnementMensuelService, qui crée aussi les partitions à venir.
+--
+-- La clé primaire devient (id, clé de partition). PostgreSQL n'accepte pas de clé étrangère vers une
+-- table partitionnée sur l'id seul : les références vers rendez_vous sont vérifiées par l'application.
+
+-- Crée la partition d'un mois ; les lignes déjà tombées dans la partition par défaut y sont déplacées
+CREATE OR REPLACE FUNCTION creer_partition_mensuelle(p_table text, p_mois date)
+RETURNS boolean LANGUAGE plpgsql AS $$
+DECLARE
+    v_debut     date := date_trunc('month', p_mois)::date;
+    v_fin       date := (date_trunc('month', p_mois) + interval '1 month')::date;
+    v_partition text := p_table || '_' || to_char(date_trunc('month', p_mois), 'YYYY_MM');
+    v_defaut    text := p_table || '_defaut';
+    v_cle       text;
+    v_a_deplacer boolean;
+BEGIN
+    IF to_regclass(v_partition) IS NOT NULL THEN
+        RETURN false;
+    END IF;
+
+    SELECT a.attname INTO v_cle
+      FROM pg_partitioned_table pt
+      JOIN pg_attribute a ON a.attrelid = pt.partrelid AND a.attnum = pt.partattrs[0]
+     WHERE pt.partrelid = to_regclass(p_table);
+    IF v_cle IS NULL THEN
+        RAISE EXCEPTION 'La table % n''est pas partitionnée', p_table;
+    END IF;
+
+    EXECUTE format('SELECT EXISTS (SELECT 1 FROM %I WHERE %I >= %L AND %I < %L)',
+                   v_defaut, v_cle, v_debut, v_cle, v_fin) INTO v_a_deplacer;
+
+    IF v_a_deplacer THEN
+        EXECUTE format('ALTER TABLE %I DETACH PARTITION %I', p_table, v_defaut);
+        EXECUTE format('CREATE TABLE %I PARTITION OF %I FOR VALUES FROM (%L) TO (%L)',
+                       v_partition, p_table, v_debut, v_fin);
+        EXECUTE format('WITH deplacees AS (DELETE FROM %I WHERE %I >= %L AND %I < %L RETURNING *) '
+                       'INSERT INTO %I SELECT * FROM deplacees',
+                       v_defaut, v_cle, v_debut, v_cle, v_fin, v_partition);
+        EXECUTE format('ALTER TABLE %I ATTACH PARTITION %I DEFAULT', p_table, v_defaut);
+    ELSE
+        EXECUTE format('CREATE TABLE %I PARTITION OF %I FOR VALUES FROM (%L) TO (%L)',
+                       v_partition, p_table, v_debut, v_fin);
+    END IF;
+    RETURN true;
+END $$;
+
+-- Crée les partitions manquantes de tous les mois compris entre deux dates
+CREATE OR REPLACE FUNCTION creer_partitions_mensuelles(p_table text, p_debut date, p_fin date)
+RETURNS integer LANGUAGE plpgsql AS $$
+DECLARE
+    v_mois  date := date_trunc('month', p_debut)::date;
+    v_crees integer := 0;
+BEGIN
+    WHILE v_mois <= p_fin LOOP
+        IF creer_partition_mensuelle(p_table, v_mois) THEN
+            v_crees := v_crees + 1;
+        END IF;
+        v_mois := (v_mois + interval '1 month')::date;
+    END LOOP;
+    RETURN v_crees;
+END $$;
+
+-- Détache (sans les supprimer) les partitions entièrement antérieures à une date :
+-- opération de catalogue, les tables détachées restent disponibles pour archivage
+CREATE OR REPLACE FUNCTION detacher_partitions_anterieures(p_table text, p_avant date)
+RETURNS SETOF text LANGUAGE plpgsql AS $$
+DECLARE
+    v_partition text;
+BEGIN
+    FOR v_partition IN
+        SELECT c.relname::text
+          FROM pg_inherits i
+          JOIN pg_class c ON c.oid = i.inhrelid
+         WHERE i.inhparent = to_regclass(p_table)
+           AND c.relname ~ ('^' || p_table || '_[0-9]{4}_[0-9]{2}$')
+           AND to_date(right(c.relname, 7), 'YYYY_MM') + interval '1 month' <= p_avant
+         ORDER BY c.relname
+    LOOP
+        EXECUTE format('ALTER TABLE %I DETACH PARTITION %I', p_table, v_partition);
+        RETURN NEXT v_partition;
+    END LOOP;
+END $$;
+
+-- Convertit une table ordinaire en table partitionnée par mois ; sans effet si elle n'existe pas
+-- ou si elle est déjà partitionnée
+CREATE OR REPLACE FUNCTION partitionner_table_mensuelle(p_table text, p_cle text, p_id text, p_index text[])
+RETURNS boolean LANGUAGE plpgsql AS $$
+DECLARE
+    v_ancienne text := p_table || '_non_partitionnee';
+    v_sequence text := p_table || '_' || p_id || '_mensuel_seq';
+    v_min      date;
+    v_max      date;
+    v_fk       record;
+    v_colonnes text;
+BEGIN
+    IF to_regclass(p_table) IS NULL
+       OR EXISTS (SELECT 1 FROM pg_partitioned_table WHERE partrelid = to_regclass(p_table)) THEN
+        RETURN false;
+    END IF;
+
+    EXECUTE format('ALTER TABLE %I RENAME TO %I', p_table, v_ancienne);
+    EXECUTE format('CREATE TABLE %I (LIKE %I INCLUDING DEFAULTS INCLUDING CONSTRAINTS) PARTITION BY RANGE (%I)',
+                   p_table, v_ancienne, p_cle);
+
+    -- Colonne d'identité remplacée par une séquence (identité non supportée sur une table partitionnée)
+    EXECUTE format('CREATE SEQUENCE %I', v_sequence);
+    EXECUTE format('SELECT setval(%L, COALESCE((SELECT max(%I) FROM %I), 0) + 1, false)',
+                   v_sequence, p_id, v_ancienne);
+    EXECUTE format('ALTER TABLE %I ALTER COLUMN %I SET DEFAULT nextval(%L)', p_table, p_id, v_sequence);
+    EXECUTE format('ALTER SEQUENCE %I OWNED BY %I.%I', v_sequence, p_table, p_id);
+
+    EXECUTE format('ALTER TABLE %I ADD CONSTRAINT %I PRIMARY KEY (%I, %I)', p_table, p_table || '_pk', p_id, p_cle);
+    FOREACH v_colonnes IN ARRAY p_index LOOP
+        EXECUTE format('CREATE INDEX ON %I (%s)', p_table, v_colonnes);
+    END LOOP;
+
+    EXECUTE format('CREATE TABLE %I PARTITION OF %I DEFAULT', p_table || '_defaut', p_table);
+    EXECUTE format('SELECT min(%I)::date, max(%I)::date FROM %I', p_cle, p_cle, v_ancienne) INTO v_min, v_max;
+    PERFORM creer_partitions_mensuelles(p_table,
+            LEAST(COALESCE(v_min, current_date), current_date),
+            GREATEST(COALESCE(v_max, current_date), (current_date + interval '3 months')::date));
+
+    EXECUTE format('INSERT INTO %I SELECT * FROM %I', p_table, v_ancienne);
+
+    -- Clés étrangères sortantes, sauf vers une table partitionnée
+    FOR v_fk IN
+        SELECT c.conname, pg_get_constraintdef(c.oid) AS definition
+          FROM pg_constraint c
+          JOIN pg_class r ON r.oid = c.confrelid
+         WHERE c.conrelid = to_regclass(v_ancienne) AND c.contype = 'f' AND r.relkind <> 'p'
+    LOOP
+        EXECUTE format('ALTER TABLE %I ADD CONSTRAINT %I %s', p_table, v_fk.conname, v_fk.definition);
+    END LOOP;
+
+    -- Supprime aussi les clés étrangères entrantes, désormais impossibles
+    EXECUTE format('DROP TABLE %I CASCADE', v_ancienne);
+    RETURN true;
+END $$;
+
+CREATE OR REPLACE FUNCTION partitionner_tables_metier()
+RETURNS integer LANGUAGE plpgsql AS $$
+DECLARE
+    v_converties integer := 0;
+BEGIN
+    IF partitionner_table_mensuelle('rendez_vous', 'date_heure', 'id_rdv',
+            ARRAY['date_heure', 'id_medecin, date_heure', 'id_patient, date_heure', 'id_hopital, date_heure']) THEN
+        v_converties := v_converties + 1;
+    END IF;
+    IF partitionner_table_mensuelle('planning', 'date', 'id_planning',
+            ARRAY['date, heure_debut', 'id_medecin, date', 'id_service, date', 'id_hopital, date', 'id_rendez_vous']) THEN
+        v_converties := v_converties + 1;
+    END IF;
+    IF partitionner_table_mensuelle('disponibilites', 'date', 'id_disponibilite',
+            ARRAY['date', 'id_medecin, date', 'id_service, date']) THEN
+        v_converties := v_converties + 1;
+    END IF;
+    RETURN v_converties;
+END $$;
+
+SELECT partitionner_tables_metier();
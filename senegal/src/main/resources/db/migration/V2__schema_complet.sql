@@ -0,0 +1,409 @@
+-- Schéma complet de l'application, désormais tenu par les migrations (Hibernate ne fait plus que le valider).
+--
+-- Base existante (schéma créé jusqu'ici par Hibernate) : chaque objet n'est créé que s'il manque,
+-- sous le nom qu'Hibernate lui avait donné ; la migration est alors sans effet.
+-- Base neuve : les tables sont créées ici, puis converties en tables partitionnées par mois (fonctions de V1).
+
+CREATE TABLE IF NOT EXISTS absences_medecins (
+    date_debut date not null,
+    date_fin date not null,
+    id_absence bigserial not null,
+    id_medecin bigint not null,
+    commentaire TEXT,
+    motif varchar(255) not null check (motif in ('CONGE_ANNUEL','MALADIE','FORMATION','MISSION','AUTRE')),
+    primary key (id_absence)
+);
+
+CREATE TABLE IF NOT EXISTS administrateurs (
+    id bigint not null,
+    role varchar(50),
+    permissions TEXT,
+    primary key (id)
+);
+
+CREATE TABLE IF NOT EXISTS agenda_medecin (
+    date date not null,
+    heure_debut time(6) not null,
+    heure_fin time(6),
+    date_mise_a_jour timestamp(6),
+    id_medecin bigint not null,
+    id_patient bigint,
+    id_rdv bigint not null,
+    type_consultation varchar(100) check (type_consultation in ('CONSULTATION_GENERALE','CONSULTATION_SPECIALISTE','CONSULTATION_URGENCE','CONSULTATION_SUIVI','CONSULTATION_PREMIERE')),
+    motif TEXT,
+    niveau_urgence varchar(255) check (niveau_urgence in ('NORMALE','URGENT','TRES_URGENT')),
+    nom_patient varchar(255),
+    statut varchar(255) check (statut in ('PROGRAMME','CONFIRME','EN_COURS','TERMINE','ANNULE','REPORTE')),
+    primary key (id_rdv)
+);
+
+CREATE TABLE IF NOT EXISTS audit_logs (
+    date_action timestamp(6) not null,
+    entite_id bigint not null,
+    id bigserial not null,
+    id_utilisateur bigint,
+    action varchar(255) not null,
+    details TEXT,
+    entite varchar(255) not null,
+    primary key (id)
+);
+
+CREATE TABLE IF NOT EXISTS consultations (
+    duree_reelle integer,
+    satisfaction float(53),
+    date_creation timestamp(6),
+    date_heure timestamp(6) not null,
+    date_modification timestamp(6),
+    id_consultation bigserial not null,
+    id_dossier bigint,
+    id_rdv bigint unique,
+    diagnostic TEXT,
+    observations TEXT,
+    recommandations TEXT,
+    statut varchar(255) check (statut in ('PROGRAMMEE','EN_COURS','TERMINEE','ANNULEE')),
+    symptomes TEXT,
+    primary key (id_consultation)
+);
+
+CREATE TABLE IF NOT EXISTS disponibilites (
+    date date not null,
+    date_fin_recurrence date,
+    heure_debut time(6) not null,
+    heure_fin time(6) not null,
+    id_disponibilite bigserial not null,
+    id_hopital bigint not null,
+    id_medecin bigint not null,
+    id_service bigint not null,
+    recurrence varchar(20) check (recurrence in ('PONCTUELLE','HEBDOMADAIRE','MENSUELLE')),
+    jour_semaine varchar(255) check (jour_semaine in ('MONDAY','TUESDAY','WEDNESDAY','THURSDAY','FRIDAY','SATURDAY','SUNDAY')),
+    motif_indisponibilite TEXT,
+    statut varchar(255) check (statut in ('DISPONIBLE','OCCUPE','INDISPONIBLE')),
+    primary key (id_disponibilite)
+);
+
+CREATE TABLE IF NOT EXISTS documents_medicaux (
+    date_creation timestamp(6),
+    date_modification timestamp(6),
+    id_document bigserial not null,
+    id_dossier bigint,
+    taille_fichier bigint,
+    type_document varchar(100),
+    chemin_fichier varchar(255) not null,
+    description TEXT,
+    nom_fichier varchar(255) not null,
+    statut varchar(255) check (statut in ('ACTIF','ARCHIVE','SUPPRIME')),
+    primary key (id_document)
+);
+
+CREATE TABLE IF NOT EXISTS dossiers_medicaux (
+    date_creation timestamp(6),
+    date_modification timestamp(6),
+    id_dossier bigserial not null,
+    id_patient bigint unique,
+    antecedents_familiaux TEXT,
+    antecedents_medicaux TEXT,
+    notes_generales TEXT,
+    statut varchar(255) check (statut in ('ACTIF','ARCHIVE','SUPPRIME')),
+    vaccinations TEXT,
+    primary key (id_dossier)
+);
+
+CREATE TABLE IF NOT EXISTS email_sortant (
+    html boolean not null,
+    tentatives integer not null,
+    bail_jusqua timestamp(6),
+    date_creation timestamp(6),
+    date_envoi timestamp(6),
+    id_email bigserial not null,
+    prochain_essai timestamp(6) not null,
+    statut varchar(20) not null check (statut in ('A_ENVOYER','EN_COURS','ENVOYE','ECHEC')),
+    derniere_erreur varchar(500),
+    corps TEXT not null,
+    destinataire varchar(255) not null,
+    sujet varchar(255) not null,
+    primary key (id_email)
+);
+
+CREATE TABLE IF NOT EXISTS examens (
+    date_prescription date not null,
+    date_realisation date,
+    id_consultation bigint,
+    id_examen bigserial not null,
+    description TEXT,
+    interpretation TEXT,
+    nom_examen varchar(255) not null,
+    resultats TEXT,
+    statut varchar(255) check (statut in ('PRESCRIT','PROGRAMME','REALISE','ANNULE')),
+    type_examen varchar(255) not null,
+    urgence varchar(255) check (urgence in ('NORMALE','URGENT','TRES_URGENT')),
+    primary key (id_examen)
+);
+
+CREATE TABLE IF NOT EXISTS hopitaux (
+    capacite_lits integer,
+    id_hopital bigserial not null,
+    telephone varchar(20),
+    region varchar(100),
+    type_etablissement varchar(100),
+    ville varchar(100),
+    nom varchar(200) not null,
+    adresse TEXT,
+    coordonnees_gps varchar(255),
+    email varchar(255),
+    heures_ouverture TEXT,
+    site_web varchar(255),
+    statut varchar(255) check (statut in ('ACTIF','INACTIF','MAINTENANCE')),
+    primary key (id_hopital)
+);
+
+CREATE TABLE IF NOT EXISTS jours_feries (
+    affecte_disponibilites boolean,
+    date date not null,
+    est_recurrent boolean,
+    date_creation timestamp(6),
+    date_modification timestamp(6),
+    id_jour_ferie bigserial not null,
+    external_id varchar(100),
+    region varchar(100),
+    source_api varchar(100),
+    nom varchar(200) not null,
+    description TEXT,
+    type varchar(255) check (type in ('NATIONAL','REGIONAL','RELIGIEUX','ADMINISTRATIF')),
+    primary key (id_jour_ferie)
+);
+
+CREATE TABLE IF NOT EXISTS liste_attente (
+    date_debut date not null,
+    date_fin date not null,
+    priorite integer not null,
+    date_expiration_offre timestamp(6),
+    date_inscription timestamp(6),
+    id_hopital bigint,
+    id_liste_attente bigserial not null,
+    id_medecin bigint,
+    id_patient bigint not null,
+    id_planning_propose bigint,
+    id_service bigint,
+    statut varchar(20) not null check (statut in ('EN_ATTENTE','PROPOSE','SATISFAIT','EXPIRE','ANNULE')),
+    type_consultation varchar(100) check (type_consultation in ('CONSULTATION_GENERALE','CONSULTATION_SPECIALISTE','CONSULTATION_URGENCE','CONSULTATION_SUIVI','CONSULTATION_PREMIERE')),
+    motif TEXT,
+    niveau_urgence varchar(255) check (niveau_urgence in ('NORMALE','URGENT','TRES_URGENT')),
+    primary key (id_liste_attente)
+);
+
+CREATE TABLE IF NOT EXISTS medecin_hopital (
+    id_hopital bigint not null,
+    id_medecin bigint not null
+);
+
+CREATE TABLE IF NOT EXISTS medecins (
+    experience integer,
+    id bigint not null,
+    service_id bigint,
+    titre varchar(50),
+    specialite varchar(100),
+    biographie TEXT,
+    carte_ordre_path varchar(255),
+    cv_path varchar(255),
+    diplome_path varchar(255),
+    matricule varchar(255),
+    numero_ordre varchar(255) unique,
+    primary key (id)
+);
+
+CREATE TABLE IF NOT EXISTS medicaments_prescrits (
+    duree integer not null,
+    quantite_prescrite integer,
+    id_medicament_prescrit bigserial not null,
+    id_prescription bigint,
+    dosage varchar(255) not null,
+    frequence varchar(255) not null,
+    instructions_specifiques TEXT,
+    nom_medicament varchar(255) not null,
+    statut varchar(255) check (statut in ('PRESCRIT','DELIVRE','TERMINE','ANNULE')),
+    primary key (id_medicament_prescrit)
+);
+
+CREATE TABLE IF NOT EXISTS notification_utilisateur (
+    lue boolean not null,
+    urgente boolean not null,
+    date_creation timestamp(6),
+    id_notification bigserial not null,
+    id_utilisateur bigint not null,
+    message TEXT not null,
+    titre varchar(255) not null,
+    primary key (id_notification)
+);
+
+CREATE TABLE IF NOT EXISTS patients (
+    groupe_sanguin varchar(5),
+    id bigint not null,
+    contact_urgence_telephone varchar(20),
+    profession varchar(50),
+    contact_urgence_nom varchar(100),
+    allergies TEXT,
+    num_assurance varchar(255) unique,
+    preferences_notification TEXT,
+    primary key (id)
+);
+
+CREATE TABLE IF NOT EXISTS personnel_medical (
+    id bigint not null,
+    id_hopital bigint,
+    id_service bigint,
+    poste varchar(255),
+    primary key (id)
+);
+
+CREATE TABLE IF NOT EXISTS planning (
+    date date not null,
+    heure_debut time(6) not null,
+    heure_fin time(6) not null,
+    reserve boolean not null,
+    id_hopital bigint not null,
+    id_medecin bigint not null,
+    id_planning bigserial not null,
+    id_rendez_vous bigint unique,
+    id_service bigint not null,
+    primary key (id_planning)
+);
+
+CREATE TABLE IF NOT EXISTS prescriptions (
+    date_prescription date not null,
+    duree_traitement integer,
+    date_creation timestamp(6),
+    date_modification timestamp(6),
+    id_consultation bigint,
+    id_prescription bigserial not null,
+    instructions_generales TEXT,
+    statut varchar(255) check (statut in ('ACTIVE','TERMINEE','ANNULEE')),
+    primary key (id_prescription)
+);
+
+CREATE TABLE IF NOT EXISTS rappel_rendez_vous (
+    tentatives integer not null,
+    bail_jusqua timestamp(6),
+    date_creation timestamp(6),
+    date_envoi timestamp(6),
+    date_prevue timestamp(6) not null,
+    decalage_minutes bigint not null,
+    id_rappel bigserial not null,
+    id_rdv bigint not null,
+    statut varchar(20) not null check (statut in ('A_ENVOYER','EN_COURS','ENVOYE','ECHEC','ANNULE','EXPIRE')),
+    type_rappel varchar(20) not null,
+    derniere_erreur varchar(500),
+    primary key (id_rappel),
+    constraint uk_rappel_rdv_type unique (id_rdv, type_rappel)
+);
+
+CREATE TABLE IF NOT EXISTS receptionniste (
+    id bigint not null,
+    primary key (id)
+);
+
+CREATE TABLE IF NOT EXISTS rendez_vous (
+    duree_prevue integer,
+    date_creation timestamp(6),
+    date_heure timestamp(6) not null,
+    date_modification timestamp(6),
+    id_hopital bigint,
+    id_medecin bigint,
+    id_patient bigint,
+    id_rdv bigserial not null,
+    id_service bigint,
+    mode_prise_rdv varchar(30) check (mode_prise_rdv in ('EN_LIGNE','TELEPHONE','SECRETARIAT','AUTRE')),
+    type_consultation varchar(100) check (type_consultation in ('CONSULTATION_GENERALE','CONSULTATION_SPECIALISTE','CONSULTATION_URGENCE','CONSULTATION_SUIVI','CONSULTATION_PREMIERE')),
+    motif TEXT,
+    niveau_urgence varchar(255) check (niveau_urgence in ('NORMALE','URGENT','TRES_URGENT')),
+    statut varchar(255) check (statut in ('PROGRAMME','CONFIRME','EN_COURS','TERMINE','ANNULE','REPORTE')),
+    primary key (id_rdv)
+);
+
+CREATE TABLE IF NOT EXISTS services (
+    capacite_patients_jour integer,
+    chef_service bigint,
+    id_hopital bigint,
+    id_service bigserial not null,
+    telephone varchar(20),
+    emplacement varchar(100),
+    nom varchar(100) not null,
+    description TEXT,
+    email varchar(255),
+    statut varchar(255) check (statut in ('ACTIF','INACTIF','MAINTENANCE')),
+    primary key (id_service)
+);
+
+CREATE TABLE IF NOT EXISTS utilisateurs (
+    date_naissance date,
+    date_creation timestamp(6),
+    date_derniere_connexion timestamp(6),
+    date_modification timestamp(6),
+    id bigserial not null,
+    telephone varchar(20),
+    nom varchar(100) not null,
+    prenom varchar(100) not null,
+    adresse TEXT,
+    email varchar(255) not null unique,
+    lieu_naissance varchar(255),
+    mot_de_passe varchar(255) not null,
+    sexe varchar(255) check (sexe in ('MASCULIN','FEMININ')),
+    statut varchar(255) check (statut in ('ACTIF','INACTIF','SUSPENDU','SUPPRIME')),
+    type varchar(255) check (type in ('SUPER_ADMIN','ADMIN','MEDECIN','MEDECIN_NOUVEAU','PATIENT','RECEPTIONNISTE','TECHNICIEN')),
+    primary key (id)
+);
+
+CREATE INDEX IF NOT EXISTS idx_agenda_medecin_jour ON agenda_medecin (id_medecin, date, heure_debut);
+CREATE INDEX IF NOT EXISTS idx_email_sortant_a_envoyer ON email_sortant (statut, prochain_essai);
+CREATE INDEX IF NOT EXISTS idx_liste_attente_medecin ON liste_attente (statut, id_medecin, priorite, date_inscription);
+CREATE INDEX IF NOT EXISTS idx_liste_attente_service ON liste_attente (statut, id_service, priorite, date_inscription);
+CREATE INDEX IF NOT EXISTS idx_notification_utilisateur ON notification_utilisateur (id_utilisateur, date_creation);
+CREATE INDEX IF NOT EXISTS idx_rappel_a_envoyer ON rappel_rendez_vous (statut, date_prevue);
+
+-- Ajoute une clé étrangère si la table ne porte pas déjà une contrainte de ce nom
+CREATE OR REPLACE FUNCTION ajouter_cle_etrangere(p_table text, p_nom text, p_colonnes text, p_cible text)
+RETURNS void LANGUAGE plpgsql AS $$
+BEGIN
+    IF NOT EXISTS (SELECT 1 FROM pg_constraint WHERE conrelid = to_regclass(p_table) AND conname = lower(p_nom)) THEN
+        EXECUTE format('ALTER TABLE %I ADD CONSTRAINT %I FOREIGN KEY (%s) REFERENCES %I',
+                       p_table, lower(p_nom), p_colonnes, p_cible);
+    END IF;
+END $$;
+
+SELECT ajouter_cle_etrangere('absences_medecins', 'FKo8xkomy5no40i05rhlrketoxa', 'id_medecin', 'medecins');
+SELECT ajouter_cle_etrangere('administrateurs', 'FKsfe67ak7m6se0xg0ry5lrxrlp', 'id', 'utilisateurs');
+SELECT ajouter_cle_etrangere('audit_logs', 'FKi1v0ku4hdx6ec3dhjy6u8wto4', 'id_utilisateur', 'utilisateurs');
+SELECT ajouter_cle_etrangere('consultations', 'FK3ooobgalrr6ptvvcffbsnwjya', 'id_dossier', 'dossiers_medicaux');
+SELECT ajouter_cle_etrangere('disponibilites', 'FKq79yg2n6upgti6ox0g63vi70f', 'id_hopital', 'hopitaux');
+SELECT ajouter_cle_etrangere('disponibilites', 'FKh2j6rfd2w4xbw7haf7pt735l8', 'id_medecin', 'medecins');
+SELECT ajouter_cle_etrangere('disponibilites', 'FKlo9d89kh7f0bsbvx7r15jhf57', 'id_service', 'services');
+SELECT ajouter_cle_etrangere('documents_medicaux', 'FKchqqhmln65rv59uq6vbue950a', 'id_dossier', 'dossiers_medicaux');
+SELECT ajouter_cle_etrangere('dossiers_medicaux', 'FK4bl27m9wtm5kf64snfr684v7l', 'id_patient', 'patients');
+SELECT ajouter_cle_etrangere('examens', 'FK8gupy0s4lcjf4o3w5uqnuvie3', 'id_consultation', 'consultations');
+SELECT ajouter_cle_etrangere('liste_attente', 'FKmymame8kjjjetnwatpif7cdb3', 'id_hopital', 'hopitaux');
+SELECT ajouter_cle_etrangere('liste_attente', 'FKojlc5gmlabl7x99lip02jv7cm', 'id_medecin', 'medecins');
+SELECT ajouter_cle_etrangere('liste_attente', 'FKe2xi9rjofa4gxk70eed1t3khg', 'id_patient', 'patients');
+SELECT ajouter_cle_etrangere('liste_attente', 'FKm31hiirx0rtd7rj7v4a4b6fyt', 'id_service', 'services');
+SELECT ajouter_cle_etrangere('medecin_hopital', 'FK51rcfxbt1bt6l9g8ymyj4ytlx', 'id_hopital', 'hopitaux');
+SELECT ajouter_cle_etrangere('medecin_hopital', 'FKfsu699n9jxuswrd2cespcdk05', 'id_medecin', 'medecins');
+SELECT ajouter_cle_etrangere('medecins', 'FK78asdfpygp2ntwoqve0bg9wxw', 'service_id', 'services');
+SELECT ajouter_cle_etrangere('medecins', 'FKkjhmopx1y66139mt1efa1iprk', 'id', 'utilisateurs');
+SELECT ajouter_cle_etrangere('medicaments_prescrits', 'FK33uyj34cfx4mo5osw0ormp20d', 'id_prescription', 'prescriptions');
+SELECT ajouter_cle_etrangere('patients', 'FKahmxi7dapt9pwfqvrqjdmpuhc', 'id', 'utilisateurs');
+SELECT ajouter_cle_etrangere('personnel_medical', 'FKixfpr3hq46gffk0lsnen8siy0', 'id_hopital', 'hopitaux');
+SELECT ajouter_cle_etrangere('personnel_medical', 'FKb79h5yushep1n1g0574sfk62l', 'id_service', 'services');
+SELECT ajouter_cle_etrangere('personnel_medical', 'FK1bmg2qvg37c763caavl3t3k3b', 'id', 'utilisateurs');
+SELECT ajouter_cle_etrangere('planning', 'FKcy3xb4cfer6vhv1n2vgr681ht', 'id_hopital', 'hopitaux');
+SELECT ajouter_cle_etrangere('planning', 'FK5u4fs47js0tkvxibxa20x66va', 'id_medecin', 'medecins');
+SELECT ajouter_cle_etrangere('planning', 'FKbyd453n9naf4sa3c5fwlek3ac', 'id_service', 'services');
+SELECT ajouter_cle_etrangere('prescriptions', 'FKst5u61yy05fkx802cf1lr43yb', 'id_consultation', 'consultations');
+SELECT ajouter_cle_etrangere('receptionniste', 'FKfibrev2o8bdckxqh1utov0obs', 'id', 'personnel_medical');
+SELECT ajouter_cle_etrangere('rendez_vous', 'FKbrceyofsjf16ahkpsiv8n0hpg', 'id_hopital', 'hopitaux');
+SELECT ajouter_cle_etrangere('rendez_vous', 'FKf2awcew6ywe89by8mbyocy1gw', 'id_medecin', 'medecins');
+SELECT ajouter_cle_etrangere('rendez_vous', 'FKtk3daanq5kosntbqw9sweslw9', 'id_patient', 'patients');
+SELECT ajouter_cle_etrangere('rendez_vous', 'FKn25ofvi0ol9o6y43v6m98n1lw', 'id_service', 'services');
+SELECT ajouter_cle_etrangere('services', 'FK2x077wp25wy34wd38th663k7y', 'chef_service', 'medecins');
+SELECT ajouter_cle_etrangere('services', 'FKk27lub9cov7lc7wjougr0fhra', 'id_hopital', 'hopitaux');
+
+DROP FUNCTION ajouter_cle_etrangere(text, text, text, text);
+
+SELECT partitionner_tables_metier();
@@ -0,0 +1,45 @@
+package com.sante.senegal;
+
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.context.SpringBootTest;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.test.context.DynamicPropertyRegistry;
+import org.springframework.test.context.DynamicPropertySource;
+import org.testcontainers.containers.PostgreSQLContainer;
+import org.testcontainers.junit.jupiter.Container;
+import org.testcontainers.junit.jupiter.Testcontainers;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+/**
+ * Démarrage sur une base PostgreSQL neuve : les migrations Flyway créent tout le schéma et le contexte
+ * ne démarre que si Hibernate le trouve conforme aux entités (ddl-auto validate). Ignoré sans Docker.
+ */
+@SpringBootTest
+@Testcontainers(disabledWithoutDocker = true)
+class SchemaPostgresTest {
+
+    @Container
+    static PostgreSQLContainer<?> postgres = new PostgreSQLContainer<>("postgres:16-alpine");
+
+    @DynamicPropertySource
+    static void base(DynamicPropertyRegistry registry) {
+        registry.add("spring.datasource.url", postgres::getJdbcUrl);
+        registry.add("spring.datasource.username", postgres::getUsername);
+        registry.add("spring.datasource.password", postgres::getPassword);
+    }
+
+    @Autowired
+    private JdbcTemplate jdbcTemplate;
+
+    @Test
+    void demarrage_migrationsAppliqueesEtTablesMetierPartitionnees() {
+        assertThat(jdbcTemplate.queryForList(
+                "SELECT version FROM flyway_schema_history WHERE success ORDER BY installed_rank", String.class))
+                .containsExactly("1", "2");
+        assertThat(jdbcTemplate.queryForList(
+                "SELECT c.relname::text FROM pg_partitioned_table pt JOIN pg_class c ON c.oid = pt.partrelid", String.class))
+                .containsExactlyInAnyOrder("rendez_vous", "planning", "disponibilites");
+    }
+}
@@ -0,0 +1,36 @@
+package com.sante.senegal.composants;
+
+import org.junit.jupiter.api.Test;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.assertj.core.api.Assertions.assertThatThrownBy;
+
+/**
+ * Une seconde de débit part en rafale, la suite est étalée au débit configuré
+ */
+class LimiteurDebitTest {
+
+    @Test
+    void acquerir_laissePasserUneRafalePuisEtaleLaSuite() {
+        LimiteurDebit limiteur = new LimiteurDebit(20);
+
+        long debut = System.nanoTime();
+        for (int i = 0; i < 20; i++) {
+            limiteur.acquerir();
+        }
+        long rafaleMs = (System.nanoTime() - debut) / 1_000_000;
+        for (int i = 0; i < 10; i++) {
+            limiteur.acquerir();
+        }
+        long totalMs = (System.nanoTime() - debut) / 1_000_000;
+
+        assertThat(rafaleMs).isLessThan(200);
+        // 10 jetons au-delà de la rafale, à 20 par seconde : au moins une demi-seconde
+        assertThat(totalMs).isGreaterThanOrEqualTo(450);
+    }
+
+    @Test
+    void refuseUnDebitNul() {
+        assertThatThrownBy(() -> new LimiteurDebit(0)).isInstanceOf(IllegalArgumentException.class);
+    }
+}
@@ -0,0 +1,86 @@
+package com.sante.senegal.composants;
+
+import com.fasterxml.jackson.databind.ObjectMapper;
+import org.junit.jupiter.api.Test;
+import org.springframework.http.MediaType;
+import org.springframework.http.ResponseEntity;
+import org.springframework.web.servlet.mvc.method.annotation.StreamingResponseBody;
+
+import java.io.ByteArrayOutputStream;
+import java.io.IOException;
+import java.io.OutputStream;
+import java.nio.charset.StandardCharsets;
+import java.util.List;
+import java.util.Map;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.assertj.core.api.Assertions.assertThatThrownBy;
+
+/**
+ * Un objet JSON par ligne, la première ligne envoyée sans attendre le reste du flux,
+ * et une coupure côté client remontée comme erreur d'écriture
+ */
+class ReponseNdjsonTest {
+
+    private final ReponseNdjson reponseNdjson = new ReponseNdjson(new ObjectMapper().findAndRegisterModules());
+
+    @Test
+    void flux_ecritUnObjetParLigneEtEnvoieLaPremiereSansAttendre() throws Exception {
+        SortieObservee sortie = new SortieObservee();
+        ResponseEntity<StreamingResponseBody> reponse = reponseNdjson.<Map<String, Object>>flux(consommateur -> {
+            consommateur.accept(Map.of("id", 1));
+            // La première ligne est déjà partie avant que la deuxième ne soit produite
+            assertThat(sortie.texteEnvoye()).isEqualTo("{\"id\":1}\n");
+            consommateur.accept(Map.of("id", 2));
+        });
+
+        reponse.getBody().writeTo(sortie);
+
+        assertThat(reponse.getHeaders().getContentType()).isEqualTo(MediaType.APPLICATION_NDJSON);
+        assertThat(sortie.texteEnvoye()).isEqualTo("{\"id\":1}\n{\"id\":2}\n");
+    }
+
+    @Test
+    void flux_remonteUneCoupureDuClient() {
+        OutputStream coupee = new OutputStream() {
+            @Override
+            public void write(int b) throws IOException {
+                throw new IOException("Broken pipe");
+            }
+        };
+        ResponseEntity<StreamingResponseBody> reponse = reponseNdjson.<Integer>flux(consommateur ->
+                List.of(1, 2, 3).forEach(consommateur));
+
+        assertThatThrownBy(() -> reponse.getBody().writeTo(coupee))
+                .isInstanceOf(IOException.class)
+                .hasMessage("Broken pipe");
+    }
+
+    /**
+     * Ne retient que les octets effectivement envoyés (vidés) vers le client
+     */
+    private static final class SortieObservee extends OutputStream {
+        private final ByteArrayOutputStream tampon = new ByteArrayOutputStream();
+        private final ByteArrayOutputStream envoye = new ByteArrayOutputStream();
+
+        @Override
+        public void write(int b) {
+            tampon.write(b);
+        }
+
+        @Override
+        public void write(byte[] b, int off, int len) {
+            tampon.write(b, off, len);
+        }
+
+        @Override
+        public void flush() throws IOException {
+            tampon.writeTo(envoye);
+            tampon.reset();
+        }
+
+        String texteEnvoye() {
+            return envoye.toString(StandardCharsets.UTF_8);
+        }
+    }
+}
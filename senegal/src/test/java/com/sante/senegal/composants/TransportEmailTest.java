@@ -0,0 +1,69 @@
+package com.sante.senegal.composants;
+
+import com.icegreen.greenmail.configuration.GreenMailConfiguration;
+import com.icegreen.greenmail.junit5.GreenMailExtension;
+import com.icegreen.greenmail.util.ServerSetupTest;
+import com.sante.senegal.dto.MetriquesTransportEmailDto;
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.extension.RegisterExtension;
+import org.springframework.mail.MailSendException;
+import org.springframework.mail.javamail.JavaMailSenderImpl;
+
+import java.util.concurrent.CompletableFuture;
+import java.util.stream.IntStream;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.assertj.core.api.Assertions.assertThatThrownBy;
+
+/**
+ * Les sessions SMTP sont réutilisées d'un message à l'autre jusqu'à messages-par-session,
+ * et une remise en échec est signalée à l'appelant et comptée
+ */
+class TransportEmailTest {
+
+    @RegisterExtension
+    static GreenMailExtension greenMail = new GreenMailExtension(ServerSetupTest.SMTP)
+            .withConfiguration(GreenMailConfiguration.aConfig().withDisabledAuthentication());
+
+    private TransportEmail transport;
+
+    @BeforeEach
+    void preparer() {
+        JavaMailSenderImpl mailSender = new JavaMailSenderImpl();
+        mailSender.setHost(ServerSetupTest.SMTP.getBindAddress());
+        mailSender.setPort(ServerSetupTest.SMTP.getPort());
+        mailSender.setProtocol("smtp");
+        // 2 sessions, 3 messages par session au plus
+        transport = new TransportEmail(mailSender, 2, 100, 3, 60);
+    }
+
+    @AfterEach
+    void arreter() throws InterruptedException {
+        transport.arreter();
+    }
+
+    @Test
+    void envoyerAsync_reutiliseLesSessionsJusquALaLimite() {
+        CompletableFuture.allOf(IntStream.range(0, 10)
+                .mapToObj(i -> transport.envoyerAsync("patient" + i + "@test.sn", "Rappel " + i, "À demain", false))
+                .toArray(CompletableFuture[]::new)).join();
+
+        MetriquesTransportEmailDto metriques = transport.getMetriques();
+        assertThat(greenMail.getReceivedMessages()).hasSize(10);
+        assertThat(metriques.getEnvoyes()).isEqualTo(10);
+        // 10 messages à 3 par session au plus : 4 connexions, et une de plus au pire selon l'entrelacement
+        assertThat(metriques.getConnexions()).isBetween(4L, 5L);
+        assertThat(metriques.getSessionsOuvertes()).isLessThanOrEqualTo(2);
+    }
+
+    @Test
+    void envoyer_signaleEtCompteUnEchecDeRemise() {
+        greenMail.stop();
+
+        assertThatThrownBy(() -> transport.envoyer("patient@test.sn", "Rappel", "À demain", false))
+                .isInstanceOf(MailSendException.class);
+        assertThat(transport.getMetriques().getEchecs()).isEqualTo(1);
+    }
+}
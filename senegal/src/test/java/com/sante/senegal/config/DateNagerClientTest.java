@@ -0,0 +1,153 @@
+package com.sante.senegal.config;
+
+import com.fasterxml.jackson.databind.ObjectMapper;
+import com.sante.senegal.composants.Disjoncteur;
+import com.sante.senegal.dto.DateNagerHoliday;
+import com.sante.senegal.entities.JourFerie;
+import com.sante.senegal.repositories.JourFerieRepository;
+import com.sante.senegal.services.implementations.CalendrierJoursOuvresService;
+import com.sante.senegal.services.implementations.ImpactCalendrierService;
+import com.sante.senegal.services.implementations.RegistreJoursFeriesService;
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.io.TempDir;
+import org.mockito.ArgumentCaptor;
+
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.attribute.FileTime;
+import java.time.Duration;
+import java.time.Instant;
+import java.util.List;
+import java.util.Optional;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.mockito.ArgumentMatchers.anyString;
+import static org.mockito.ArgumentMatchers.eq;
+import static org.mockito.Mockito.mock;
+import static org.mockito.Mockito.verify;
+
+/**
+ * Disjoncteur de DateNagerClient contre ServeurStubDateNager : ouverture après seuil-echecs échecs,
+ * repli sur le cache ou sur les jours fériés par défaut pendant l'ouverture, refermeture par l'appel d'essai
+ */
+class DateNagerClientTest {
+
+    private static final int SEUIL_ECHECS = 3;
+    private static final long OUVERTURE_SECONDES = 300;
+    private static final long OUVERTURE_COURTE_SECONDES = 1;
+
+    @TempDir
+    Path cache;
+
+    private final ObjectMapper objectMapper = new ObjectMapper();
+    private ServeurStubDateNager stub;
+    private DateNagerClient client;
+
+    @BeforeEach
+    void demarrer() throws Exception {
+        stub = new ServeurStubDateNager(objectMapper);
+        client = client(OUVERTURE_SECONDES);
+    }
+
+    @AfterEach
+    void arreter() {
+        stub.close();
+    }
+
+    @Test
+    void disjoncteur_ouvertApresSeuilEchecs_neContactePlusLApi() {
+        stub.setEnPanne(true);
+
+        for (int i = 0; i < SEUIL_ECHECS; i++) {
+            assertThat(client.tester().join()).isFalse();
+        }
+
+        assertThat(client.getEtatDisjoncteur()).isEqualTo(Disjoncteur.Etat.OUVERT);
+        assertThat(stub.getRequetes()).isEqualTo(SEUIL_ECHECS);
+        assertThat(client.tester().join()).isFalse();
+        assertThat(stub.getRequetes()).isEqualTo(SEUIL_ECHECS);
+    }
+
+    @Test
+    void disjoncteurOuvert_reponsePerimeeDuCacheServie() throws Exception {
+        Optional<DateNagerHoliday[]> enLigne = client.joursFeries(2026).join();
+        assertThat(enLigne).isPresent();
+        // Réponse périmée : sans disjoncteur ouvert, elle provoquerait un nouvel appel
+        try (var fichiers = Files.list(cache)) {
+            for (Path fichier : fichiers.toList()) {
+                Files.setLastModifiedTime(fichier, FileTime.from(Instant.now().minus(Duration.ofDays(30))));
+            }
+        }
+        ouvrirDisjoncteur();
+        int requetes = stub.getRequetes();
+
+        Optional<DateNagerHoliday[]> repli = client.joursFeries(2026).join();
+
+        assertThat(repli).isPresent();
+        assertThat(repli.get()).hasSameSizeAs(enLigne.get());
+        assertThat(stub.getRequetes()).isEqualTo(requetes);
+    }
+
+    @Test
+    void disjoncteurOuvert_sansCache_joursFeriesParDefaut() {
+        ouvrirDisjoncteur();
+        int requetes = stub.getRequetes();
+        RegistreJoursFeriesService registre = mock(RegistreJoursFeriesService.class);
+        DateNagerCalendrierService calendrier = new DateNagerCalendrierService(mock(JourFerieRepository.class), client,
+                registre, mock(ImpactCalendrierService.class), mock(CalendrierJoursOuvresService.class));
+
+        assertThat(client.joursFeries(2027).join()).isEmpty();
+        calendrier.synchroniserJoursFeries(2027).join();
+
+        @SuppressWarnings("unchecked")
+        ArgumentCaptor<List<JourFerie>> joursFeries = ArgumentCaptor.forClass(List.class);
+        verify(registre).remplacer(eq(2027), anyString(), joursFeries.capture());
+        assertThat(joursFeries.getValue())
+                .hasSize(DateNagerCalendrierService.JOURS_FERIES_FIXES_SENEGAL.size())
+                .allSatisfy(jourFerie -> assertThat(jourFerie.getEstRecurrent()).isTrue());
+        assertThat(stub.getRequetes()).isEqualTo(requetes);
+    }
+
+    @Test
+    void semiOuvert_appelDEssaiReussi_refermeLeCircuit() throws Exception {
+        client = client(OUVERTURE_COURTE_SECONDES);
+        ouvrirDisjoncteur();
+        stub.setEnPanne(false);
+        Thread.sleep(Duration.ofSeconds(OUVERTURE_COURTE_SECONDES).plusMillis(100).toMillis());
+
+        assertThat(client.tester().join()).isTrue();
+
+        assertThat(client.getEtatDisjoncteur()).isEqualTo(Disjoncteur.Etat.FERME);
+        assertThat(client.joursFeries(2028).join()).isPresent();
+    }
+
+    @Test
+    void semiOuvert_appelDEssaiEnEchec_rouvreLeCircuit() throws Exception {
+        client = client(OUVERTURE_COURTE_SECONDES);
+        ouvrirDisjoncteur();
+        Thread.sleep(Duration.ofSeconds(OUVERTURE_COURTE_SECONDES).plusMillis(100).toMillis());
+        int requetes = stub.getRequetes();
+
+        assertThat(client.tester().join()).isFalse();
+
+        assertThat(stub.getRequetes()).isEqualTo(requetes + 1);
+        assertThat(client.getEtatDisjoncteur()).isEqualTo(Disjoncteur.Etat.OUVERT);
+        assertThat(client.tester().join()).isFalse();
+        assertThat(stub.getRequetes()).isEqualTo(requetes + 1);
+    }
+
+    private DateNagerClient client(long ouvertureSecondes) {
+        return new DateNagerClient(objectMapper, stub.getBaseUrl(), "SN", true, 2000, cache.toString(),
+                SEUIL_ECHECS, ouvertureSecondes);
+    }
+
+    private void ouvrirDisjoncteur() {
+        stub.setEnPanne(true);
+        for (int i = 0; i < SEUIL_ECHECS; i++) {
+            client.tester().join();
+        }
+        assertThat(client.getEtatDisjoncteur()).isEqualTo(Disjoncteur.Etat.OUVERT);
+    }
+}
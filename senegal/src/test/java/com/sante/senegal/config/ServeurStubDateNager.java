@@ -0,0 +1,109 @@
+package com.sante.senegal.config;
+
+import com.fasterxml.jackson.databind.ObjectMapper;
+import com.sun.net.httpserver.HttpExchange;
+import com.sun.net.httpserver.HttpServer;
+
+import java.io.IOException;
+import java.io.OutputStream;
+import java.net.InetSocketAddress;
+import java.nio.charset.StandardCharsets;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.Executors;
+import java.util.concurrent.atomic.AtomicInteger;
+
+/**
+ * Serveur local imitant l'API Date Nager pour les tests de DateNagerClient :
+ * il sert les jours fériés fixes du Sénégal, compte les requêtes reçues et peut simuler une API lente ou en panne.
+ * Il écoute sur un port libre ; pointer le client sur getBaseUrl().
+ */
+public class ServeurStubDateNager implements AutoCloseable {
+
+    private static final String PREFIXE = "/api/v3/";
+
+    private final ObjectMapper objectMapper;
+    private final HttpServer serveur;
+    private final AtomicInteger requetes = new AtomicInteger();
+    private volatile long latenceMs;
+    private volatile boolean enPanne;
+
+    public ServeurStubDateNager(ObjectMapper objectMapper) throws IOException {
+        this.objectMapper = objectMapper;
+        this.serveur = HttpServer.create(new InetSocketAddress("localhost", 0), 0);
+        serveur.createContext(PREFIXE, this::repondre);
+        serveur.setExecutor(Executors.newVirtualThreadPerTaskExecutor());
+        serveur.start();
+    }
+
+    public String getBaseUrl() {
+        return "http://localhost:" + serveur.getAddress().getPort() + "/api/v3";
+    }
+
+    public int getRequetes() {
+        return requetes.get();
+    }
+
+    public void setLatenceMs(long latenceMs) {
+        this.latenceMs = latenceMs;
+    }
+
+    public void setEnPanne(boolean enPanne) {
+        this.enPanne = enPanne;
+    }
+
+    @Override
+    public void close() {
+        serveur.stop(0);
+    }
+
+    private void repondre(HttpExchange echange) throws IOException {
+        requetes.incrementAndGet();
+        try (echange) {
+            if (latenceMs > 0) {
+                Thread.sleep(latenceMs);
+            }
+            if (enPanne) {
+                envoyer(echange, 503, "{\"error\":\"stub en panne\"}");
+                return;
+            }
+            String[] segments = echange.getRequestURI().getPath().substring(PREFIXE.length()).split("/");
+            switch (segments[0]) {
+                case "PublicHolidays" -> envoyer(echange, 200, objectMapper.writeValueAsString(joursFeries(segments)));
+                case "AvailableCountries" -> envoyer(echange, 200, objectMapper.writeValueAsString(
+                        List.of(Map.of("countryCode", "SN", "name", "Senegal"))));
+                case "CountryInfo" -> envoyer(echange, 200, objectMapper.writeValueAsString(Map.of(
+                        "commonName", "Senegal", "officialName", "Republic of Senegal",
+                        "countryCode", "SN", "region", "Africa")));
+                default -> envoyer(echange, 404, "{}");
+            }
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+        }
+    }
+
+    private List<Map<String, Object>> joursFeries(String[] segments) {
+        if (segments.length < 3 || !"SN".equalsIgnoreCase(segments[2])) {
+            return List.of();
+        }
+        String annee = segments[1];
+        return DateNagerCalendrierService.JOURS_FERIES_FIXES_SENEGAL.entrySet().stream()
+                .map(entry -> Map.<String, Object>of(
+                        "date", annee + "-" + entry.getKey(),
+                        "localName", entry.getValue(),
+                        "name", entry.getValue(),
+                        "countryCode", "SN",
+                        "fixed", true,
+                        "global", true))
+                .toList();
+    }
+
+    private void envoyer(HttpExchange echange, int statut, String json) throws IOException {
+        byte[] corps = json.getBytes(StandardCharsets.UTF_8);
+        echange.getResponseHeaders().set("Content-Type", "application/json");
+        echange.sendResponseHeaders(statut, corps.length);
+        try (OutputStream sortie = echange.getResponseBody()) {
+            sortie.write(corps);
+        }
+    }
+}
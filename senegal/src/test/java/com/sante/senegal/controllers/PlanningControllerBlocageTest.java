@@ -0,0 +1,65 @@
+package com.sante.senegal.controllers;
+
+import com.sante.senegal.dto.BlocageCreneauDto;
+import com.sante.senegal.entities.Utilisateur;
+import com.sante.senegal.security.CustomUserDetails;
+import com.sante.senegal.services.interfaces.PlanningService;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.extension.ExtendWith;
+import org.mockito.InjectMocks;
+import org.mockito.Mock;
+import org.mockito.junit.jupiter.MockitoExtension;
+import org.springframework.http.HttpStatus;
+import org.springframework.http.ResponseEntity;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.mockito.ArgumentMatchers.any;
+import static org.mockito.ArgumentMatchers.anyLong;
+import static org.mockito.Mockito.*;
+
+/**
+ * Le patient d'un blocage est celui du jeton, jamais un paramètre de la requête
+ */
+@ExtendWith(MockitoExtension.class)
+class PlanningControllerBlocageTest {
+
+    @Mock
+    private PlanningService planningService;
+
+    @InjectMocks
+    private PlanningController controller;
+
+    @Test
+    void bloquerCreneau_utiliseLePatientConnecte() {
+        BlocageCreneauDto blocage = BlocageCreneauDto.builder().idPlanning(1L).idPatient(10L).build();
+        when(planningService.bloquerCreneau(1L, 10L, null)).thenReturn(blocage);
+
+        ResponseEntity<?> reponse = controller.bloquerCreneau(1L, null, connecte(10L, Utilisateur.TypeUtilisateur.PATIENT));
+
+        assertThat(reponse.getStatusCode()).isEqualTo(HttpStatus.OK);
+        assertThat(reponse.getBody()).isSameAs(blocage);
+    }
+
+    @Test
+    void bloquerCreneau_refuseUnUtilisateurQuiNEstPasPatient() {
+        ResponseEntity<?> reponse = controller.bloquerCreneau(1L, null, connecte(30L, Utilisateur.TypeUtilisateur.MEDECIN));
+
+        assertThat(reponse.getStatusCode()).isEqualTo(HttpStatus.FORBIDDEN);
+        verify(planningService, never()).bloquerCreneau(anyLong(), anyLong(), any());
+    }
+
+    @Test
+    void libererBlocage_refuseLeBlocageDUnAutrePatient() {
+        when(planningService.libererBlocage(1L, 20L)).thenReturn(false);
+        when(planningService.libererBlocage(1L, 10L)).thenReturn(true);
+
+        assertThat(controller.libererBlocage(1L, connecte(20L, Utilisateur.TypeUtilisateur.PATIENT)).getStatusCode())
+                .isEqualTo(HttpStatus.FORBIDDEN);
+        assertThat(controller.libererBlocage(1L, connecte(10L, Utilisateur.TypeUtilisateur.PATIENT)).getStatusCode())
+                .isEqualTo(HttpStatus.NO_CONTENT);
+    }
+
+    private static CustomUserDetails connecte(Long id, Utilisateur.TypeUtilisateur type) {
+        return new CustomUserDetails(Utilisateur.builder().id(id).type(type).build());
+    }
+}
@@ -0,0 +1,86 @@
+package com.sante.senegal.mappers;
+
+import com.sante.senegal.entities.*;
+
+import java.time.LocalDate;
+import java.time.LocalDateTime;
+import java.time.LocalTime;
+import java.util.List;
+
+/**
+ * Entités d'exemple partagées par les tests d'équivalence et le benchmark des mappers
+ */
+final class Echantillons {
+
+    private Echantillons() {
+    }
+
+    static Hopital hopital() {
+        return Hopital.builder().idHopital(3L).nom("Hôpital Principal").adresse("Avenue Nelson Mandela")
+                .ville("Dakar").region("Dakar").build();
+    }
+
+    static Service service() {
+        return Service.builder().idService(2L).nom("Cardiologie").hopital(hopital()).build();
+    }
+
+    static Medecin medecin() {
+        Medecin medecin = Medecin.builder()
+                .id(10L).nom("Diop").prenom("Awa").email("awa.diop@test.sn")
+                .sexe(Utilisateur.Sexe.FEMININ).statut(Utilisateur.StatutUtilisateur.ACTIF)
+                .type(Utilisateur.TypeUtilisateur.MEDECIN)
+                .specialite("Cardiologie").numeroOrdre("ORD-42").titre("Dr").matricule("M-7").experience(12)
+                .service(service()).build();
+        medecin.setHopitaux(List.of(hopital()));
+        return medecin;
+    }
+
+    static Patient patient() {
+        Patient patient = Patient.builder()
+                .id(20L).nom("Fall").prenom("Moussa").email("moussa.fall@test.sn")
+                .dateNaissance(LocalDate.of(1990, 5, 4)).sexe(Utilisateur.Sexe.MASCULIN)
+                .statut(Utilisateur.StatutUtilisateur.ACTIF).type(Utilisateur.TypeUtilisateur.PATIENT)
+                .numAssurance("ASS-1").groupeSanguin("O+").profession("Enseignant").build();
+        patient.setDossierMedical(DossierMedical.builder().idDossier(30L).patient(patient).build());
+        return patient;
+    }
+
+    static RendezVous rendezVous() {
+        return RendezVous.builder()
+                .idRdv(40L).patient(patient()).medecin(medecin()).service(service()).hopital(hopital())
+                .dateHeure(LocalDateTime.of(2026, 3, 2, 9, 30)).dureePrevue(30)
+                .typeConsultation(RendezVous.TypeConsultation.CONSULTATION_GENERALE)
+                .niveauUrgence(RendezVous.NiveauUrgence.NORMALE).statut(RendezVous.StatutRendezVous.CONFIRME)
+                .motif("Douleurs thoraciques").modePriseRdv(RendezVous.ModePriseRdv.EN_LIGNE).build();
+    }
+
+    static Consultation consultation() {
+        return Consultation.builder()
+                .idConsultation(50L).rendezVous(rendezVous())
+                .dossier(DossierMedical.builder().idDossier(30L).build())
+                .dateHeure(LocalDateTime.of(2026, 3, 2, 9, 35)).dureeReelle(25)
+                .symptomes("Essoufflement").diagnostic("Angine de poitrine").observations("RAS")
+                .recommandations("Repos").statut(Consultation.StatutConsultation.TERMINEE).satisfaction(4.5)
+                .build();
+    }
+
+    static Examen examen() {
+        return Examen.builder()
+                .idExamen(60L).consultation(consultation()).typeExamen("BIOLOGIE").nomExamen("Troponine")
+                .description("Dosage").datePrescription(LocalDate.of(2026, 3, 2))
+                .statut(Examen.StatutExamen.PRESCRIT).urgence(Examen.NiveauUrgence.URGENT).build();
+    }
+
+    static MedicamentPrescrit medicament() {
+        return MedicamentPrescrit.builder()
+                .idMedicamentPrescrit(70L).nomMedicament("Aspirine").dosage("100 mg").frequence("1/j")
+                .duree(30).statut(MedicamentPrescrit.StatutMedicament.PRESCRIT).build();
+    }
+
+    static Planning planning() {
+        return Planning.builder()
+                .idPlanning(80L).medecin(medecin()).service(service()).hopital(hopital())
+                .date(LocalDate.of(2026, 3, 2)).heureDebut(LocalTime.of(9, 30)).heureFin(LocalTime.of(10, 0))
+                .reserve(true).rendezVous(rendezVous()).build();
+    }
+}
@@ -0,0 +1,95 @@
+package com.sante.senegal.mappers;
+
+import com.sante.senegal.dto.ConsultationDto;
+import com.sante.senegal.dto.ExamenDto;
+import com.sante.senegal.dto.PlanningDto;
+import com.sante.senegal.entities.Consultation;
+import com.sante.senegal.entities.Examen;
+import com.sante.senegal.entities.Planning;
+import org.mapstruct.factory.Mappers;
+import org.modelmapper.ModelMapper;
+import org.openjdk.jmh.annotations.*;
+import org.openjdk.jmh.runner.Runner;
+import org.openjdk.jmh.runner.RunnerException;
+import org.openjdk.jmh.runner.options.OptionsBuilder;
+
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Coût par ligne des mappers générés face à l'ancienne configuration ModelMapper.
+ * Lancement : mvn test-compile puis exécuter main (classpath de test), ou depuis l'IDE.
+ */
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.NANOSECONDS)
+@Warmup(iterations = 3, time = 1)
+@Measurement(iterations = 5, time = 1)
+@Fork(1)
+@State(Scope.Benchmark)
+public class MappersBenchmark {
+
+    private ModelMapper modelMapper;
+    private PlanningMapper planningMapper;
+    private ExamenMapper examenMapper;
+    private ConsultationMapper consultationMapper;
+
+    private Planning planning;
+    private Examen examen;
+    private Consultation consultation;
+
+    @Setup
+    public void preparer() {
+        modelMapper = ModelMapperReference.creer();
+        planningMapper = Mappers.getMapper(PlanningMapper.class);
+        examenMapper = Mappers.getMapper(ExamenMapper.class);
+        consultationMapper = Mappers.getMapper(ConsultationMapper.class);
+        planning = Echantillons.planning();
+        examen = Echantillons.examen();
+        consultation = Echantillons.consultation();
+    }
+
+    @Benchmark
+    public PlanningDto planningModelMapper() {
+        return ModelMapperReference.planning(modelMapper, planning);
+    }
+
+    @Benchmark
+    public PlanningDto planningMapStruct() {
+        return planningMapper.toDto(planning);
+    }
+
+    @Benchmark
+    public ExamenDto examenModelMapper() {
+        return modelMapper.map(examen, ExamenDto.class);
+    }
+
+    @Benchmark
+    public ExamenDto examenMapStruct() {
+        return examenMapper.toDto(examen);
+    }
+
+    @Benchmark
+    public ConsultationDto consultationModelMapper() {
+        return modelMapper.map(consultation, ConsultationDto.class);
+    }
+
+    @Benchmark
+    public ConsultationDto consultationMapStruct() {
+        return consultationMapper.toDto(consultation);
+    }
+
+    /**
+     * Construction de la configuration ModelMapper, payée au démarrage (les mappers générés n'en ont pas)
+     */
+    @Benchmark
+    @BenchmarkMode(Mode.SingleShotTime)
+    @OutputTimeUnit(TimeUnit.MILLISECONDS)
+    @Warmup(iterations = 0)
+    @Measurement(iterations = 10)
+    public ModelMapper configurationModelMapper() {
+        return ModelMapperReference.creer();
+    }
+
+    public static void main(String[] args) throws RunnerException {
+        new Runner(new OptionsBuilder().include(MappersBenchmark.class.getSimpleName()).build()).run();
+    }
+}
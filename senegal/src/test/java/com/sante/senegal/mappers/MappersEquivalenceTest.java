@@ -0,0 +1,165 @@
+package com.sante.senegal.mappers;
+
+import com.sante.senegal.dto.*;
+import com.sante.senegal.entities.*;
+import org.junit.jupiter.api.Test;
+import org.mapstruct.factory.Mappers;
+import org.modelmapper.ModelMapper;
+
+import java.time.LocalDateTime;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+/**
+ * Les mappers générés reproduisent la sortie de l'ancienne configuration ModelMapper
+ * (ModelMapperConfig avant migration, reconstruite ici) sur des entités d'exemple.
+ */
+class MappersEquivalenceTest {
+
+    private final ModelMapper reference = ModelMapperReference.creer();
+
+    private final ExamenMapper examenMapper = Mappers.getMapper(ExamenMapper.class);
+    private final ConsultationMapper consultationMapper = Mappers.getMapper(ConsultationMapper.class);
+    private final PrescriptionMapper prescriptionMapper = Mappers.getMapper(PrescriptionMapper.class);
+    private final PlanningMapper planningMapper = Mappers.getMapper(PlanningMapper.class);
+    private final RendezVousMapper rendezVousMapper = Mappers.getMapper(RendezVousMapper.class);
+    private final PatientMapper patientMapper = Mappers.getMapper(PatientMapper.class);
+    private final MedecinMapper medecinMapper = Mappers.getMapper(MedecinMapper.class);
+
+    @Test
+    void examenIdentiqueAModelMapper() {
+        Examen examen = Echantillons.examen();
+
+        ExamenDto dto = examenMapper.toDto(examen);
+
+        assertThat(dto).usingRecursiveComparison().isEqualTo(reference.map(examen, ExamenDto.class));
+        // Correspondance implicite de ModelMapper : consultation.idConsultation -> consultationId
+        assertThat(dto.getConsultationId()).isEqualTo(50L);
+    }
+
+    @Test
+    void consultationIdentiqueAModelMapper() {
+        Consultation consultation = Echantillons.consultation();
+
+        ConsultationDto dto = consultationMapper.toDto(consultation);
+
+        assertThat(dto).usingRecursiveComparison().isEqualTo(reference.map(consultation, ConsultationDto.class));
+        assertThat(dto.getIdRendezVous()).isEqualTo(40L);
+        assertThat(dto.getIdDossier()).isEqualTo(30L);
+    }
+
+    @Test
+    void medicamentIdentiqueAModelMapper() {
+        MedicamentPrescrit medicament = Echantillons.medicament();
+
+        MedicamentPrescritDto dto = prescriptionMapper.toDto(medicament);
+
+        assertThat(dto).usingRecursiveComparison().isEqualTo(reference.map(medicament, MedicamentPrescritDto.class));
+        // statut -> statutMedicament et Integer -> String, comme ModelMapper
+        assertThat(dto.getStatutMedicament()).isEqualTo(MedicamentPrescrit.StatutMedicament.PRESCRIT);
+        assertThat(dto.getDuree()).isEqualTo("30");
+    }
+
+    @Test
+    void planningIdentiqueAModelMapper() {
+        Planning planning = Echantillons.planning();
+
+        PlanningDto dto = planningMapper.toDto(planning);
+
+        assertThat(dto).usingRecursiveComparison().isEqualTo(ModelMapperReference.planning(reference, planning));
+        assertThat(dto.getNomMedecin()).isEqualTo("Diop Awa");
+        assertThat(dto.getIdRendezVous()).isEqualTo(40L);
+    }
+
+    @Test
+    void requeteRendezVousIdentiqueAModelMapper() {
+        RendezVousRequestDto requete = RendezVousRequestDto.builder()
+                .idPatient(20L).idMedecin(10L).idService(2L).idHopital(3L)
+                .dateHeure(LocalDateTime.of(2030, 1, 15, 9, 0)).dureePrevue(30)
+                .typeConsultation("CONSULTATION_GENERALE").niveauUrgence("URGENT").motif("Contrôle")
+                .build();
+
+        RendezVous rdv = rendezVousMapper.toEntity(requete);
+
+        // ModelMapper créait en plus une consultation vide rattachée au rendez-vous
+        assertThat(rdv).usingRecursiveComparison()
+                .ignoringFields("consultation")
+                .isEqualTo(reference.map(requete, RendezVous.class));
+        assertThat(rdv.getConsultation()).isNull();
+        assertThat(rdv.getPatient().getId()).isEqualTo(20L);
+        assertThat(rdv.getHopital().getIdHopital()).isEqualTo(3L);
+    }
+
+    @Test
+    void enumInconnuDevientNullCommeModelMapper() {
+        RendezVousRequestDto requete = RendezVousRequestDto.builder()
+                .typeConsultation("TELECONSULTATION").niveauUrgence("URGENT").build();
+
+        RendezVous rdv = rendezVousMapper.toEntity(requete);
+
+        assertThat(rdv.getTypeConsultation()).isNull();
+        assertThat(reference.map(requete, RendezVous.class).getTypeConsultation()).isNull();
+        assertThat(rdv.getNiveauUrgence()).isEqualTo(RendezVous.NiveauUrgence.URGENT);
+    }
+
+    @Test
+    void miseAJourRendezVousConserveLesRelationsSansIdentifiant() {
+        RendezVous rdv = Echantillons.rendezVous();
+        Patient patient = rdv.getPatient();
+
+        rendezVousMapper.mettreAJour(RendezVousRequestDto.builder().motif("Contrôle").idMedecin(11L).build(), rdv);
+
+        assertThat(rdv.getPatient()).isSameAs(patient);
+        assertThat(rdv.getPatient().getId()).isEqualTo(20L);
+        assertThat(rdv.getMedecin().getId()).isEqualTo(11L);
+        assertThat(rdv.getMotif()).isEqualTo("Contrôle");
+        // Comme ModelMapper, un champ simple absent de la requête est remis à null
+        assertThat(rdv.getDateHeure()).isNull();
+    }
+
+    @Test
+    void rendezVousIdentiqueAModelMapper() {
+        RendezVous rdv = Echantillons.rendezVous();
+
+        RendezVousDto dto = rendezVousMapper.toDto(rdv);
+
+        // Seuls les noms complets, que ModelMapper laissait à null, sont ajoutés
+        assertThat(dto).usingRecursiveComparison()
+                .ignoringFields("patientNomComplet", "medecinNomComplet")
+                .isEqualTo(reference.map(rdv, RendezVousDto.class));
+        assertThat(dto.getPatientId()).isEqualTo(20L);
+        assertThat(dto.getPatientNomComplet()).isEqualTo("Moussa Fall");
+        assertThat(dto.getMedecinNomComplet()).isEqualTo("Awa Diop");
+        assertThat(dto.getMedecinSpecialite()).isEqualTo("Cardiologie");
+        assertThat(dto.getServiceNom()).isEqualTo("Cardiologie");
+        assertThat(dto.getHopitalId()).isEqualTo(3L);
+        assertThat(dto.getVilleHopital()).isEqualTo("Dakar");
+        assertThat(dto.getModePriseRdv()).isEqualTo("EN_LIGNE");
+    }
+
+    @Test
+    void patientRenseigneLeDossier() {
+        PatientDto dto = patientMapper.toDto(Echantillons.patient());
+
+        assertThat(dto.getId()).isEqualTo(20L);
+        assertThat(dto.getNom()).isEqualTo("Fall");
+        assertThat(dto.getGroupeSanguin()).isEqualTo("O+");
+        assertThat(dto.getIdDossierMedical()).isEqualTo(30L);
+    }
+
+    @Test
+    void medecinListeSansRelationsEtFicheAvecRelations() {
+        Medecin medecin = Echantillons.medecin();
+
+        MedecinDto liste = medecinMapper.toDto(medecin);
+        UtilisateurDetailDto fiche = medecinMapper.toDetailDto(medecin);
+
+        // L'ancienne configuration ignorait idsHopitaux et idService pour MedecinDto
+        assertThat(liste.getIdsHopitaux()).isNull();
+        assertThat(liste.getIdService()).isNull();
+        assertThat(liste.getNumeroOrdre()).isEqualTo("ORD-42");
+        assertThat(fiche.getIdshopitaux()).containsExactly(3L);
+        assertThat(fiche.getIdService()).isEqualTo(2L);
+        assertThat(fiche.getSpecialite()).isEqualTo("Cardiologie");
+    }
+}
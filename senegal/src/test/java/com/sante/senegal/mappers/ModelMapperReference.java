@@ -0,0 +1,62 @@
+package com.sante.senegal.mappers;
+
+import com.sante.senegal.dto.ConsultationDto;
+import com.sante.senegal.dto.PlanningDto;
+import com.sante.senegal.entities.Consultation;
+import com.sante.senegal.entities.Planning;
+import org.modelmapper.ModelMapper;
+
+/**
+ * Configuration ModelMapper d'avant la migration vers MapStruct, conservée comme référence
+ * pour les tests d'équivalence et le benchmark
+ */
+final class ModelMapperReference {
+
+    private ModelMapperReference() {
+    }
+
+    static ModelMapper creer() {
+        ModelMapper modelMapper = new ModelMapper();
+        modelMapper.typeMap(Consultation.class, ConsultationDto.class)
+                .addMappings(mapper -> {
+                    mapper.map(src -> src.getRendezVous().getIdRdv(), ConsultationDto::setIdRendezVous);
+                    mapper.map(src -> src.getDossier().getIdDossier(), ConsultationDto::setIdDossier);
+                });
+        modelMapper.typeMap(Planning.class, PlanningDto.class).addMappings(mapper -> {
+            mapper.map(src -> src.getMedecin().getId(), PlanningDto::setIdMedecin);
+            mapper.map(src -> src.getMedecin().getNom(), PlanningDto::setNomMedecin);
+            mapper.map(src -> src.getMedecin().getSpecialite(), PlanningDto::setSpecialiteMedecin);
+            mapper.map(src -> src.getService().getIdService(), PlanningDto::setIdService);
+            mapper.map(src -> src.getService().getNom(), PlanningDto::setNomService);
+            mapper.map(src -> src.getHopital().getIdHopital(), PlanningDto::setIdHopital);
+            mapper.map(src -> src.getHopital().getNom(), PlanningDto::setNomHopital);
+            mapper.map(src -> src.getHopital().getAdresse(), PlanningDto::setAdresseHopital);
+        });
+        return modelMapper;
+    }
+
+    /**
+     * Ancien PlanningServiceImpl.convertToDto : ModelMapper puis enrichissement manuel
+     */
+    static PlanningDto planning(ModelMapper modelMapper, Planning planning) {
+        PlanningDto dto = modelMapper.map(planning, PlanningDto.class);
+        if (planning.getMedecin() != null) {
+            dto.setIdMedecin(planning.getMedecin().getId());
+            dto.setNomMedecin(planning.getMedecin().getNom() + " " + planning.getMedecin().getPrenom());
+            dto.setSpecialiteMedecin(planning.getMedecin().getSpecialite());
+        }
+        if (planning.getService() != null) {
+            dto.setIdService(planning.getService().getIdService());
+            dto.setNomService(planning.getService().getNom());
+        }
+        if (planning.getHopital() != null) {
+            dto.setIdHopital(planning.getHopital().getIdHopital());
+            dto.setNomHopital(planning.getHopital().getNom());
+            dto.setAdresseHopital(planning.getHopital().getAdresse());
+        }
+        if (planning.getRendezVous() != null) {
+            dto.setIdRendezVous(planning.getRendezVous().getIdRdv());
+        }
+        return dto;
+    }
+}
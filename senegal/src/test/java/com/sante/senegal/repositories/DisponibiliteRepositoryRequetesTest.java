@@ -0,0 +1,113 @@
+package com.sante.senegal.repositories;
+
+import com.sante.senegal.dto.DisponibiliteResponseDto;
+import com.sante.senegal.entities.Disponibilite;
+import com.sante.senegal.mappers.DisponibiliteMapper;
+import com.sante.senegal.support.JeuDonnees;
+import jakarta.persistence.EntityManagerFactory;
+import org.hibernate.SessionFactory;
+import org.hibernate.stat.Statistics;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.autoconfigure.orm.jpa.DataJpaTest;
+import org.springframework.boot.test.autoconfigure.orm.jpa.TestEntityManager;
+import org.springframework.test.context.ActiveProfiles;
+
+import java.time.LocalDate;
+import java.time.LocalTime;
+import java.util.List;
+import java.util.function.Supplier;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+/**
+ * Les listings de disponibilités chargés avec Disponibilite.affichage se convertissent en DisponibiliteResponseDto
+ * en une seule requête SQL
+ */
+@DataJpaTest
+@ActiveProfiles("test")
+class DisponibiliteRepositoryRequetesTest {
+
+    private static final Disponibilite.StatutDisponibilite DISPONIBLE = Disponibilite.StatutDisponibilite.DISPONIBLE;
+
+    @Autowired
+    private DisponibiliteRepository disponibiliteRepository;
+
+    @Autowired
+    private TestEntityManager em;
+
+    @Autowired
+    private EntityManagerFactory emf;
+
+    private final DisponibiliteMapper disponibiliteMapper = new DisponibiliteMapper();
+
+    private JeuDonnees donnees;
+    private LocalDate demain;
+
+    @BeforeEach
+    void preparer() {
+        donnees = new JeuDonnees(em);
+        demain = LocalDate.now().plusDays(1);
+        for (int i = 0; i < 3; i++) {
+            donnees.disponibilite(demain.plusDays(i), LocalTime.of(8, 0), LocalTime.of(12, 0));
+            donnees.disponibilite(demain.plusDays(i), LocalTime.of(14, 0), LocalTime.of(17, 0));
+        }
+        donnees.valider();
+    }
+
+    @Test
+    void listingsSimples_uneSeuleRequete() {
+        assertUneRequete(() -> disponibiliteRepository.findAll(), 6);
+        assertUneRequete(() -> disponibiliteRepository.findByMedecinId(donnees.medecin.getId()), 6);
+        assertUneRequete(() -> disponibiliteRepository.findByServiceIdService(donnees.service.getIdService()), 6);
+        assertUneRequete(() -> disponibiliteRepository.findByHopitalIdHopital(donnees.hopital.getIdHopital()), 6);
+        assertUneRequete(() -> disponibiliteRepository.findByDate(demain), 2);
+        assertUneRequete(() -> disponibiliteRepository.findByStatut(DISPONIBLE), 6);
+        assertUneRequete(() -> disponibiliteRepository.findByJourSemaineAndStatutDisponible(demain.getDayOfWeek()), 2);
+        assertUneRequete(() -> disponibiliteRepository.findFutureAvailableDisponibilites(), 6);
+    }
+
+    @Test
+    void listingsParJourEtStatut_uneSeuleRequete() {
+        Long idMedecin = donnees.medecin.getId();
+
+        assertUneRequete(() -> disponibiliteRepository.findByDateAndStatut(demain, DISPONIBLE), 2);
+        assertUneRequete(() -> disponibiliteRepository.findByIdMedecinAndDateAndStatut(idMedecin, demain, DISPONIBLE), 2);
+        assertUneRequete(() -> disponibiliteRepository.findByMedecinDateAndStatut(idMedecin, demain, DISPONIBLE), 2);
+        assertUneRequete(() -> disponibiliteRepository.findByServiceDateAndStatut(
+                donnees.service.getIdService(), demain, DISPONIBLE), 2);
+    }
+
+    @Test
+    void listingsSurPeriode_uneSeuleRequete() {
+        LocalDate fin = demain.plusDays(1);
+
+        assertUneRequete(() -> disponibiliteRepository.findAvailableDisponibilitesBetweenDates(demain, fin), 4);
+        assertUneRequete(() -> disponibiliteRepository.findByServiceBetweenDates(donnees.service.getIdService(), demain, fin), 4);
+        assertUneRequete(() -> disponibiliteRepository.findByHopitalBetweenDates(donnees.hopital.getIdHopital(), demain, fin), 4);
+        assertUneRequete(() -> disponibiliteRepository.findByMedecinBetweenDatesAndStatut(
+                donnees.medecin.getId(), demain, fin, DISPONIBLE), 4);
+        assertUneRequete(() -> disponibiliteRepository.findByMultipleCriteria(
+                null, donnees.service.getIdService(), null, demain, null, DISPONIBLE), 6);
+    }
+
+    @Test
+    void detail_uneSeuleRequete() {
+        Long id = disponibiliteRepository.findAll().get(0).getIdDisponibilite();
+
+        assertUneRequete(() -> disponibiliteRepository.findAffichageByIdDisponibilite(id).stream().toList(), 1);
+    }
+
+    private List<DisponibiliteResponseDto> assertUneRequete(Supplier<List<Disponibilite>> lecture, int attendus) {
+        em.clear();
+        Statistics statistiques = emf.unwrap(SessionFactory.class).getStatistics();
+        statistiques.clear();
+
+        List<DisponibiliteResponseDto> dtos = lecture.get().stream().map(disponibiliteMapper::toResponseDto).toList();
+
+        assertThat(dtos).hasSize(attendus);
+        assertThat(statistiques.getPrepareStatementCount()).isEqualTo(1);
+        return dtos;
+    }
+}
@@ -0,0 +1,107 @@
+package com.sante.senegal.repositories;
+
+import com.sante.senegal.dto.PlanningDto;
+import com.sante.senegal.entities.Planning;
+import com.sante.senegal.entities.RendezVous;
+import com.sante.senegal.mappers.PlanningMapper;
+import com.sante.senegal.support.JeuDonnees;
+import jakarta.persistence.EntityManagerFactory;
+import org.hibernate.SessionFactory;
+import org.hibernate.stat.Statistics;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.mapstruct.factory.Mappers;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.autoconfigure.orm.jpa.DataJpaTest;
+import org.springframework.boot.test.autoconfigure.orm.jpa.TestEntityManager;
+import org.springframework.test.context.ActiveProfiles;
+
+import java.time.LocalDate;
+import java.time.LocalTime;
+import java.util.List;
+import java.util.function.Supplier;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+/**
+ * Les listings de créneaux chargés avec Planning.affichage se convertissent en PlanningDto en une seule requête SQL,
+ * y compris pour les créneaux réservés : le rendez-vous n'est lu que par son identifiant
+ */
+@DataJpaTest
+@ActiveProfiles("test")
+class PlanningRepositoryRequetesTest {
+
+    @Autowired
+    private PlanningRepository planningRepository;
+
+    @Autowired
+    private TestEntityManager em;
+
+    @Autowired
+    private EntityManagerFactory emf;
+
+    private final PlanningMapper planningMapper = Mappers.getMapper(PlanningMapper.class);
+
+    private JeuDonnees donnees;
+    private LocalDate demain;
+
+    @BeforeEach
+    void preparer() {
+        donnees = new JeuDonnees(em);
+        demain = LocalDate.now().plusDays(1);
+        for (int i = 0; i < 4; i++) {
+            LocalTime heure = LocalTime.of(8, 0).plusMinutes(30L * i);
+            RendezVous rdv = i % 2 == 0
+                    ? donnees.rendezVous(demain.atTime(heure), RendezVous.StatutRendezVous.CONFIRME)
+                    : null;
+            donnees.creneau(demain, heure, rdv);
+            donnees.creneau(demain.plusDays(1), heure, null);
+        }
+        donnees.valider();
+    }
+
+    @Test
+    void listingsParMedecin_uneSeuleRequete() {
+        Long idMedecin = donnees.medecin.getId();
+
+        assertUneRequete(() -> planningRepository.findByMedecinIdAndDateBetween(idMedecin, demain, demain.plusDays(1)), 8);
+        assertUneRequete(() -> planningRepository.findByMedecinIdAndDateAndReserve(idMedecin, demain, true), 2);
+        assertUneRequete(() -> planningRepository.findByMedecinIdAndDateBetweenAndReserve(idMedecin, demain, demain.plusDays(1), false), 6);
+    }
+
+    @Test
+    void listingsParServiceEtHopital_uneSeuleRequete() {
+        assertUneRequete(() -> planningRepository.findByServiceIdServiceAndDateBetweenAndReserve(
+                donnees.service.getIdService(), demain, demain.plusDays(1), false), 6);
+        assertUneRequete(() -> planningRepository.findByHopitalIdHopitalAndDateBetweenAndReserve(
+                donnees.hopital.getIdHopital(), demain, demain, true), 2);
+    }
+
+    @Test
+    void recherchesParCriteres_uneSeuleRequete() {
+        assertUneRequete(() -> planningRepository.findCreneauxDisponibles(
+                donnees.medecin.getId(), null, null, demain, demain.plusDays(1)), 6);
+        assertUneRequete(() -> planningRepository.findCreneauxDisponiblesParCriteres(
+                null, donnees.service.getIdService(), donnees.hopital.getIdHopital(), demain), 2);
+    }
+
+    @Test
+    void creneauReserve_identifiantDuRendezVousSansChargement() {
+        List<PlanningDto> reserves = assertUneRequete(() -> planningRepository.findByMedecinIdAndDateAndReserve(
+                donnees.medecin.getId(), demain, true), 2);
+
+        assertThat(reserves).allSatisfy(dto -> assertThat(dto.getIdRendezVous()).isNotNull());
+    }
+
+    private List<PlanningDto> assertUneRequete(Supplier<List<Planning>> lecture, int attendus) {
+        em.clear();
+        Statistics statistiques = emf.unwrap(SessionFactory.class).getStatistics();
+        statistiques.clear();
+
+        List<PlanningDto> dtos = lecture.get().stream().map(planningMapper::toDto).toList();
+
+        assertThat(dtos).hasSize(attendus);
+        assertThat(statistiques.getPrepareStatementCount()).isEqualTo(1);
+        return dtos;
+    }
+}
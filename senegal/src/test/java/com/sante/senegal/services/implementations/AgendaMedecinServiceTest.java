@@ -0,0 +1,91 @@
+package com.sante.senegal.services.implementations;
+
+import com.sante.senegal.dto.AgendaCreneauDto;
+import com.sante.senegal.entities.RendezVous;
+import com.sante.senegal.mappers.AgendaMedecinMapperImpl;
+import com.sante.senegal.repositories.RendezVousRepository;
+import com.sante.senegal.support.JeuDonnees;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.autoconfigure.orm.jpa.DataJpaTest;
+import org.springframework.boot.test.autoconfigure.orm.jpa.TestEntityManager;
+import org.springframework.context.annotation.Import;
+import org.springframework.test.context.ActiveProfiles;
+
+import java.time.LocalDate;
+import java.time.LocalTime;
+import java.util.List;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.assertj.core.api.Assertions.tuple;
+
+/**
+ * L'agenda d'un médecin reflète ses rendez-vous du jour : ligne réécrite ou supprimée avec le rendez-vous,
+ * annulations en masse, et reconstruction d'une période à partir des rendez-vous
+ */
+@DataJpaTest
+@ActiveProfiles("test")
+@Import({AgendaMedecinService.class, AgendaMedecinMapperImpl.class})
+class AgendaMedecinServiceTest {
+
+    @Autowired
+    private AgendaMedecinService agendaMedecinService;
+
+    @Autowired
+    private RendezVousRepository rendezVousRepository;
+
+    @Autowired
+    private TestEntityManager em;
+
+    private JeuDonnees donnees;
+    private LocalDate demain;
+
+    @BeforeEach
+    void preparer() {
+        donnees = new JeuDonnees(em);
+        demain = LocalDate.now().plusDays(1);
+    }
+
+    @Test
+    void rafraichir_reecritPuisSupprimeLaLigneDuRendezVous() {
+        RendezVous rdv = donnees.rendezVous(demain.atTime(9, 0), RendezVous.StatutRendezVous.PROGRAMME);
+        donnees.valider();
+
+        agendaMedecinService.rafraichir(rdv.getIdRdv());
+        donnees.valider();
+
+        List<AgendaCreneauDto> agenda = agendaMedecinService.getAgenda(donnees.medecin.getId(), demain);
+        assertThat(agenda).singleElement().satisfies(ligne -> {
+            assertThat(ligne.getHeureDebut()).isEqualTo(LocalTime.of(9, 0));
+            assertThat(ligne.getHeureFin()).isEqualTo(LocalTime.of(9, 30));
+            assertThat(ligne.getNomPatient()).isEqualTo("Moussa Fall");
+            assertThat(ligne.getStatut()).isEqualTo(RendezVous.StatutRendezVous.PROGRAMME);
+        });
+
+        rendezVousRepository.deleteById(rdv.getIdRdv());
+        agendaMedecinService.rafraichir(rdv.getIdRdv());
+        donnees.valider();
+
+        assertThat(agendaMedecinService.getAgenda(donnees.medecin.getId(), demain)).isEmpty();
+    }
+
+    @Test
+    void reconstruire_trieLaJourneeEtAppliqueLesAnnulationsEnMasse() {
+        RendezVous apresMidi = donnees.rendezVous(demain.atTime(14, 0), RendezVous.StatutRendezVous.PROGRAMME);
+        RendezVous matin = donnees.rendezVous(demain.atTime(8, 30), RendezVous.StatutRendezVous.CONFIRME);
+        donnees.rendezVous(demain.plusDays(5).atTime(8, 30), RendezVous.StatutRendezVous.PROGRAMME);
+        donnees.valider();
+
+        int lignes = agendaMedecinService.reconstruire(demain, demain);
+        agendaMedecinService.changerStatut(List.of(apresMidi.getIdRdv()), RendezVous.StatutRendezVous.ANNULE);
+        donnees.valider();
+
+        assertThat(lignes).isEqualTo(2);
+        assertThat(agendaMedecinService.getAgenda(donnees.medecin.getId(), demain))
+                .extracting(AgendaCreneauDto::getIdRdv, AgendaCreneauDto::getStatut)
+                .containsExactly(
+                        tuple(matin.getIdRdv(), RendezVous.StatutRendezVous.CONFIRME),
+                        tuple(apresMidi.getIdRdv(), RendezVous.StatutRendezVous.ANNULE));
+    }
+}
@@ -0,0 +1,143 @@
+package com.sante.senegal.services.implementations;
+
+import com.sante.senegal.entities.Planning;
+import com.sante.senegal.entities.RendezVous;
+import com.sante.senegal.exceptions.CreneauIndisponibleException;
+import com.sante.senegal.repositories.PlanningRepository;
+import com.sante.senegal.support.JeuDonnees;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.autoconfigure.orm.jpa.DataJpaTest;
+import org.springframework.boot.test.autoconfigure.orm.jpa.TestEntityManager;
+import org.springframework.boot.test.mock.mockito.MockBean;
+import org.springframework.context.annotation.Import;
+import org.springframework.test.context.ActiveProfiles;
+
+import java.time.LocalDate;
+import java.time.LocalTime;
+import java.util.List;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.assertj.core.api.Assertions.assertThatThrownBy;
+
+/**
+ * Une réservation ne découpe que l'intervalle qu'elle consomme : les créneaux libres suivants,
+ * déjà affichés ou bloqués par d'autres clients, gardent leur identifiant et leurs horaires,
+ * et un reste trop court pour une consultation est rattaché à la réservation
+ */
+@DataJpaTest
+@ActiveProfiles("test")
+@Import(AllocationIntervallesService.class)
+class AllocationIntervallesServiceTest {
+
+    @Autowired
+    private AllocationIntervallesService allocation;
+
+    @Autowired
+    private PlanningRepository planningRepository;
+
+    @Autowired
+    private TestEntityManager em;
+
+    @MockBean
+    private IndexCreneauxService indexCreneaux;
+    @MockBean
+    private BlocageCreneauService blocageCreneaux;
+
+    private JeuDonnees donnees;
+    private LocalDate demain;
+    private List<Planning> creneaux;
+
+    @BeforeEach
+    void preparer() {
+        donnees = new JeuDonnees(em);
+        demain = LocalDate.now().plusDays(1);
+        creneaux = List.of(
+                donnees.creneau(demain, LocalTime.of(8, 0), null),
+                donnees.creneau(demain, LocalTime.of(8, 30), null),
+                donnees.creneau(demain, LocalTime.of(9, 0), null),
+                donnees.creneau(demain, LocalTime.of(9, 30), null));
+    }
+
+    @Test
+    void allouer_neDecalePasLesCreneauxSuivants() {
+        RendezVous rdv = donnees.rendezVous(demain.atTime(8, 0), RendezVous.StatutRendezVous.PROGRAMME);
+        donnees.valider();
+
+        allocation.allouer(creneaux.get(0), rdv, 45);
+        donnees.valider();
+
+        assertThat(horaires()).containsExactly(
+                "08:00-09:00 réservé", "09:00-09:30 libre", "09:30-10:00 libre");
+        assertThat(identifiantsDepuis(LocalTime.of(9, 0)))
+                .containsExactly(creneaux.get(2).getIdPlanning(), creneaux.get(3).getIdPlanning());
+    }
+
+    @Test
+    void allouer_laisseLibreUnResteAssezLongPourUneConsultation() {
+        RendezVous rdv = donnees.rendezVous(demain.atTime(8, 0), RendezVous.StatutRendezVous.PROGRAMME);
+        donnees.valider();
+
+        allocation.allouer(creneaux.get(0), rdv, 30);
+        allocation.allouer(creneaux.get(1), donnees.rendezVous(demain.atTime(8, 30), RendezVous.StatutRendezVous.PROGRAMME), 25);
+        donnees.valider();
+
+        assertThat(horaires()).containsExactly(
+                "08:00-08:30 réservé", "08:30-09:00 réservé", "09:00-09:30 libre", "09:30-10:00 libre");
+    }
+
+    @Test
+    void allouer_refuseUnCreneauSuivantPrisEntreLectureEtReservation() {
+        RendezVous rdv = donnees.rendezVous(demain.atTime(8, 0), RendezVous.StatutRendezVous.PROGRAMME);
+        donnees.valider();
+        planningRepository.findJourMedecin(donnees.medecin.getId(), demain);
+        // Le créneau de 08:30 est pris par une autre transaction : l'entité gérée garde son état lu
+        em.getEntityManager().createQuery("UPDATE Planning p SET p.reserve = true WHERE p.idPlanning = :id")
+                .setParameter("id", creneaux.get(1).getIdPlanning())
+                .executeUpdate();
+
+        assertThatThrownBy(() -> allocation.allouer(creneaux.get(0), rdv, 45))
+                .isInstanceOf(CreneauIndisponibleException.class);
+    }
+
+    @Test
+    void allouer_refuseUnCreneauDejaReserve() {
+        RendezVous premier = donnees.rendezVous(demain.atTime(8, 0), RendezVous.StatutRendezVous.PROGRAMME);
+        RendezVous second = donnees.rendezVous(demain.atTime(8, 0), RendezVous.StatutRendezVous.PROGRAMME);
+        donnees.valider();
+        allocation.allouer(creneaux.get(0), premier, 30);
+
+        assertThatThrownBy(() -> allocation.allouer(creneaux.get(0), second, 30))
+                .isInstanceOf(CreneauIndisponibleException.class);
+    }
+
+    @Test
+    void liberer_rattacheLeResteCourtSansToucherLesAutresCreneaux() {
+        RendezVous rdv = donnees.rendezVous(demain.atTime(8, 0), RendezVous.StatutRendezVous.PROGRAMME);
+        donnees.valider();
+        Planning reserve = allocation.allouer(creneaux.get(0), rdv, 45);
+        donnees.valider();
+
+        allocation.liberer(reserve);
+        donnees.valider();
+
+        assertThat(horaires()).containsExactly(
+                "08:00-08:30 libre", "08:30-09:00 libre", "09:00-09:30 libre", "09:30-10:00 libre");
+        assertThat(identifiantsDepuis(LocalTime.of(9, 0)))
+                .containsExactly(creneaux.get(2).getIdPlanning(), creneaux.get(3).getIdPlanning());
+    }
+
+    private List<String> horaires() {
+        return planningRepository.findJourMedecin(donnees.medecin.getId(), demain).stream()
+                .map(p -> p.getHeureDebut() + "-" + p.getHeureFin() + (p.isReserve() ? " réservé" : " libre"))
+                .toList();
+    }
+
+    private List<Long> identifiantsDepuis(LocalTime heure) {
+        return planningRepository.findJourMedecin(donnees.medecin.getId(), demain).stream()
+                .filter(p -> !p.getHeureDebut().isBefore(heure))
+                .map(Planning::getIdPlanning)
+                .toList();
+    }
+}
@@ -0,0 +1,156 @@
+package com.sante.senegal.services.implementations;
+
+import com.sante.senegal.dto.CapaciteUrgenceDto;
+import com.sante.senegal.entities.RendezVous;
+import com.sante.senegal.entities.Service;
+import com.sante.senegal.exceptions.CreneauIndisponibleException;
+import com.sante.senegal.repositories.RendezVousRepository;
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.extension.ExtendWith;
+import org.mockito.Mock;
+import org.mockito.junit.jupiter.MockitoExtension;
+import org.springframework.test.util.ReflectionTestUtils;
+import org.springframework.transaction.support.TransactionSynchronization;
+import org.springframework.transaction.support.TransactionSynchronizationManager;
+
+import java.time.LocalDate;
+import java.time.LocalTime;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Optional;
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Future;
+import java.util.concurrent.TimeUnit;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.assertj.core.api.Assertions.assertThatThrownBy;
+import static org.mockito.Mockito.when;
+
+/**
+ * Comptabilité de la réserve d'urgence : une urgence annulée rend sa place, et la dernière place
+ * hors réserve ne peut être prise que par une seule réservation normale à la fois
+ */
+@ExtendWith(MockitoExtension.class)
+class AllocationUrgenceServiceTest {
+
+    private static final long ID_SERVICE = 7L;
+
+    @Mock
+    private IndexCreneauxService indexCreneaux;
+    @Mock
+    private RendezVousRepository rendezVousRepository;
+
+    private AllocationUrgenceService allocation;
+    private LocalDate date;
+
+    @BeforeEach
+    void preparer() {
+        allocation = new AllocationUrgenceService(indexCreneaux, rendezVousRepository);
+        ReflectionTestUtils.setField(allocation, "actif", true);
+        ReflectionTestUtils.setField(allocation, "part", 0.2);
+        ReflectionTestUtils.setField(allocation, "liberationHeures", 48L);
+        // Au-delà de la fenêtre de libération : la réserve est entière
+        date = LocalDate.now().plusDays(10);
+        // 10 créneaux dont 3 libres, réserve de 2 : une seule place pour les réservations normales
+        when(indexCreneaux.capaciteService(ID_SERVICE, date))
+                .thenReturn(Optional.of(new IndexCreneauxService.CapaciteJour(10, 3)));
+    }
+
+    @AfterEach
+    void nettoyer() {
+        if (TransactionSynchronizationManager.isSynchronizationActive()) {
+            TransactionSynchronizationManager.clearSynchronization();
+        }
+    }
+
+    @Test
+    void liberer_rendLaPlaceDUneUrgenceAnnulee() {
+        allocation.enregistrer(ID_SERVICE, date, RendezVous.NiveauUrgence.URGENT);
+        assertThat(capacite().getUrgencesReservees()).isEqualTo(1);
+        assertThat(capacite().getLibresPourNormaux()).isEqualTo(2);
+
+        allocation.liberer(urgence());
+        allocation.liberer(urgence());
+
+        assertThat(capacite().getUrgencesReservees()).isZero();
+        assertThat(capacite().getLibresPourNormaux()).isEqualTo(1);
+    }
+
+    @Test
+    void verifierAccessible_gardeLaPlaceJusquALaFinDeLaTransaction() {
+        TransactionSynchronizationManager.initSynchronization();
+        allocation.verifierAccessible(ID_SERVICE, date, LocalTime.of(9, 0), RendezVous.NiveauUrgence.NORMALE);
+
+        assertThatThrownBy(() -> allocation.verifierAccessible(ID_SERVICE, date, LocalTime.of(10, 0),
+                RendezVous.NiveauUrgence.NORMALE))
+                .isInstanceOf(CreneauIndisponibleException.class);
+        // Une urgence peut toujours prendre la réserve
+        allocation.verifierAccessible(ID_SERVICE, date, LocalTime.of(10, 0), RendezVous.NiveauUrgence.URGENT);
+
+        // Transaction annulée : la place est rendue
+        terminerTransaction(TransactionSynchronization.STATUS_ROLLED_BACK);
+        TransactionSynchronizationManager.initSynchronization();
+        allocation.verifierAccessible(ID_SERVICE, date, LocalTime.of(10, 0), RendezVous.NiveauUrgence.NORMALE);
+        terminerTransaction(TransactionSynchronization.STATUS_ROLLED_BACK);
+    }
+
+    @Test
+    void verifierAccessible_uneSeuleReservationConcurrentePrendLaDernierePlace() throws Exception {
+        int concurrents = 8;
+        ExecutorService executeur = Executors.newFixedThreadPool(concurrents);
+        CountDownLatch depart = new CountDownLatch(1);
+        CountDownLatch verifies = new CountDownLatch(concurrents);
+        try {
+            List<Future<Boolean>> resultats = new ArrayList<>();
+            for (int i = 0; i < concurrents; i++) {
+                resultats.add(executeur.submit(() -> {
+                    // Chaque fil tient sa transaction ouverte jusqu'à ce que tous aient vérifié
+                    TransactionSynchronizationManager.initSynchronization();
+                    try {
+                        depart.await();
+                        allocation.verifierAccessible(ID_SERVICE, date, LocalTime.of(9, 0),
+                                RendezVous.NiveauUrgence.NORMALE);
+                        return true;
+                    } catch (CreneauIndisponibleException e) {
+                        return false;
+                    } finally {
+                        verifies.countDown();
+                        verifies.await(10, TimeUnit.SECONDS);
+                        TransactionSynchronizationManager.clearSynchronization();
+                    }
+                }));
+            }
+            depart.countDown();
+
+            int acceptees = 0;
+            for (Future<Boolean> resultat : resultats) {
+                acceptees += resultat.get(10, TimeUnit.SECONDS) ? 1 : 0;
+            }
+            assertThat(acceptees).isEqualTo(1);
+        } finally {
+            executeur.shutdownNow();
+        }
+    }
+
+    private RendezVous urgence() {
+        return RendezVous.builder()
+                .service(Service.builder().idService(ID_SERVICE).build())
+                .dateHeure(date.atTime(9, 0))
+                .niveauUrgence(RendezVous.NiveauUrgence.URGENT)
+                .build();
+    }
+
+    private static void terminerTransaction(int statut) {
+        List<TransactionSynchronization> synchronisations = TransactionSynchronizationManager.getSynchronizations();
+        TransactionSynchronizationManager.clearSynchronization();
+        synchronisations.forEach(s -> s.afterCompletion(statut));
+    }
+
+    private CapaciteUrgenceDto capacite() {
+        return allocation.getCapacite(ID_SERVICE, date).orElseThrow();
+    }
+}
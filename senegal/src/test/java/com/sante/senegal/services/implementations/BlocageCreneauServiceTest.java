@@ -0,0 +1,48 @@
+package com.sante.senegal.services.implementations;
+
+import com.sante.senegal.exceptions.CreneauIndisponibleException;
+import org.junit.jupiter.api.Test;
+
+import java.time.Duration;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.assertj.core.api.Assertions.assertThatThrownBy;
+
+/**
+ * Un blocage appartient au patient qui l'a posé : les autres ne peuvent ni le prendre, ni réserver, ni le lever
+ */
+class BlocageCreneauServiceTest {
+
+    private final BlocageCreneauService blocages = new BlocageCreneauService();
+
+    @Test
+    void bloquer_refuseUnCreneauBloquePourUnAutrePatient() {
+        assertThat(blocages.bloquer(1L, 10L, Duration.ofMinutes(5))).isTrue();
+
+        assertThat(blocages.bloquer(1L, 20L, Duration.ofMinutes(5))).isFalse();
+        assertThatThrownBy(() -> blocages.verifierAccessible(1L, 20L))
+                .isInstanceOf(CreneauIndisponibleException.class);
+        blocages.verifierAccessible(1L, 10L);
+    }
+
+    @Test
+    void liberer_neLeveQueLeBlocageDuPatient() {
+        blocages.bloquer(1L, 10L, Duration.ofMinutes(5));
+
+        assertThat(blocages.liberer(1L, 20L)).isFalse();
+        assertThat(blocages.estBloque(1L)).isTrue();
+
+        assertThat(blocages.liberer(1L, 10L)).isTrue();
+        assertThat(blocages.estBloque(1L)).isFalse();
+        assertThat(blocages.liberer(1L, 20L)).isTrue();
+    }
+
+    @Test
+    void bloquer_reprendUnBlocageExpire() {
+        blocages.bloquer(1L, 10L, Duration.ofMillis(-1));
+
+        assertThat(blocages.estBloque(1L)).isFalse();
+        assertThat(blocages.bloquer(1L, 20L, Duration.ofMinutes(5))).isTrue();
+        assertThat(blocages.liberer(1L, 10L)).isFalse();
+    }
+}
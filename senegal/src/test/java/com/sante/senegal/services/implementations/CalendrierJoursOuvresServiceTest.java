@@ -0,0 +1,103 @@
+package com.sante.senegal.services.implementations;
+
+import com.sante.senegal.entities.Hopital;
+import com.sante.senegal.entities.JourFerie;
+import com.sante.senegal.repositories.HopitalRepository;
+import com.sante.senegal.repositories.JourFerieRepository;
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.extension.ExtendWith;
+import org.mockito.InjectMocks;
+import org.mockito.Mock;
+import org.mockito.junit.jupiter.MockitoExtension;
+import org.springframework.transaction.support.TransactionSynchronization;
+import org.springframework.transaction.support.TransactionSynchronizationManager;
+
+import java.time.LocalDate;
+import java.util.List;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.mockito.Mockito.*;
+
+/**
+ * Jours ouvrés servis depuis la mémoire : week-ends, fériés nationaux et régionaux selon la région
+ * de l'hôpital, hôpital fermé ; l'année n'est lue qu'une fois et rechargée après validation
+ */
+@ExtendWith(MockitoExtension.class)
+class CalendrierJoursOuvresServiceTest {
+
+    private static final long DAKAR = 1L;
+    private static final long THIES = 2L;
+    private static final long FERME = 3L;
+
+    private static final LocalDate INDEPENDANCE = LocalDate.of(2030, 4, 4);
+    private static final LocalDate FERIE_THIES = LocalDate.of(2030, 4, 5);
+    private static final LocalDate SAMEDI = LocalDate.of(2030, 4, 6);
+    private static final LocalDate LUNDI = LocalDate.of(2030, 4, 8);
+
+    @Mock
+    private JourFerieRepository jourFerieRepository;
+    @Mock
+    private HopitalRepository hopitalRepository;
+
+    @InjectMocks
+    private CalendrierJoursOuvresService calendrier;
+
+    @BeforeEach
+    void preparer() {
+        when(jourFerieRepository.findByAnnee(2030)).thenReturn(List.of(
+                jourFerie(INDEPENDANCE, JourFerie.TypeJourFerie.NATIONAL, null),
+                jourFerie(FERIE_THIES, JourFerie.TypeJourFerie.REGIONAL, "Thiès")));
+        when(hopitalRepository.findEtatsCalendrier()).thenReturn(List.of(
+                new Object[]{DAKAR, "Dakar", Hopital.StatutHopital.ACTIF},
+                new Object[]{THIES, " THIÈS ", Hopital.StatutHopital.ACTIF},
+                new Object[]{FERME, "Dakar", Hopital.StatutHopital.MAINTENANCE}));
+    }
+
+    @AfterEach
+    void nettoyer() {
+        if (TransactionSynchronizationManager.isSynchronizationActive()) {
+            TransactionSynchronizationManager.clearSynchronization();
+        }
+    }
+
+    @Test
+    void estOuvre_selonLaRegionEtLeStatutDeLHopital() {
+        assertThat(calendrier.estOuvre(LUNDI, DAKAR)).isTrue();
+        assertThat(calendrier.estOuvre(SAMEDI, DAKAR)).isFalse();
+        assertThat(calendrier.estOuvre(INDEPENDANCE, DAKAR)).isFalse();
+        assertThat(calendrier.estOuvre(INDEPENDANCE, THIES)).isFalse();
+        assertThat(calendrier.estOuvre(FERIE_THIES, DAKAR)).isTrue();
+        assertThat(calendrier.estOuvre(FERIE_THIES, THIES)).isFalse();
+        assertThat(calendrier.estOuvre(LUNDI, FERME)).isFalse();
+        assertThat(calendrier.estFerie(FERIE_THIES)).isTrue();
+
+        verify(jourFerieRepository, times(1)).findByAnnee(2030);
+        verify(hopitalRepository, times(1)).findEtatsCalendrier();
+    }
+
+    @Test
+    void recharger_remplaceLAnneeApresValidation() {
+        assertThat(calendrier.estOuvre(LUNDI, DAKAR)).isTrue();
+        when(jourFerieRepository.findByAnnee(2030)).thenReturn(List.of(
+                jourFerie(LUNDI, JourFerie.TypeJourFerie.NATIONAL, null)));
+
+        TransactionSynchronizationManager.initSynchronization();
+        calendrier.recharger(2030);
+        assertThat(calendrier.estOuvre(LUNDI, DAKAR)).isTrue();
+
+        List<TransactionSynchronization> synchronisations = TransactionSynchronizationManager.getSynchronizations();
+        TransactionSynchronizationManager.clearSynchronization();
+        synchronisations.forEach(TransactionSynchronization::afterCommit);
+
+        assertThat(calendrier.estOuvre(LUNDI, DAKAR)).isFalse();
+        assertThat(calendrier.estOuvre(INDEPENDANCE, DAKAR)).isTrue();
+    }
+
+    private static JourFerie jourFerie(LocalDate date, JourFerie.TypeJourFerie type, String region) {
+        return JourFerie.builder()
+                .date(date).nom("Férié").type(type).region(region).affecteDisponibilites(true)
+                .build();
+    }
+}
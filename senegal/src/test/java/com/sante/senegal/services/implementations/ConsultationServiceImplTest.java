@@ -0,0 +1,85 @@
+package com.sante.senegal.services.implementations;
+
+import com.sante.senegal.dto.ConsultationDto;
+import com.sante.senegal.entities.Consultation;
+import com.sante.senegal.entities.RendezVous;
+import com.sante.senegal.events.RendezVousModifieEvent;
+import com.sante.senegal.mappers.ConsultationMapper;
+import com.sante.senegal.repositories.ConsultationRepository;
+import com.sante.senegal.repositories.RendezVousRepository;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.extension.ExtendWith;
+import org.mockito.InjectMocks;
+import org.mockito.Mock;
+import org.mockito.junit.jupiter.MockitoExtension;
+import org.springframework.context.ApplicationEventPublisher;
+
+import java.util.Optional;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.mockito.ArgumentMatchers.any;
+import static org.mockito.Mockito.*;
+
+/**
+ * Un rendez-vous passé à TERMINE par sa consultation doit rafraîchir l'agenda du médecin
+ */
+@ExtendWith(MockitoExtension.class)
+class ConsultationServiceImplTest {
+
+    @Mock
+    private ConsultationRepository consultationRepository;
+    @Mock
+    private RendezVousRepository rendezVousRepository;
+    @Mock
+    private ConsultationMapper consultationMapper;
+    @Mock
+    private NotificationService notificationService;
+    @Mock
+    private ApplicationEventPublisher eventPublisher;
+
+    @InjectMocks
+    private ConsultationServiceImpl service;
+
+    private RendezVous rdv;
+    private Consultation consultation;
+
+    @BeforeEach
+    void preparer() {
+        rdv = RendezVous.builder().idRdv(40L).statut(RendezVous.StatutRendezVous.EN_COURS).build();
+        consultation = Consultation.builder().idConsultation(50L).rendezVous(rdv)
+                .statut(Consultation.StatutConsultation.EN_COURS).build();
+        when(consultationRepository.findById(50L)).thenReturn(Optional.of(consultation));
+        when(consultationRepository.save(any())).thenAnswer(invocation -> invocation.getArgument(0));
+    }
+
+    @Test
+    void terminerConsultation_publieLaModificationDuRendezVous() {
+        service.terminerConsultation(50L, 25);
+
+        assertThat(rdv.getStatut()).isEqualTo(RendezVous.StatutRendezVous.TERMINE);
+        verify(eventPublisher).publishEvent(new RendezVousModifieEvent(40L));
+    }
+
+    @Test
+    void mettreAJourConsultation_statutTermine_publieLaModificationDuRendezVous() {
+        ConsultationDto dto = new ConsultationDto();
+        dto.setStatut(Consultation.StatutConsultation.TERMINEE);
+
+        service.mettreAJourConsultation(50L, dto);
+
+        assertThat(rdv.getStatut()).isEqualTo(RendezVous.StatutRendezVous.TERMINE);
+        verify(eventPublisher).publishEvent(new RendezVousModifieEvent(40L));
+    }
+
+    @Test
+    void mettreAJourConsultation_sansChangementDeStatut_nePubliePas() {
+        ConsultationDto dto = new ConsultationDto();
+        dto.setDiagnostic("Hypertension");
+
+        service.mettreAJourConsultation(50L, dto);
+
+        assertThat(rdv.getStatut()).isEqualTo(RendezVous.StatutRendezVous.EN_COURS);
+        verifyNoInteractions(eventPublisher);
+    }
+}
@@ -0,0 +1,132 @@
+package com.sante.senegal.services.implementations;
+
+import com.icegreen.greenmail.configuration.GreenMailConfiguration;
+import com.icegreen.greenmail.junit5.GreenMailExtension;
+import com.icegreen.greenmail.util.ServerSetupTest;
+import com.sante.senegal.composants.TransportEmail;
+import com.sante.senegal.entities.EmailSortant;
+import com.sante.senegal.repositories.EmailSortantRepository;
+import jakarta.mail.internet.MimeMessage;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.extension.RegisterExtension;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.autoconfigure.orm.jpa.DataJpaTest;
+import org.springframework.boot.test.context.TestConfiguration;
+import org.springframework.context.annotation.Bean;
+import org.springframework.context.annotation.Import;
+import org.springframework.mail.javamail.JavaMailSenderImpl;
+import org.springframework.test.context.ActiveProfiles;
+import org.springframework.test.context.TestPropertySource;
+import org.springframework.transaction.PlatformTransactionManager;
+import org.springframework.transaction.annotation.Propagation;
+import org.springframework.transaction.annotation.Transactional;
+import org.springframework.transaction.support.TransactionTemplate;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+/**
+ * Boîte d'envoi de bout en bout contre un serveur SMTP GreenMail : l'e-mail suit la transaction métier,
+ * est remis une seule fois, et une remise en échec est retentée puis abandonnée.
+ * Les tests valident leurs propres transactions : la classe n'est pas transactionnelle.
+ */
+@DataJpaTest
+@ActiveProfiles("test")
+@Transactional(propagation = Propagation.NOT_SUPPORTED)
+@Import({BoiteEnvoiEmailsService.class, EnvoiEmailsService.class, TransportEmail.class,
+        EnvoiEmailsServiceTest.ServeurSmtpTest.class})
+@TestPropertySource(properties = {
+        "notification.outbox.delai-ms=3600000",
+        "notification.outbox.tentatives-max=2",
+        "notification.outbox.attente-initiale-secondes=0",
+        "notification.transport.sessions=1"
+})
+class EnvoiEmailsServiceTest {
+
+    @RegisterExtension
+    static GreenMailExtension greenMail = new GreenMailExtension(ServerSetupTest.SMTP)
+            .withConfiguration(GreenMailConfiguration.aConfig().withDisabledAuthentication());
+
+    @TestConfiguration
+    static class ServeurSmtpTest {
+        @Bean
+        JavaMailSenderImpl mailSender() {
+            JavaMailSenderImpl mailSender = new JavaMailSenderImpl();
+            mailSender.setHost(ServerSetupTest.SMTP.getBindAddress());
+            mailSender.setPort(ServerSetupTest.SMTP.getPort());
+            mailSender.setProtocol("smtp");
+            return mailSender;
+        }
+    }
+
+    @Autowired
+    private BoiteEnvoiEmailsService boiteEnvoi;
+
+    @Autowired
+    private EnvoiEmailsService envoiEmails;
+
+    @Autowired
+    private EmailSortantRepository emailSortantRepository;
+
+    @Autowired
+    private PlatformTransactionManager transactionManager;
+
+    private TransactionTemplate transaction;
+
+    @BeforeEach
+    void preparer() {
+        transaction = new TransactionTemplate(transactionManager);
+        emailSortantRepository.deleteAll();
+    }
+
+    @Test
+    void transactionAnnulee_aucunEmailNiEnvoi() {
+        transaction.executeWithoutResult(statut -> {
+            boiteEnvoi.deposer("moussa.fall@test.sn", "Rendez-vous confirmé", "À demain", false);
+            statut.setRollbackOnly();
+        });
+
+        envoiEmails.vider();
+
+        assertThat(emailSortantRepository.count()).isZero();
+        assertThat(greenMail.getReceivedMessages()).isEmpty();
+    }
+
+    @Test
+    void transactionValidee_emailRemisUneSeuleFois() throws Exception {
+        transaction.executeWithoutResult(statut ->
+                boiteEnvoi.deposer("moussa.fall@test.sn", "Rendez-vous confirmé", "À demain", false));
+
+        envoiEmails.vider();
+        envoiEmails.vider();
+
+        MimeMessage[] recus = greenMail.getReceivedMessages();
+        assertThat(recus).hasSize(1);
+        assertThat(recus[0].getSubject()).isEqualTo("Rendez-vous confirmé");
+        EmailSortant email = emailSortantRepository.findAll().get(0);
+        assertThat(email.getStatut()).isEqualTo(EmailSortant.StatutEmail.ENVOYE);
+        assertThat(email.getTentatives()).isEqualTo(1);
+        assertThat(email.getDateEnvoi()).isNotNull();
+    }
+
+    @Test
+    void echecDeRemise_retenteePuisAbandonnee() {
+        transaction.executeWithoutResult(statut ->
+                boiteEnvoi.deposer("moussa.fall@test.sn", "Rendez-vous confirmé", "À demain", false));
+        greenMail.stop();
+
+        envoiEmails.vider();
+
+        EmailSortant apresPremierEssai = emailSortantRepository.findAll().get(0);
+        assertThat(apresPremierEssai.getStatut()).isEqualTo(EmailSortant.StatutEmail.A_ENVOYER);
+        assertThat(apresPremierEssai.getTentatives()).isEqualTo(1);
+        assertThat(apresPremierEssai.getDerniereErreur()).isNotBlank();
+
+        envoiEmails.vider();
+
+        EmailSortant apresDeuxiemeEssai = emailSortantRepository.findAll().get(0);
+        assertThat(apresDeuxiemeEssai.getStatut()).isEqualTo(EmailSortant.StatutEmail.ECHEC);
+        assertThat(apresDeuxiemeEssai.getTentatives()).isEqualTo(2);
+        assertThat(apresDeuxiemeEssai.getDateEnvoi()).isNull();
+    }
+}
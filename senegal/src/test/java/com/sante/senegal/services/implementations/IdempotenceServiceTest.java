@@ -0,0 +1,91 @@
+package com.sante.senegal.services.implementations;
+
+import com.fasterxml.jackson.databind.ObjectMapper;
+import com.sante.senegal.exceptions.CleIdempotenceException;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.http.HttpStatus;
+import org.springframework.http.ResponseEntity;
+import org.springframework.test.util.ReflectionTestUtils;
+
+import java.time.LocalDateTime;
+import java.util.concurrent.atomic.AtomicInteger;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.assertj.core.api.Assertions.assertThatThrownBy;
+
+/**
+ * Un renvoi avec la même clé rejoue la réponse d'origine sans réexécuter l'opération ;
+ * une clé réutilisée pour une autre requête est refusée, un échec peut être retenté
+ */
+class IdempotenceServiceTest {
+
+    private final IdempotenceService idempotence = new IdempotenceService(new ObjectMapper().findAndRegisterModules());
+    private final AtomicInteger executions = new AtomicInteger();
+
+    @BeforeEach
+    void preparer() {
+        ReflectionTestUtils.setField(idempotence, "dureeRetentionMinutes", 60L);
+        ReflectionTestUtils.setField(idempotence, "nombreMaxCles", 100);
+    }
+
+    @Test
+    void executer_rejoueLaReponseDOrigine() {
+        LocalDateTime nouvelleDate = LocalDateTime.of(2030, 1, 15, 9, 0);
+
+        ResponseEntity<String> origine = idempotence.executer("PATCH /rendez-vous/1/reporter", "cle-1", nouvelleDate,
+                () -> ResponseEntity.ok("reporté " + executions.incrementAndGet()));
+        ResponseEntity<String> rejeu = idempotence.executer("PATCH /rendez-vous/1/reporter", "cle-1", nouvelleDate,
+                () -> ResponseEntity.ok("reporté " + executions.incrementAndGet()));
+
+        assertThat(executions).hasValue(1);
+        assertThat(rejeu.getBody()).isEqualTo(origine.getBody());
+        assertThat(rejeu.getHeaders().getFirst(IdempotenceService.ENTETE_REJOUE)).isEqualTo("true");
+        assertThat(origine.getHeaders().containsKey(IdempotenceService.ENTETE_REJOUE)).isFalse();
+    }
+
+    @Test
+    void executer_porteeParOperation() {
+        idempotence.executer("PATCH /rendez-vous/1/annuler", "cle-1", 1L,
+                () -> ResponseEntity.ok(executions.incrementAndGet()));
+        idempotence.executer("PATCH /rendez-vous/2/annuler", "cle-1", 2L,
+                () -> ResponseEntity.ok(executions.incrementAndGet()));
+
+        assertThat(executions).hasValue(2);
+    }
+
+    @Test
+    void executer_refuseUneCleReutiliseePourUneAutreRequete() {
+        idempotence.executer("PATCH /rendez-vous/1/reporter", "cle-1", LocalDateTime.of(2030, 1, 15, 9, 0),
+                () -> ResponseEntity.ok(executions.incrementAndGet()));
+
+        assertThatThrownBy(() -> idempotence.executer("PATCH /rendez-vous/1/reporter", "cle-1",
+                LocalDateTime.of(2030, 1, 16, 9, 0), () -> ResponseEntity.ok(executions.incrementAndGet())))
+                .isInstanceOf(CleIdempotenceException.class);
+        assertThat(executions).hasValue(1);
+    }
+
+    @Test
+    void executer_neMemorisePasUnEchec() {
+        assertThatThrownBy(() -> idempotence.executer("PATCH /rendez-vous/1/confirmer", "cle-1", 1L, () -> {
+            executions.incrementAndGet();
+            throw new IllegalStateException("indisponible");
+        })).isInstanceOf(IllegalStateException.class);
+        idempotence.executer("PATCH /rendez-vous/1/confirmer", "cle-1", 1L,
+                () -> ResponseEntity.status(HttpStatus.SERVICE_UNAVAILABLE).body(executions.incrementAndGet()));
+
+        ResponseEntity<Integer> reponse = idempotence.executer("PATCH /rendez-vous/1/confirmer", "cle-1", 1L,
+                () -> ResponseEntity.ok(executions.incrementAndGet()));
+
+        assertThat(reponse.getBody()).isEqualTo(3);
+        assertThat(reponse.getHeaders().containsKey(IdempotenceService.ENTETE_REJOUE)).isFalse();
+    }
+
+    @Test
+    void executer_sansCleExecuteAChaqueFois() {
+        idempotence.executer("PATCH /rendez-vous/1/annuler", null, 1L, () -> ResponseEntity.ok(executions.incrementAndGet()));
+        idempotence.executer("PATCH /rendez-vous/1/annuler", null, 1L, () -> ResponseEntity.ok(executions.incrementAndGet()));
+
+        assertThat(executions).hasValue(2);
+    }
+}
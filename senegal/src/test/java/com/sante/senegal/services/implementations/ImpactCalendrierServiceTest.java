@@ -0,0 +1,95 @@
+package com.sante.senegal.services.implementations;
+
+import com.sante.senegal.dto.ImpactCalendrierDto;
+import com.sante.senegal.entities.Planning;
+import com.sante.senegal.entities.RendezVous;
+import com.sante.senegal.repositories.PlanningRepository;
+import com.sante.senegal.repositories.RendezVousRepository;
+import com.sante.senegal.support.JeuDonnees;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.autoconfigure.orm.jpa.DataJpaTest;
+import org.springframework.boot.test.autoconfigure.orm.jpa.TestEntityManager;
+import org.springframework.boot.test.mock.mockito.MockBean;
+import org.springframework.context.annotation.Import;
+import org.springframework.test.context.ActiveProfiles;
+
+import java.time.LocalDate;
+import java.time.LocalTime;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+/**
+ * Un changement de calendrier ne touche que l'avenir : les créneaux déjà commencés aujourd'hui
+ * et les consultations en cours ou terminées restent intacts
+ */
+@DataJpaTest
+@ActiveProfiles("test")
+@Import(ImpactCalendrierService.class)
+class ImpactCalendrierServiceTest {
+
+    @Autowired
+    private ImpactCalendrierService impactCalendrier;
+
+    @Autowired
+    private PlanningRepository planningRepository;
+
+    @Autowired
+    private RendezVousRepository rendezVousRepository;
+
+    @Autowired
+    private TestEntityManager em;
+
+    @MockBean
+    private IndexCreneauxService indexCreneaux;
+
+    private JeuDonnees donnees;
+    private LocalDate aujourdhui;
+    private LocalDate demain;
+
+    @BeforeEach
+    void preparer() {
+        donnees = new JeuDonnees(em);
+        aujourdhui = LocalDate.now();
+        demain = aujourdhui.plusDays(1);
+    }
+
+    @Test
+    void appliquerAbsence_laisseLesCreneauxDejaCommencesAujourdhui() {
+        Planning passe = donnees.creneau(aujourdhui, LocalTime.MIN, null);
+        Planning aVenir = donnees.creneau(demain, LocalTime.of(8, 0), null);
+        donnees.valider();
+
+        ImpactCalendrierDto resume = impactCalendrier.appliquerAbsence(donnees.medecin.getId(), aujourdhui, demain, "Congé");
+
+        assertThat(resume.getCreneauxSupprimes()).isEqualTo(1);
+        assertThat(planningRepository.existsById(passe.getIdPlanning())).isTrue();
+        assertThat(planningRepository.existsById(aVenir.getIdPlanning())).isFalse();
+    }
+
+    @Test
+    void appliquerAbsence_neTouchePasAuxConsultationsEnCoursOuTerminees() {
+        RendezVous programme = donnees.rendezVous(demain.atTime(8, 0), RendezVous.StatutRendezVous.PROGRAMME);
+        RendezVous enCours = donnees.rendezVous(demain.atTime(8, 30), RendezVous.StatutRendezVous.EN_COURS);
+        RendezVous termine = donnees.rendezVous(demain.atTime(9, 0), RendezVous.StatutRendezVous.TERMINE);
+        donnees.creneau(demain, LocalTime.of(8, 0), programme);
+        Planning creneauEnCours = donnees.creneau(demain, LocalTime.of(8, 30), enCours);
+        Planning creneauTermine = donnees.creneau(demain, LocalTime.of(9, 0), termine);
+        donnees.valider();
+
+        ImpactCalendrierDto resume = impactCalendrier.appliquerAbsence(donnees.medecin.getId(), demain, demain, "Congé");
+
+        assertThat(resume.getRendezVousAnnules()).isEqualTo(1);
+        assertThat(resume.getCreneauxSupprimes()).isEqualTo(1);
+        assertThat(statut(programme)).isEqualTo(RendezVous.StatutRendezVous.ANNULE);
+        assertThat(statut(enCours)).isEqualTo(RendezVous.StatutRendezVous.EN_COURS);
+        assertThat(statut(termine)).isEqualTo(RendezVous.StatutRendezVous.TERMINE);
+        assertThat(planningRepository.existsById(creneauEnCours.getIdPlanning())).isTrue();
+        assertThat(planningRepository.existsById(creneauTermine.getIdPlanning())).isTrue();
+    }
+
+    private RendezVous.StatutRendezVous statut(RendezVous rendezVous) {
+        return rendezVousRepository.findById(rendezVous.getIdRdv()).orElseThrow().getStatut();
+    }
+}
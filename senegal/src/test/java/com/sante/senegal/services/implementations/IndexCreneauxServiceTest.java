@@ -0,0 +1,127 @@
+package com.sante.senegal.services.implementations;
+
+import com.sante.senegal.dto.CriteresCreneauDto;
+import com.sante.senegal.dto.PlanningDto;
+import com.sante.senegal.repositories.PlanningRepository;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.extension.ExtendWith;
+import org.mockito.Mock;
+import org.mockito.junit.jupiter.MockitoExtension;
+import org.springframework.data.domain.Pageable;
+import org.springframework.test.util.ReflectionTestUtils;
+
+import java.time.LocalDate;
+import java.time.LocalTime;
+import java.util.List;
+import java.util.Map;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.mockito.ArgumentMatchers.any;
+import static org.mockito.ArgumentMatchers.eq;
+import static org.mockito.ArgumentMatchers.isNull;
+import static org.mockito.Mockito.*;
+
+/**
+ * Recherche des premiers créneaux tous médecins confondus, rafraîchissement périodique limité
+ * aux prochains jours, et contextes repartant de zéro à chaque reconstruction
+ */
+@ExtendWith(MockitoExtension.class)
+class IndexCreneauxServiceTest {
+
+    @Mock
+    private PlanningRepository planningRepository;
+
+    private IndexCreneauxService index;
+    private LocalDate aujourdhui;
+    private LocalDate demain;
+    private LocalDate lointain;
+
+    @BeforeEach
+    void preparer() {
+        index = new IndexCreneauxService(planningRepository);
+        ReflectionTestUtils.setField(index, "actif", true);
+        ReflectionTestUtils.setField(index, "horizonJours", 90);
+        ReflectionTestUtils.setField(index, "rafraichissementJours", 7);
+        aujourdhui = LocalDate.now();
+        demain = aujourdhui.plusDays(1);
+        lointain = aujourdhui.plusDays(30);
+    }
+
+    @Test
+    void premiersCreneaux_retientLesMedecinsDuServiceEtLitLesJoursHorsGrilleEnBase() {
+        LocalDate apresDemain = demain.plusDays(1);
+        when(planningRepository.findProjectionsEntre(aujourdhui, aujourdhui.plusDays(90))).thenReturn(List.of(
+                creneau(1L, 1L, 2L, demain, LocalTime.of(9, 0)),
+                creneau(2L, 4L, 5L, demain, LocalTime.of(8, 0)),
+                creneau(3L, 1L, 2L, apresDemain, LocalTime.of(8, 0)),
+                creneau(4L, 1L, 2L, apresDemain, LocalTime.of(8, 7))));
+        when(planningRepository.findPremiersCreneauxLibres(eq(apresDemain), eq(LocalTime.MIN), eq(2L),
+                isNull(), isNull(), isNull(), isNull(), any(Pageable.class))).thenReturn(List.of(
+                creneau(3L, 1L, 2L, apresDemain, LocalTime.of(8, 0)),
+                creneau(4L, 1L, 2L, apresDemain, LocalTime.of(8, 7))));
+        index.reconstruire();
+
+        assertThat(index.premiersCreneaux(CriteresCreneauDto.builder().idService(2L).build(), 3).orElseThrow())
+                .extracting(PlanningDto::getIdPlanning).containsExactly(1L, 3L, 4L);
+    }
+
+    @Test
+    void rafraichirProchainsJours_substitueLesJoursProchesSansRelireLaFenetre() {
+        when(planningRepository.findProjectionsEntre(aujourdhui, aujourdhui.plusDays(90))).thenReturn(List.of(
+                creneau(1L, demain, LocalTime.of(9, 0), false, "Diop"),
+                creneau(2L, lointain, LocalTime.of(9, 0), false, "Diop")));
+        index.reconstruire();
+        when(planningRepository.findProjectionsEntre(aujourdhui, aujourdhui.plusDays(7))).thenReturn(List.of(
+                creneau(1L, demain, LocalTime.of(9, 0), true, "Diop"),
+                creneau(3L, demain, LocalTime.of(10, 0), false, "Diop")));
+
+        index.rafraichirProchainsJours();
+
+        assertThat(index.rechercher(null, null, null, demain, demain).orElseThrow())
+                .extracting(PlanningDto::getIdPlanning).containsExactly(3L);
+        assertThat(index.premiersCreneaux(new CriteresCreneauDto(), 5).orElseThrow())
+                .extracting(PlanningDto::getIdPlanning).containsExactly(3L, 2L);
+        verify(planningRepository, times(1)).findProjectionsEntre(aujourdhui, aujourdhui.plusDays(90));
+    }
+
+    @Test
+    void reconstruire_neConservePasLesContextesDesEtatsPrecedents() {
+        when(planningRepository.findProjectionsEntre(aujourdhui, aujourdhui.plusDays(90)))
+                .thenReturn(List.of(creneau(1L, demain, LocalTime.of(9, 0), false, "Diop")))
+                .thenReturn(List.of(creneau(1L, demain, LocalTime.of(9, 0), false, "Diop Ndiaye")));
+
+        index.reconstruire();
+        index.reconstruire();
+
+        assertThat(contextes()).hasSize(1);
+        assertThat(index.rechercher(null, null, null, demain, demain).orElseThrow())
+                .extracting(PlanningDto::getNomMedecin).containsExactly("Diop Ndiaye");
+    }
+
+    private Map<?, ?> contextes() {
+        Object etat = ReflectionTestUtils.getField(index, "etat");
+        return (Map<?, ?>) ReflectionTestUtils.getField(etat, "contextes");
+    }
+
+    private static PlanningDto creneau(Long idPlanning, Long idMedecin, Long idService, LocalDate date,
+                                       LocalTime heureDebut) {
+        return PlanningDto.builder()
+                .idPlanning(idPlanning)
+                .idMedecin(idMedecin).nomMedecin("Médecin " + idMedecin)
+                .idService(idService).idHopital(3L)
+                .date(date).heureDebut(heureDebut).heureFin(heureDebut.plusMinutes(30))
+                .build();
+    }
+
+    private static PlanningDto creneau(Long idPlanning, LocalDate date, LocalTime heureDebut, boolean reserve,
+                                       String nomMedecin) {
+        return PlanningDto.builder()
+                .idPlanning(idPlanning)
+                .idMedecin(1L).nomMedecin(nomMedecin)
+                .idService(2L).idHopital(3L)
+                .date(date).heureDebut(heureDebut).heureFin(heureDebut.plusMinutes(30))
+                .reserve(reserve)
+                .build();
+    }
+}
@@ -0,0 +1,122 @@
+package com.sante.senegal.services.implementations;
+
+import com.sante.senegal.dto.ListeAttenteRequestDto;
+import com.sante.senegal.entities.*;
+import com.sante.senegal.repositories.*;
+import com.sante.senegal.services.interfaces.EmailService;
+import com.sante.senegal.services.interfaces.PlanningService;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.extension.ExtendWith;
+import org.mockito.ArgumentCaptor;
+import org.mockito.InjectMocks;
+import org.mockito.Mock;
+import org.mockito.junit.jupiter.MockitoExtension;
+import org.springframework.context.ApplicationEventPublisher;
+
+import java.time.Duration;
+import java.time.LocalDate;
+import java.time.LocalTime;
+import java.util.List;
+import java.util.Optional;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.mockito.ArgumentMatchers.any;
+import static org.mockito.ArgumentMatchers.anyLong;
+import static org.mockito.ArgumentMatchers.eq;
+import static org.mockito.Mockito.*;
+
+/**
+ * Rang d'une inscription et attribution d'un créneau libéré : un créneau de la réserve d'urgence
+ * n'est proposé qu'à un candidat urgent
+ */
+@ExtendWith(MockitoExtension.class)
+class ListeAttenteServiceImplTest {
+
+    @Mock
+    private ListeAttenteRepository listeAttenteRepository;
+    @Mock
+    private PlanningRepository planningRepository;
+    @Mock
+    private PatientRepository patientRepository;
+    @Mock
+    private MedecinRepository medecinRepository;
+    @Mock
+    private ServiceRepository serviceRepository;
+    @Mock
+    private HopitalRepository hopitalRepository;
+    @Mock
+    private PlanningService planningService;
+    @Mock
+    private BlocageCreneauService blocageCreneaux;
+    @Mock
+    private AllocationUrgenceService allocationUrgence;
+    @Mock
+    private EmailService emailService;
+    @Mock
+    private ApplicationEventPublisher eventPublisher;
+
+    @InjectMocks
+    private ListeAttenteServiceImpl service;
+
+    @Test
+    void inscrire_classeLesUrgencesAvantLesInscriptionsNormales() {
+        when(patientRepository.findById(1L)).thenReturn(Optional.of(Patient.builder().id(1L).build()));
+        when(listeAttenteRepository.save(any())).thenAnswer(invocation -> invocation.getArgument(0));
+        when(serviceRepository.findById(3L)).thenReturn(Optional.of(com.sante.senegal.entities.Service.builder().idService(3L).build()));
+        ArgumentCaptor<ListeAttente> inscriptions = ArgumentCaptor.forClass(ListeAttente.class);
+
+        for (RendezVous.NiveauUrgence niveau : RendezVous.NiveauUrgence.values()) {
+            service.inscrire(demande(niveau));
+        }
+
+        verify(listeAttenteRepository, times(3)).save(inscriptions.capture());
+        assertThat(inscriptions.getAllValues()).extracting(ListeAttente::getPriorite).containsExactly(0, 1, 2);
+    }
+
+    @Test
+    void proposerCreneau_reserveLeCreneauDUrgenceAuCandidatUrgent() {
+        LocalDate demain = LocalDate.now().plusDays(1);
+        Planning planning = Planning.builder()
+                .idPlanning(5L).date(demain).heureDebut(LocalTime.of(9, 0)).heureFin(LocalTime.of(9, 30))
+                .medecin(Medecin.builder().id(2L).nom("Diop").prenom("Awa").build())
+                .service(com.sante.senegal.entities.Service.builder().idService(3L).build())
+                .hopital(Hopital.builder().idHopital(4L).build())
+                .build();
+        ListeAttente normal = candidat(10L, 100L, RendezVous.NiveauUrgence.NORMALE);
+        ListeAttente urgent = candidat(11L, 101L, RendezVous.NiveauUrgence.URGENT);
+        when(planningRepository.findById(5L)).thenReturn(Optional.of(planning));
+        when(listeAttenteRepository.findCandidats(eq(2L), eq(3L), eq(4L), eq(demain), eq(-1L), any()))
+                .thenReturn(List.of(normal, urgent));
+        when(allocationUrgence.estAccessible(3L, demain, LocalTime.of(9, 0), RendezVous.NiveauUrgence.NORMALE))
+                .thenReturn(false);
+        when(allocationUrgence.estAccessible(3L, demain, LocalTime.of(9, 0), RendezVous.NiveauUrgence.URGENT))
+                .thenReturn(true);
+        when(blocageCreneaux.bloquer(eq(5L), eq(101L), any(Duration.class))).thenReturn(true);
+        when(listeAttenteRepository.proposerSiEnAttente(eq(11L), eq(5L), any())).thenReturn(1);
+
+        service.proposerCreneau(5L, null);
+
+        verify(blocageCreneaux, never()).bloquer(eq(5L), eq(100L), any(Duration.class));
+        verify(listeAttenteRepository, never()).proposerSiEnAttente(eq(10L), anyLong(), any());
+        verify(listeAttenteRepository).proposerSiEnAttente(eq(11L), eq(5L), any());
+    }
+
+    private static ListeAttenteRequestDto demande(RendezVous.NiveauUrgence niveau) {
+        ListeAttenteRequestDto demande = new ListeAttenteRequestDto();
+        demande.setIdPatient(1L);
+        demande.setIdService(3L);
+        demande.setDateDebut(LocalDate.now());
+        demande.setDateFin(LocalDate.now().plusDays(7));
+        demande.setNiveauUrgence(niveau);
+        return demande;
+    }
+
+    private static ListeAttente candidat(Long idListeAttente, Long idPatient, RendezVous.NiveauUrgence niveau) {
+        return ListeAttente.builder()
+                .idListeAttente(idListeAttente)
+                .patient(Patient.builder().id(idPatient).build())
+                .niveauUrgence(niveau)
+                .statut(ListeAttente.StatutListeAttente.EN_ATTENTE)
+                .build();
+    }
+}
@@ -0,0 +1,83 @@
+package com.sante.senegal.services.implementations;
+
+import com.sante.senegal.dto.GenerationPlanningResultatDto;
+import com.sante.senegal.mappers.PlanningMapper;
+import com.sante.senegal.repositories.PlanningBatchRepository;
+import com.sante.senegal.repositories.PlanningRepository;
+import com.sante.senegal.support.JeuDonnees;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.autoconfigure.orm.jpa.DataJpaTest;
+import org.springframework.boot.test.autoconfigure.orm.jpa.TestEntityManager;
+import org.springframework.boot.test.mock.mockito.MockBean;
+import org.springframework.context.annotation.Import;
+import org.springframework.test.context.ActiveProfiles;
+
+import java.time.LocalDate;
+import java.time.LocalTime;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.mockito.ArgumentMatchers.any;
+import static org.mockito.ArgumentMatchers.anyLong;
+import static org.mockito.Mockito.when;
+
+/**
+ * Génération d'un mois de créneaux en un seul lot : les créneaux déjà présents sont conservés,
+ * seuls les trous des disponibilités sont comblés, et une seconde génération ne crée rien
+ */
+@DataJpaTest
+@ActiveProfiles("test")
+@Import({PlanningServiceImpl.class, PlanningBatchRepository.class, AllocationIntervallesService.class})
+class PlanningServiceImplGenerationTest {
+
+    @Autowired
+    private PlanningServiceImpl planningService;
+
+    @Autowired
+    private PlanningRepository planningRepository;
+
+    @Autowired
+    private TestEntityManager em;
+
+    @MockBean
+    private CalendrierJoursOuvresService calendrierJoursOuvres;
+    @MockBean
+    private PlanningMapper planningMapper;
+    @MockBean
+    private IndexCreneauxService indexCreneaux;
+    @MockBean
+    private BlocageCreneauService blocageCreneaux;
+    @MockBean
+    private AllocationUrgenceService allocationUrgence;
+
+    private JeuDonnees donnees;
+    private LocalDate demain;
+
+    @BeforeEach
+    void preparer() {
+        donnees = new JeuDonnees(em);
+        demain = LocalDate.now().plusDays(1);
+        when(calendrierJoursOuvres.estOuvre(any(), anyLong())).thenReturn(true);
+    }
+
+    @Test
+    void genererPlanningsPourUnMois_completeLesDisponibilitesSansDoublon() {
+        donnees.disponibilite(demain, LocalTime.of(8, 0), LocalTime.of(10, 0));
+        donnees.creneau(demain, LocalTime.of(8, 30), null);
+        donnees.valider();
+
+        GenerationPlanningResultatDto premier = planningService.genererPlanningsPourUnMois(
+                donnees.medecin.getId(), donnees.hopital.getIdHopital());
+        GenerationPlanningResultatDto second = planningService.genererPlanningsPourUnMois(
+                donnees.medecin.getId(), donnees.hopital.getIdHopital());
+
+        assertThat(premier.getCreneauxCrees()).isEqualTo(3);
+        assertThat(premier.getCreneauxExistants()).isEqualTo(1);
+        assertThat(second.getCreneauxCrees()).isZero();
+        assertThat(second.getCreneauxExistants()).isEqualTo(4);
+        assertThat(planningRepository.findJourMedecin(donnees.medecin.getId(), demain))
+                .extracting(p -> p.getHeureDebut() + "-" + p.getHeureFin())
+                .containsExactly("08:00-08:30", "08:30-09:00", "09:00-09:30", "09:30-10:00");
+    }
+}
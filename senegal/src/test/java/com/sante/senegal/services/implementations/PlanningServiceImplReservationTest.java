@@ -0,0 +1,128 @@
+package com.sante.senegal.services.implementations;
+
+import com.sante.senegal.dto.PlanningReservationRequestDto;
+import com.sante.senegal.entities.Planning;
+import com.sante.senegal.entities.RendezVous;
+import com.sante.senegal.exceptions.CreneauIndisponibleException;
+import com.sante.senegal.mappers.PlanningMapper;
+import com.sante.senegal.repositories.PlanningBatchRepository;
+import com.sante.senegal.repositories.PlanningRepository;
+import com.sante.senegal.repositories.RendezVousRepository;
+import com.sante.senegal.support.JeuDonnees;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.autoconfigure.orm.jpa.DataJpaTest;
+import org.springframework.boot.test.autoconfigure.orm.jpa.TestEntityManager;
+import org.springframework.boot.test.mock.mockito.MockBean;
+import org.springframework.context.annotation.Import;
+import org.springframework.test.context.ActiveProfiles;
+import org.springframework.transaction.PlatformTransactionManager;
+import org.springframework.transaction.annotation.Propagation;
+import org.springframework.transaction.annotation.Transactional;
+import org.springframework.transaction.support.TransactionTemplate;
+
+import java.time.LocalDate;
+import java.time.LocalTime;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Future;
+import java.util.concurrent.TimeUnit;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+/**
+ * Réservations simultanées du même créneau : une seule est validée, les autres reçoivent un conflit
+ * et leur rendez-vous est annulé avec leur transaction.
+ * Chaque réservation valide sa propre transaction : la classe n'est pas transactionnelle.
+ */
+@DataJpaTest
+@ActiveProfiles("test")
+@Transactional(propagation = Propagation.NOT_SUPPORTED)
+@Import({PlanningServiceImpl.class, AllocationIntervallesService.class})
+class PlanningServiceImplReservationTest {
+
+    @Autowired
+    private PlanningServiceImpl planningService;
+
+    @Autowired
+    private PlanningRepository planningRepository;
+
+    @Autowired
+    private RendezVousRepository rendezVousRepository;
+
+    @Autowired
+    private TestEntityManager em;
+
+    @Autowired
+    private PlatformTransactionManager transactionManager;
+
+    @MockBean
+    private CalendrierJoursOuvresService calendrierJoursOuvres;
+    @MockBean
+    private PlanningMapper planningMapper;
+    @MockBean
+    private IndexCreneauxService indexCreneaux;
+    @MockBean
+    private PlanningBatchRepository planningBatchRepository;
+    @MockBean
+    private BlocageCreneauService blocageCreneaux;
+    @MockBean
+    private AllocationUrgenceService allocationUrgence;
+
+    @Test
+    void reserverCreneau_uneSeuleReservationConcurrenteEstValidee() throws Exception {
+        TransactionTemplate transaction = new TransactionTemplate(transactionManager);
+        Object[] jeu = transaction.execute(statut -> {
+            JeuDonnees donnees = new JeuDonnees(em);
+            Planning creneau = donnees.creneau(LocalDate.now().plusDays(1), LocalTime.of(8, 0), null);
+            return new Object[]{donnees.patient.getId(), creneau.getIdPlanning()};
+        });
+        Long idPatient = (Long) jeu[0];
+        Long idPlanning = (Long) jeu[1];
+
+        int concurrents = 6;
+        ExecutorService executeur = Executors.newFixedThreadPool(concurrents);
+        CountDownLatch depart = new CountDownLatch(1);
+        try {
+            List<Future<Boolean>> resultats = new ArrayList<>();
+            for (int i = 0; i < concurrents; i++) {
+                resultats.add(executeur.submit(() -> {
+                    depart.await();
+                    try {
+                        planningService.reserverCreneau(demande(idPlanning, idPatient));
+                        return true;
+                    } catch (CreneauIndisponibleException e) {
+                        return false;
+                    }
+                }));
+            }
+            depart.countDown();
+
+            int acceptees = 0;
+            for (Future<Boolean> resultat : resultats) {
+                acceptees += resultat.get(30, TimeUnit.SECONDS) ? 1 : 0;
+            }
+            assertThat(acceptees).isEqualTo(1);
+        } finally {
+            executeur.shutdownNow();
+        }
+
+        List<RendezVous> rendezVous = rendezVousRepository.findAll();
+        assertThat(rendezVous).hasSize(1);
+        Planning reserve = planningRepository.findById(idPlanning).orElseThrow();
+        assertThat(reserve.isReserve()).isTrue();
+        assertThat(reserve.getRendezVous().getIdRdv()).isEqualTo(rendezVous.get(0).getIdRdv());
+    }
+
+    private static PlanningReservationRequestDto demande(Long idPlanning, Long idPatient) {
+        PlanningReservationRequestDto demande = new PlanningReservationRequestDto();
+        demande.setIdPlanning(idPlanning);
+        demande.setIdPatient(idPatient);
+        demande.setTypeConsultation(RendezVous.TypeConsultation.CONSULTATION_GENERALE);
+        demande.setMotif("Contrôle");
+        return demande;
+    }
+}
@@ -0,0 +1,132 @@
+package com.sante.senegal.services.implementations;
+
+import com.sante.senegal.entities.RappelRendezVous;
+import com.sante.senegal.repositories.RappelRendezVousRepository;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.autoconfigure.jdbc.AutoConfigureTestDatabase;
+import org.springframework.boot.test.autoconfigure.orm.jpa.DataJpaTest;
+import org.springframework.context.annotation.Import;
+import org.springframework.test.context.DynamicPropertyRegistry;
+import org.springframework.test.context.DynamicPropertySource;
+import org.springframework.transaction.PlatformTransactionManager;
+import org.springframework.transaction.annotation.Propagation;
+import org.springframework.transaction.annotation.Transactional;
+import org.springframework.transaction.support.TransactionTemplate;
+import org.testcontainers.containers.PostgreSQLContainer;
+import org.testcontainers.junit.jupiter.Container;
+import org.testcontainers.junit.jupiter.Testcontainers;
+
+import java.time.Duration;
+import java.time.LocalDateTime;
+import java.util.List;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.TimeUnit;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+/**
+ * Prise des rappels dus par lots : un lot en cours de prise par un envoyeur est sauté par les autres
+ * au lieu d'être attendu, un rappel sous bail n'est pas repris, un bail expiré l'est.
+ * Chaque envoyeur valide sa propre transaction : la classe n'est pas transactionnelle.
+ * SKIP LOCKED n'existe pas sous H2 : le test tourne sur PostgreSQL, schéma créé par Flyway. Ignoré sans Docker.
+ */
+@DataJpaTest
+@AutoConfigureTestDatabase(replace = AutoConfigureTestDatabase.Replace.NONE)
+@Testcontainers(disabledWithoutDocker = true)
+@Transactional(propagation = Propagation.NOT_SUPPORTED)
+@Import(RegistreRappelsService.class)
+class RegistreRappelsServiceTest {
+
+    private static final Duration BAIL = Duration.ofMinutes(5);
+
+    @Container
+    static PostgreSQLContainer<?> postgres = new PostgreSQLContainer<>("postgres:16-alpine");
+
+    @DynamicPropertySource
+    static void base(DynamicPropertyRegistry registry) {
+        registry.add("spring.datasource.url", postgres::getJdbcUrl);
+        registry.add("spring.datasource.username", postgres::getUsername);
+        registry.add("spring.datasource.password", postgres::getPassword);
+    }
+
+    @Autowired
+    private RegistreRappelsService registre;
+
+    @Autowired
+    private RappelRendezVousRepository rappelRepository;
+
+    @Autowired
+    private PlatformTransactionManager transactionManager;
+
+    private TransactionTemplate transaction;
+
+    @BeforeEach
+    void preparer() {
+        transaction = new TransactionTemplate(transactionManager);
+        rappelRepository.deleteAll();
+        for (long idRdv = 1; idRdv <= 4; idRdv++) {
+            rappelRepository.save(rappel(idRdv, RappelRendezVous.StatutRappel.A_ENVOYER, null));
+        }
+    }
+
+    @Test
+    void reserverLot_sauteLesRappelsVerrouillesParUnAutreEnvoyeur() throws Exception {
+        CountDownLatch lotPris = new CountDownLatch(1);
+        CountDownLatch terminer = new CountDownLatch(1);
+        CompletableFuture<List<RappelRendezVous>> premier = CompletableFuture.supplyAsync(() ->
+                transaction.execute(statut -> {
+                    List<RappelRendezVous> lot = registre.reserverLot(2, BAIL);
+                    lotPris.countDown();
+                    attendre(terminer);
+                    return lot;
+                }));
+        assertThat(lotPris.await(10, TimeUnit.SECONDS)).isTrue();
+
+        // Le premier envoyeur tient encore ses verrous : le second prend les autres lignes sans attendre
+        List<RappelRendezVous> second = CompletableFuture.supplyAsync(() -> registre.reserverLot(10, BAIL))
+                .get(10, TimeUnit.SECONDS);
+        terminer.countDown();
+
+        assertThat(premier.get(10, TimeUnit.SECONDS)).hasSize(2);
+        assertThat(second).hasSize(2);
+        assertThat(second).extracting(RappelRendezVous::getIdRdv)
+                .doesNotContainAnyElementsOf(premier.get().stream().map(RappelRendezVous::getIdRdv).toList());
+        assertThat(rappelRepository.findAll()).allMatch(r -> r.getStatut() == RappelRendezVous.StatutRappel.EN_COURS);
+    }
+
+    @Test
+    void reserverLot_reprendUnRappelDontLeBailAExpire() {
+        rappelRepository.deleteAll();
+        rappelRepository.save(rappel(1L, RappelRendezVous.StatutRappel.EN_COURS, LocalDateTime.now().plusMinutes(5)));
+        RappelRendezVous abandonne = rappelRepository.save(
+                rappel(2L, RappelRendezVous.StatutRappel.EN_COURS, LocalDateTime.now().minusMinutes(1)));
+
+        List<RappelRendezVous> lot = registre.reserverLot(10, BAIL);
+
+        assertThat(lot).extracting(RappelRendezVous::getIdRappel).containsExactly(abandonne.getIdRappel());
+        assertThat(lot.get(0).getTentatives()).isEqualTo(2);
+    }
+
+    private static RappelRendezVous rappel(Long idRdv, RappelRendezVous.StatutRappel statut, LocalDateTime bailJusqua) {
+        return RappelRendezVous.builder()
+                .idRdv(idRdv)
+                .typeRappel("1j")
+                .decalageMinutes(24 * 60)
+                .datePrevue(LocalDateTime.now().minusMinutes(10))
+                .statut(statut)
+                .tentatives(statut == RappelRendezVous.StatutRappel.EN_COURS ? 1 : 0)
+                .bailJusqua(bailJusqua)
+                .build();
+    }
+
+    private static void attendre(CountDownLatch signal) {
+        try {
+            signal.await(10, TimeUnit.SECONDS);
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+        }
+    }
+}
@@ -0,0 +1,166 @@
+package com.sante.senegal.services.implementations;
+
+import com.sante.senegal.dto.PageCurseurDto;
+import com.sante.senegal.dto.RendezVousDto;
+import com.sante.senegal.entities.RendezVous;
+import com.sante.senegal.mappers.RendezVousMapper;
+import com.sante.senegal.services.interfaces.DisponibiliteService;
+import com.sante.senegal.support.JeuDonnees;
+import jakarta.persistence.EntityManagerFactory;
+import jakarta.validation.ValidationException;
+import org.hibernate.SessionFactory;
+import org.hibernate.stat.Statistics;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.autoconfigure.orm.jpa.DataJpaTest;
+import org.springframework.boot.test.autoconfigure.orm.jpa.TestEntityManager;
+import org.springframework.boot.test.mock.mockito.MockBean;
+import org.springframework.context.annotation.Import;
+import org.springframework.test.context.ActiveProfiles;
+
+import java.time.LocalDateTime;
+import java.util.ArrayList;
+import java.util.Collection;
+import java.util.Comparator;
+import java.util.List;
+import java.util.function.Supplier;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.assertj.core.api.Assertions.assertThatThrownBy;
+
+/**
+ * Chaque lecture de liste ou de page de rendez-vous passe par la projection RendezVousDto : une seule requête SQL.
+ * Les pages par curseur s'enchaînent sans doublon ni trou, y compris entre rendez-vous à la même heure.
+ */
+@DataJpaTest
+@ActiveProfiles("test")
+@Import(RendezVousServiceImpl.class)
+class RendezVousServiceImplRequetesTest {
+
+    @Autowired
+    private RendezVousServiceImpl service;
+
+    @Autowired
+    private TestEntityManager em;
+
+    @Autowired
+    private EntityManagerFactory emf;
+
+    @MockBean
+    private DisponibiliteService disponibiliteService;
+    @MockBean
+    private RendezVousMapper rendezVousMapper;
+    @MockBean
+    private BlocageCreneauService blocageCreneauService;
+    @MockBean
+    private AllocationUrgenceService allocationUrgenceService;
+    @MockBean
+    private AllocationIntervallesService allocationIntervallesService;
+    @MockBean
+    private NotificationService notificationService;
+
+    private JeuDonnees donnees;
+    private LocalDateTime demain;
+
+    @BeforeEach
+    void preparer() {
+        donnees = new JeuDonnees(em);
+        demain = LocalDateTime.now().plusDays(1).withHour(9).withMinute(0).withSecond(0).withNano(0);
+        for (int i = 0; i < 5; i++) {
+            donnees.rendezVous(demain.plusMinutes(30L * i), RendezVous.StatutRendezVous.PROGRAMME);
+        }
+        donnees.rendezVous(LocalDateTime.now().minusDays(1), RendezVous.StatutRendezVous.PROGRAMME);
+        donnees.valider();
+    }
+
+    @Test
+    void listesEnUneRequete() {
+        Long idPatient = donnees.patient.getId();
+        Long idMedecin = donnees.medecin.getId();
+        Long idService = donnees.service.getIdService();
+        Long idHopital = donnees.hopital.getIdHopital();
+
+        verifierUneRequete(service::getAllRendezVous, 6);
+        verifierUneRequete(() -> service.getRendezVousByPatient(idPatient), 6);
+        verifierUneRequete(() -> service.getRendezVousByMedecin(idMedecin), 6);
+        verifierUneRequete(() -> service.getRendezVousByService(idService), 6);
+        verifierUneRequete(() -> service.getRendezVousByHopital(idHopital), 6);
+        verifierUneRequete(() -> service.getRendezVousByStatut(RendezVous.StatutRendezVous.PROGRAMME), 6);
+        verifierUneRequete(() -> service.getRendezVousByNiveauUrgence(RendezVous.NiveauUrgence.NORMALE), 6);
+        verifierUneRequete(() -> service.getRendezVousBetweenDates(demain, demain.plusHours(3)), 5);
+        verifierUneRequete(() -> service.getRendezVousDuJour(demain), 5);
+        verifierUneRequete(() -> service.getRendezVousByMedecinAndDateRange(idMedecin, demain, demain.plusHours(3)), 5);
+        verifierUneRequete(() -> service.getUpcomingRendezVousByPatient(idPatient), 6);
+        verifierUneRequete(() -> service.getUpcomingRendezVousByMedecin(idMedecin), 5);
+        verifierUneRequete(() -> service.getRendezVousProgrammesPourMedecin(idMedecin), 6);
+        verifierUneRequete(service::getOverdueRendezVous, 1);
+    }
+
+    @Test
+    void pagesEnUneRequete() {
+        Long idMedecin = donnees.medecin.getId();
+        Long idService = donnees.service.getIdService();
+        Long idHopital = donnees.hopital.getIdHopital();
+
+        verifierUneRequete(() -> service.getPageRendezVous(null, 4).getElements(), 4);
+        verifierUneRequete(() -> service.getPageRendezVousByStatut(RendezVous.StatutRendezVous.PROGRAMME, null, 4).getElements(), 4);
+        verifierUneRequete(() -> service.getPageRendezVousByHopital(idHopital, null, 4).getElements(), 4);
+        verifierUneRequete(() -> service.getPageRendezVousByService(idService, null, 4).getElements(), 4);
+        verifierUneRequete(() -> service.getPageRendezVousByMedecin(idMedecin, null, 4).getElements(), 4);
+    }
+
+    @Test
+    void pagesParCurseur_parcourentToutSansDoublonNiTrou() {
+        // Même date et heure que le premier rendez-vous : départagé par l'identifiant
+        donnees.rendezVous(demain, RendezVous.StatutRendezVous.PROGRAMME);
+        donnees.valider();
+
+        List<RendezVousDto> parcourus = new ArrayList<>();
+        String curseur = null;
+        PageCurseurDto<RendezVousDto> page;
+        do {
+            page = service.getPageRendezVous(curseur, 3);
+            parcourus.addAll(page.getElements());
+            curseur = page.getCurseurSuivant();
+        } while (page.isSuivante());
+
+        assertThat(parcourus).hasSize(7);
+        assertThat(parcourus).extracting(RendezVousDto::getIdRdv).doesNotHaveDuplicates();
+        assertThat(parcourus).isSortedAccordingTo(Comparator.comparing(RendezVousDto::getDateHeure)
+                .thenComparing(RendezVousDto::getIdRdv));
+        assertThat(page.getCurseurSuivant()).isNull();
+    }
+
+    @Test
+    void pageParCurseur_refuseUnCurseurInvalide() {
+        assertThatThrownBy(() -> service.getPageRendezVous("pas-un-curseur", 3))
+                .isInstanceOf(ValidationException.class);
+        assertThatThrownBy(() -> service.getPageRendezVous(null, 0))
+                .isInstanceOf(ValidationException.class);
+    }
+
+    @Test
+    void projectionRenseigneLesJointures() {
+        List<RendezVousDto> rdvs = service.getRendezVousByMedecin(donnees.medecin.getId());
+
+        assertThat(rdvs).allSatisfy(rdv -> {
+            assertThat(rdv.getPatientNomComplet()).isEqualTo("Moussa Fall");
+            assertThat(rdv.getMedecinNomComplet()).isEqualTo("Awa Diop");
+            assertThat(rdv.getServiceNom()).isEqualTo("Cardiologie");
+            assertThat(rdv.getHopitalNom()).isEqualTo("Hôpital Principal");
+            assertThat(rdv.getModePriseRdv()).isEqualTo("EN_LIGNE");
+        });
+    }
+
+    private void verifierUneRequete(Supplier<? extends Collection<?>> lecture, int attendus) {
+        Statistics statistiques = emf.unwrap(SessionFactory.class).getStatistics();
+        statistiques.clear();
+
+        Collection<?> resultat = lecture.get();
+
+        assertThat(resultat).hasSize(attendus);
+        assertThat(statistiques.getPrepareStatementCount()).isEqualTo(1);
+        em.clear();
+    }
+}
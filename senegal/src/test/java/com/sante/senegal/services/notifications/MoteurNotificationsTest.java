@@ -0,0 +1,173 @@
+package com.sante.senegal.services.notifications;
+
+import com.sante.senegal.dto.EtatCanalNotificationDto;
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.mock.env.MockEnvironment;
+import org.springframework.test.util.ReflectionTestUtils;
+
+import java.time.Duration;
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.List;
+import java.util.Set;
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.TimeUnit;
+import java.util.function.BooleanSupplier;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+/**
+ * Isolation des canaux, priorité de la voie urgente et rejet sur file pleine, avec le fournisseur SMS
+ * de développement (FournisseurSmsJournal) derrière une passerelle lente qu'on ouvre à la main
+ */
+class MoteurNotificationsTest {
+
+    private final FournisseurSmsJournal journal = new FournisseurSmsJournal();
+    private final PasserelleLente passerelle = new PasserelleLente(journal);
+    private final CanalEnregistreur canalEmail = new CanalEnregistreur(Notification.Canal.EMAIL);
+    private final CanalEnregistreur canalInApp = new CanalEnregistreur(Notification.Canal.IN_APP);
+    private MoteurNotifications moteur;
+
+    @AfterEach
+    void arreter() {
+        passerelle.ouvrir();
+        if (moteur != null) {
+            moteur.arreter();
+        }
+    }
+
+    @Test
+    void smsLent_neRetardePasEmailNiInApp() throws Exception {
+        moteur = moteur(1, 10);
+
+        moteur.publier(notification("Rappel", Notification.Priorite.NORMALE,
+                Notification.Canal.SMS, Notification.Canal.EMAIL, Notification.Canal.IN_APP));
+
+        assertThat(canalEmail.recues.await(2, TimeUnit.SECONDS)).isTrue();
+        assertThat(canalInApp.recues.await(2, TimeUnit.SECONDS)).isTrue();
+        assertThat(passerelle.appelee.await(2, TimeUnit.SECONDS)).isTrue();
+        assertThat(journal.getDerniers()).isEmpty();
+
+        passerelle.ouvrir();
+        attendre(() -> journal.getDerniers().size() == 1);
+        assertThat(journal.getDerniers()).containsExactly("+221770000000: Rappel");
+    }
+
+    @Test
+    void voieUrgente_videeEnPremier() throws Exception {
+        moteur = moteur(1, 10);
+        moteur.publier(notification("occupe", Notification.Priorite.NORMALE, Notification.Canal.SMS));
+        assertThat(passerelle.appelee.await(2, TimeUnit.SECONDS)).isTrue();
+
+        for (int i = 1; i <= 3; i++) {
+            moteur.publier(notification("normale-" + i, Notification.Priorite.NORMALE, Notification.Canal.SMS));
+        }
+        moteur.publier(notification("urgente", Notification.Priorite.URGENTE, Notification.Canal.SMS));
+        passerelle.ouvrir();
+
+        attendre(() -> journal.getDerniers().size() == 5);
+        List<String> ordre = new ArrayList<>(journal.getDerniers());
+        Collections.reverse(ordre);
+        assertThat(ordre).extracting(sms -> sms.substring(sms.indexOf(": ") + 2))
+                .containsExactly("occupe", "urgente", "normale-1", "normale-2", "normale-3");
+    }
+
+    @Test
+    void filePleine_rejeteEtCompteSansBloquer() throws Exception {
+        moteur = moteur(1, 2);
+        moteur.publier(notification("occupe", Notification.Priorite.NORMALE, Notification.Canal.SMS));
+        assertThat(passerelle.appelee.await(2, TimeUnit.SECONDS)).isTrue();
+
+        long debut = System.nanoTime();
+        for (int i = 1; i <= 4; i++) {
+            moteur.publier(notification("normale-" + i, Notification.Priorite.NORMALE, Notification.Canal.SMS));
+        }
+        moteur.publier(notification("urgente", Notification.Priorite.URGENTE, Notification.Canal.SMS));
+        Duration duree = Duration.ofNanos(System.nanoTime() - debut);
+
+        assertThat(duree).isLessThan(Duration.ofSeconds(1));
+        EtatCanalNotificationDto sms = etat(Notification.Canal.SMS);
+        assertThat(sms.getFileNormale()).isEqualTo(2);
+        assertThat(sms.getFileUrgente()).isEqualTo(1);
+        assertThat(sms.getRejetees()).isEqualTo(2);
+
+        passerelle.ouvrir();
+        attendre(() -> journal.getDerniers().size() == 4);
+        assertThat(etat(Notification.Canal.SMS).getEnvoyees()).isEqualTo(4);
+    }
+
+    private MoteurNotifications moteur(int workersSms, int capaciteSms) {
+        CanalSms canalSms = new CanalSms(passerelle);
+        ReflectionTestUtils.setField(canalSms, "actif", true);
+        MockEnvironment environment = new MockEnvironment()
+                .withProperty("notification.canaux.sms.workers", String.valueOf(workersSms))
+                .withProperty("notification.canaux.sms.capacite", String.valueOf(capaciteSms));
+        return new MoteurNotifications(List.of(canalSms, canalEmail, canalInApp), environment);
+    }
+
+    private EtatCanalNotificationDto etat(Notification.Canal canal) {
+        return moteur.getEtat().stream().filter(e -> e.getCanal().equals(canal.name())).findFirst().orElseThrow();
+    }
+
+    private static Notification notification(String message, Notification.Priorite priorite, Notification.Canal... canaux) {
+        return new Notification(20L, "moussa.fall@test.sn", "+221770000000", "Rendez-vous", message, priorite,
+                Set.of(canaux));
+    }
+
+    private static void attendre(BooleanSupplier condition) throws InterruptedException {
+        long limite = System.nanoTime() + TimeUnit.SECONDS.toNanos(5);
+        while (!condition.getAsBoolean()) {
+            assertThat(System.nanoTime()).as("délai d'attente dépassé").isLessThan(limite);
+            Thread.sleep(10);
+        }
+    }
+
+    /**
+     * Passerelle SMS qui retient chaque envoi jusqu'à son ouverture, puis remet au fournisseur journal
+     */
+    private static final class PasserelleLente implements FournisseurSms {
+        private final FournisseurSms fournisseur;
+        private final CountDownLatch ouverture = new CountDownLatch(1);
+        private final CountDownLatch appelee = new CountDownLatch(1);
+
+        private PasserelleLente(FournisseurSms fournisseur) {
+            this.fournisseur = fournisseur;
+        }
+
+        void ouvrir() {
+            ouverture.countDown();
+        }
+
+        @Override
+        public void envoyer(String telephone, String texte) {
+            appelee.countDown();
+            try {
+                ouverture.await();
+            } catch (InterruptedException e) {
+                Thread.currentThread().interrupt();
+                return;
+            }
+            fournisseur.envoyer(telephone, texte);
+        }
+    }
+
+    private static final class CanalEnregistreur implements CanalNotification {
+        private final Notification.Canal type;
+        private final CountDownLatch recues = new CountDownLatch(1);
+
+        private CanalEnregistreur(Notification.Canal type) {
+            this.type = type;
+        }
+
+        @Override
+        public Notification.Canal type() {
+            return type;
+        }
+
+        @Override
+        public void envoyer(Notification notification) {
+            recues.countDown();
+        }
+    }
+}
@@ -0,0 +1,74 @@
+package com.sante.senegal.support;
+
+import com.sante.senegal.entities.*;
+import org.springframework.boot.test.autoconfigure.orm.jpa.TestEntityManager;
+
+import java.time.LocalDate;
+import java.time.LocalDateTime;
+import java.time.LocalTime;
+
+/**
+ * Jeu de données minimal pour les tests JPA : un hôpital, un service, un médecin, un patient
+ */
+public class JeuDonnees {
+
+    private final TestEntityManager em;
+
+    public Hopital hopital;
+    public Service service;
+    public Medecin medecin;
+    public Patient patient;
+
+    public JeuDonnees(TestEntityManager em) {
+        this.em = em;
+        hopital = em.persist(Hopital.builder()
+                .nom("Hôpital Principal").adresse("Avenue Nelson Mandela").ville("Dakar").region("Dakar")
+                .statut(Hopital.StatutHopital.ACTIF).build());
+        service = em.persist(Service.builder()
+                .nom("Cardiologie").hopital(hopital).statut(Service.StatutService.ACTIF).build());
+        medecin = em.persist(Medecin.builder()
+                .nom("Diop").prenom("Awa").email("awa.diop@test.sn").motDePasse("motdepasse")
+                .type(Utilisateur.TypeUtilisateur.MEDECIN).statut(Utilisateur.StatutUtilisateur.ACTIF)
+                .specialite("Cardiologie").service(service).build());
+        patient = em.persist(Patient.builder()
+                .nom("Fall").prenom("Moussa").email("moussa.fall@test.sn").motDePasse("motdepasse")
+                .type(Utilisateur.TypeUtilisateur.PATIENT).statut(Utilisateur.StatutUtilisateur.ACTIF).build());
+    }
+
+    public RendezVous rendezVous(LocalDateTime dateHeure, RendezVous.StatutRendezVous statut) {
+        return em.persist(RendezVous.builder()
+                .patient(patient).medecin(medecin).service(service).hopital(hopital)
+                .dateHeure(dateHeure).dureePrevue(30)
+                .typeConsultation(RendezVous.TypeConsultation.CONSULTATION_GENERALE)
+                .niveauUrgence(RendezVous.NiveauUrgence.NORMALE)
+                .statut(statut)
+                .modePriseRdv(RendezVous.ModePriseRdv.EN_LIGNE)
+                .build());
+    }
+
+    public Planning creneau(LocalDate date, LocalTime heureDebut, RendezVous rendezVous) {
+        return em.persist(Planning.builder()
+                .medecin(medecin).service(service).hopital(hopital)
+                .date(date).heureDebut(heureDebut).heureFin(heureDebut.plusMinutes(30))
+                .reserve(rendezVous != null).rendezVous(rendezVous)
+                .build());
+    }
+
+    public Disponibilite disponibilite(LocalDate date, LocalTime heureDebut, LocalTime heureFin) {
+        return em.persist(Disponibilite.builder()
+                .medecin(medecin).service(service).hopital(hopital)
+                .date(date).jourSemaine(date.getDayOfWeek())
+                .heureDebut(heureDebut).heureFin(heureFin)
+                .statut(Disponibilite.StatutDisponibilite.DISPONIBLE)
+                .recurrence(Disponibilite.Recurrence.PONCTUELLE)
+                .build());
+    }
+
+    /**
+     * Écrit tout en base et vide le contexte de persistance : les lectures suivantes repartent de la base
+     */
+    public void valider() {
+        em.flush();
+        em.clear();
+    }
+}